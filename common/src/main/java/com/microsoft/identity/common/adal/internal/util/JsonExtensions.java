@@ -30,6 +30,7 @@ import com.google.gson.reflect.TypeToken;
 import com.microsoft.identity.common.internal.broker.BrokerResult;
 import com.microsoft.identity.common.internal.util.ICacheRecordGsonAdapter;
 import com.microsoft.identity.common.java.cache.ICacheRecord;
+import com.microsoft.identity.common.java.util.GsonRegistry;
 
 import java.lang.reflect.Type;
 import java.util.List;
@@ -39,6 +40,10 @@ import java.util.List;
  */
 public final class JsonExtensions {
 
+    private static final Gson CACHE_RECORD_GSON = new GsonBuilder()
+            .registerTypeAdapter(ICacheRecord.class, new ICacheRecordGsonAdapter())
+            .create();
+
     private JsonExtensions() {
         // Utility class.
     }
@@ -50,11 +55,8 @@ public final class JsonExtensions {
      * @return List
      */
     public static List<ICacheRecord> getICacheRecordListFromJsonString(String accountJson) {
-        GsonBuilder builder = new GsonBuilder();
-        builder.registerTypeAdapter(ICacheRecord.class, new ICacheRecordGsonAdapter());
-
         final Type listOfCacheRecords = TypeToken.getParameterized(List.class, ICacheRecord.class).getType();
-        return builder.create().fromJson(accountJson, listOfCacheRecords);
+        return CACHE_RECORD_GSON.fromJson(accountJson, listOfCacheRecords);
     }
 
     /**
@@ -65,7 +67,7 @@ public final class JsonExtensions {
      */
     public static String getJsonStringFromICacheRecordList(List<ICacheRecord> cacheRecords) {
         final Type listOfCacheRecords = TypeToken.getParameterized(List.class, ICacheRecord.class).getType();
-        return new Gson().toJson(cacheRecords, listOfCacheRecords);
+        return GsonRegistry.DEFAULT.toJson(cacheRecords, listOfCacheRecords);
     }
 
     /**
@@ -75,12 +77,6 @@ public final class JsonExtensions {
      * @return BrokerResult
      */
     public static BrokerResult getBrokerResultFromJsonString(@NonNull final String jsonString) {
-        return new GsonBuilder()
-                .registerTypeAdapter(ICacheRecord.class, new ICacheRecordGsonAdapter())
-                .create()
-                .fromJson(
-                        jsonString,
-                        BrokerResult.class
-                );
+        return CACHE_RECORD_GSON.fromJson(jsonString, BrokerResult.class);
     }
 }
@@ -30,6 +30,7 @@ import androidx.annotation.NonNull;
 import com.google.gson.Gson;
 import com.microsoft.identity.common.java.cache.IListTypeToken;
 import com.microsoft.identity.common.java.cache.ISimpleCache;
+import com.microsoft.identity.common.java.util.GsonRegistry;
 import com.microsoft.identity.common.logging.Logger;
 
 import java.lang.reflect.Type;
@@ -53,7 +54,7 @@ public abstract class SharedPreferencesSimpleCacheImpl<T> implements ISimpleCach
 
     private final SharedPreferences mSharedPrefs;
     private final String mKeySingleEntry;
-    private final Gson mGson = new Gson();
+    private final Gson mGson = GsonRegistry.DEFAULT;
 
     public SharedPreferencesSimpleCacheImpl(@NonNull final Context context,
                                             @NonNull final String prefsName,
@@ -0,0 +1,131 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.internal.commands;
+
+import androidx.annotation.NonNull;
+
+import com.microsoft.identity.common.java.commands.BaseCommand;
+import com.microsoft.identity.common.java.commands.CommandCallback;
+import com.microsoft.identity.common.java.commands.parameters.GenerateShrBatchCommandParameters;
+import com.microsoft.identity.common.java.controllers.BaseController;
+import com.microsoft.identity.common.java.controllers.IControllerFactory;
+import com.microsoft.identity.common.java.exception.BaseException;
+import com.microsoft.identity.common.java.exception.ClientException;
+import com.microsoft.identity.common.java.exception.UiRequiredException;
+import com.microsoft.identity.common.java.logging.Logger;
+import com.microsoft.identity.common.java.result.GenerateShrBatchResult;
+
+import java.util.List;
+
+import lombok.EqualsAndHashCode;
+import lombok.experimental.Accessors;
+import lombok.experimental.SuperBuilder;
+
+import static com.microsoft.identity.common.java.exception.ErrorStrings.NO_ACCOUNT_FOUND;
+
+/**
+ * Command class to perform generation of several AT-less SHRs on behalf of a user, signing them
+ * with a single load of the PoP key. Controller selection matches {@link GenerateShrCommand}.
+ */
+@SuperBuilder()
+@Accessors(prefix = "m")
+@EqualsAndHashCode(callSuper = true)
+public class GenerateShrBatchCommand extends BaseCommand<GenerateShrBatchResult> {
+
+    private static final String TAG = GenerateShrBatchCommand.class.getSimpleName();
+
+    /**
+     * Constructs a new GenerateShrBatchCommand.
+     *
+     * @param parameters  The command's input parameters.
+     * @param controllers The controllers on which to run this command.
+     * @param callback    The command to notify once execution has completed.
+     * @param publicApiId The public API ID of this command.
+     */
+    public GenerateShrBatchCommand(@NonNull final GenerateShrBatchCommandParameters parameters,
+                                   @NonNull final IControllerFactory controllerFactory,
+                                   @NonNull final CommandCallback<GenerateShrBatchResult, BaseException> callback,
+                                   @NonNull final String publicApiId) {
+        super(parameters, controllerFactory, callback, publicApiId);
+    }
+
+    @Override
+    public GenerateShrBatchResult execute() throws Exception {
+        final String methodTag = TAG + ":execute";
+
+        GenerateShrBatchResult result = null;
+        final GenerateShrBatchCommandParameters parameters = (GenerateShrBatchCommandParameters) getParameters();
+
+        final List<BaseController> controllers = getControllerFactory().getAllControllers();
+
+        // Iterate over our controllers, to service the request either locally or via the broker...
+        // If the broker cache contains tokens for the supplied user, we will sign using
+        // broker PoP keys. If not, check if local user-state exists.
+        BaseController controller;
+        for (int ii = 0; ii < controllers.size(); ii++) {
+            controller = controllers.get(ii);
+
+            Logger.verbose(
+                    methodTag,
+                    "Executing with controller: "
+                            + controller.getClass().getSimpleName()
+            );
+
+            result = controller.generateSignedHttpRequests(parameters);
+
+            if (null != result.getErrorCode()) {
+                final String errorCode = result.getErrorCode();
+                final String errorMessage = result.getErrorMessage();
+
+                // Errors are returned as properties of the result, as in GenerateShrCommand
+                if (NO_ACCOUNT_FOUND.equalsIgnoreCase(errorCode)) {
+                    if (controllers.size() > ii + 1) {
+                        // Try our next controller
+                        continue;
+                    } else {
+                        throw new UiRequiredException(errorCode, errorMessage);
+                    }
+                } else {
+                    throw new ClientException(errorCode, errorMessage);
+                }
+            } else {
+                Logger.verbose(
+                        methodTag,
+                        "Executing with controller: "
+                                + controller.getClass().getSimpleName()
+                                + ": Succeeded"
+                );
+
+                return result;
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public boolean isEligibleForEstsTelemetry() {
+        // There is no web service interaction in this flow.
+        return false;
+    }
+}
@@ -0,0 +1,86 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.commands;
+
+import androidx.annotation.NonNull;
+
+import com.microsoft.identity.common.java.commands.BaseCommand;
+import com.microsoft.identity.common.java.commands.parameters.SilentTokenCommandParameters;
+import com.microsoft.identity.common.java.controllers.BaseController;
+import com.microsoft.identity.common.java.controllers.ExceptionAdapter;
+import com.microsoft.identity.common.java.controllers.IControllerFactory;
+import com.microsoft.identity.common.java.exception.ClientException;
+import com.microsoft.identity.common.java.exception.ServiceException;
+import com.microsoft.identity.common.java.providers.oauth2.TokenResult;
+import com.microsoft.identity.common.java.result.VoidResult;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.io.IOException;
+
+/**
+ * Renews an access token on behalf of the
+ * {@link com.microsoft.identity.common.java.controllers.ProactiveTokenRefreshScheduler}.
+ * <p>
+ * Unlike {@link RefreshOnCommand}, a failed renewal is thrown as a {@link ServiceException},
+ * so that the scheduler can tell a throttled refresh apart from a successful one.
+ */
+public class ProactiveRefreshCommand extends BaseCommand<VoidResult> {
+
+    private static final String TAG = ProactiveRefreshCommand.class.getSimpleName();
+
+    public ProactiveRefreshCommand(@NonNull final SilentTokenCommandParameters parameters,
+                                   @NonNull final IControllerFactory controllerFactory,
+                                   @NonNull final String publicApiId) {
+        super(parameters, controllerFactory, new RefreshOnCallback(), publicApiId);
+    }
+
+    @Override
+    public VoidResult execute() throws IOException, ClientException, ServiceException {
+        final String methodTag = TAG + ":execute";
+
+        final BaseController controller = getControllerFactory().getDefaultController();
+        Logger.verbose(
+                methodTag,
+                "Executing with controller: "
+                        + controller.getClass().getSimpleName()
+        );
+        final SilentTokenCommandParameters commandParameters = (SilentTokenCommandParameters) getParameters();
+        final TokenResult result = controller.renewAccessToken(commandParameters);
+
+        if (!result.getSuccess()) {
+            throw ExceptionAdapter.exceptionFromTokenResult(result, commandParameters);
+        }
+
+        return new VoidResult();
+    }
+
+    @Override
+    public boolean isEligibleForEstsTelemetry() {
+        return false;
+    }
+
+    @Override
+    public boolean isEligibleForCaching() {
+        return false;
+    }
+}
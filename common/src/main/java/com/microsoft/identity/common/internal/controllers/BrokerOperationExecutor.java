@@ -40,6 +40,7 @@ import com.microsoft.identity.common.java.marker.CodeMarkerManager;
 import com.microsoft.identity.common.java.marker.PerfConstants;
 import com.microsoft.identity.common.java.opentelemetry.AttributeName;
 import com.microsoft.identity.common.java.opentelemetry.OTelUtility;
+import com.microsoft.identity.common.java.opentelemetry.SdkMetrics;
 import com.microsoft.identity.common.java.opentelemetry.SpanExtension;
 import com.microsoft.identity.common.java.opentelemetry.SpanName;
 import com.microsoft.identity.common.java.util.StringUtil;
@@ -227,6 +228,8 @@ public class BrokerOperationExecutor {
         );
 
         final Span span = OTelUtility.createSpan(SpanName.MSAL_PerformIpcStrategy.name());
+        final long startNanos = System.nanoTime();
+        boolean succeeded = false;
 
         try (final Scope scope = SpanExtension.makeCurrentSpan(span)) {
             span.setAttribute(AttributeName.ipc_strategy.name(), strategy.getType().name());
@@ -238,13 +241,17 @@ public class BrokerOperationExecutor {
             mCacheUpdaterManager.updateCachedActiveBrokerFromResultBundle(resultBundle);
 
             span.setStatus(StatusCode.OK);
-            return operation.extractResultBundle(resultBundle);
+            final T result = operation.extractResultBundle(resultBundle);
+            succeeded = true;
+            return result;
             // TODO: Emit success rate and performance of each strategy to eSTS in a finally block.
         } catch (final Throwable throwable) {
             span.setStatus(StatusCode.ERROR);
             span.recordException(throwable);
             throw throwable;
         } finally {
+            SdkMetrics.recordIpcCall(strategy.getType().name(), operation.getMethodName(),
+                    succeeded, System.nanoTime() - startNanos);
             span.end();
         }
     }
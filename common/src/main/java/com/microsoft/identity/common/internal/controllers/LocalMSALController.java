@@ -28,6 +28,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.WorkerThread;
 
 import com.microsoft.identity.common.internal.broker.BrokerData;
+import com.microsoft.identity.common.internal.commands.ProactiveRefreshCommand;
 import com.microsoft.identity.common.internal.commands.RefreshOnCommand;
 import com.microsoft.identity.common.internal.telemetry.Telemetry;
 import com.microsoft.identity.common.internal.telemetry.events.ApiEndEvent;
@@ -39,6 +40,7 @@ import com.microsoft.identity.common.java.authscheme.IPoPAuthenticationSchemePar
 import com.microsoft.identity.common.java.cache.ICacheRecord;
 import com.microsoft.identity.common.java.commands.parameters.CommandParameters;
 import com.microsoft.identity.common.java.commands.parameters.DeviceCodeFlowCommandParameters;
+import com.microsoft.identity.common.java.commands.parameters.GenerateShrBatchCommandParameters;
 import com.microsoft.identity.common.java.commands.parameters.GenerateShrCommandParameters;
 import com.microsoft.identity.common.java.commands.parameters.InteractiveTokenCommandParameters;
 import com.microsoft.identity.common.java.commands.parameters.RemoveAccountCommandParameters;
@@ -46,6 +48,9 @@ import com.microsoft.identity.common.java.commands.parameters.SilentTokenCommand
 import com.microsoft.identity.common.java.configuration.LibraryConfiguration;
 import com.microsoft.identity.common.java.controllers.BaseController;
 import com.microsoft.identity.common.java.controllers.CommandDispatcher;
+import com.microsoft.identity.common.java.controllers.CommandResult;
+import com.microsoft.identity.common.java.controllers.ProactiveTokenRefreshScheduler;
+import com.microsoft.identity.common.java.dto.AccessTokenRecord;
 import com.microsoft.identity.common.java.dto.AccountRecord;
 import com.microsoft.identity.common.java.eststelemetry.PublicApiId;
 import com.microsoft.identity.common.java.exception.ArgumentException;
@@ -56,6 +61,7 @@ import com.microsoft.identity.common.java.exception.ServiceException;
 import com.microsoft.identity.common.java.exception.UiRequiredException;
 import com.microsoft.identity.common.java.platform.DevicePoPUtils;
 import com.microsoft.identity.common.java.result.AcquireTokenResult;
+import com.microsoft.identity.common.java.result.GenerateShrBatchResult;
 import com.microsoft.identity.common.java.result.GenerateShrResult;
 import com.microsoft.identity.common.java.result.LocalAuthenticationResult;
 import com.microsoft.identity.common.java.ui.PreferredAuthMethod;
@@ -424,6 +430,9 @@ public class LocalMSALController extends BaseController {
                     "Returning silent result"
             );
             setAcquireTokenResult(acquireTokenSilentResult, parametersWithScopes, cacheRecords);
+            if (LibraryConfiguration.getInstance().isProactiveRefreshEnabled()) {
+                trackForProactiveRefresh(parameters, fullCacheRecord.getAccessToken());
+            }
         }
 
         Telemetry.emit(
@@ -435,6 +444,35 @@ public class LocalMSALController extends BaseController {
         return acquireTokenSilentResult;
     }
 
+    /**
+     * Schedules a background refresh of the served access token ahead of its expiry,
+     * so that the next silent request for it does not have to go to the network.
+     */
+    private void trackForProactiveRefresh(@NonNull final SilentTokenCommandParameters parameters,
+                                          @NonNull final AccessTokenRecord accessToken) {
+        ProactiveTokenRefreshScheduler.getInstance().track(
+                accessToken,
+                new ProactiveTokenRefreshScheduler.IRefreshTask() {
+                    @Override
+                    @SuppressWarnings(WarningType.rawtype_warning)
+                    public ResultFuture<CommandResult> start() {
+                        // Each refresh is a request of its own, with its own correlation id.
+                        final SilentTokenCommandParameters refreshParameters = parameters
+                                .toBuilder()
+                                .correlationId(null)
+                                .build();
+                        return CommandDispatcher.submitAndForgetReturningFuture(
+                                new ProactiveRefreshCommand(
+                                        refreshParameters,
+                                        LocalMSALController.this.asControllerFactory(),
+                                        PublicApiId.MSAL_REFRESH_ON
+                                )
+                        );
+                    }
+                }
+        );
+    }
+
     private void setAcquireTokenResult(final AcquireTokenResult acquireTokenSilentResult,
                                        final SilentTokenCommandParameters parametersWithScopes,
                                        final List<ICacheRecord> cacheRecords) throws ClientException {
@@ -805,6 +843,31 @@ public class LocalMSALController extends BaseController {
         return result;
     }
 
+    @Override
+    public GenerateShrBatchResult generateSignedHttpRequests(
+            @NonNull final GenerateShrBatchCommandParameters parameters) throws Exception {
+        final OAuth2TokenCache cache = parameters.getOAuth2TokenCache();
+        final String clientId = parameters.getClientId();
+        final String homeAccountId = parameters.getHomeAccountId();
+
+        final GenerateShrBatchResult result;
+        if (userHasLocalAccountRecord(cache, clientId, homeAccountId)) {
+            // Perform the signing locally, sharing the key across the batch...
+            result = DevicePoPUtils.generateSignedHttpRequests(
+                    parameters.getPlatformComponents(),
+                    parameters.getBatchPopParameters(),
+                    parameters.isParallel()
+            );
+        } else {
+            // Populate the error on the result and return...
+            result = new GenerateShrBatchResult();
+            result.setErrorCode(GenerateShrResult.Errors.NO_ACCOUNT_FOUND);
+            result.setErrorMessage("Account does not exist.");
+        }
+
+        return result;
+    }
+
     /**
      * Checks if the local cache contains an {@link AccountRecord} for the supplied input.
      *
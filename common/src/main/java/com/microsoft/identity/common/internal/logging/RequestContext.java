@@ -23,6 +23,7 @@
 package com.microsoft.identity.common.internal.logging;
 
 import com.google.gson.Gson;
+import com.microsoft.identity.common.java.util.GsonRegistry;
 import com.microsoft.identity.common.logging.Logger;
 
 import java.util.HashMap;
@@ -39,7 +40,7 @@ public class RequestContext extends HashMap<String, String> implements IRequestC
 
     private static final String TAG = RequestContext.class.getSimpleName();
 
-    private static final Gson mGson = new Gson();
+    private static final Gson mGson = GsonRegistry.DEFAULT;
 
     private static boolean sLogDeprecationWarning = true;
 
@@ -43,6 +43,7 @@ import com.microsoft.identity.common.java.providers.microsoft.azureactivedirecto
 import com.microsoft.identity.common.java.providers.microsoft.azureactivedirectory.AzureActiveDirectoryAccount;
 import com.microsoft.identity.common.java.providers.microsoft.azureactivedirectory.ClientInfo;
 import com.microsoft.identity.common.java.providers.oauth2.IDToken;
+import com.microsoft.identity.common.java.util.GsonRegistry;
 import com.microsoft.identity.common.logging.Logger;
 
 import java.io.IOException;
@@ -210,7 +211,7 @@ public class AdalMigrationAdapter implements IMigrationAdapter<MicrosoftAccount,
         final String methodTag = TAG + ":deserialize";
         final Map<String, ADALTokenCacheItem> result = new HashMap<>();
 
-        final Gson gson = new Gson();
+        final Gson gson = GsonRegistry.DEFAULT;
         for (final Map.Entry<String, String> entry : tokenCacheItems.entrySet()) {
             try {
                 result.put(
@@ -57,6 +57,7 @@ import java.security.PrivateKey;
 import java.security.ProviderException;
 import java.security.cert.CertificateException;
 import java.security.spec.AlgorithmParameterSpec;
+import java.security.spec.ECGenParameterSpec;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.RSAKeyGenParameterSpec;
 import java.util.Calendar;
@@ -98,6 +99,11 @@ public class AndroidDevicePopManager extends AbstractDevicePopManager {
      */
     private static final int RSA_KEY_SIZE = 2048;
 
+    /**
+     * The standard name of the NIST P-256 curve.
+     */
+    private static final String EC_P256_CURVE_NAME = "secp256r1";
+
     private final Context mContext;
 
     public AndroidDevicePopManager(@NonNull final Context context) throws KeyStoreException, CertificateException, NoSuchAlgorithmException, IOException {
@@ -124,6 +130,51 @@ public class AndroidDevicePopManager extends AbstractDevicePopManager {
         return generateNewRsaKeyPair(mContext, keySize);
     }
 
+    @SuppressLint(NewApi)
+    @Override
+    public KeyPair generateNewEcKeyPair() throws UnsupportedOperationException, InvalidAlgorithmParameterException,
+            NoSuchAlgorithmException, NoSuchProviderException {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+            // EC keys in AndroidKeyStore require KeyGenParameterSpec, added in API 23.
+            return null;
+        }
+
+        synchronized (isLocaleCalendarNonGregorian(Locale.getDefault()) ? LOCALE_CHANGE_LOCK : new Object()) {
+            // See: https://issuetracker.google.com/issues/37095309
+            final Locale currentLocale = Locale.getDefault();
+            applyKeyStoreLocaleWorkarounds(currentLocale);
+
+            try {
+                final KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance(
+                        KeyProperties.KEY_ALGORITHM_EC,
+                        ANDROID_KEYSTORE
+                );
+                keyPairGenerator.initialize(
+                        new KeyGenParameterSpec.Builder(
+                                mKeyManager.getKeyAlias(),
+                                KeyProperties.PURPOSE_SIGN | KeyProperties.PURPOSE_VERIFY
+                        )
+                                .setAlgorithmParameterSpec(new ECGenParameterSpec(EC_P256_CURVE_NAME))
+                                .setDigests(KeyProperties.DIGEST_SHA256)
+                                .build()
+                );
+                final KeyPair keyPair = keyPairGenerator.generateKeyPair();
+
+                // Log out secure hardware state -- we don't need the result here
+                getSecureHardwareState(keyPair);
+
+                return keyPair;
+            } catch (final ProviderException e) {
+                // Some OEM keystores reject EC keys outright; let the caller fall back to RSA.
+                clearAsymmetricKey();
+                throw new UnsupportedOperationException("Failed to generate EC KeyPair.", e);
+            } finally {
+                // Reset our locale to the default
+                Locale.setDefault(currentLocale);
+            }
+        }
+    }
+
     @Override
     protected SecureHardwareState getSecureHardwareState(@NonNull KeyPair kp) {
         final String methodTag = TAG + ":getSecureHardwareState";
@@ -0,0 +1,76 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.authorities;
+
+import com.microsoft.identity.common.java.benchmarks.BenchmarkFixtures;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares resolving an authority URL and its token endpoint through {@link AuthorityResolutionCache}
+ * with doing the full resolution on every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthorityResolutionBenchmark {
+
+    private String mAuthorityUrl;
+
+    @Setup
+    public void setUp() {
+        mAuthorityUrl = "https://" + BenchmarkFixtures.ENVIRONMENT + "/" + BenchmarkFixtures.REALM;
+        AuthorityResolutionCache.resolve(mAuthorityUrl);
+    }
+
+    @Benchmark
+    public URL resolveTokenEndpointUncached() {
+        return new ResolvedAuthority(mAuthorityUrl, Authority.createAuthorityFactory(mAuthorityUrl))
+                .getTokenEndpoint();
+    }
+
+    @Benchmark
+    public URL resolveTokenEndpointCached() {
+        return AuthorityResolutionCache.resolve(mAuthorityUrl).getTokenEndpoint();
+    }
+
+    @Benchmark
+    public Authority getAuthorityFromAuthorityUrl() {
+        return Authority.getAuthorityFromAuthorityUrl(mAuthorityUrl);
+    }
+}
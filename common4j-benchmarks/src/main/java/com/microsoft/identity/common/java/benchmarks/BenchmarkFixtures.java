@@ -0,0 +1,214 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.benchmarks;
+
+import com.microsoft.identity.common.components.MockPlatformComponentsFactory;
+import com.microsoft.identity.common.java.commands.ICommand;
+import com.microsoft.identity.common.java.dto.AccessTokenRecord;
+import com.microsoft.identity.common.java.dto.AccountRecord;
+import com.microsoft.identity.common.java.dto.CredentialType;
+import com.microsoft.identity.common.java.dto.IdTokenRecord;
+import com.microsoft.identity.common.java.dto.RefreshTokenRecord;
+import com.microsoft.identity.common.java.interfaces.IPlatformComponents;
+import com.microsoft.identity.common.java.ui.BrowserDescriptor;
+import com.microsoft.identity.common.java.util.IPlatformUtil;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.KeyManagerFactory;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.NonNull;
+
+/**
+ * Shared fixtures for the common4j benchmarks.
+ */
+public final class BenchmarkFixtures {
+
+    public static final String CLIENT_ID = "4b0db8c2-9f26-4417-8bde-3f0e3656f8e0";
+    public static final String ENVIRONMENT = "login.microsoftonline.com";
+    public static final String REALM = "f645ad92-e38d-4d1a-b510-d1b09a74a8ca";
+    public static final String TARGET = "user.read openid profile offline_access";
+    public static final String AUTHORITY_TYPE = "MSSTS";
+
+    /**
+     * An unsigned id token, only its shape matters to the code under measurement.
+     */
+    public static final String ID_TOKEN = "eyJ0eXAiOiJKV1QiLCJhbGciOiJub25lIn0."
+            + "eyJhdWQiOiI0YjBkYjhjMi05ZjI2LTQ0MTctOGJkZS0zZjBlMzY1NmY4ZTAiLCJpc3MiOiJodHRwczovL2xvZ2lu"
+            + "Lm1pY3Jvc29mdG9ubGluZS5jb20vZjY0NWFkOTItZTM4ZC00ZDFhLWI1MTAtZDFiMDlhNzRhOGNhL3YyLjAiLCJp"
+            + "YXQiOjE3MDAwMDAwMDAsIm5iZiI6MTcwMDAwMDAwMCwiZXhwIjoxNzAwMDAzNjAwLCJuYW1lIjoiQmVuY2htYXJr"
+            + "IFVzZXIiLCJvaWQiOiIwMDAwMDAwMC0wMDAwLTAwMDAtMDAwMC0wMDAwMDAwMDAwMDEiLCJwcmVmZXJyZWRfdXNl"
+            + "cm5hbWUiOiJiZW5jaG1hcmtAY29udG9zby5jb20iLCJzdWIiOiJzdWJqZWN0IiwidGlkIjoiZjY0NWFkOTItZTM4"
+            + "ZC00ZDFhLWI1MTAtZDFiMDlhNzRhOGNhIiwidmVyIjoiMi4wIn0.";
+
+    /**
+     * A token endpoint response of realistic size.
+     */
+    public static final String TOKEN_RESPONSE_JSON = "{"
+            + "\"token_type\":\"Bearer\","
+            + "\"scope\":\"" + TARGET + "\","
+            + "\"expires_in\":4607,"
+            + "\"ext_expires_in\":4607,"
+            + "\"access_token\":\"" + repeat('a', 1500) + "\","
+            + "\"refresh_token\":\"" + repeat('r', 1200) + "\","
+            + "\"id_token\":\"" + ID_TOKEN + "\","
+            + "\"client_info\":\"eyJ1aWQiOiIwMDAwMDAwMC0wMDAwLTAwMDAtMDAwMC0wMDAwMDAwMDAwMDEiLCJ1dGlkIjoiZjY0NWFkOTItZTM4ZC00ZDFhLWI1MTAtZDFiMDlhNzRhOGNhIn0\","
+            + "\"foci\":\"1\""
+            + "}";
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Platform components backed by in-memory storage, whose platform util posts results inline.
+     */
+    public static IPlatformComponents createPlatformComponents() {
+        return MockPlatformComponentsFactory.getNonFunctionalBuilder()
+                .platformUtil(INLINE_PLATFORM_UTIL)
+                .build();
+    }
+
+    public static String homeAccountId(final int index) {
+        return String.format("%08d-0000-0000-0000-000000000000.%s", index, REALM);
+    }
+
+    public static AccountRecord createAccount(final int index) {
+        final AccountRecord account = new AccountRecord();
+        account.setHomeAccountId(homeAccountId(index));
+        account.setEnvironment(ENVIRONMENT);
+        account.setRealm(REALM);
+        account.setLocalAccountId(String.format("%08d-0000-0000-0000-000000000000", index));
+        account.setUsername("user" + index + "@contoso.com");
+        account.setAuthorityType(AUTHORITY_TYPE);
+        return account;
+    }
+
+    public static AccessTokenRecord createAccessToken(final int index) {
+        final long nowSeconds = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+        final AccessTokenRecord accessToken = new AccessTokenRecord();
+        accessToken.setCredentialType(CredentialType.AccessToken.name());
+        accessToken.setHomeAccountId(homeAccountId(index));
+        accessToken.setEnvironment(ENVIRONMENT);
+        accessToken.setRealm(REALM);
+        accessToken.setClientId(CLIENT_ID);
+        accessToken.setTarget(TARGET);
+        accessToken.setAccessTokenType("Bearer");
+        accessToken.setCachedAt(String.valueOf(nowSeconds));
+        accessToken.setExpiresOn(String.valueOf(nowSeconds + TimeUnit.HOURS.toSeconds(1)));
+        accessToken.setExtendedExpiresOn(String.valueOf(nowSeconds + TimeUnit.HOURS.toSeconds(1)));
+        accessToken.setSecret(repeat('a', 1500));
+        return accessToken;
+    }
+
+    public static RefreshTokenRecord createRefreshToken(final int index) {
+        final RefreshTokenRecord refreshToken = new RefreshTokenRecord();
+        refreshToken.setCredentialType(CredentialType.RefreshToken.name());
+        refreshToken.setHomeAccountId(homeAccountId(index));
+        refreshToken.setEnvironment(ENVIRONMENT);
+        refreshToken.setClientId(CLIENT_ID);
+        refreshToken.setTarget(TARGET);
+        refreshToken.setFamilyId("1");
+        refreshToken.setCachedAt(String.valueOf(TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis())));
+        refreshToken.setSecret(repeat('r', 1200));
+        return refreshToken;
+    }
+
+    public static IdTokenRecord createIdToken(final int index) {
+        final IdTokenRecord idToken = new IdTokenRecord();
+        idToken.setCredentialType(CredentialType.IdToken.name());
+        idToken.setHomeAccountId(homeAccountId(index));
+        idToken.setEnvironment(ENVIRONMENT);
+        idToken.setRealm(REALM);
+        idToken.setClientId(CLIENT_ID);
+        idToken.setSecret(ID_TOKEN);
+        return idToken;
+    }
+
+    private static String repeat(final char c, final int count) {
+        final StringBuilder builder = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    private static final IPlatformUtil INLINE_PLATFORM_UTIL = new IPlatformUtil() {
+        @Override
+        public List<BrowserDescriptor> getBrowserSafeListForBroker() {
+            return Collections.emptyList();
+        }
+
+        @Nullable
+        @Override
+        public String getInstalledCompanyPortalVersion() {
+            return null;
+        }
+
+        @Override
+        public void throwIfNetworkNotAvailable(final boolean performPowerOptimizationCheck) {
+        }
+
+        @Override
+        public void removeCookiesFromWebView() {
+        }
+
+        @Override
+        public boolean isValidCallingApp(@NonNull final String redirectUri, @NonNull final String packageName) {
+            return true;
+        }
+
+        @Nullable
+        @Override
+        public String getEnrollmentId(@NonNull final String userId, @NonNull final String packageName) {
+            return null;
+        }
+
+        @Override
+        public void onReturnCommandResult(@NonNull final ICommand<?> command) {
+        }
+
+        @Override
+        public long getNanosecondTime() {
+            return System.nanoTime();
+        }
+
+        @Override
+        public void postCommandResult(@NonNull final Runnable runnable) {
+            runnable.run();
+        }
+
+        @Override
+        public KeyManagerFactory getSslContextKeyManagerFactory() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Nullable
+        @Override
+        public String getPackageNameFromUid(final int uid) {
+            return null;
+        }
+    };
+}
@@ -0,0 +1,124 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.cache;
+
+import static com.microsoft.identity.common.java.benchmarks.BenchmarkFixtures.CLIENT_ID;
+import static com.microsoft.identity.common.java.benchmarks.BenchmarkFixtures.ENVIRONMENT;
+import static com.microsoft.identity.common.java.benchmarks.BenchmarkFixtures.REALM;
+import static com.microsoft.identity.common.java.benchmarks.BenchmarkFixtures.TARGET;
+
+import com.microsoft.identity.common.java.benchmarks.BenchmarkFixtures;
+import com.microsoft.identity.common.java.dto.Credential;
+import com.microsoft.identity.common.java.dto.CredentialType;
+import com.microsoft.identity.common.java.util.ported.InMemoryStorage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link AbstractAccountCredentialCache#getCredentialsFilteredByInternal}, the linear
+ * scan behind every credential lookup, over a preloaded list of credentials.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CredentialFilterBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int credentialCount;
+
+    private SharedPreferencesAccountCredentialCache mCache;
+    private List<Credential> mAllCredentials;
+    private String mHomeAccountId;
+
+    @Setup
+    public void setUp() {
+        mCache = new SharedPreferencesAccountCredentialCache(
+                new CacheKeyValueDelegate(),
+                new InMemoryStorage<String>()
+        );
+
+        final int accountCount = Math.max(1, credentialCount / 3);
+        for (int i = 0; i < accountCount; i++) {
+            mCache.saveCredential(BenchmarkFixtures.createAccessToken(i));
+            mCache.saveCredential(BenchmarkFixtures.createRefreshToken(i));
+            mCache.saveCredential(BenchmarkFixtures.createIdToken(i));
+        }
+
+        mAllCredentials = mCache.getCredentials();
+        mHomeAccountId = BenchmarkFixtures.homeAccountId(accountCount / 2);
+    }
+
+    @Benchmark
+    public List<Credential> filterAccessTokens() {
+        return mCache.getCredentialsFilteredByInternal(
+                mAllCredentials,
+                mHomeAccountId,
+                ENVIRONMENT,
+                CredentialType.AccessToken,
+                CLIENT_ID,
+                null,
+                null,
+                REALM,
+                TARGET,
+                null,
+                null,
+                null,
+                false
+        );
+    }
+
+    @Benchmark
+    public List<Credential> filterRefreshTokens() {
+        return mCache.getCredentialsFilteredByInternal(
+                mAllCredentials,
+                mHomeAccountId,
+                ENVIRONMENT,
+                CredentialType.RefreshToken,
+                CLIENT_ID,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                false
+        );
+    }
+}
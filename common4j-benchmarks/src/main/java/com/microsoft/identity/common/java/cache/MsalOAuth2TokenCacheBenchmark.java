@@ -0,0 +1,235 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.cache;
+
+import static com.microsoft.identity.common.java.benchmarks.BenchmarkFixtures.CLIENT_ID;
+import static com.microsoft.identity.common.java.benchmarks.BenchmarkFixtures.TARGET;
+
+import com.microsoft.identity.common.java.authscheme.BearerAuthenticationSchemeInternal;
+import com.microsoft.identity.common.java.benchmarks.BenchmarkFixtures;
+import com.microsoft.identity.common.java.commands.parameters.TokenCommandParameters;
+import com.microsoft.identity.common.java.dto.AccessTokenRecord;
+import com.microsoft.identity.common.java.dto.AccountRecord;
+import com.microsoft.identity.common.java.dto.IdTokenRecord;
+import com.microsoft.identity.common.java.dto.RefreshTokenRecord;
+import com.microsoft.identity.common.java.exception.ClientException;
+import com.microsoft.identity.common.java.interfaces.IPlatformComponents;
+import com.microsoft.identity.common.java.providers.microsoft.MicrosoftAccount;
+import com.microsoft.identity.common.java.providers.microsoft.MicrosoftRefreshToken;
+import com.microsoft.identity.common.java.providers.microsoft.microsoftsts.MicrosoftStsAuthorizationRequest;
+import com.microsoft.identity.common.java.providers.microsoft.microsoftsts.MicrosoftStsOAuth2Configuration;
+import com.microsoft.identity.common.java.providers.microsoft.microsoftsts.MicrosoftStsOAuth2Strategy;
+import com.microsoft.identity.common.java.providers.microsoft.microsoftsts.MicrosoftStsTokenResponse;
+import com.microsoft.identity.common.java.providers.oauth2.OAuth2StrategyParameters;
+import com.microsoft.identity.common.java.request.SdkType;
+import com.microsoft.identity.common.java.util.ported.InMemoryStorage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link MsalOAuth2TokenCache#load} and {@link MsalOAuth2TokenCache#save} against an
+ * {@link InMemoryStorage}-backed cache holding a given number of credentials.
+ * <p>
+ * Every account contributes one access token, one refresh token and one id token, so the cache
+ * holds {@code credentialCount / 3} accounts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MsalOAuth2TokenCacheBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int credentialCount;
+
+    private MsalOAuth2TokenCache<
+            MicrosoftStsOAuth2Strategy,
+            MicrosoftStsAuthorizationRequest,
+            MicrosoftStsTokenResponse,
+            MicrosoftAccount,
+            MicrosoftRefreshToken> mCache;
+    private AccountRecord mTargetAccount;
+    private MicrosoftStsOAuth2Strategy mStrategy;
+    private MicrosoftStsAuthorizationRequest mRequest;
+    private final MicrosoftStsTokenResponse mResponse = new MicrosoftStsTokenResponse();
+    private final BearerAuthenticationSchemeInternal mAuthScheme = new BearerAuthenticationSchemeInternal();
+
+    @Setup
+    public void setUp() throws ClientException, MalformedURLException {
+        final IPlatformComponents components = BenchmarkFixtures.createPlatformComponents();
+        final SharedPreferencesAccountCredentialCache accountCredentialCache =
+                new SharedPreferencesAccountCredentialCache(
+                        new CacheKeyValueDelegate(),
+                        new InMemoryStorage<String>()
+                );
+
+        final int accountCount = Math.max(1, credentialCount / 3);
+        for (int i = 0; i < accountCount; i++) {
+            accountCredentialCache.saveAccount(BenchmarkFixtures.createAccount(i));
+            accountCredentialCache.saveCredential(BenchmarkFixtures.createAccessToken(i));
+            accountCredentialCache.saveCredential(BenchmarkFixtures.createRefreshToken(i));
+            accountCredentialCache.saveCredential(BenchmarkFixtures.createIdToken(i));
+        }
+
+        final int target = accountCount / 2;
+        mTargetAccount = BenchmarkFixtures.createAccount(target);
+        mCache = new MsalOAuth2TokenCache<>(
+                components,
+                accountCredentialCache,
+                new FixedRecordsAdapter(target)
+        );
+
+        final MicrosoftStsOAuth2Configuration configuration = new MicrosoftStsOAuth2Configuration();
+        configuration.setAuthorityUrl(new URL("https://" + BenchmarkFixtures.ENVIRONMENT + "/common"));
+        mStrategy = new MicrosoftStsOAuth2Strategy(
+                configuration,
+                OAuth2StrategyParameters.builder().platformComponents(components).build()
+        );
+        mRequest = new MicrosoftStsAuthorizationRequest.Builder()
+                .setClientId(CLIENT_ID)
+                .setScope(TARGET)
+                .build();
+    }
+
+    @Benchmark
+    public ICacheRecord load() {
+        return mCache.load(CLIENT_ID, null, null, TARGET, mTargetAccount, mAuthScheme);
+    }
+
+    @Benchmark
+    public ICacheRecord save() throws ClientException {
+        // The adapter ignores its inputs and hands back the records of the target account,
+        // so each save overwrites the same entries and the cache size stays constant.
+        return mCache.save(mStrategy, mRequest, mResponse);
+    }
+
+    /**
+     * Returns pre-built records so the benchmark measures the cache rather than token parsing.
+     */
+    private static final class FixedRecordsAdapter implements IAccountCredentialAdapter<
+            MicrosoftStsOAuth2Strategy,
+            MicrosoftStsAuthorizationRequest,
+            MicrosoftStsTokenResponse,
+            MicrosoftAccount,
+            MicrosoftRefreshToken> {
+
+        private final AccountRecord mAccount;
+        private final AccessTokenRecord mAccessToken;
+        private final RefreshTokenRecord mRefreshToken;
+        private final IdTokenRecord mIdToken;
+
+        FixedRecordsAdapter(final int index) {
+            mAccount = BenchmarkFixtures.createAccount(index);
+            mAccessToken = BenchmarkFixtures.createAccessToken(index);
+            mRefreshToken = BenchmarkFixtures.createRefreshToken(index);
+            mIdToken = BenchmarkFixtures.createIdToken(index);
+        }
+
+        @Override
+        public AccountRecord createAccount(final MicrosoftStsOAuth2Strategy strategy,
+                                           final MicrosoftStsAuthorizationRequest request,
+                                           final MicrosoftStsTokenResponse response) {
+            return mAccount;
+        }
+
+        @Override
+        public AccessTokenRecord createAccessToken(final MicrosoftStsOAuth2Strategy strategy,
+                                                   final MicrosoftStsAuthorizationRequest request,
+                                                   final MicrosoftStsTokenResponse response) {
+            return mAccessToken;
+        }
+
+        @Override
+        public RefreshTokenRecord createRefreshToken(final MicrosoftStsOAuth2Strategy strategy,
+                                                     final MicrosoftStsAuthorizationRequest request,
+                                                     final MicrosoftStsTokenResponse response) {
+            return mRefreshToken;
+        }
+
+        @Override
+        public IdTokenRecord createIdToken(final MicrosoftStsOAuth2Strategy strategy,
+                                           final MicrosoftStsAuthorizationRequest request,
+                                           final MicrosoftStsTokenResponse response) {
+            return mIdToken;
+        }
+
+        @Override
+        public RefreshTokenRecord asRefreshToken(final MicrosoftRefreshToken refreshToken) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AccountRecord asAccount(final MicrosoftAccount account) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public IdTokenRecord asIdToken(final MicrosoftAccount account, final MicrosoftRefreshToken refreshToken) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AccountRecord createAccountRecord(final TokenCommandParameters parameters,
+                                                 final SdkType sdkType,
+                                                 final MicrosoftStsTokenResponse response) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AccessTokenRecord createAccessTokenRecord(final TokenCommandParameters parameters,
+                                                         final AccountRecord accountRecord,
+                                                         final MicrosoftStsTokenResponse response) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public RefreshTokenRecord createRefreshTokenRecord(final TokenCommandParameters parameters,
+                                                           final AccountRecord accountRecord,
+                                                           final MicrosoftStsTokenResponse response) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public IdTokenRecord createIdTokenRecord(final TokenCommandParameters parameters,
+                                                 final AccountRecord accountRecord,
+                                                 final MicrosoftStsTokenResponse response) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
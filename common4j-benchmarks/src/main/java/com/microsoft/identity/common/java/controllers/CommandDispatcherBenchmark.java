@@ -0,0 +1,113 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.controllers;
+
+import com.microsoft.identity.common.java.benchmarks.BenchmarkFixtures;
+import com.microsoft.identity.common.java.commands.BaseCommand;
+import com.microsoft.identity.common.java.commands.EmptyCommandCallback;
+import com.microsoft.identity.common.java.commands.parameters.CommandParameters;
+import com.microsoft.identity.common.java.interfaces.IPlatformComponents;
+import com.microsoft.identity.common.java.result.FinalizableResultFuture;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import lombok.NonNull;
+
+/**
+ * Measures the throughput of {@link CommandDispatcher#submitSilentReturningFuture} for commands
+ * that complete immediately, i.e. the dispatcher's own overhead (diagnostic context, telemetry,
+ * executor hand-off and result delivery).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class CommandDispatcherBenchmark {
+
+    private IPlatformComponents mComponents;
+
+    @Setup
+    public void setUp() {
+        mComponents = BenchmarkFixtures.createPlatformComponents();
+    }
+
+    @Benchmark
+    public Object submitSilent() throws Exception {
+        final FinalizableResultFuture<CommandResult> future = CommandDispatcher.submitSilentReturningFuture(
+                new NoOpCommand(CommandParameters.builder().platformComponents(mComponents).build())
+        );
+        return future.get().getResult();
+    }
+
+    private static final class NoOpCommand extends BaseCommand<String> {
+        NoOpCommand(@NonNull final CommandParameters parameters) {
+            super(parameters, NO_CONTROLLER_FACTORY, new EmptyCommandCallback<String, Exception>(), "benchmark_id");
+        }
+
+        @Override
+        public String execute() {
+            return "result";
+        }
+
+        @Override
+        public boolean isEligibleForCaching() {
+            // Every submission must execute rather than join an in-flight duplicate.
+            return false;
+        }
+
+        @Override
+        public boolean isEligibleForEstsTelemetry() {
+            return false;
+        }
+    }
+
+    private static final IControllerFactory NO_CONTROLLER_FACTORY = new IControllerFactory() {
+        @NonNull
+        @Override
+        public BaseController getDefaultController() {
+            throw new UnsupportedOperationException();
+        }
+
+        @NonNull
+        @Override
+        public List<BaseController> getAllControllers() {
+            throw new UnsupportedOperationException();
+        }
+    };
+}
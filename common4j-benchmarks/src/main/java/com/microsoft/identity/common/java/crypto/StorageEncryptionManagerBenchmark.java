@@ -0,0 +1,121 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.crypto;
+
+import com.microsoft.identity.common.java.crypto.key.AES256KeyLoader;
+import com.microsoft.identity.common.java.crypto.key.AbstractSecretKeyLoader;
+import com.microsoft.identity.common.java.exception.ClientException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import lombok.NonNull;
+
+/**
+ * Measures {@link StorageEncryptionManager#encrypt} and {@link StorageEncryptionManager#decrypt}
+ * for payloads the size of typical cache entries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageEncryptionManagerBenchmark {
+
+    @Param({"256", "4096", "65536"})
+    public int payloadSize;
+
+    private StorageEncryptionManager mManager;
+    private byte[] mPlainText;
+    private byte[] mCipherText;
+
+    @Setup
+    public void setUp() throws ClientException {
+        final AbstractSecretKeyLoader keyLoader = new BenchmarkKeyLoader();
+        mManager = new StorageEncryptionManager() {
+            @Override
+            public @NonNull AbstractSecretKeyLoader getKeyLoaderForEncryption() {
+                return keyLoader;
+            }
+
+            @Override
+            public @NonNull List<AbstractSecretKeyLoader> getKeyLoaderForDecryption(@NonNull final byte[] cipherText) {
+                return Collections.singletonList(keyLoader);
+            }
+        };
+
+        mPlainText = new byte[payloadSize];
+        new Random(42).nextBytes(mPlainText);
+        mCipherText = mManager.encrypt(mPlainText);
+    }
+
+    @Benchmark
+    public byte[] encrypt() throws ClientException {
+        return mManager.encrypt(mPlainText);
+    }
+
+    @Benchmark
+    public byte[] decrypt() throws ClientException {
+        return mManager.decrypt(mCipherText);
+    }
+
+    private static final class BenchmarkKeyLoader extends AES256KeyLoader {
+        private final SecretKey mKey;
+
+        BenchmarkKeyLoader() throws ClientException {
+            mKey = generateRandomKey();
+        }
+
+        @Override
+        public @NonNull String getAlias() {
+            return "BENCHMARK_ALIAS";
+        }
+
+        @Override
+        public @NonNull SecretKey getKey() {
+            return mKey;
+        }
+
+        @Override
+        public @NonNull String getKeyTypeIdentifier() {
+            return "U001";
+        }
+    }
+}
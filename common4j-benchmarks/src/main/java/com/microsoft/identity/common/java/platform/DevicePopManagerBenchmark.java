@@ -0,0 +1,143 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.platform;
+
+import com.microsoft.identity.common.java.authscheme.IPoPAuthenticationSchemeParams;
+import com.microsoft.identity.common.java.authscheme.PopAuthenticationSchemeInternal;
+import com.microsoft.identity.common.java.crypto.PopKeyType;
+import com.microsoft.identity.common.java.exception.ClientException;
+import com.microsoft.identity.common.java.util.ClockSkewManager;
+import com.microsoft.identity.common.java.util.ported.InMemoryStorage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures minting a signed HTTP request with a warm signing-material cache, and with the
+ * cache dropped before every mint to approximate the cost of re-reading the key each time,
+ * for each supported PoP key type. The batch benchmarks sign {@link #BATCH_SIZE} requests with one
+ * call, against the same number of individual mints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DevicePopManagerBenchmark {
+
+    private static final String ACCESS_TOKEN = "eyJ0eXAiOiJKV1QiLCJhbGciOiJub25lIn0.e30.";
+
+    private static final int BATCH_SIZE = 16;
+
+    @Param({"RSA_2048", "EC_P256"})
+    public PopKeyType keyType;
+
+    private InMemoryDevicePopManager mDevicePopManager;
+    private URL mRequestUrl;
+    private List<IPoPAuthenticationSchemeParams> mBatch;
+
+    @Setup
+    public void setUp() throws Exception {
+        mDevicePopManager = new InMemoryDevicePopManager("benchmark-device-pop");
+        mDevicePopManager.generateAsymmetricKey(keyType);
+        mRequestUrl = new URL("https://graph.microsoft.com/v1.0/me/messages");
+
+        final ClockSkewManager clockSkewManager = new ClockSkewManager(new InMemoryStorage<Long>());
+        mBatch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            mBatch.add(PopAuthenticationSchemeInternal.builder()
+                    .httpMethod("GET")
+                    .url(new URL("https://graph.microsoft.com/v1.0/users/" + i))
+                    .nonce("nonce-" + i)
+                    .clockSkewManager(clockSkewManager)
+                    .build());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        mDevicePopManager.clearAsymmetricKey();
+    }
+
+    @Benchmark
+    public String mintSignedAccessToken() throws ClientException {
+        return mint();
+    }
+
+    @Benchmark
+    public String mintSignedAccessTokenUncached() throws ClientException {
+        mDevicePopManager.invalidateSigningMaterial();
+        return mint();
+    }
+
+    @Benchmark
+    public List<String> mintSignedHttpRequestsIndividually() throws ClientException {
+        final List<String> shrs = new ArrayList<>(BATCH_SIZE);
+        for (final IPoPAuthenticationSchemeParams request : mBatch) {
+            shrs.add(mDevicePopManager.mintSignedHttpRequest(
+                    request.getHttpMethod(),
+                    System.currentTimeMillis() / 1000,
+                    request.getUrl(),
+                    request.getNonce(),
+                    request.getClientClaims()
+            ));
+        }
+        return shrs;
+    }
+
+    @Benchmark
+    public List<String> mintSignedHttpRequestsBatch() throws ClientException {
+        return mDevicePopManager.mintSignedHttpRequests(System.currentTimeMillis() / 1000, mBatch, false);
+    }
+
+    @Benchmark
+    public List<String> mintSignedHttpRequestsBatchParallel() throws ClientException {
+        return mDevicePopManager.mintSignedHttpRequests(System.currentTimeMillis() / 1000, mBatch, true);
+    }
+
+    private String mint() throws ClientException {
+        return mDevicePopManager.mintSignedAccessToken(
+                "GET",
+                System.currentTimeMillis() / 1000,
+                mRequestUrl,
+                ACCESS_TOKEN,
+                "nonce"
+        );
+    }
+}
@@ -0,0 +1,85 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.providers.microsoft.microsoftsts;
+
+import com.microsoft.identity.common.java.benchmarks.BenchmarkFixtures;
+import com.microsoft.identity.common.java.util.ObjectMapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the streaming {@link MicrosoftStsTokenResponseParser} with Gson reflection through
+ * {@link ObjectMapper} on token responses carrying increasingly large id tokens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MicrosoftStsTokenResponseParserBenchmark {
+
+    /**
+     * Number of extra characters appended to the id token, standing in for large group and
+     * claims payloads.
+     */
+    @Param({"0", "4096", "32768"})
+    public int idTokenPadding;
+
+    private String mTokenResponseJson;
+
+    @Setup
+    public void setUp() {
+        final StringBuilder padding = new StringBuilder(idTokenPadding);
+        for (int i = 0; i < idTokenPadding; i++) {
+            padding.append((char) ('a' + i % 26));
+        }
+
+        mTokenResponseJson = BenchmarkFixtures.TOKEN_RESPONSE_JSON.replace(
+                BenchmarkFixtures.ID_TOKEN,
+                BenchmarkFixtures.ID_TOKEN + padding
+        );
+    }
+
+    @Benchmark
+    public MicrosoftStsTokenResponse parseWithGsonReflection() {
+        return ObjectMapper.deserializeJsonStringToObject(mTokenResponseJson, MicrosoftStsTokenResponse.class);
+    }
+
+    @Benchmark
+    public MicrosoftStsTokenResponse parseStreaming() {
+        return MicrosoftStsTokenResponseParser.parseTokenResponse(mTokenResponseJson);
+    }
+}
@@ -0,0 +1,93 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.util;
+
+import com.microsoft.identity.common.java.benchmarks.BenchmarkFixtures;
+import com.microsoft.identity.common.java.providers.microsoft.microsoftsts.MicrosoftStsTokenRequest;
+import com.microsoft.identity.common.java.providers.microsoft.microsoftsts.MicrosoftStsTokenResponse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.UnsupportedEncodingException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ObjectMapper} parsing of a token endpoint response and encoding of a token request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ObjectMapperBenchmark {
+
+    private MicrosoftStsTokenResponse mTokenResponse;
+    private MicrosoftStsTokenRequest mTokenRequest;
+
+    @Setup
+    public void setUp() {
+        mTokenResponse = ObjectMapper.deserializeJsonStringToObject(
+                BenchmarkFixtures.TOKEN_RESPONSE_JSON,
+                MicrosoftStsTokenResponse.class
+        );
+
+        mTokenRequest = new MicrosoftStsTokenRequest();
+        mTokenRequest.setGrantType("refresh_token");
+        mTokenRequest.setClientId(BenchmarkFixtures.CLIENT_ID);
+        mTokenRequest.setRedirectUri("msauth://com.microsoft.identity.client.sample/1wIqXSqBj7w%2Bh11ZifsnqwgyKrY%3D");
+        mTokenRequest.setScope(BenchmarkFixtures.TARGET);
+        mTokenRequest.setRefreshToken(mTokenResponse.getRefreshToken());
+        mTokenRequest.setCorrelationId(UUID.randomUUID());
+        mTokenRequest.setClientAppName("com.microsoft.identity.client.sample");
+        mTokenRequest.setClientAppVersion("1.0");
+    }
+
+    @Benchmark
+    public MicrosoftStsTokenResponse parseTokenResponse() {
+        return ObjectMapper.deserializeJsonStringToObject(
+                BenchmarkFixtures.TOKEN_RESPONSE_JSON,
+                MicrosoftStsTokenResponse.class
+        );
+    }
+
+    @Benchmark
+    public String serializeTokenResponse() {
+        return ObjectMapper.serializeObjectToJsonString(mTokenResponse);
+    }
+
+    @Benchmark
+    public String serializeTokenRequestToFormUrlEncoded() throws UnsupportedEncodingException {
+        return ObjectMapper.serializeObjectToFormUrlEncoded(mTokenRequest);
+    }
+}
@@ -0,0 +1,116 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.util;
+
+import com.microsoft.identity.common.java.benchmarks.BenchmarkFixtures;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.UnsupportedEncodingException;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringTokenizer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link QueryStringCodec} and the {@link UrlUtil#appendPathToURL(URL, String)} fast path
+ * with the tokenizer/URLDecoder parsing and URIBuilder round-trip they replace.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UrlCodecBenchmark {
+
+    private static final String TOKEN_ENDPOINT_SUFFIX = "/oAuth2/v2.0/token";
+
+    private String mRedirectQuery;
+    private URL mAuthority;
+
+    @Setup
+    public void setUp() throws MalformedURLException {
+        mRedirectQuery = "code=0.AXkA" + BenchmarkFixtures.REALM.replace("-", "") + "%2Bx%2Fy-z_"
+                + "&client_info=eyJ1aWQiOiIwMDAwMDAwMC0wMDAwLTAwMDAtMDAwMC0wMDAwMDAwMDAwMDEiLCJ1dGlkIjoiZjY0NWFkOTIifQ"
+                + "&state=YjBkMWNkMjMtYjY1Mi00NDI5LWE4MDYtMzE4YjY5NjQ1ZTg5"
+                + "&session_state=1f0f1ea2-4fb2-4f1c-8c2e-5c1b6e4a8d3b"
+                + "&cloud_instance_name=microsoftonline.com"
+                + "&cloud_instance_host_name=" + BenchmarkFixtures.ENVIRONMENT
+                + "&cloud_graph_host_name=graph.windows.net"
+                + "&msgraph_host=graph.microsoft.com";
+        mAuthority = new URL("https://" + BenchmarkFixtures.ENVIRONMENT + "/" + BenchmarkFixtures.REALM);
+    }
+
+    @Benchmark
+    public Map<String, String> decodeQueryStringLegacy() throws UnsupportedEncodingException {
+        final Map<String, String> result = new LinkedHashMap<>();
+        final StringTokenizer tokenizer = new StringTokenizer(mRedirectQuery, "&");
+
+        while (tokenizer.hasMoreTokens()) {
+            final String[] elements = tokenizer.nextToken().split("=");
+
+            if (elements.length == 2) {
+                result.put(
+                        URLDecoder.decode(elements[0], "UTF-8"),
+                        URLDecoder.decode(elements[1], "UTF-8")
+                );
+            }
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public Map<String, String> decodeQueryString() {
+        return ObjectMapper.deserializeQueryStringToMap(mRedirectQuery);
+    }
+
+    @Benchmark
+    public Map<String, String> urlFormDecode() {
+        return UrlUtil.urlFormDecode(mRedirectQuery);
+    }
+
+    @Benchmark
+    public URL appendPathWithUriBuilder() throws URISyntaxException, MalformedURLException {
+        return UrlUtil.appendPathAndQueryToURL(mAuthority, TOKEN_ENDPOINT_SUFFIX, null);
+    }
+
+    @Benchmark
+    public URL appendPath() throws URISyntaxException, MalformedURLException {
+        return UrlUtil.appendPathToURL(mAuthority, TOKEN_ENDPOINT_SUFFIX);
+    }
+}
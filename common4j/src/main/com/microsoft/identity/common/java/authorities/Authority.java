@@ -127,7 +127,18 @@ public abstract class Authority {
      * @return
      */
     public static Authority getAuthorityFromAuthorityUrl(String authorityUrl) {
-        final String methodName = ":getAuthorityFromAuthorityUrl";
+        return AuthorityResolutionCache.resolve(authorityUrl).newAuthority();
+    }
+
+    /**
+     * Parses an authority URL and returns a factory for the matching Authority type.
+     * Everything that requires parsing is done up front, so the factory can be reused to create
+     * new instances cheaply. Use {@link #getAuthorityFromAuthorityUrl(String)}, which caches this.
+     *
+     * @throws IllegalArgumentException if the authority URL is invalid.
+     */
+    static ResolvedAuthority.Factory createAuthorityFactory(@NonNull final String authorityUrl) {
+        final String methodName = ":createAuthorityFactory";
         final CommonURIBuilder authorityCommonUriBuilder;
         try {
             authorityCommonUriBuilder = new CommonURIBuilder(authorityUrl);
@@ -141,27 +152,52 @@ public abstract class Authority {
         if (pathSegments.size() == 0 || (pathSegments.size() == 1 && pathSegments.get(0).equals(""))) {
             if (authorityUrl.contains(CIAMAuthority.CIAM_LOGIN_URL_SEGMENT)){
                 // This is a CIAM authority, return CIAMAuthority
-                return new CIAMAuthority(CIAMAuthority.getTenantNameVariantUrlFromAuthorityWithoutPath(authorityUrl));
+                final String ciamAuthorityUrl = CIAMAuthority.getTenantNameVariantUrlFromAuthorityWithoutPath(authorityUrl);
+                return new ResolvedAuthority.Factory() {
+                    @Override
+                    public Authority create() {
+                        return new CIAMAuthority(ciamAuthorityUrl);
+                    }
+                };
             }
-            return new UnknownAuthority();
+            return new ResolvedAuthority.Factory() {
+                @Override
+                public Authority create() {
+                    return new UnknownAuthority();
+                }
+            };
         }
 
-        Authority authority = null; // Our result object...
+        final ResolvedAuthority.Factory factory;
 
         if (authorityIsKnownFromConfiguration(authorityUrl)) {
             final Authority configuredAuthority = getEquivalentConfiguredAuthority(authorityUrl);
             final String authorityTypeStr = configuredAuthority.mAuthorityTypeString;
 
             if (B2C.equalsIgnoreCase(authorityTypeStr)) {
-                authority = new AzureActiveDirectoryB2CAuthority(authorityUrl);
+                factory = new ResolvedAuthority.Factory() {
+                    @Override
+                    public Authority create() {
+                        return new AzureActiveDirectoryB2CAuthority(authorityUrl);
+                    }
+                };
             } else if (CIAM.equalsIgnoreCase(authorityTypeStr)) {
-                authority = new CIAMAuthority(authorityUrl);
+                factory = new ResolvedAuthority.Factory() {
+                    @Override
+                    public Authority create() {
+                        return new CIAMAuthority(authorityUrl);
+                    }
+                };
             } else if (AAD_NA.equalsIgnoreCase(authorityTypeStr) && configuredAuthority instanceof NativeAuthCIAMAuthority) {
-                authority = new NativeAuthCIAMAuthority(
-                        authorityUrl,
-                        ((NativeAuthCIAMAuthority) configuredAuthority).getClientId());
+                final String clientId = ((NativeAuthCIAMAuthority) configuredAuthority).getClientId();
+                factory = new ResolvedAuthority.Factory() {
+                    @Override
+                    public Authority create() {
+                        return new NativeAuthCIAMAuthority(authorityUrl, clientId);
+                    }
+                };
             } else {
-                authority = createAadAuthority(authorityCommonUriBuilder, pathSegments);
+                factory = createAadAuthorityFactory(authorityCommonUriBuilder, pathSegments);
             }
         } else {
             String authorityType = pathSegments.get(0).toLowerCase(Locale.ROOT);
@@ -172,32 +208,47 @@ public abstract class Authority {
                         TAG + methodName,
                         "Authority type is ADFS"
                 );
-                authority = new ActiveDirectoryFederationServicesAuthority(authorityUrl);
+                factory = new ResolvedAuthority.Factory() {
+                    @Override
+                    public Authority create() {
+                        return new ActiveDirectoryFederationServicesAuthority(authorityUrl);
+                    }
+                };
             } else if (authorityType.equals(B2C_PATH_SEGMENT)) {
                 //Return new B2C Authority
                 Logger.verbose(
                         TAG + methodName,
                         "Authority type is B2C"
                 );
-                authority = new AzureActiveDirectoryB2CAuthority(authorityUrl);
+                factory = new ResolvedAuthority.Factory() {
+                    @Override
+                    public Authority create() {
+                        return new AzureActiveDirectoryB2CAuthority(authorityUrl);
+                    }
+                };
             } else if (authorityUrl.contains(CIAMAuthority.CIAM_LOGIN_URL_SEGMENT)) {
                 //Return new CIAM Authority
                 Logger.verbose(
                         TAG + methodName,
                         "Authority type is CIAM"
                 );
-                authority = new CIAMAuthority(authorityUrl);
+                factory = new ResolvedAuthority.Factory() {
+                    @Override
+                    public Authority create() {
+                        return new CIAMAuthority(authorityUrl);
+                    }
+                };
             } else {
                 //Return new AAD Authority
                 Logger.verbose(
                         TAG + methodName,
                         "Authority type default: AAD"
                 );
-                authority = createAadAuthority(authorityCommonUriBuilder, pathSegments);
+                factory = createAadAuthorityFactory(authorityCommonUriBuilder, pathSegments);
             }
         }
 
-        return authority;
+        return factory;
     }
 
     @Nullable
@@ -237,14 +288,22 @@ public abstract class Authority {
         return null != getEquivalentConfiguredAuthority(authorityStr);
     }
 
-    private static Authority createAadAuthority(@NonNull final CommonURIBuilder authorityCommonUriBuilder,
-                                                @NonNull final List<String> pathSegments) {
-        AzureActiveDirectoryAudience audience = AzureActiveDirectoryAudience.getAzureActiveDirectoryAudience(
-                authorityCommonUriBuilder.getScheme() + "://" + authorityCommonUriBuilder.getHost(),
-                pathSegments.get(0)
-        );
+    private static ResolvedAuthority.Factory createAadAuthorityFactory(@NonNull final CommonURIBuilder authorityCommonUriBuilder,
+                                                                    @NonNull final List<String> pathSegments) {
+        final String cloudUrl = authorityCommonUriBuilder.getScheme() + "://" + authorityCommonUriBuilder.getHost();
+        final String tenantId = pathSegments.get(0);
 
-        return new AzureActiveDirectoryAuthority(audience);
+        // Audiences are not modified once constructed, so all authorities created by this
+        // factory can share the one resolved here.
+        final AzureActiveDirectoryAudience audience =
+                AzureActiveDirectoryAudience.getAzureActiveDirectoryAudience(cloudUrl, tenantId);
+
+        return new ResolvedAuthority.Factory() {
+            @Override
+            public Authority create() {
+                return new AzureActiveDirectoryAuthority(audience);
+            }
+        };
     }
 
     // Suppressing rawtype warnings due to the generic type OAuth2Strategy
@@ -296,13 +355,12 @@ public abstract class Authority {
                 TAG + methodName,
                 "Performing cloud discovery..."
         );
-        synchronized (sLock) {
-            Logger.info(TAG + methodName, "Acquired lock.");
-            if (!AzureActiveDirectory.isInitialized()) {
-                Logger.info(TAG + methodName, "Not initialized. Starting request.");
-                AzureActiveDirectory.performCloudDiscovery();
-                Logger.info(TAG + methodName, "Loaded cloud metadata.");
-            }
+        // AzureActiveDirectory coalesces concurrent discovery requests, so this does not need
+        // to hold sLock (which would also block addKnownAuthorities() for the network call).
+        if (!AzureActiveDirectory.isInitialized()) {
+            Logger.info(TAG + methodName, "Not initialized. Starting request.");
+            AzureActiveDirectory.performCloudDiscovery();
+            Logger.info(TAG + methodName, "Loaded cloud metadata.");
         }
     }
 
@@ -310,6 +368,8 @@ public abstract class Authority {
         synchronized (sLock) {
             knownAuthorities.addAll(authorities);
         }
+        // Known authorities decide how an authority URL is resolved.
+        AuthorityResolutionCache.clear();
     }
 
     /**
@@ -0,0 +1,99 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.authorities;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.NonNull;
+
+/**
+ * Process-wide cache of authority URL strings to their {@link ResolvedAuthority}.
+ * <p>
+ * Apps send the same handful of authorities with every request, so this lets warm requests skip
+ * parsing the URL, looking up the audience and cloud, and deriving the endpoints.
+ * Lookups are lock-free. An entry is recomputed when the cloud metadata changes, and the whole
+ * cache is dropped when the developer-configured authorities change.
+ */
+public final class AuthorityResolutionCache {
+
+    // Authorities come from app configuration, so this is only hit by a misbehaving caller.
+    private static final int MAX_ENTRIES = 256;
+
+    private static final ConcurrentMap<String, ResolvedAuthority> sCache = new ConcurrentHashMap<>();
+
+    // Bumped by clear(), so that a resolution that raced with it is not put back into the cache.
+    private static final AtomicInteger sGeneration = new AtomicInteger();
+
+    private AuthorityResolutionCache() {
+    }
+
+    /**
+     * Resolves an authority URL, reusing a previous result if it is still current.
+     *
+     * @param authorityUrl the authority URL string.
+     * @return the resolved authority.
+     * @throws IllegalArgumentException if the authority URL is invalid.
+     */
+    @NonNull
+    public static ResolvedAuthority resolve(@NonNull final String authorityUrl) {
+        final ResolvedAuthority cached = sCache.get(authorityUrl);
+        if (cached != null && !cached.isStale()) {
+            return cached;
+        }
+
+        final int generation = sGeneration.get();
+        final ResolvedAuthority resolved = new ResolvedAuthority(
+                authorityUrl,
+                Authority.createAuthorityFactory(authorityUrl)
+        );
+
+        if (sCache.size() >= MAX_ENTRIES) {
+            sCache.clear();
+        }
+        if (generation == sGeneration.get()) {
+            sCache.put(authorityUrl, resolved);
+        }
+        return resolved;
+    }
+
+    /**
+     * @param authorityUrl the authority URL string.
+     * @return the resolved authority if it is cached and still current, otherwise null.
+     */
+    @Nullable
+    public static ResolvedAuthority getIfPresent(@NonNull final String authorityUrl) {
+        final ResolvedAuthority cached = sCache.get(authorityUrl);
+        return cached != null && !cached.isStale() ? cached : null;
+    }
+
+    /**
+     * Drops all cached entries.
+     */
+    public static void clear() {
+        sGeneration.incrementAndGet();
+        sCache.clear();
+    }
+}
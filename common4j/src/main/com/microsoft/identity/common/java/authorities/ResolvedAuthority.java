@@ -0,0 +1,167 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.authorities;
+
+import com.microsoft.identity.common.java.logging.Logger;
+import com.microsoft.identity.common.java.providers.microsoft.azureactivedirectory.AzureActiveDirectory;
+import com.microsoft.identity.common.java.providers.microsoft.azureactivedirectory.AzureActiveDirectoryCloud;
+import com.microsoft.identity.common.java.providers.microsoft.microsoftsts.MicrosoftStsOAuth2Configuration;
+
+import java.net.URI;
+import java.net.URL;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.experimental.Accessors;
+
+/**
+ * The immutable result of resolving an authority URL string: the authority type, and the
+ * cloud-specific values derived from it.
+ * <p>
+ * {@link Authority} objects are mutable, so this never hands out a shared instance;
+ * {@link #newAuthority()} creates a fresh one without re-parsing the authority URL.
+ */
+@Getter
+@Accessors(prefix = "m")
+public final class ResolvedAuthority {
+
+    private static final String TAG = ResolvedAuthority.class.getSimpleName();
+
+    /**
+     * Creates a new {@link Authority} from values that were already parsed out of the authority URL.
+     */
+    interface Factory {
+        @NonNull
+        Authority create();
+    }
+
+    /**
+     * The authority URL string this was resolved from.
+     */
+    @NonNull
+    private final String mAuthorityUrl;
+
+    @NonNull
+    private final String mAuthorityTypeString;
+
+    /**
+     * The authority URI, with the host replaced by the preferred network host if the cloud is known.
+     * Null for an {@link UnknownAuthority}.
+     */
+    @Nullable
+    private final URI mAuthorityUri;
+
+    /**
+     * Null if this authority does not use the eSTS (v2.0) endpoints.
+     */
+    @Nullable
+    private final URL mTokenEndpoint;
+
+    /**
+     * Null if this authority does not use the eSTS (v2.0) endpoints.
+     */
+    @Nullable
+    private final URL mAuthorizationEndpoint;
+
+    /**
+     * The host name that tokens for this authority are cached under.
+     * Null for an {@link UnknownAuthority}.
+     */
+    @Nullable
+    private final String mPreferredCacheEnvironment;
+
+    /**
+     * The {@link AzureActiveDirectory#getCloudMetadataVersion()} the above values were derived from.
+     */
+    private final int mCloudMetadataVersion;
+
+    @Getter(AccessLevel.NONE)
+    private final Factory mFactory;
+
+    ResolvedAuthority(@NonNull final String authorityUrl,
+                      @NonNull final Factory factory) {
+        // Read the version before the cloud metadata, so that a concurrent update makes this stale
+        // rather than letting it pass as current.
+        mCloudMetadataVersion = AzureActiveDirectory.getCloudMetadataVersion();
+        mAuthorityUrl = authorityUrl;
+        mFactory = factory;
+
+        final Authority authority = factory.create();
+        mAuthorityTypeString = authority.getAuthorityTypeString();
+
+        URI authorityUri = null;
+        URL tokenEndpoint = null;
+        URL authorizationEndpoint = null;
+        String preferredCacheEnvironment = null;
+
+        if (!(authority instanceof UnknownAuthority)) {
+            try {
+                authorityUri = authority.getAuthorityUri();
+                final URL url = authority.getAuthorityURL();
+
+                if (authority instanceof AzureActiveDirectoryAuthority
+                        || authority instanceof AzureActiveDirectoryB2CAuthority
+                        || authority instanceof CIAMAuthority) {
+                    final MicrosoftStsOAuth2Configuration config = new MicrosoftStsOAuth2Configuration();
+                    config.setAuthorityUrl(url);
+                    tokenEndpoint = config.getTokenEndpoint();
+                    authorizationEndpoint = config.getAuthorizationEndpoint();
+                }
+
+                final AzureActiveDirectoryCloud cloud = AzureActiveDirectory.getAzureActiveDirectoryCloud(url);
+                preferredCacheEnvironment = cloud != null
+                        ? cloud.getPreferredCacheHostName()
+                        : url.getHost();
+            } catch (final IllegalArgumentException e) {
+                // The authority type could be determined, but it is not a usable URL.
+                // Leave the derived values unset; using the Authority itself will fail as before.
+                Logger.warn(TAG + ":ResolvedAuthority", "Unable to derive endpoints: " + e.getMessage());
+                authorityUri = null;
+                tokenEndpoint = null;
+                authorizationEndpoint = null;
+            }
+        }
+
+        mAuthorityUri = authorityUri;
+        mTokenEndpoint = tokenEndpoint;
+        mAuthorizationEndpoint = authorizationEndpoint;
+        mPreferredCacheEnvironment = preferredCacheEnvironment;
+    }
+
+    /**
+     * @return a new {@link Authority} instance for this authority URL.
+     */
+    @NonNull
+    public Authority newAuthority() {
+        return mFactory.create();
+    }
+
+    /**
+     * @return true if the cloud metadata has changed since this was resolved.
+     */
+    boolean isStale() {
+        return mCloudMetadataVersion != AzureActiveDirectory.getCloudMetadataVersion();
+    }
+}
@@ -105,9 +105,12 @@ public abstract class AbstractAccountCredentialCache implements IAccountCredenti
 
         Logger.verbose(
                 TAG,
-                "Account lookup filtered by home_account_id? [" + mustMatchOnHomeAccountId + "]"
+                null,
+                "Account lookup filtered by home_account_id? [%s]"
                         + NEW_LINE
-                        + "Account lookup filtered by realm? [" + mustMatchOnRealm + "]"
+                        + "Account lookup filtered by realm? [%s]",
+                mustMatchOnHomeAccountId,
+                mustMatchOnRealm
         );
 
         final List<AccountRecord> matchingAccounts = new ArrayList<>();
@@ -134,7 +137,9 @@ public abstract class AbstractAccountCredentialCache implements IAccountCredenti
 
         Logger.verbose(
                 TAG,
-                "Found [" + matchingAccounts.size() + "] matching accounts"
+                null,
+                "Found [%d] matching accounts",
+                matchingAccounts.size()
         );
 
         return matchingAccounts;
@@ -169,23 +174,33 @@ public abstract class AbstractAccountCredentialCache implements IAccountCredenti
 
         Logger.verbose(
                 TAG,
-                "Credential lookup filtered by home_account_id? [" + mustMatchOnHomeAccountId + "]"
+                null,
+                "Credential lookup filtered by home_account_id? [%s]"
                         + NEW_LINE
-                        + "Credential lookup filtered by realm? [" + mustMatchOnRealm + "]"
+                        + "Credential lookup filtered by realm? [%s]"
                         + NEW_LINE
-                        + "Credential lookup filtered by target? [" + mustMatchOnTarget + "]"
+                        + "Credential lookup filtered by target? [%s]"
                         + NEW_LINE
-                        + "Credential lookup filtered by clientId? [" + mustMatchOnClientId + "]"
+                        + "Credential lookup filtered by clientId? [%s]"
                         + NEW_LINE
-                        + "Credential lookup filtered by applicationIdentifier? [" + mustMatchOnApplicationIdentifier + "]"
+                        + "Credential lookup filtered by applicationIdentifier? [%s]"
                         + NEW_LINE
-                        + "Credential lookup filtered by mamEnrollmentIdentifier? [" + mustMatchOnMamEnrollmentIdentifier + "]"
+                        + "Credential lookup filtered by mamEnrollmentIdentifier? [%s]"
                         + NEW_LINE
-                        + "Credential lookup filtered by credential type? [" + mustMatchOnCredentialType + "]"
+                        + "Credential lookup filtered by credential type? [%s]"
                         + NEW_LINE
-                        + "Credential lookup filtered by auth scheme? [" + mustMatchOnAuthScheme + "]"
+                        + "Credential lookup filtered by auth scheme? [%s]"
                         + NEW_LINE
-                        + "Credential lookup filtered by requested claims? [" + mustMatchOnRequestedClaims + "]"
+                        + "Credential lookup filtered by requested claims? [%s]",
+                mustMatchOnHomeAccountId,
+                mustMatchOnRealm,
+                mustMatchOnTarget,
+                mustMatchOnClientId,
+                mustMatchOnApplicationIdentifier,
+                mustMatchOnMamEnrollmentIdentifier,
+                mustMatchOnCredentialType,
+                mustMatchOnAuthScheme,
+                mustMatchOnRequestedClaims
         );
 
         final List<Credential> matchingCredentials = new ArrayList<>();
@@ -38,6 +38,7 @@ import com.microsoft.identity.common.java.dto.PrimaryRefreshTokenRecord;
 import com.microsoft.identity.common.java.dto.RefreshTokenRecord;
 import com.microsoft.identity.common.java.logging.Logger;
 import com.microsoft.identity.common.java.providers.oauth2.TokenRequest;
+import com.microsoft.identity.common.java.util.GsonRegistry;
 import com.microsoft.identity.common.java.util.StringUtil;
 
 import java.lang.reflect.Field;
@@ -81,7 +82,7 @@ public class CacheKeyValueDelegate implements ICacheKeyValueDelegate {
      * Default constructor of CacheKeyValueDelegate.
      */
     public CacheKeyValueDelegate() {
-        mGson = new Gson();
+        mGson = GsonRegistry.DEFAULT;
         Logger.verbose(TAG, "Init: " + TAG);
     }
 
@@ -45,6 +45,7 @@ import com.microsoft.identity.common.java.exception.ClientException;
 import com.microsoft.identity.common.java.interfaces.INameValueStorage;
 import com.microsoft.identity.common.java.interfaces.IPlatformComponents;
 import com.microsoft.identity.common.java.logging.Logger;
+import com.microsoft.identity.common.java.opentelemetry.SdkMetrics;
 import com.microsoft.identity.common.java.providers.microsoft.MicrosoftAccount;
 import com.microsoft.identity.common.java.providers.microsoft.MicrosoftRefreshToken;
 import com.microsoft.identity.common.java.providers.microsoft.microsoftsts.MicrosoftStsAuthorizationRequest;
@@ -353,6 +354,7 @@ public class MsalOAuth2TokenCache
     public ICacheRecord save(@NonNull final GenericOAuth2Strategy oAuth2Strategy,
                              @NonNull final GenericAuthorizationRequest request,
                              @NonNull final GenericTokenResponse response) throws ClientException {
+        final long startNanos = System.nanoTime();
         // Create the Account
         final AccountRecord accountToSave =
                 mAccountCredentialAdapter.createAccount(
@@ -407,6 +409,7 @@ public class MsalOAuth2TokenCache
         result.refreshToken(refreshTokenToSave);
         setToCacheRecord(result, idTokenToSave);
 
+        SdkMetrics.recordCacheOperation(SdkMetrics.CacheOperation.save, System.nanoTime() - startNanos);
         return result.build();
     }
 
@@ -715,6 +718,7 @@ public class MsalOAuth2TokenCache
                              @Nullable final String target,
                              @NonNull final AccountRecord account,
                              @NonNull final AbstractAuthenticationScheme authScheme) {
+        final long startNanos = System.nanoTime();
         Telemetry.emit(new CacheStartEvent());
 
         final boolean isMultiResourceCapable = MicrosoftAccount.AUTHORITY_TYPE_MS_STS.equals(
@@ -819,13 +823,19 @@ public class MsalOAuth2TokenCache
                 allCredentials
         );
 
+        final AccessTokenRecord accessToken = accessTokens.isEmpty() ? null : (AccessTokenRecord) accessTokens.get(0);
         final CacheRecord.CacheRecordBuilder result = CacheRecord.builder();
         result.account(account);
-        result.accessToken(accessTokens.isEmpty() ? null : (AccessTokenRecord) accessTokens.get(0));
+        result.accessToken(accessToken);
         result.refreshToken(refreshTokens.isEmpty() ? null : (RefreshTokenRecord) refreshTokens.get(0));
         result.idToken(idTokens.isEmpty() ? null : (IdTokenRecord) idTokens.get(0));
         result.v1IdToken(v1IdTokens.isEmpty() ? null : (IdTokenRecord) v1IdTokens.get(0));
 
+        // Same check the silent flow makes before returning the cached access token: a token that
+        // is past its refresh_on is still returned (and refreshed in the background), an expired
+        // one is not.
+        SdkMetrics.recordCacheLookup(accessToken != null && !accessToken.isExpired());
+        SdkMetrics.recordCacheOperation(SdkMetrics.CacheOperation.load, System.nanoTime() - startNanos);
         Telemetry.emit(new CacheEndEvent().putCacheRecordStatus(result.build()));
         return result.build();
     }
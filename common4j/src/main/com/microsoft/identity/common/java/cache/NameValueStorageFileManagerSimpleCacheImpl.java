@@ -28,6 +28,8 @@ import com.google.gson.Gson;
 import com.microsoft.identity.common.java.interfaces.IPlatformComponents;
 import com.microsoft.identity.common.java.interfaces.INameValueStorage;
 import com.microsoft.identity.common.java.logging.Logger;
+import com.microsoft.identity.common.java.opentelemetry.SdkMetrics;
+import com.microsoft.identity.common.java.util.GsonRegistry;
 import com.microsoft.identity.common.java.util.StringUtil;
 
 import java.util.HashSet;
@@ -57,7 +59,7 @@ public abstract class NameValueStorageFileManagerSimpleCacheImpl<T> implements I
     private final INameValueStorage<String> mStorage;
     private final String mKeySingleEntry;
     private final boolean mForceReinsertionOfDuplicates;
-    private final Gson mGson = new Gson();
+    private final Gson mGson = GsonRegistry.DEFAULT;
 
     /**
      * Constructs a new NameValueStorageFileManagerSimpleCacheImpl. Convenience class for persisting
@@ -114,6 +116,7 @@ public abstract class NameValueStorageFileManagerSimpleCacheImpl<T> implements I
             final long execTime =  mComponents.getPlatformUtil().getNanosecondTime() - startTime;
             Logger.verbose(TAG + TIMING_TAG,
                     runnable.getName() + " finished in: " + execTime + " " + TimeUnit.NANOSECONDS.name());
+            SdkMetrics.recordStorageOperation(runnable.getName(), execTime);
         }
 
         return v;
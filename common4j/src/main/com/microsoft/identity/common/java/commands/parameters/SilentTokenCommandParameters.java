@@ -45,8 +45,6 @@ public class SilentTokenCommandParameters extends TokenCommandParameters {
 
     private static final String TAG = SilentTokenCommandParameters.class.getSimpleName();
 
-    private static final Object sLock = new Object();
-
     @Override
     public void validate() throws ArgumentException {
         super.validate();
@@ -115,8 +113,7 @@ public class SilentTokenCommandParameters extends TokenCommandParameters {
                 TAG + methodName,
                 "Performing cloud discovery..."
         );
-        synchronized (sLock) {
-            AzureActiveDirectory.performCloudDiscovery();
-        }
+        // AzureActiveDirectory coalesces concurrent discovery requests, no need to serialize here.
+        AzureActiveDirectory.performCloudDiscovery();
     }
 }
@@ -60,7 +60,7 @@ public class LibraryConfiguration {
     }
 
     private static synchronized LibraryConfiguration createDefaultInstance() {
-        return LibraryConfiguration.builder().authorizationInCurrentTask(false).refreshInEnabled(false).build();
+        return LibraryConfiguration.builder().authorizationInCurrentTask(false).refreshInEnabled(false).proactiveRefreshEnabled(false).build();
     }
 
     /**
@@ -78,4 +78,10 @@ public class LibraryConfiguration {
      */
     private boolean refreshInEnabled;
 
+    /**
+     * Determines whether recently used access tokens are refreshed in the background
+     * ahead of their refresh_on/expires_on time.
+     */
+    private boolean proactiveRefreshEnabled;
+
 }
@@ -34,6 +34,7 @@ import com.microsoft.identity.common.java.authorities.Authority;
 import com.microsoft.identity.common.java.authorities.AzureActiveDirectoryAudience;
 import com.microsoft.identity.common.java.authorities.AzureActiveDirectoryAuthority;
 import com.microsoft.identity.common.java.authscheme.AbstractAuthenticationScheme;
+import com.microsoft.identity.common.java.authscheme.IPoPAuthenticationSchemeParams;
 import com.microsoft.identity.common.java.authscheme.ITokenAuthenticationSchemeInternal;
 import com.microsoft.identity.common.java.cache.CacheRecord;
 import com.microsoft.identity.common.java.cache.ICacheRecord;
@@ -42,6 +43,7 @@ import com.microsoft.identity.common.java.cache.MsalOAuth2TokenCache;
 import com.microsoft.identity.common.java.commands.parameters.BrokerSilentTokenCommandParameters;
 import com.microsoft.identity.common.java.commands.parameters.CommandParameters;
 import com.microsoft.identity.common.java.commands.parameters.DeviceCodeFlowCommandParameters;
+import com.microsoft.identity.common.java.commands.parameters.GenerateShrBatchCommandParameters;
 import com.microsoft.identity.common.java.commands.parameters.GenerateShrCommandParameters;
 import com.microsoft.identity.common.java.commands.parameters.IHasExtraParameters;
 import com.microsoft.identity.common.java.commands.parameters.InteractiveTokenCommandParameters;
@@ -79,6 +81,7 @@ import com.microsoft.identity.common.java.providers.oauth2.TokenResponse;
 import com.microsoft.identity.common.java.providers.oauth2.TokenResult;
 import com.microsoft.identity.common.java.request.SdkType;
 import com.microsoft.identity.common.java.result.AcquireTokenResult;
+import com.microsoft.identity.common.java.result.GenerateShrBatchResult;
 import com.microsoft.identity.common.java.result.GenerateShrResult;
 import com.microsoft.identity.common.java.result.LocalAuthenticationResult;
 import com.microsoft.identity.common.java.telemetry.CliTelemInfo;
@@ -268,7 +271,7 @@ public abstract class BaseController {
         UUID correlationId = null;
 
         try {
-            correlationId = UUID.fromString(DiagnosticContext.INSTANCE.getRequestContext().get(DiagnosticContext.CORRELATION_ID));
+            correlationId = UUID.fromString(DiagnosticContext.INSTANCE.getSnapshot().getCorrelationId());
         } catch (IllegalArgumentException ex) {
             Logger.error(TAG, "correlation id from diagnostic context is not a UUID", ex);
         }
@@ -1155,6 +1158,41 @@ public abstract class BaseController {
      */
     public abstract GenerateShrResult generateSignedHttpRequest(GenerateShrCommandParameters parameters) throws Exception;
 
+    /**
+     * Generates several SHRs sans AT for one account. By default this makes one
+     * {@link #generateSignedHttpRequest(GenerateShrCommandParameters)} call per entry; controllers
+     * which can sign locally should override it to share the key across the batch.
+     *
+     * @param parameters The input command params.
+     * @return The {@link GenerateShrBatchResult} containing the resulting SHRs, or the error of
+     * the first request which failed.
+     * @throws Exception If an error is encountered during SHR generation.
+     */
+    public GenerateShrBatchResult generateSignedHttpRequests(@NonNull final GenerateShrBatchCommandParameters parameters)
+            throws Exception {
+        final GenerateShrBatchResult batchResult = new GenerateShrBatchResult();
+        final List<String> shrs = new ArrayList<>(parameters.getBatchPopParameters().size());
+
+        for (final IPoPAuthenticationSchemeParams popParameters : parameters.getBatchPopParameters()) {
+            final GenerateShrResult result = generateSignedHttpRequest(
+                    parameters.toBuilder()
+                            .popParameters(popParameters)
+                            .build()
+            );
+
+            if (null != result.getErrorCode()) {
+                batchResult.setErrorCode(result.getErrorCode());
+                batchResult.setErrorMessage(result.getErrorMessage());
+                return batchResult;
+            }
+
+            shrs.add(result.getShr());
+        }
+
+        batchResult.setShrs(shrs);
+        return batchResult;
+    }
+
     /**
      * Helper method for Device Code Flow (DCF) to check if a result object is valid (was a success). If not, an exception will be generated and thrown.
      * This method is called in both parts of the DCF protocol.
@@ -67,7 +67,9 @@ import com.microsoft.identity.common.java.nativeauth.commands.parameters.BaseNat
 import com.microsoft.identity.common.java.nativeauth.util.ILoggable;
 import com.microsoft.identity.common.java.opentelemetry.AttributeName;
 import com.microsoft.identity.common.java.opentelemetry.OtelContextExtension;
+import com.microsoft.identity.common.java.opentelemetry.SdkMetrics;
 import com.microsoft.identity.common.java.opentelemetry.SpanExtension;
+import com.microsoft.identity.common.java.providers.microsoft.azureactivedirectory.AzureActiveDirectory;
 import com.microsoft.identity.common.java.providers.oauth2.AuthorizationResult;
 import com.microsoft.identity.common.java.request.SdkType;
 import com.microsoft.identity.common.java.result.AcquireTokenResult;
@@ -94,6 +96,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import edu.umd.cs.findbugs.annotations.Nullable;
 import lombok.NonNull;
@@ -112,6 +115,8 @@ public class CommandDispatcher {
 
     private static final Object mapAccessLock = new Object();
 
+    private static final AtomicBoolean sLocalBroadcasterConfigured = new AtomicBoolean(false);
+
     //@GuardedBy("mapAccessLock")
     //Suppressing rawtype warnings due to the generic type BaseCommand
     @SuppressWarnings(WarningType.rawtype_warning)
@@ -341,9 +346,11 @@ public class CommandDispatcher {
                     sExecutingCommandMap.size()
             );
 
+            final long enqueuedAtNanos = System.nanoTime();
             commandExecutor.execute(OtelContextExtension.wrap(new Runnable() {
                 @Override
                 public void run() {
+                    recordQueueWait(command, enqueuedAtNanos);
                     codeMarkerManager.markCode(isDeviceCodeFlowRequest ? ACQUIRE_TOKEN_DCF_EXECUTOR_START : ACQUIRE_TOKEN_SILENT_EXECUTOR_START);
                     try {
                         //initializing again since the request is transferred to a different thread pool
@@ -352,6 +359,7 @@ public class CommandDispatcher {
                                 commandParameters.getSdkVersion());
 
                         initTelemetryForCommand(command);
+                        initCloudMetadataForCommand(command);
 
                         EstsTelemetry.getInstance().emitApiId(command.getPublicApiId());
 
@@ -428,9 +436,11 @@ public class CommandDispatcher {
         synchronized (mapAccessLock) {
             final FinalizableResultFuture<CommandResult> finalFuture = new FinalizableResultFuture<>();
             finalFuture.whenComplete(getCommandResultConsumer(command));
+            final long enqueuedAtNanos = System.nanoTime();
             sSilentExecutor.execute(OtelContextExtension.wrap(new Runnable() {
                 @Override
                 public void run() {
+                    recordQueueWait(command, enqueuedAtNanos);
 
                     try {
                         //initializing again since the request is transferred to a different thread pool
@@ -465,6 +475,14 @@ public class CommandDispatcher {
         EstsTelemetry.getInstance().initTelemetryForCommand(command);
     }
 
+    /**
+     * Hydrates the AAD cloud metadata from its persisted snapshot (once per process), so that
+     * the command does not have to wait for instance discovery over the network.
+     */
+    private static void initCloudMetadataForCommand(@NonNull final BaseCommand<?> command) {
+        AzureActiveDirectory.setUp(command.getParameters().getPlatformComponents());
+    }
+
     private static void logParameters(@NonNull String tag, @NonNull String correlationId,
                                       @NonNull CommandParameters parameters,
                                       @Nullable String publicApiId) {
@@ -472,7 +490,7 @@ public class CommandDispatcher {
 
         //TODO:1315871 - conversion of PublicApiId in readable form.
         Logger.info(TAG, "Starting request with request context: "
-                        + DiagnosticContext.INSTANCE.getRequestContext().toJsonString()
+                        + ObjectMapper.serializeObjectToJsonString(DiagnosticContext.INSTANCE.getSnapshot().getRequestContext())
                         + ", with PublicApiId: " + publicApiId);
 
         parameters.logParameters(TAG, correlationId);
@@ -533,6 +551,7 @@ public class CommandDispatcher {
      */
     private static CommandResult executeCommand(@SuppressWarnings(WarningType.rawtype_warning) BaseCommand command) {
 
+        final long startNanos = System.nanoTime();
         Object result = null;
         BaseException baseException = null;
         CommandResult<?> commandResult = null;
@@ -575,12 +594,26 @@ public class CommandDispatcher {
             }
         }
 
+        SdkMetrics.recordCommandExecution(
+                command.getClass().getSimpleName(),
+                commandResult.getStatus().name(),
+                System.nanoTime() - startNanos
+        );
+
         // set correlation id on Local Authentication Result
         setCorrelationIdOnResult(commandResult, correlationId);
         setTelemetryOnResultAndFlush(commandResult, correlationId);
         return commandResult;
     }
 
+    private static void recordQueueWait(@SuppressWarnings(WarningType.rawtype_warning) @NonNull final BaseCommand command,
+                                        final long enqueuedAtNanos) {
+        SdkMetrics.recordCommandQueueWait(
+                command.getClass().getSimpleName(),
+                System.nanoTime() - enqueuedAtNanos
+        );
+    }
+
     private static void setTelemetryOnResultAndFlush(@NonNull final CommandResult commandResult,
                                                      @NonNull final String correlationId) {
         final List<Map<String, String>> telemetryMap = Telemetry.getInstance().getMap(correlationId);
@@ -732,9 +765,11 @@ public class CommandDispatcher {
                     }
                 }
 
+                final long enqueuedAtNanos = System.nanoTime();
                 sInteractiveExecutor.execute(OtelContextExtension.wrap(new Runnable() {
                     @Override
                     public void run() {
+                        recordQueueWait(command, enqueuedAtNanos);
                         final CommandParameters commandParameters = command.getParameters();
                         final String correlationId = initializeDiagnosticContext(
                                 commandParameters.getCorrelationId(),
@@ -749,6 +784,7 @@ public class CommandDispatcher {
                             logParameters(TAG + methodName, correlationId, commandParameters, command.getPublicApiId());
 
                             initTelemetryForCommand(command);
+                            initCloudMetadataForCommand(command);
 
                             EstsTelemetry.getInstance().emitApiId(command.getPublicApiId());
 
@@ -819,6 +855,8 @@ public class CommandDispatcher {
                     UUID.randomUUID().toString() :
                     requestCorrelationId;
 
+            configureLocalBroadcaster();
+
             final RequestContext rc = new RequestContext();
             rc.put(DiagnosticContext.CORRELATION_ID, correlationId);
             rc.put(PRODUCT, sdkType);
@@ -832,6 +870,23 @@ public class CommandDispatcher {
             return correlationId;
         }
 
+        /**
+         * Switches {@link LocalBroadcaster} to per-alias dispatch if its flight is on. Only done
+         * for the first request, so the mode does not change while broadcasts are in flight.
+         */
+        private static void configureLocalBroadcaster() {
+            if (!sLocalBroadcasterConfigured.compareAndSet(false, true)
+                    || !CommonFlightManager.isFlightEnabled(CommonFlight.ENABLE_PER_ALIAS_LOCAL_BROADCAST)) {
+                return;
+            }
+
+            LocalBroadcaster.setDispatchMode(LocalBroadcaster.DispatchMode.PER_ALIAS);
+            // A waiting interactive request is unblocked by these, so don't queue them
+            // behind unrelated broadcasts.
+            LocalBroadcaster.INSTANCE.markLatencyCritical(CANCEL_AUTHORIZATION_REQUEST);
+            LocalBroadcaster.INSTANCE.markLatencyCritical(RETURN_AUTHORIZATION_REQUEST_RESULT);
+        }
+
         public static int getCachedResultCount () {
             return sCommandResultCache.getSize();
         }
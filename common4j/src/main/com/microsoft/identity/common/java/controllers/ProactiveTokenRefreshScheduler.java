@@ -0,0 +1,438 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.controllers;
+
+import com.microsoft.identity.common.java.WarningType;
+import com.microsoft.identity.common.java.dto.AccessTokenRecord;
+import com.microsoft.identity.common.java.exception.ServiceException;
+import com.microsoft.identity.common.java.logging.Logger;
+import com.microsoft.identity.common.java.util.BiConsumer;
+import com.microsoft.identity.common.java.util.IClock;
+import com.microsoft.identity.common.java.util.ResultFuture;
+import com.microsoft.identity.common.java.util.ThreadUtils;
+
+import java.net.HttpURLConnection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.NonNull;
+
+/**
+ * Opt-in scheduler which refreshes recently used access tokens ahead of their refresh_on
+ * (or expires_on) time, so that silent requests keep being served from the cache instead of
+ * paying for a network round-trip once the token goes stale.
+ * <p>
+ * Tokens are tracked per (account, client id, scopes) tuple. At most {@link #MAX_TRACKED_ENTRIES}
+ * tuples are tracked (the least recently used is evicted), and a tuple which has not been used
+ * for {@link #IDLE_TIMEOUT_MILLIS} is dropped instead of refreshed. Refreshes are spread with
+ * random jitter, no more than {@link #MAX_CONCURRENT_REFRESHES} run at once, and once eSTS
+ * throttles a refresh every scheduled refresh is held back until its Retry-After (or an
+ * exponential backoff) has elapsed.
+ */
+@SuppressWarnings(WarningType.rawtype_warning)
+public class ProactiveTokenRefreshScheduler {
+
+    private static final String TAG = ProactiveTokenRefreshScheduler.class.getSimpleName();
+
+    static final int MAX_TRACKED_ENTRIES = 32;
+    static final int MAX_CONCURRENT_REFRESHES = 2;
+    static final long REFRESH_AHEAD_OF_EXPIRY_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    static final long MAX_JITTER_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    static final long IDLE_TIMEOUT_MILLIS = TimeUnit.HOURS.toMillis(1);
+    static final long CONCURRENCY_RETRY_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(5);
+    static final long MIN_THROTTLE_BACKOFF_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    static final long MAX_THROTTLE_BACKOFF_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final String RETRY_AFTER_HEADER = "Retry-After";
+    private static final String KEY_DELIMITER = "|";
+
+    /**
+     * Starts a single background refresh of a tracked token.
+     */
+    public interface IRefreshTask {
+        /**
+         * @return a future which completes with the result of the refresh command.
+         */
+        ResultFuture<CommandResult> start();
+    }
+
+    private static final class Entry {
+        private final String mKey;
+        private final long mDueMillis;
+        private final long mExpiresOnMillis;
+        private final IRefreshTask mTask;
+        private long mLastUsedMillis;
+        private boolean mInFlight;
+        private boolean mRemoved;
+        private ScheduledFuture<?> mScheduledFuture;
+
+        private Entry(@NonNull final String key,
+                      final long dueMillis,
+                      final long expiresOnMillis,
+                      @NonNull final IRefreshTask task,
+                      final long lastUsedMillis) {
+            mKey = key;
+            mDueMillis = dueMillis;
+            mExpiresOnMillis = expiresOnMillis;
+            mTask = task;
+            mLastUsedMillis = lastUsedMillis;
+        }
+    }
+
+    private static final class InstanceHolder {
+        private static final ProactiveTokenRefreshScheduler INSTANCE = new ProactiveTokenRefreshScheduler(
+                ThreadUtils.getNamedScheduledExecutor(1, TimeUnit.MINUTES, "proactive-token-refresh"),
+                IClock.SYSTEM,
+                new Random(),
+                MAX_JITTER_MILLIS
+        );
+    }
+
+    public static ProactiveTokenRefreshScheduler getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    private final ScheduledExecutorService mExecutor;
+    private final IClock mClock;
+    private final Random mRandom;
+    private final long mMaxJitterMillis;
+
+    private final Object mLock = new Object();
+
+    // Access ordered, so that iteration starts from the least recently used entry.
+    //@GuardedBy("mLock")
+    private final Map<String, Entry> mEntries = new LinkedHashMap<>(16, 0.75f, true);
+
+    //@GuardedBy("mLock")
+    private int mInFlightCount = 0;
+
+    //@GuardedBy("mLock")
+    private int mConsecutiveThrottles = 0;
+
+    //@GuardedBy("mLock")
+    private long mThrottledUntilMillis = 0;
+
+    //@VisibleForTesting
+    ProactiveTokenRefreshScheduler(@NonNull final ScheduledExecutorService executor,
+                                   @NonNull final IClock clock,
+                                   @NonNull final Random random,
+                                   final long maxJitterMillis) {
+        mExecutor = executor;
+        mClock = clock;
+        mRandom = random;
+        mMaxJitterMillis = maxJitterMillis;
+    }
+
+    /**
+     * Tracks the given access token, which has just been served from the cache, and schedules
+     * its refresh ahead of its refresh_on (or expires_on) time.
+     * Tracking the same token again only marks it as recently used.
+     *
+     * @param accessToken the access token which was served.
+     * @param task        starts a refresh of this token.
+     */
+    public void track(@NonNull final AccessTokenRecord accessToken,
+                      @NonNull final IRefreshTask task) {
+        final String methodTag = TAG + ":track";
+
+        final long expiresOnMillis;
+        final long refreshOnMillis;
+        try {
+            expiresOnMillis = accessToken.getExpiresOnMillis();
+            final String refreshOn = accessToken.getRefreshOn();
+            refreshOnMillis = refreshOn == null || refreshOn.isEmpty()
+                    ? Long.MAX_VALUE
+                    : accessToken.getRefreshOnMillis();
+        } catch (final NumberFormatException e) {
+            Logger.warn(methodTag, "Access token has no valid expiry, not tracking it.");
+            return;
+        }
+
+        final String key = getKey(accessToken);
+        final long dueMillis = Math.min(refreshOnMillis, expiresOnMillis - REFRESH_AHEAD_OF_EXPIRY_MILLIS);
+
+        synchronized (mLock) {
+            final long now = mClock.currentTimeMillis();
+            final Entry existing = mEntries.get(key);
+            if (existing != null
+                    && (existing.mInFlight || existing.mExpiresOnMillis == expiresOnMillis)) {
+                existing.mLastUsedMillis = now;
+                return;
+            }
+
+            if (existing != null) {
+                removeLocked(existing);
+            }
+
+            final Entry entry = new Entry(key, dueMillis, expiresOnMillis, task, now);
+            mEntries.put(key, entry);
+            evictLocked();
+
+            long fireAtMillis = dueMillis - nextJitterMillis();
+            if (fireAtMillis < now) {
+                fireAtMillis = now + nextJitterMillis();
+            }
+            scheduleLocked(entry, fireAtMillis);
+        }
+    }
+
+    /**
+     * Stops tracking all tokens and cancels all scheduled refreshes.
+     */
+    public void clear() {
+        synchronized (mLock) {
+            for (final Entry entry : mEntries.values()) {
+                cancelLocked(entry);
+            }
+            mEntries.clear();
+            mThrottledUntilMillis = 0;
+            mConsecutiveThrottles = 0;
+        }
+    }
+
+    //@VisibleForTesting
+    int getTrackedCount() {
+        synchronized (mLock) {
+            return mEntries.size();
+        }
+    }
+
+    //@VisibleForTesting
+    long getThrottledUntilMillis() {
+        synchronized (mLock) {
+            return mThrottledUntilMillis;
+        }
+    }
+
+    private void onDue(@NonNull final Entry entry) {
+        final String methodTag = TAG + ":onDue";
+
+        synchronized (mLock) {
+            if (entry.mRemoved) {
+                return;
+            }
+
+            final long now = mClock.currentTimeMillis();
+            if (now - entry.mLastUsedMillis > IDLE_TIMEOUT_MILLIS) {
+                Logger.verbose(methodTag, "Token was not used recently, dropping it.");
+                removeLocked(entry);
+                return;
+            }
+
+            if (now < mThrottledUntilMillis) {
+                scheduleLocked(entry, mThrottledUntilMillis + nextJitterMillis());
+                return;
+            }
+
+            if (mInFlightCount >= MAX_CONCURRENT_REFRESHES) {
+                scheduleLocked(entry, now + CONCURRENCY_RETRY_DELAY_MILLIS + nextJitterMillis());
+                return;
+            }
+
+            mInFlightCount++;
+            entry.mInFlight = true;
+        }
+
+        Logger.info(methodTag, "Refreshing access token ahead of expiry.");
+        try {
+            entry.mTask.start().whenComplete(new BiConsumer<CommandResult, Throwable>() {
+                @Override
+                public void accept(@Nullable final CommandResult result, @Nullable final Throwable throwable) {
+                    onRefreshCompleted(entry, result, throwable);
+                }
+            });
+        } catch (final RuntimeException e) {
+            onRefreshCompleted(entry, null, e);
+        }
+    }
+
+    private void onRefreshCompleted(@NonNull final Entry entry,
+                                    @Nullable final CommandResult result,
+                                    @Nullable final Throwable throwable) {
+        final String methodTag = TAG + ":onRefreshCompleted";
+        final ServiceException throttledException = getThrottledException(result, throwable);
+
+        synchronized (mLock) {
+            mInFlightCount--;
+            entry.mInFlight = false;
+
+            if (throttledException == null) {
+                mConsecutiveThrottles = 0;
+                // Refreshed (or failed for good): the new token is tracked again on its next use.
+                removeLocked(entry);
+                return;
+            }
+
+            final long now = mClock.currentTimeMillis();
+            final long backoffMillis = getThrottleBackoffMillis(throttledException, mConsecutiveThrottles);
+            mConsecutiveThrottles++;
+            mThrottledUntilMillis = Math.max(mThrottledUntilMillis, now + backoffMillis);
+
+            Logger.warn(methodTag, "Refresh was throttled, holding back proactive refreshes for "
+                    + backoffMillis + " ms.");
+
+            if (!entry.mRemoved) {
+                scheduleLocked(entry, mThrottledUntilMillis + nextJitterMillis());
+            }
+        }
+    }
+
+    //@GuardedBy("mLock")
+    private void scheduleLocked(@NonNull final Entry entry, final long fireAtMillis) {
+        final String methodTag = TAG + ":scheduleLocked";
+
+        if (fireAtMillis >= entry.mExpiresOnMillis) {
+            // Too late to be of any use, the token will be refreshed by the request itself.
+            removeLocked(entry);
+            return;
+        }
+
+        cancelLocked(entry);
+        try {
+            entry.mScheduledFuture = mExecutor.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    onDue(entry);
+                }
+            }, Math.max(0, fireAtMillis - mClock.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (final RejectedExecutionException e) {
+            Logger.error(methodTag, "Failed to schedule token refresh.", e);
+            removeLocked(entry);
+        }
+    }
+
+    //@GuardedBy("mLock")
+    private void evictLocked() {
+        final Iterator<Entry> iterator = mEntries.values().iterator();
+        while (mEntries.size() > MAX_TRACKED_ENTRIES && iterator.hasNext()) {
+            final Entry eldest = iterator.next();
+            iterator.remove();
+            eldest.mRemoved = true;
+            cancelLocked(eldest);
+        }
+    }
+
+    //@GuardedBy("mLock")
+    private void removeLocked(@NonNull final Entry entry) {
+        entry.mRemoved = true;
+        cancelLocked(entry);
+        // Only remove the mapping if it has not been replaced by a newer entry.
+        final Iterator<Entry> iterator = mEntries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() == entry) {
+                iterator.remove();
+                return;
+            }
+        }
+    }
+
+    //@GuardedBy("mLock")
+    private static void cancelLocked(@NonNull final Entry entry) {
+        if (entry.mScheduledFuture != null) {
+            entry.mScheduledFuture.cancel(false);
+            entry.mScheduledFuture = null;
+        }
+    }
+
+    //@GuardedBy("mLock")
+    private long nextJitterMillis() {
+        return mMaxJitterMillis <= 0 ? 0 : (long) (mRandom.nextDouble() * mMaxJitterMillis);
+    }
+
+    /**
+     * Returns the {@link ServiceException} of a refresh which eSTS throttled, or null otherwise.
+     */
+    @Nullable
+    private static ServiceException getThrottledException(@Nullable final CommandResult result,
+                                                          @Nullable final Throwable throwable) {
+        Object error = throwable;
+        if (error instanceof ExecutionException) {
+            error = ((ExecutionException) error).getCause();
+        }
+        if (error == null && result != null && result.getStatus() == CommandResult.ResultStatus.ERROR) {
+            error = result.getResult();
+        }
+
+        if (!(error instanceof ServiceException)) {
+            return null;
+        }
+
+        final ServiceException serviceException = (ServiceException) error;
+        if (serviceException.getHttpStatusCode() == HTTP_TOO_MANY_REQUESTS
+                || serviceException.getHttpStatusCode() == HttpURLConnection.HTTP_UNAVAILABLE
+                || ServiceException.REQUEST_THROTTLED_AT_ESTS_GATEWAY.equals(serviceException.getErrorCode())) {
+            return serviceException;
+        }
+
+        return null;
+    }
+
+    /**
+     * Honours the Retry-After header (in seconds) when present, otherwise backs off exponentially.
+     */
+    private static long getThrottleBackoffMillis(@NonNull final ServiceException exception,
+                                                 final int consecutiveThrottles) {
+        final Map<String, List<String>> headers = exception.getHttpResponseHeaders();
+        if (headers != null) {
+            for (final Map.Entry<String, List<String>> header : headers.entrySet()) {
+                if (RETRY_AFTER_HEADER.equalsIgnoreCase(header.getKey())
+                        && header.getValue() != null
+                        && !header.getValue().isEmpty()) {
+                    try {
+                        final long retryAfterSeconds = Long.parseLong(header.getValue().get(0).trim());
+                        if (retryAfterSeconds > 0) {
+                            return TimeUnit.SECONDS.toMillis(retryAfterSeconds);
+                        }
+                    } catch (final NumberFormatException e) {
+                        // An HTTP-date; fall back to the exponential backoff.
+                    }
+                }
+            }
+        }
+
+        final int shift = Math.min(consecutiveThrottles, 10);
+        return Math.min(MAX_THROTTLE_BACKOFF_MILLIS, MIN_THROTTLE_BACKOFF_MILLIS << shift);
+    }
+
+    private static String getKey(@NonNull final AccessTokenRecord accessToken) {
+        return accessToken.getHomeAccountId() + KEY_DELIMITER
+                + accessToken.getEnvironment() + KEY_DELIMITER
+                + accessToken.getClientId() + KEY_DELIMITER
+                + accessToken.getRealm() + KEY_DELIMITER
+                + accessToken.getTarget() + KEY_DELIMITER
+                + accessToken.getCredentialType() + KEY_DELIMITER
+                + accessToken.getRequestedClaims() + KEY_DELIMITER
+                + accessToken.getApplicationIdentifier() + KEY_DELIMITER
+                + accessToken.getMamEnrollmentIdentifier();
+    }
+}
@@ -22,7 +22,9 @@
 //  THE SOFTWARE.
 package com.microsoft.identity.common.java.crypto;
 
+import com.microsoft.identity.common.java.authscheme.IPoPAuthenticationSchemeParams;
 import com.microsoft.identity.common.java.exception.ClientException;
+import com.microsoft.identity.common.java.util.ResultFuture;
 import com.microsoft.identity.common.java.util.TaskCompletedCallbackWithError;
 
 import java.net.URL;
@@ -35,6 +37,7 @@ import java.security.cert.Certificate;
 import java.security.spec.AlgorithmParameterSpec;
 import java.security.spec.MGF1ParameterSpec;
 import java.util.Date;
+import java.util.List;
 
 import javax.crypto.spec.OAEPParameterSpec;
 import javax.crypto.spec.PSource;
@@ -191,6 +194,33 @@ public interface IDevicePopManager {
      */
     String generateAsymmetricKey() throws ClientException;
 
+    /**
+     * Generates asymmetric keys used by pop in the background. If a generation started this way
+     * is already running for the same key, its future is returned instead of starting another.
+     * If the key already exists by the time the generation runs, it is kept and its thumbprint
+     * is returned.
+     *
+     * @return A future for the generated RSA KeyPair's thumbprint.
+     */
+    ResultFuture<String> generateAsymmetricKeyAsync();
+
+    /**
+     * Generates asymmetric keys used by pop, preferring the supplied key type. If the platform
+     * cannot generate a key of that type, an {@link PopKeyType#RSA_2048} key is generated instead;
+     * use {@link #getAsymmetricKeyType()} to find out which was used.
+     *
+     * @param preferredKeyType The type of key to try first.
+     * @return The generated KeyPair's thumbprint.
+     */
+    String generateAsymmetricKey(@NonNull PopKeyType preferredKeyType) throws ClientException;
+
+    /**
+     * Gets the type of the current KeyPair.
+     *
+     * @return The key type.
+     */
+    PopKeyType getAsymmetricKeyType() throws ClientException;
+
     /**
      * Returns the creation date of the asymmetric key entry backing this instance.
      *
@@ -216,6 +246,13 @@ public interface IDevicePopManager {
      */
     void getRequestConfirmation(TaskCompletedCallbackWithError<String, ClientException> callback);
 
+    /**
+     * Returns the req_cnf value in the background.
+     *
+     * @return A future for the base64url encoded req_cnf.
+     */
+    ResultFuture<String> getRequestConfirmationAsync();
+
     /**
      * Signs an arbitrary piece of String data.
      *
@@ -387,6 +424,20 @@ public interface IDevicePopManager {
                                  String clientClaims
     ) throws ClientException;
 
+    /**
+     * Api to create several signed HTTP requests (SHRs) without embedding a PoP-AT. The key is
+     * loaded and the JWS header built once for the whole batch.
+     *
+     * @param timestamp Seconds since January 1st, 1970 (UTC), used for every SHR.
+     * @param requests  The method, URL, nonce and client_claims of each outbound request.
+     * @param parallel  True to sign the requests concurrently on a background pool.
+     * @return The SHRs, in the same order as the supplied requests.
+     */
+    List<String> mintSignedHttpRequests(long timestamp,
+                                        @NonNull List<? extends IPoPAuthenticationSchemeParams> requests,
+                                        boolean parallel
+    ) throws ClientException;
+
 
     /**
      * Get the key manager that this device pop manager uses for key provisioning and
@@ -0,0 +1,70 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.crypto;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.NonNull;
+
+/**
+ * Types of asymmetric key a device PoP manager can hold. RSA is the default and works on every
+ * platform; EC P-256 keys are far cheaper to sign with but are not available everywhere, so callers
+ * asking for one may be given an RSA key instead.
+ */
+public enum PopKeyType {
+
+    RSA_2048("RSA"),
+
+    //@RequiresApi(Build.VERSION_CODES.M)
+    EC_P256("EC");
+
+    private final String mKeyAlgorithm;
+
+    PopKeyType(@NonNull final String keyAlgorithm) {
+        mKeyAlgorithm = keyAlgorithm;
+    }
+
+    /**
+     * @return the JCA algorithm name of keys of this type.
+     */
+    @NonNull
+    public String getKeyAlgorithm() {
+        return mKeyAlgorithm;
+    }
+
+    /**
+     * Gets the {@link PopKeyType} of a key from its JCA algorithm name.
+     *
+     * @param keyAlgorithm the value of {@link java.security.Key#getAlgorithm()}.
+     * @return the matching type, or null if the algorithm is not one we use for PoP.
+     */
+    @Nullable
+    public static PopKeyType fromKeyAlgorithm(@Nullable final String keyAlgorithm) {
+        for (final PopKeyType keyType : values()) {
+            if (keyType.mKeyAlgorithm.equalsIgnoreCase(keyAlgorithm)) {
+                return keyType;
+            }
+        }
+
+        return null;
+    }
+}
@@ -40,7 +40,13 @@ public enum SigningAlgorithm {
     SHA_1_WITH_RSA("SHA1withRSA"),
 
     //@RequiresApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
-    SHA_256_WITH_RSA("SHA256withRSA");
+    SHA_256_WITH_RSA("SHA256withRSA"),
+
+    /**
+     * For use with {@link PopKeyType#EC_P256} keys; produces a DER-encoded signature.
+     */
+    //@RequiresApi(Build.VERSION_CODES.M)
+    SHA_256_WITH_ECDSA("SHA256withECDSA");
 
     private final String mValue;
 
@@ -42,6 +42,7 @@ import com.microsoft.identity.common.java.crypto.key.PredefinedKeyLoader;
 import com.microsoft.identity.common.java.exception.ClientException;
 import com.microsoft.identity.common.java.exception.ErrorStrings;
 import com.microsoft.identity.common.java.logging.Logger;
+import com.microsoft.identity.common.java.opentelemetry.SdkMetrics;
 
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
@@ -122,6 +123,20 @@ public abstract class StorageEncryptionManager implements IKeyAccessor {
     @Override
     public byte[] encrypt(final byte[] plaintext)
             throws ClientException {
+        final long startNanos = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            final byte[] result = encryptInternal(plaintext);
+            succeeded = true;
+            return result;
+        } finally {
+            SdkMetrics.recordCryptoOperation(SdkMetrics.CryptoOperation.encrypt, succeeded,
+                    System.nanoTime() - startNanos);
+        }
+    }
+
+    private byte[] encryptInternal(final byte[] plaintext)
+            throws ClientException {
         final String methodName = ":encrypt";
 
         final String errCode;
@@ -201,6 +216,19 @@ public abstract class StorageEncryptionManager implements IKeyAccessor {
 
     @Override
     public byte[] decrypt(final byte[] cipherText) throws ClientException {
+        final long startNanos = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            final byte[] result = decryptInternal(cipherText);
+            succeeded = true;
+            return result;
+        } finally {
+            SdkMetrics.recordCryptoOperation(SdkMetrics.CryptoOperation.decrypt, succeeded,
+                    System.nanoTime() - startNanos);
+        }
+    }
+
+    private byte[] decryptInternal(final byte[] cipherText) throws ClientException {
         final String methodTag = TAG + ":decrypt";
 
         final byte[] dataBytes;
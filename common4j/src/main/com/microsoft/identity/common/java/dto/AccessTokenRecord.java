@@ -37,8 +37,6 @@ import static com.microsoft.identity.common.java.dto.AccessTokenRecord.Serialize
 import com.google.gson.annotations.SerializedName;
 import com.microsoft.identity.common.java.crypto.IDevicePopManager;
 
-import java.util.Calendar;
-import java.util.Date;
 import java.util.concurrent.TimeUnit;
 
 import edu.umd.cs.findbugs.annotations.Nullable;
@@ -196,6 +194,15 @@ public class AccessTokenRecord extends Credential {
     @SerializedName(MAM_ENROLLMENT_IDENTIFIER)
     private String mMamEnrollmentIdentifier;
 
+    // Sentinel for a timestamp that has not been parsed (yet).
+    private static final long NOT_PARSED = Long.MIN_VALUE;
+
+    // The string timestamps above parsed to epoch millis, on first use.
+    // Transient, so that they are neither serialized nor part of equals/hashCode.
+    private transient volatile long mExpiresOnMillis = NOT_PARSED;
+    private transient volatile long mRefreshOnMillis = NOT_PARSED;
+    private transient volatile long mExtendedExpiresOnMillis = NOT_PARSED;
+
     /**
      * Gets the kid.
      * <p>
@@ -325,6 +332,7 @@ public class AccessTokenRecord extends Credential {
      */
     public void setExtendedExpiresOn(final String extendedExpiresOn) {
         mExtendedExpiresOn = extendedExpiresOn;
+        mExtendedExpiresOnMillis = NOT_PARSED;
     }
 
     /**
@@ -343,6 +351,7 @@ public class AccessTokenRecord extends Credential {
      */
     public void setExpiresOn(final String expiresOn) {
         mExpiresOn = expiresOn;
+        mExpiresOnMillis = NOT_PARSED;
     }
 
     /**
@@ -370,6 +379,7 @@ public class AccessTokenRecord extends Credential {
      */
     public void setRefreshOn(final String refreshOn) {
         mRefreshOn = refreshOn;
+        mRefreshOnMillis = NOT_PARSED;
     }
 
     /**
@@ -396,21 +406,58 @@ public class AccessTokenRecord extends Credential {
      */
     public void setMamEnrollmentIdentifier(final String mamEnrollmentIdentifier) { mMamEnrollmentIdentifier = mamEnrollmentIdentifier; }
 
-    private boolean isExpired(final String expires) {
-        // Init a Calendar for the current time/date
-        final Calendar calendar = Calendar.getInstance();
-        final Date validity = calendar.getTime();
-        // Init a Date for the accessToken's expiry
-        long epoch = Long.parseLong(expires);
-        final Date expiresOn = new Date(
-                TimeUnit.SECONDS.toMillis(epoch)
-        );
-        return expiresOn.before(validity);
+    /**
+     * Gets the expires_on timestamp in milliseconds. It is parsed once and cached.
+     *
+     * @return The expires_on timestamp, in milliseconds since the epoch.
+     * @throws NumberFormatException if expires_on is not set or not a number.
+     */
+    public long getExpiresOnMillis() {
+        long expiresOnMillis = mExpiresOnMillis;
+        if (expiresOnMillis == NOT_PARSED) {
+            expiresOnMillis = toMillis(mExpiresOn);
+            mExpiresOnMillis = expiresOnMillis;
+        }
+        return expiresOnMillis;
+    }
+
+    /**
+     * Gets the refresh_on timestamp in milliseconds. It is parsed once and cached.
+     *
+     * @return The refresh_on timestamp, in milliseconds since the epoch.
+     * @throws NumberFormatException if refresh_on is not set or not a number.
+     */
+    public long getRefreshOnMillis() {
+        long refreshOnMillis = mRefreshOnMillis;
+        if (refreshOnMillis == NOT_PARSED) {
+            refreshOnMillis = toMillis(mRefreshOn);
+            mRefreshOnMillis = refreshOnMillis;
+        }
+        return refreshOnMillis;
+    }
+
+    /**
+     * Gets the extended_expires_on timestamp in milliseconds. It is parsed once and cached.
+     *
+     * @return The extended_expires_on timestamp, in milliseconds since the epoch.
+     * @throws NumberFormatException if extended_expires_on is not set or not a number.
+     */
+    public long getExtendedExpiresOnMillis() {
+        long extendedExpiresOnMillis = mExtendedExpiresOnMillis;
+        if (extendedExpiresOnMillis == NOT_PARSED) {
+            extendedExpiresOnMillis = toMillis(mExtendedExpiresOn);
+            mExtendedExpiresOnMillis = extendedExpiresOnMillis;
+        }
+        return extendedExpiresOnMillis;
+    }
+
+    private static long toMillis(final String epochSeconds) {
+        return TimeUnit.SECONDS.toMillis(Long.parseLong(epochSeconds));
     }
 
     @Override
     public boolean isExpired() {
-        return isExpired(getExpiresOn());
+        return getExpiresOnMillis() < System.currentTimeMillis();
     }
 
     /**
@@ -427,7 +474,7 @@ public class AccessTokenRecord extends Credential {
     public boolean shouldRefresh() {
         final String refreshOn = getRefreshOn();
         if (refreshOn != null && !refreshOn.isEmpty()) {
-            return isExpired(refreshOn);
+            return getRefreshOnMillis() < System.currentTimeMillis();
         } else {
             return isExpired();
         }
@@ -23,6 +23,8 @@
 
 package com.microsoft.identity.common.java.eststelemetry;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.experimental.Accessors;
@@ -40,6 +42,22 @@ class CurrentRequestTelemetry extends RequestTelemetry implements ICurrentTeleme
     @Accessors(prefix = "m")
     private boolean mForceRefresh;
 
+    // Bumped after every put which changes a field, so that a header built concurrently with it is not cached.
+    private final AtomicInteger mVersion = new AtomicInteger();
+
+    // The complete header string for a given version, or null if it has not been built since the last change.
+    private volatile CachedHeader mCachedHeader;
+
+    private static final class CachedHeader {
+        private final int mVersion;
+        private final String mHeader;
+
+        CachedHeader(final int version, final String header) {
+            mVersion = version;
+            mHeader = header;
+        }
+    }
+
     CurrentRequestTelemetry() {
         super(SchemaConstants.CURRENT_SCHEMA_VERSION);
     }
@@ -51,18 +69,42 @@ class CurrentRequestTelemetry extends RequestTelemetry implements ICurrentTeleme
 
     }
 
+    /**
+     * Returns the complete header string. It is built at most once between two changes made through {@link #put}.
+     */
+    @Override
+    public String getCompleteHeaderString() {
+        final int version = mVersion.get();
+        final CachedHeader cached = mCachedHeader;
+        if (cached != null && cached.mVersion == version) {
+            return cached.mHeader;
+        }
+
+        final String header = super.getCompleteHeaderString();
+        mCachedHeader = new CachedHeader(version, header);
+        return header;
+    }
+
     @Override
     public void put(@NonNull final String key, @NonNull final String value) {
+        final boolean changed;
         switch (key) {
             case API_ID:
+                changed = !value.equals(mApiId);
                 mApiId = value;
                 break;
             case FORCE_REFRESH:
-                mForceRefresh = TelemetryUtils.getBooleanFromString(value);
+                final boolean forceRefresh = TelemetryUtils.getBooleanFromString(value);
+                changed = forceRefresh != mForceRefresh;
+                mForceRefresh = forceRefresh;
                 break;
             default:
-                putInPlatformTelemetry(key, value);
+                changed = putInPlatformTelemetry(key, value);
                 break;
         }
+
+        if (changed) {
+            mVersion.incrementAndGet();
+        }
     }
 }
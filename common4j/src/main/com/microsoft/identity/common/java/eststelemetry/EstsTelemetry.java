@@ -32,20 +32,34 @@ import com.microsoft.identity.common.java.logging.DiagnosticContext;
 import com.microsoft.identity.common.java.logging.Logger;
 import com.microsoft.identity.common.java.result.ILocalAuthenticationResult;
 import com.microsoft.identity.common.java.util.StringUtil;
+import com.microsoft.identity.common.java.util.ThreadUtils;
 import com.microsoft.identity.common.java.util.ported.InMemoryStorage;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import edu.umd.cs.findbugs.annotations.Nullable;
 import lombok.NonNull;
 
 /**
  * Manages telemetry to be sent to ESTS via token requests.
+ *
+ * Telemetry of in-flight requests is kept per correlation id, so concurrent requests never contend.
+ * Flushed requests are folded into the {@link LastRequestTelemetry} by a single writer at a time:
+ * updates are queued and applied in order by whichever flushing thread currently owns the queue,
+ * and readers see an immutable snapshot of the result. The snapshot is persisted on a debounced
+ * schedule, so a burst of flushes results in a single write.
  */
 public class EstsTelemetry {
     private final static String TAG = EstsTelemetry.class.getSimpleName();
@@ -59,11 +73,35 @@ public class EstsTelemetry {
     private static final String SUPPLEMENTAL_TELEMETRY_DATA_CACHE_FILE_NAME =
             "com.microsoft.identity.client.supplemental_telemetry_data_cache";
 
-    private static volatile EstsTelemetry sEstsTelemetryInstance = null;
-    private LastRequestTelemetryCache mLastRequestTelemetryCache;
+    /**
+     * How long to wait after a flush before persisting the last request telemetry, so that
+     * flushes in quick succession are written once.
+     */
+    private static final long LAST_REQUEST_PERSIST_DELAY_MILLIS = 500;
+
+    private static final class InstanceHolder {
+        private static final EstsTelemetry INSTANCE = new EstsTelemetry();
+    }
+
+    private final AtomicReference<LastRequestTelemetryCache> mLastRequestTelemetryCache = new AtomicReference<>();
     private final INameValueStorage<CurrentRequestTelemetry> mTelemetryMap;
     private final INameValueStorage<Set<FailedRequest>> mSentFailedRequests;
 
+    // Pending updates to the last request telemetry, applied in order by a single thread at a time.
+    private final Queue<LastRequestUpdate> mLastRequestUpdates = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean mIsApplyingLastRequestUpdates = new AtomicBoolean(false);
+
+    // Only touched by the thread applying last request updates.
+    private LastRequestTelemetry mLastRequestTelemetry;
+    private boolean mIsLastRequestTelemetryLoaded = false;
+
+    // Immutable snapshot of the last request telemetry; null until loaded from cache.
+    private final AtomicReference<LastRequestSnapshot> mLastRequestSnapshot = new AtomicReference<>();
+
+    private final AtomicBoolean mIsPersistScheduled = new AtomicBoolean(false);
+    private final ScheduledExecutorService mPersistExecutor = ThreadUtils.getNamedScheduledExecutor(
+            10, TimeUnit.SECONDS, "ests-telemetry-persist");
+
     /**
      * A supplemental cache that can used to store telemetry that is captured outside of the
      * DiagnosticContext. We have lots of code that is executed outside of a DiagnosticContext i.e.
@@ -72,7 +110,7 @@ public class EstsTelemetry {
      * fields that are emitted in code that is running outside that context. This fields are the
      * ones determined by {@link SchemaConstants#isOfflineEmitAllowedForThisField(String)}.
      */
-    private INameValueStorage<String> mSupplementalTelemetryDataCache;
+    private volatile INameValueStorage<String> mSupplementalTelemetryDataCache;
 
     EstsTelemetry() {
         this(new InMemoryStorage<CurrentRequestTelemetry>(),
@@ -92,45 +130,42 @@ public class EstsTelemetry {
      *
      * @return EstsTelemetry object instance
      */
-    public static synchronized EstsTelemetry getInstance() {
-        if (sEstsTelemetryInstance == null) {
-            sEstsTelemetryInstance = new EstsTelemetry();
-        }
-
-        return sEstsTelemetryInstance;
+    public static EstsTelemetry getInstance() {
+        return InstanceHolder.INSTANCE;
     }
 
     //@VisibleForTesting
-    public synchronized void clear() {
+    public void clear() {
         mTelemetryMap.clear();
         mSentFailedRequests.clear();
-        if (mLastRequestTelemetryCache != null) {
-            mLastRequestTelemetryCache.clear();
+        final LastRequestTelemetryCache lastRequestTelemetryCache = mLastRequestTelemetryCache.get();
+        if (lastRequestTelemetryCache != null) {
+            lastRequestTelemetryCache.clear();
         }
+        submitLastRequestUpdate(LastRequestUpdate.RESET);
     }
 
     /**
      * Bootstrap an instance of {@link EstsTelemetry}.
      * Must be invoked prior to any operation on this object.
      */
-    public synchronized void setUp(@NonNull final LastRequestTelemetryCache lastRequestTelemetryCache) {
-        if (this.mLastRequestTelemetryCache == null) {
-            this.mLastRequestTelemetryCache = lastRequestTelemetryCache;
-        }
+    public void setUp(@NonNull final LastRequestTelemetryCache lastRequestTelemetryCache) {
+        mLastRequestTelemetryCache.compareAndSet(null, lastRequestTelemetryCache);
     }
 
     /**
      * Bootstrap an instance of {@link EstsTelemetry}.
      * Must be invoked prior to any operation on this object.
      */
-    public synchronized void setUp(@NonNull final IPlatformComponents platformComponents) {
-        if (this.mLastRequestTelemetryCache == null) {
-            this.mLastRequestTelemetryCache = new LastRequestTelemetryCache(
+    public void setUp(@NonNull final IPlatformComponents platformComponents) {
+        if (mLastRequestTelemetryCache.get() == null) {
+            mLastRequestTelemetryCache.compareAndSet(null, new LastRequestTelemetryCache(
                     platformComponents.getStorageSupplier().getUnencryptedNameValueStore(
-                            LAST_REQUEST_TELEMETRY_STORAGE_FILE, String.class));
+                            LAST_REQUEST_TELEMETRY_STORAGE_FILE, String.class)));
         }
 
         if (mSupplementalTelemetryDataCache == null) {
+            // Setting this twice concurrently is harmless; both resolve to the same store.
             mSupplementalTelemetryDataCache = platformComponents.getStorageSupplier().getUnencryptedNameValueStore(
                     SUPPLEMENTAL_TELEMETRY_DATA_CACHE_FILE_NAME, String.class
             );
@@ -147,7 +182,8 @@ public class EstsTelemetry {
         if (command.isEligibleForEstsTelemetry()) {
             final CurrentRequestTelemetry currentRequestTelemetry = new CurrentRequestTelemetry();
             mTelemetryMap.put(command.getCorrelationId(), currentRequestTelemetry);
-            mSentFailedRequests.put(command.getCorrelationId(), new HashSet<FailedRequest>());
+            mSentFailedRequests.put(command.getCorrelationId(),
+                    Collections.newSetFromMap(new ConcurrentHashMap<FailedRequest, Boolean>()));
         }
     }
 
@@ -179,7 +215,7 @@ public class EstsTelemetry {
             return;
         }
 
-        final String correlationId = DiagnosticContext.INSTANCE.getRequestContext().get(DiagnosticContext.CORRELATION_ID);
+        final String correlationId = DiagnosticContext.INSTANCE.getSnapshot().getCorrelationId();
         final String compliantValueString = TelemetryUtils.getSchemaCompliantString(value);
         final CurrentRequestTelemetry currentTelemetryInstance = getCurrentTelemetryInstance(correlationId);
         if (currentTelemetryInstance != null) {
@@ -189,9 +225,10 @@ public class EstsTelemetry {
         }
     }
 
-    private synchronized void emitToSupplementalTelemetryCache(@NonNull final String key, final String value) {
-        if (mSupplementalTelemetryDataCache != null && SchemaConstants.isOfflineEmitAllowedForThisField(key)) {
-            mSupplementalTelemetryDataCache.put(key, value);
+    private void emitToSupplementalTelemetryCache(@NonNull final String key, final String value) {
+        final INameValueStorage<String> supplementalTelemetryDataCache = mSupplementalTelemetryDataCache;
+        if (supplementalTelemetryDataCache != null && SchemaConstants.isOfflineEmitAllowedForThisField(key)) {
+            supplementalTelemetryDataCache.put(key, value);
         }
     }
 
@@ -252,10 +289,10 @@ public class EstsTelemetry {
     /**
      * Flush the telemetry data for the current request to the storage using the {@link LastRequestTelemetry}.
      * Removes the telemetry associated to the correlation id from the telemetry map,
-     * and saves it to the cache (SharedPreferences) as the last request telemetry.
+     * and folds it into the last request telemetry, which is then saved to the cache (SharedPreferences).
      */
-    public synchronized void flush(@NonNull final ICommand<?> command,
-                                   @NonNull final ICommandResult commandResult) {
+    public void flush(@NonNull final ICommand<?> command,
+                      @NonNull final ICommandResult commandResult) {
         final String methodName = ":flush";
 
         final String correlationId = command.getCorrelationId();
@@ -270,70 +307,185 @@ public class EstsTelemetry {
             return;
         }
 
-        // load the last request object from cache
-        LastRequestTelemetry lastRequestTelemetry = loadLastRequestTelemetryFromCache();
+        final boolean isTelemetryLoggedByServer = isTelemetryLoggedByServer(command, commandResult);
+
+        // get the failed request set for this request. This includes all failed request
+        // data that has been sent to STS in this request.
+        final Set<FailedRequest> failedRequestSentSet = mSentFailedRequests.get(correlationId);
+
+        // get the error encountered during execution of this command
+        final String errorCode = getErrorCodeFromCommandResult(commandResult);
+
+        final boolean isServicedFromCache = commandResult.getResult() instanceof ILocalAuthenticationResult
+                && ((ILocalAuthenticationResult) commandResult.getResult()).isServicedFromCache();
+
+        // we're done processing telemetry for this command, let's remove it from the map
+        mTelemetryMap.remove(correlationId);
+        mSentFailedRequests.remove(correlationId);
+
+        final INameValueStorage<String> supplementalTelemetryDataCache = mSupplementalTelemetryDataCache;
+        if (isTelemetryLoggedByServer && supplementalTelemetryDataCache != null) {
+            // headers have been logged by sts - we don't need to hold on to this data - let's wipe
+            supplementalTelemetryDataCache.clear();
+        }
+
+        if (mLastRequestTelemetryCache.get() == null) {
+            Logger.warn(
+                    TAG + methodName,
+                    "Last Request Telemetry Cache object was null. " +
+                            "Unable to save request telemetry to cache."
+            );
+            return;
+        }
+
+        submitLastRequestUpdate(new LastRequestUpdate(
+                currentTelemetry,
+                correlationId,
+                isTelemetryLoggedByServer,
+                failedRequestSentSet,
+                errorCode,
+                isServicedFromCache
+        ));
+    }
+
+    /**
+     * Queues an update to the last request telemetry and applies the pending updates,
+     * unless another thread is already doing so (in which case that thread applies it).
+     */
+    private void submitLastRequestUpdate(@NonNull final LastRequestUpdate update) {
+        mLastRequestUpdates.add(update);
+
+        // Re-check after releasing: an update queued while the previous owner was finishing up
+        // would otherwise be left behind.
+        while (!mLastRequestUpdates.isEmpty() && mIsApplyingLastRequestUpdates.compareAndSet(false, true)) {
+            boolean isUpdated = false;
+            try {
+                LastRequestUpdate pending;
+                while ((pending = mLastRequestUpdates.poll()) != null) {
+                    applyLastRequestUpdate(pending);
+                    isUpdated = true;
+                }
+
+                if (isUpdated) {
+                    mLastRequestSnapshot.set(new LastRequestSnapshot(
+                            mLastRequestTelemetry == null ? null : mLastRequestTelemetry.copy()));
+                }
+            } finally {
+                mIsApplyingLastRequestUpdates.set(false);
+            }
+
+            if (isUpdated) {
+                schedulePersistLastRequestTelemetry();
+            }
+        }
+    }
+
+    /**
+     * Folds a flushed request into the last request telemetry.
+     * Must only be called by the thread currently applying last request updates.
+     */
+    private void applyLastRequestUpdate(@NonNull final LastRequestUpdate update) {
+        if (update == LastRequestUpdate.RESET) {
+            mLastRequestTelemetry = null;
+            mIsLastRequestTelemetryLoaded = true;
+            return;
+        }
+
+        if (!mIsLastRequestTelemetryLoaded) {
+            // load the last request object from cache
+            mLastRequestTelemetry = loadLastRequestTelemetryFromCache();
+            mIsLastRequestTelemetryLoaded = true;
+        }
 
         // We did not have a last request object in cache, let's create a new one and copySharedValues
         // fields from current request where applicable
-        if (lastRequestTelemetry == null) {
-            lastRequestTelemetry = new LastRequestTelemetry(currentTelemetry.getSchemaVersion());
-            lastRequestTelemetry = (LastRequestTelemetry) lastRequestTelemetry.copySharedValues(currentTelemetry);
+        if (mLastRequestTelemetry == null) {
+            final LastRequestTelemetry lastRequestTelemetry = new LastRequestTelemetry(update.mCurrentTelemetry.getSchemaVersion());
+            mLastRequestTelemetry = (LastRequestTelemetry) lastRequestTelemetry.copySharedValues(update.mCurrentTelemetry);
         }
 
-        if (isTelemetryLoggedByServer(command, commandResult)) {
+        if (update.mIsTelemetryLoggedByServer) {
             // telemetry headers have been sent to token endpoint and logged by sts
             // this is the time to reset local telemetry state
 
             // reset silent successful count as we just went to token endpoint
-            lastRequestTelemetry.resetSilentSuccessCount();
-
-            // get the failed request set for this request. This includes all failed request
-            // data that has been sent to STS in this request.
-            Set<FailedRequest> failedRequestSentSet = mSentFailedRequests.get(correlationId);
+            mLastRequestTelemetry.resetSilentSuccessCount();
 
             // headers have been logged by sts - we don't need to hold on to this data - let's wipe
-            lastRequestTelemetry.wipeFailedRequestAndErrorForSubList(failedRequestSentSet);
-
-            if (mSupplementalTelemetryDataCache != null) {
-                // headers have been logged by sts - we don't need to hold on to this data - let's wipe
-                mSupplementalTelemetryDataCache.clear();
-            }
+            mLastRequestTelemetry.wipeFailedRequestAndErrorForSubList(update.mFailedRequestSentSet);
         }
 
-        // get the error encountered during execution of this command
-        final String errorCode = getErrorCodeFromCommandResult(commandResult);
-
-        if (errorCode != null) {
+        if (update.mErrorCode != null) {
             // we have an error, let's append it to the list
-            lastRequestTelemetry.appendFailedRequest(
-                    currentTelemetry.getApiId(),
-                    correlationId,
-                    errorCode);
-        } else if (commandResult.getResult() != null &&
-                commandResult.getResult() instanceof ILocalAuthenticationResult) {
-            final ILocalAuthenticationResult localAuthenticationResult = (ILocalAuthenticationResult) commandResult.getResult();
-            if (localAuthenticationResult.isServicedFromCache()) {
-                // we returned a token from cache, let's increment the silent success count
-                lastRequestTelemetry.incrementSilentSuccessCount();
-            }
+            mLastRequestTelemetry.appendFailedRequest(
+                    update.mCurrentTelemetry.getApiId(),
+                    update.mCorrelationId,
+                    update.mErrorCode);
+        } else if (update.mIsServicedFromCache) {
+            // we returned a token from cache, let's increment the silent success count
+            mLastRequestTelemetry.incrementSilentSuccessCount();
         } // else leave everything as is
+    }
 
-        // we're done processing telemetry for this command, let's remove it from the map
-        mTelemetryMap.remove(correlationId);
-        mSentFailedRequests.remove(correlationId);
+    /**
+     * Persists the latest last request telemetry snapshot after {@link #LAST_REQUEST_PERSIST_DELAY_MILLIS},
+     * unless a write is already scheduled (in which case that write picks up this snapshot).
+     */
+    private void schedulePersistLastRequestTelemetry() {
+        if (!mIsPersistScheduled.compareAndSet(false, true)) {
+            return;
+        }
 
-        if (mLastRequestTelemetryCache != null) {
-            // save the (updated) telemetry object back to telemetry cache
-            mLastRequestTelemetryCache.saveRequestTelemetryToCache(lastRequestTelemetry);
-        } else {
-            Logger.warn(
-                    TAG + methodName,
-                    "Last Request Telemetry Cache object was null. " +
-                            "Unable to save request telemetry to cache."
-            );
+        mPersistExecutor.schedule(new Runnable() {
+            @Override
+            public void run() {
+                // Clear the flag before reading the snapshot, so that a newer snapshot published
+                // while writing schedules another write.
+                mIsPersistScheduled.set(false);
+                persistLastRequestTelemetry();
+            }
+        }, LAST_REQUEST_PERSIST_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Saves the latest last request telemetry snapshot to the cache.
+     */
+    //@VisibleForTesting
+    void persistLastRequestTelemetry() {
+        final String methodName = ":persistLastRequestTelemetry";
+
+        final LastRequestTelemetryCache lastRequestTelemetryCache = mLastRequestTelemetryCache.get();
+        final LastRequestSnapshot snapshot = mLastRequestSnapshot.get();
+        if (lastRequestTelemetryCache == null || snapshot == null || snapshot.mTelemetry == null) {
+            return;
+        }
+
+        try {
+            // save the (updated) telemetry object back to telemetry cache.
+            // Saving computes the header string, which modifies the object; the snapshot must stay untouched.
+            lastRequestTelemetryCache.saveRequestTelemetryToCache(snapshot.mTelemetry.copy());
+        } catch (final RuntimeException e) {
+            Logger.error(TAG + methodName, "Failed to save last request telemetry to cache.", e);
         }
     }
 
+    /**
+     * Returns the current last request telemetry snapshot, loading it from cache on first use.
+     */
+    @NonNull
+    private LastRequestSnapshot getLastRequestSnapshot() {
+        final LastRequestSnapshot snapshot = mLastRequestSnapshot.get();
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        // Nothing has been flushed yet; whatever is in the cache is the latest state.
+        // If a flush publishes a snapshot in the meantime, that one wins.
+        final LastRequestTelemetry fromCache = loadLastRequestTelemetryFromCache();
+        mLastRequestSnapshot.compareAndSet(null, new LastRequestSnapshot(fromCache));
+        return mLastRequestSnapshot.get();
+    }
+
     /**
      * Loads the last request telemetry instance from cache.
      **/
@@ -341,7 +493,8 @@ public class EstsTelemetry {
     private LastRequestTelemetry loadLastRequestTelemetryFromCache() {
         final String methodName = ":loadLastRequestTelemetry";
 
-        if (mLastRequestTelemetryCache == null) {
+        final LastRequestTelemetryCache lastRequestTelemetryCache = mLastRequestTelemetryCache.get();
+        if (lastRequestTelemetryCache == null) {
             Logger.verbose(
                     TAG + methodName,
                     "Last Request Telemetry Cache has not been initialized. " +
@@ -350,7 +503,7 @@ public class EstsTelemetry {
             return null;
         }
 
-        return mLastRequestTelemetryCache.getRequestTelemetryFromCache();
+        return lastRequestTelemetryCache.getRequestTelemetryFromCache();
     }
 
     /**
@@ -419,7 +572,7 @@ public class EstsTelemetry {
     private String getCurrentTelemetryHeaderString() {
         final String methodName = ":getCurrentTelemetryHeaderString";
 
-        final String correlationId = DiagnosticContext.INSTANCE.getRequestContext().get(DiagnosticContext.CORRELATION_ID);
+        final String correlationId = DiagnosticContext.INSTANCE.getSnapshot().getCorrelationId();
         if (correlationId == null) {
             Logger.warn(TAG + methodName, "correlation ID is null.");
             return null;
@@ -438,9 +591,10 @@ public class EstsTelemetry {
         return currentTelemetry.getCompleteHeaderString();
     }
 
-    private synchronized void addFromSupplementalTelemetryToCurrentTelemetry() {
-        if (mSupplementalTelemetryDataCache != null) {
-            EstsTelemetry.getInstance().emit(mSupplementalTelemetryDataCache.getAll());
+    private void addFromSupplementalTelemetryToCurrentTelemetry() {
+        final INameValueStorage<String> supplementalTelemetryDataCache = mSupplementalTelemetryDataCache;
+        if (supplementalTelemetryDataCache != null) {
+            EstsTelemetry.getInstance().emit(supplementalTelemetryDataCache.getAll());
         }
     }
 
@@ -448,22 +602,22 @@ public class EstsTelemetry {
      * Returns a header string from the "Last Request Telemetry instance" for the eSTS Telemetry.
      */
     @Nullable
-    private synchronized String getLastTelemetryHeaderString() {
+    private String getLastTelemetryHeaderString() {
         final String methodName = ":getLastTelemetryHeaderString";
 
-        if (mLastRequestTelemetryCache == null) {
+        if (mLastRequestTelemetryCache.get() == null) {
             Logger.warn(TAG + methodName, "mLastRequestTelemetryCache is null.");
             return null;
         }
 
-        final String correlationId = DiagnosticContext.INSTANCE.getRequestContext().get(DiagnosticContext.CORRELATION_ID);
+        final String correlationId = DiagnosticContext.INSTANCE.getSnapshot().getCorrelationId();
         if (correlationId == null) {
             Logger.warn(TAG + methodName, "correlation ID is null.");
             return null;
         }
 
-        final LastRequestTelemetry lastRequestTelemetryFromCache = mLastRequestTelemetryCache.getRequestTelemetryFromCache();
-        if (lastRequestTelemetryFromCache == null) {
+        final LastRequestSnapshot snapshot = getLastRequestSnapshot();
+        if (snapshot.mTelemetry == null) {
             // we did not have anything in the telemetry cache for the last request
             // let's create a new object based on the data available from the current request object
             // and return the header string formed via that object
@@ -485,47 +639,15 @@ public class EstsTelemetry {
             return lastRequestTelemetry.getCompleteHeaderString();
         }
 
-        // create a copy of the object retrieved from cache
-        final LastRequestTelemetry lastRequestTelemetryCopy = new LastRequestTelemetry(lastRequestTelemetryFromCache.getSchemaVersion());
-        lastRequestTelemetryCopy.copySharedValues(lastRequestTelemetryFromCache);
-
-        // failed request data from the object retrieved from cache
-        final List<FailedRequest> originalFailedRequests = lastRequestTelemetryFromCache.getFailedRequests();
-
         // get the failed request set for the failed request data that we attempt to send in header
         // as part of this request
         final Set<FailedRequest> failedRequestSentSet = mSentFailedRequests.get(correlationId);
-
-        boolean isAllDataSentInHeader = true;
-        for (int i = 0; i < originalFailedRequests.size(); i++) {
-            // there is a limit of 8KB for the payload sent in request headers
-            // we will be maxing out at 4KB to avoid HTTP 413 errors
-            // check if we have enough space in the String to store another failed request/error element
-            // if yes, then add it to the failed request array (for the copy)
-            if (lastRequestTelemetryCopy.getCompleteHeaderString().length() < SchemaConstants.HEADER_DATA_LIMIT) {
-                final FailedRequest failedRequest = originalFailedRequests.get(i);
-                lastRequestTelemetryCopy.appendFailedRequest(failedRequest);
-
-                // we have attempted to send these failed requests/errors to the server
-                if (failedRequestSentSet != null) {
-                    failedRequestSentSet.add(failedRequest);
-                }
-            } else {
-                isAllDataSentInHeader = false;
-                // if there is no room for more data, then break out of this loop
-                break;
-            }
+        if (failedRequestSentSet != null) {
+            // we have attempted to send these failed requests/errors to the server
+            failedRequestSentSet.addAll(snapshot.mFailedRequestsInHeader);
         }
 
-        final String isAllDataSentString = TelemetryUtils.getSchemaCompliantStringFromBoolean(isAllDataSentInHeader);
-
-        lastRequestTelemetryCopy.putInPlatformTelemetry(
-                SchemaConstants.Key.ALL_TELEMETRY_DATA_SENT,
-                isAllDataSentString
-        );
-
-        // return the header string formed for the copy element
-        return lastRequestTelemetryCopy.getCompleteHeaderString();
+        return snapshot.mHeaderString;
     }
 
     /**
@@ -572,7 +694,7 @@ public class EstsTelemetry {
      * Returns true if there exists a telemetry instance associated to the current correlation ID.
      **/
     private boolean isCurrentTelemetryAvailable() {
-        final String correlationId = DiagnosticContext.INSTANCE.getRequestContext().get(DiagnosticContext.CORRELATION_ID);
+        final String correlationId = DiagnosticContext.INSTANCE.getSnapshot().getCorrelationId();
         final CurrentRequestTelemetry currentRequestTelemetry = getCurrentTelemetryInstance(correlationId);
         return currentRequestTelemetry != null;
     }
@@ -588,4 +710,99 @@ public class EstsTelemetry {
 
         return mTelemetryMap.get(correlationId);
     }
+
+    /**
+     * A flushed request, to be folded into the last request telemetry.
+     */
+    private static final class LastRequestUpdate {
+        /**
+         * Discards the last request telemetry (the cache has been cleared).
+         */
+        static final LastRequestUpdate RESET = new LastRequestUpdate(null, null, false, null, null, false);
+
+        final CurrentRequestTelemetry mCurrentTelemetry;
+        final String mCorrelationId;
+        final boolean mIsTelemetryLoggedByServer;
+        final Set<FailedRequest> mFailedRequestSentSet;
+        final String mErrorCode;
+        final boolean mIsServicedFromCache;
+
+        LastRequestUpdate(final CurrentRequestTelemetry currentTelemetry,
+                          final String correlationId,
+                          final boolean isTelemetryLoggedByServer,
+                          @Nullable final Set<FailedRequest> failedRequestSentSet,
+                          @Nullable final String errorCode,
+                          final boolean isServicedFromCache) {
+            mCurrentTelemetry = currentTelemetry;
+            mCorrelationId = correlationId;
+            mIsTelemetryLoggedByServer = isTelemetryLoggedByServer;
+            mFailedRequestSentSet = failedRequestSentSet;
+            mErrorCode = errorCode;
+            mIsServicedFromCache = isServicedFromCache;
+        }
+    }
+
+    /**
+     * A published, never modified, copy of the last request telemetry, together with the
+     * x-client-last-telemetry header built from it. The header is built once per snapshot,
+     * so attaching it to a token request costs nothing.
+     */
+    private static final class LastRequestSnapshot {
+        @Nullable
+        final LastRequestTelemetry mTelemetry;
+
+        // The header to send, or null if there is no last request telemetry.
+        @Nullable
+        final String mHeaderString;
+
+        // The failed requests included in mHeaderString.
+        @NonNull
+        final List<FailedRequest> mFailedRequestsInHeader;
+
+        LastRequestSnapshot(@Nullable final LastRequestTelemetry telemetry) {
+            mTelemetry = telemetry;
+            if (telemetry == null) {
+                mHeaderString = null;
+                mFailedRequestsInHeader = Collections.emptyList();
+                return;
+            }
+
+            final LastRequestTelemetry headerTelemetry = new LastRequestTelemetry(telemetry.getSchemaVersion());
+            headerTelemetry.copySharedValues(telemetry);
+
+            final String emptyHeader = headerTelemetry.getCompleteHeaderString();
+            if (emptyHeader == null) {
+                mHeaderString = null;
+                mFailedRequestsInHeader = Collections.emptyList();
+                return;
+            }
+
+            // there is a limit of 8KB for the payload sent in request headers
+            // we will be maxing out at 4KB to avoid HTTP 413 errors.
+            // Add failed requests as long as the header is below the limit; the header length is
+            // tracked as the entries are added instead of rebuilding the header for each one.
+            final List<FailedRequest> failedRequests = telemetry.getFailedRequests();
+            int headerLength = emptyHeader.length();
+            int includedCount = 0;
+            while (includedCount < failedRequests.size() && headerLength < SchemaConstants.HEADER_DATA_LIMIT) {
+                final FailedRequest failedRequest = failedRequests.get(includedCount);
+                headerTelemetry.appendFailedRequest(failedRequest);
+                headerLength += String.valueOf(failedRequest.toApiIdCorrelationString()).length()
+                        + String.valueOf(failedRequest.toErrorCodeString()).length()
+                        // a ',' in both the api id/correlation id segment and the error segment
+                        + (includedCount == 0 ? 0 : 2);
+                includedCount++;
+            }
+
+            final boolean isAllDataSentInHeader = includedCount == failedRequests.size();
+            headerTelemetry.putInPlatformTelemetry(
+                    SchemaConstants.Key.ALL_TELEMETRY_DATA_SENT,
+                    TelemetryUtils.getSchemaCompliantStringFromBoolean(isAllDataSentInHeader)
+            );
+
+            mHeaderString = headerTelemetry.getCompleteHeaderString();
+            mFailedRequestsInHeader = Collections.unmodifiableList(
+                    new ArrayList<>(failedRequests.subList(0, includedCount)));
+        }
+    }
 }
@@ -34,6 +34,18 @@ class FailedRequest {
         this.mError = error;
     }
 
+    String getApiId() {
+        return mApiId;
+    }
+
+    String getCorrelationId() {
+        return mCorrelationId;
+    }
+
+    String getError() {
+        return mError;
+    }
+
     public String toApiIdCorrelationString() {
         return mApiId + ',' + mCorrelationId;
     }
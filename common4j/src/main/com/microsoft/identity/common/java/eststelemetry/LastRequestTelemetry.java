@@ -77,6 +77,14 @@ public class LastRequestTelemetry extends RequestTelemetry {
         return sb.toString();
     }
 
+    int getSilentSuccessfulCount() {
+        return silentSuccessfulCount;
+    }
+
+    void setSilentSuccessfulCount(final int silentSuccessfulCount) {
+        this.silentSuccessfulCount = silentSuccessfulCount;
+    }
+
     void incrementSilentSuccessCount() {
         silentSuccessfulCount++;
     }
@@ -112,6 +120,20 @@ public class LastRequestTelemetry extends RequestTelemetry {
         }
     }
 
+    /**
+     * Creates an independent copy of this object, including its failed requests and platform telemetry.
+     */
+    @NonNull
+    LastRequestTelemetry copy() {
+        final LastRequestTelemetry copy = new LastRequestTelemetry(getSchemaVersion());
+        copy.silentSuccessfulCount = silentSuccessfulCount;
+        if (failedRequests != null) {
+            copy.failedRequests.addAll(failedRequests);
+        }
+        copy.copyPlatformTelemetryFrom(this);
+        return copy;
+    }
+
     @Override
     public IRequestTelemetry copySharedValues(@NonNull final IRequestTelemetry requestTelemetry) {
         if (requestTelemetry instanceof LastRequestTelemetry) {
@@ -23,27 +23,54 @@
 package com.microsoft.identity.common.java.eststelemetry;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonSyntaxException;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
 import com.microsoft.identity.common.java.interfaces.INameValueStorage;
 import com.microsoft.identity.common.java.logging.Logger;
+import com.microsoft.identity.common.java.util.GsonRegistry;
 
+import java.util.Map;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
 import lombok.NonNull;
 
+/**
+ * Persists the {@link LastRequestTelemetry} as a single compact record under {@link #LAST_TELEMETRY_RECORD_CACHE_KEY}.
+ *
+ * The record is a JSON object with short keys:
+ * {@code {"v":<schema version>,"s":<silent successful count>,"f":[[<api id>,<correlation id>,<error>],...],"p":{<platform telemetry>}}}.
+ * The header string is derived from it when needed and is not persisted.
+ *
+ * Entries written by earlier versions (the telemetry object JSON, header string and schema version
+ * as three separate entries) are still read, and are removed on the next save.
+ */
 public class LastRequestTelemetryCache implements IRequestTelemetryCache<LastRequestTelemetry> {
 
+    final static String LAST_TELEMETRY_RECORD_CACHE_KEY = "last_telemetry_record";
+
+    // Legacy entries, replaced by LAST_TELEMETRY_RECORD_CACHE_KEY.
     final static String LAST_TELEMETRY_OBJECT_CACHE_KEY = "last_telemetry_object";
     final static String LAST_TELEMETRY_HEADER_STRING_CACHE_KEY = "last_telemetry_header_string";
     final static String LAST_TELEMETRY_SCHEMA_VERSION_CACHE_KEY = "last_telemetry_schema_version";
 
+    private static final String RECORD_SCHEMA_VERSION = "v";
+    private static final String RECORD_SILENT_SUCCESSFUL_COUNT = "s";
+    private static final String RECORD_FAILED_REQUESTS = "f";
+    private static final String RECORD_PLATFORM_TELEMETRY = "p";
+
     private final static String TAG = LastRequestTelemetryCache.class.getSimpleName();
 
-    private static final Gson mGson = new Gson();
+    private static final Gson mGson = GsonRegistry.DEFAULT;
 
     // Storage for request telemetry data
     private final INameValueStorage<String> mStorage;
 
+    // Whether legacy entries may still be present in mStorage.
+    private boolean mMayHaveLegacyEntries = true;
+
     /**
      * Constructor of LastRequestTelemetryCache.
      *
@@ -59,6 +86,16 @@ public class LastRequestTelemetryCache implements IRequestTelemetryCache<LastReq
         final String methodName = ":getRequestTelemetryFromCache";
 
         try {
+            final String record = mStorage.get(LAST_TELEMETRY_RECORD_CACHE_KEY);
+            if (record != null) {
+                final LastRequestTelemetry lastRequestTelemetry = decode(record);
+                if (lastRequestTelemetry == null) {
+                    Logger.warn(TAG + methodName,
+                            "Last Request Telemetry deserialization failed");
+                }
+                return lastRequestTelemetry;
+            }
+
             final String cacheValue = mStorage.get(LAST_TELEMETRY_OBJECT_CACHE_KEY);
 
             if (cacheValue == null) {
@@ -76,7 +113,9 @@ public class LastRequestTelemetryCache implements IRequestTelemetryCache<LastReq
             }
 
             return lastRequestTelemetry;
-        } catch (final JsonSyntaxException e) {
+        } catch (final JsonParseException | IllegalStateException
+                | NumberFormatException | UnsupportedOperationException e) {
+            // A malformed record is treated the same as a missing one.
             Logger.error(TAG + methodName,
                     "Last Request Telemetry deserialization failed", e);
             return null;
@@ -94,33 +133,97 @@ public class LastRequestTelemetryCache implements IRequestTelemetryCache<LastReq
     public synchronized void saveRequestTelemetryToCache(@NonNull final LastRequestTelemetry requestTelemetry) {
         Logger.verbose(TAG, "Saving Last Request Telemetry to cache...");
 
-        saveRequestTelemetryObjectToCache(requestTelemetry);
-        saveTelemetryHeaderStringToCache(requestTelemetry);
-        saveTelemetrySchemaVersionToCache(requestTelemetry);
-    }
+        mStorage.put(LAST_TELEMETRY_RECORD_CACHE_KEY, encode(requestTelemetry));
 
-    private void saveRequestTelemetryObjectToCache(@NonNull final LastRequestTelemetry requestTelemetry) {
-        final String cacheValue = generateCacheValue(requestTelemetry);
-        saveToTelemetryCache(LAST_TELEMETRY_OBJECT_CACHE_KEY, cacheValue);
+        if (mMayHaveLegacyEntries) {
+            removeIfPresent(LAST_TELEMETRY_OBJECT_CACHE_KEY);
+            removeIfPresent(LAST_TELEMETRY_HEADER_STRING_CACHE_KEY);
+            removeIfPresent(LAST_TELEMETRY_SCHEMA_VERSION_CACHE_KEY);
+            mMayHaveLegacyEntries = false;
+        }
     }
 
-    private void saveTelemetryHeaderStringToCache(@NonNull final LastRequestTelemetry requestTelemetry) {
-        final String cacheValue = requestTelemetry.getCompleteHeaderString();
-        saveToTelemetryCache(LAST_TELEMETRY_HEADER_STRING_CACHE_KEY, cacheValue);
+    private void removeIfPresent(@NonNull final String cacheKey) {
+        if (mStorage.get(cacheKey) != null) {
+            mStorage.remove(cacheKey);
+        }
     }
 
-    private void saveTelemetrySchemaVersionToCache(@NonNull final LastRequestTelemetry requestTelemetry) {
-        final String cacheValue = requestTelemetry.getSchemaVersion();
-        saveToTelemetryCache(LAST_TELEMETRY_SCHEMA_VERSION_CACHE_KEY, cacheValue);
+    @NonNull
+    static String encode(@NonNull final LastRequestTelemetry requestTelemetry) {
+        final JsonObject record = new JsonObject();
+        record.addProperty(RECORD_SCHEMA_VERSION, requestTelemetry.getSchemaVersion());
+        record.addProperty(RECORD_SILENT_SUCCESSFUL_COUNT, requestTelemetry.getSilentSuccessfulCount());
+
+        final JsonArray failedRequests = new JsonArray();
+        for (final FailedRequest failedRequest : requestTelemetry.getFailedRequests()) {
+            final JsonArray entry = new JsonArray();
+            entry.add(failedRequest.getApiId());
+            entry.add(failedRequest.getCorrelationId());
+            entry.add(failedRequest.getError());
+            failedRequests.add(entry);
+        }
+        record.add(RECORD_FAILED_REQUESTS, failedRequests);
+
+        final JsonObject platformTelemetry = new JsonObject();
+        for (final Map.Entry<String, String> entry : requestTelemetry.getPlatformTelemetry().entrySet()) {
+            platformTelemetry.addProperty(entry.getKey(), entry.getValue());
+        }
+        record.add(RECORD_PLATFORM_TELEMETRY, platformTelemetry);
+
+        return mGson.toJson(record);
     }
 
-    private void saveToTelemetryCache(@NonNull final String cacheKey, @NonNull final String cacheValue) {
-        mStorage.put(cacheKey, cacheValue);
+    @Nullable
+    static LastRequestTelemetry decode(@NonNull final String record) {
+        final JsonElement element = JsonParser.parseString(record);
+        if (!element.isJsonObject()) {
+            return null;
+        }
+
+        final JsonObject object = element.getAsJsonObject();
+        final JsonElement schemaVersion = object.get(RECORD_SCHEMA_VERSION);
+        if (schemaVersion == null || schemaVersion.isJsonNull()) {
+            return null;
+        }
+
+        final LastRequestTelemetry lastRequestTelemetry = new LastRequestTelemetry(schemaVersion.getAsString());
+
+        final JsonElement silentSuccessfulCount = object.get(RECORD_SILENT_SUCCESSFUL_COUNT);
+        if (silentSuccessfulCount != null && !silentSuccessfulCount.isJsonNull()) {
+            lastRequestTelemetry.setSilentSuccessfulCount(silentSuccessfulCount.getAsInt());
+        }
+
+        final JsonElement failedRequests = object.get(RECORD_FAILED_REQUESTS);
+        if (failedRequests != null && failedRequests.isJsonArray()) {
+            for (final JsonElement failedRequest : failedRequests.getAsJsonArray()) {
+                final JsonArray entry = failedRequest.getAsJsonArray();
+                if (entry.size() < 3) {
+                    continue;
+                }
+                lastRequestTelemetry.appendFailedRequest(
+                        getNullableString(entry.get(0)),
+                        getNullableString(entry.get(1)),
+                        getNullableString(entry.get(2))
+                );
+            }
+        }
+
+        final JsonElement platformTelemetry = object.get(RECORD_PLATFORM_TELEMETRY);
+        if (platformTelemetry != null && platformTelemetry.isJsonObject()) {
+            for (final Map.Entry<String, JsonElement> entry : platformTelemetry.getAsJsonObject().entrySet()) {
+                final String value = getNullableString(entry.getValue());
+                if (value != null) {
+                    lastRequestTelemetry.putInPlatformTelemetry(entry.getKey(), value);
+                }
+            }
+        }
+
+        return lastRequestTelemetry;
     }
 
-    private String generateCacheValue(final LastRequestTelemetry requestTelemetry) {
-        JsonElement outboundElement = mGson.toJsonTree(requestTelemetry);
-        JsonObject outboundObject = outboundElement.getAsJsonObject();
-        return mGson.toJson(outboundObject);
+    @Nullable
+    private static String getNullableString(@Nullable final JsonElement element) {
+        return element == null || element.isJsonNull() ? null : element.getAsString();
     }
 }
@@ -26,6 +26,7 @@ import com.google.gson.annotations.SerializedName;
 import com.microsoft.identity.common.java.logging.Logger;
 import com.microsoft.identity.common.java.util.StringUtil;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -58,9 +59,32 @@ public abstract class RequestTelemetry implements IRequestTelemetry {
         }
     }
 
-    final void putInPlatformTelemetry(final String key, final String value) {
-        if (isPlatformTelemetryField(key)) {
-            mPlatformTelemetry.putIfAbsent(key, value);
+    /**
+     * Records a platform telemetry field, unless it is already set.
+     *
+     * @return true if the field was recorded.
+     */
+    final boolean putInPlatformTelemetry(final String key, final String value) {
+        return isPlatformTelemetryField(key) && mPlatformTelemetry.putIfAbsent(key, value) == null;
+    }
+
+    /**
+     * @return a read-only view of the platform telemetry fields.
+     */
+    @NonNull
+    final Map<String, String> getPlatformTelemetry() {
+        return mPlatformTelemetry == null
+                ? Collections.<String, String>emptyMap()
+                : Collections.unmodifiableMap(mPlatformTelemetry);
+    }
+
+    /**
+     * Copies all platform telemetry of the given object into this one.
+     */
+    final void copyPlatformTelemetryFrom(@NonNull final RequestTelemetry requestTelemetry) {
+        // May be null if the given object was deserialized from a cache entry without platform telemetry.
+        if (requestTelemetry.mPlatformTelemetry != null) {
+            mPlatformTelemetry.putAll(requestTelemetry.mPlatformTelemetry);
         }
     }
 
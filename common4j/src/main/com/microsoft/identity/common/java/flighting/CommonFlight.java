@@ -56,7 +56,14 @@ public enum CommonFlight implements IFlightConfig {
      * Flight to be able to disable/rollback the passkey feature in broker if necessary.
      * This will be set to true by default.
      */
-    ENABLE_PASSKEY_FEATURE("EnablePasskeyFeature", true);
+    ENABLE_PASSKEY_FEATURE("EnablePasskeyFeature", true),
+
+    /**
+     * Flight to deliver LocalBroadcaster broadcasts of different aliases in parallel,
+     * see {@link com.microsoft.identity.common.java.util.ported.LocalBroadcaster.DispatchMode#PER_ALIAS}.
+     * This will be set to false by default.
+     */
+    ENABLE_PER_ALIAS_LOCAL_BROADCAST("EnablePerAliasLocalBroadcast", false);
 
     private String key;
     private Object defaultValue;
@@ -25,8 +25,8 @@ package com.microsoft.identity.common.java.jwt;
 
 import static com.microsoft.identity.common.java.AuthenticationConstants.ENCODING_UTF8;
 
-import com.google.gson.Gson;
 import com.microsoft.identity.common.java.logging.Logger;
+import com.microsoft.identity.common.java.util.GsonRegistry;
 import com.microsoft.identity.common.java.util.StringUtil;
 
 import lombok.NonNull;
@@ -53,8 +53,8 @@ public final class JwtUtils {
                                      @NonNull final JwtRequestBody body) {
         final String methodTag = TAG + ":generateJWT";
         Logger.verbose(methodTag, "Generating JWT.");
-        final String headerJson = new Gson().toJson(header);
-        final String bodyJson = new Gson().toJson(body);
+        final String headerJson = GsonRegistry.DEFAULT.toJson(header);
+        final String bodyJson = GsonRegistry.DEFAULT.toJson(body);
         final String encodedJwt =
                 StringUtil.encodeUrlSafeString(headerJson.getBytes(ENCODING_UTF8)) + "." + StringUtil.encodeUrlSafeString(bodyJson.getBytes(ENCODING_UTF8));
         return encodedJwt;
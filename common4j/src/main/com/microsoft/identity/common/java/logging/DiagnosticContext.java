@@ -22,6 +22,7 @@
 // THE SOFTWARE.
 package com.microsoft.identity.common.java.logging;
 
+import edu.umd.cs.findbugs.annotations.Nullable;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 public enum DiagnosticContext {
@@ -33,17 +34,29 @@ public enum DiagnosticContext {
 
     // This is thread-safe.
     @SuppressFBWarnings("SE_BAD_FIELD_STORE")
-    private transient final ThreadLocal<IRequestContext> REQUEST_CONTEXT_THREAD_LOCAL =
-            new ThreadLocal<IRequestContext>() {
-                @Override // This is the default value for the RequestContext if it's unset
-                protected RequestContext initialValue() {
-                    final RequestContext defaultRequestContext = new RequestContext();
-                    defaultRequestContext.put(THREAD_ID, String.valueOf(Thread.currentThread().getId()));
-                    defaultRequestContext.put(CORRELATION_ID, UNSET);
-                    return defaultRequestContext;
+    private transient final ThreadLocal<ThreadState> THREAD_STATE =
+            new ThreadLocal<ThreadState>() {
+                @Override
+                protected ThreadState initialValue() {
+                    return new ThreadState();
                 }
             };
 
+    /**
+     * The diagnostic state of a thread. Both the mutable request context and its snapshot are
+     * created lazily, so that threads which only log never allocate a {@link RequestContext}.
+     */
+    private static final class ThreadState {
+        // The request context handed out by getRequestContext(), if any.
+        private IRequestContext mRequestContext;
+
+        // The snapshot of the current request context; null if it has not been captured yet.
+        private DiagnosticContextSnapshot mSnapshot;
+
+        // The snapshot of a thread without a request context.
+        private DiagnosticContextSnapshot mUnsetSnapshot;
+    }
+
     /**
      * Set the request context of the executing thread.
      *
@@ -56,37 +69,105 @@ public enum DiagnosticContext {
         }
 
         requestContext.put(THREAD_ID, String.valueOf(Thread.currentThread().getId()));
-        REQUEST_CONTEXT_THREAD_LOCAL.set(requestContext);
+        final ThreadState state = THREAD_STATE.get();
+        state.mRequestContext = requestContext;
+        state.mSnapshot = null;
     }
 
     /**
      * Get the request context of the executing thread.
+     * The returned context may be modified by the caller; the snapshot is recaptured once it is.
+     * Prefer {@link #getSnapshot()} to only read from it.
      *
      * @return IRequestContext
      */
     public IRequestContext getRequestContext() {
-        return REQUEST_CONTEXT_THREAD_LOCAL.get();
+        final ThreadState state = THREAD_STATE.get();
+        if (state.mRequestContext == null) {
+            if (state.mSnapshot != null) {
+                state.mRequestContext = state.mSnapshot.toRequestContext();
+            } else {
+                final RequestContext defaultRequestContext = new RequestContext();
+                defaultRequestContext.put(THREAD_ID, String.valueOf(Thread.currentThread().getId()));
+                defaultRequestContext.put(CORRELATION_ID, UNSET);
+                state.mRequestContext = defaultRequestContext;
+            }
+        }
+        return state.mRequestContext;
+    }
+
+    /**
+     * Get an immutable snapshot of the request context of the executing thread.
+     *
+     * @return DiagnosticContextSnapshot
+     */
+    public DiagnosticContextSnapshot getSnapshot() {
+        final ThreadState state = THREAD_STATE.get();
+        // The request context may have been modified through getRequestContext() since the
+        // snapshot was captured. Comparing the (small) map is far cheaper than recapturing it.
+        if (state.mSnapshot != null
+                && (state.mRequestContext == null || state.mSnapshot.matches(state.mRequestContext))) {
+            return state.mSnapshot;
+        }
+
+        final String threadId = String.valueOf(Thread.currentThread().getId());
+        if (state.mRequestContext != null) {
+            state.mSnapshot = DiagnosticContextSnapshot.of(state.mRequestContext, threadId);
+            return state.mSnapshot;
+        }
+
+        if (state.mUnsetSnapshot == null) {
+            final RequestContext unsetRequestContext = new RequestContext();
+            unsetRequestContext.put(CORRELATION_ID, UNSET);
+            state.mUnsetSnapshot = DiagnosticContextSnapshot.of(unsetRequestContext, threadId);
+        }
+        return state.mUnsetSnapshot;
+    }
+
+    /**
+     * Get the snapshot of the request context of the executing thread, if one has been set.
+     *
+     * @return DiagnosticContextSnapshot, or null if this thread has no request context.
+     */
+    @Nullable
+    public DiagnosticContextSnapshot peekSnapshot() {
+        final ThreadState state = THREAD_STATE.get();
+        if (state.mSnapshot == null && state.mRequestContext == null) {
+            return null;
+        }
+        return getSnapshot();
     }
 
+    /**
+     * Set the request context of the executing thread from a snapshot captured on another thread.
+     *
+     * @param snapshot DiagnosticContextSnapshot, or null to clear the request context.
+     */
+    public void setSnapshot(@Nullable final DiagnosticContextSnapshot snapshot) {
+        if (null == snapshot) {
+            clear();
+            return;
+        }
+
+        final ThreadState state = THREAD_STATE.get();
+        state.mRequestContext = null;
+        state.mSnapshot = snapshot.forThread(String.valueOf(Thread.currentThread().getId()));
+    }
 
     /**
      * Utility method to return the correlation id for current thread.
      * @return Correlation id or "UNSET"
      */
     public String getThreadCorrelationId() {
-        IRequestContext context = getRequestContext();
-        String correlationId = context.get(DiagnosticContext.CORRELATION_ID);
-        if (correlationId == null) {
-            correlationId = UNSET;
-        }
-        return correlationId;
+        final String correlationId = getSnapshot().getCorrelationId();
+        return correlationId == null ? UNSET : correlationId;
     }
 
     /**
      * Clear the local request context thread.
      */
     public void clear() {
-        REQUEST_CONTEXT_THREAD_LOCAL.remove();
+        THREAD_STATE.remove();
     }
 
 }
@@ -0,0 +1,127 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.logging;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.NonNull;
+
+/**
+ * An immutable capture of the {@link DiagnosticContext} of a thread.
+ * <p>
+ * Captured once per request context, and handed over to worker threads with the request
+ * (see {@link DiagnosticContext#setSnapshot(DiagnosticContextSnapshot)}), so that log lines and
+ * telemetry can read the correlation id and the preformatted log metadata without any map
+ * lookups or string formatting.
+ */
+public final class DiagnosticContextSnapshot {
+
+    private static final String UNSET = "UNSET";
+
+    private final Map<String, String> mRequestContext;
+    private final String mCorrelationId;
+    private final String mThreadId;
+    private final String mLogMetadata;
+
+    private DiagnosticContextSnapshot(@NonNull final Map<String, String> requestContext,
+                                      @NonNull final String threadId) {
+        mRequestContext = requestContext;
+        mCorrelationId = requestContext.get(DiagnosticContext.CORRELATION_ID);
+        mThreadId = threadId;
+        mLogMetadata = DiagnosticContext.THREAD_ID + ": " + threadId + ", "
+                + DiagnosticContext.CORRELATION_ID + ": "
+                + (mCorrelationId == null || mCorrelationId.isEmpty() ? UNSET : mCorrelationId);
+    }
+
+    /**
+     * Captures the given request context, which belongs to the given thread.
+     */
+    static DiagnosticContextSnapshot of(@NonNull final Map<String, String> requestContext,
+                                        @NonNull final String threadId) {
+        final String contextThreadId = requestContext.get(DiagnosticContext.THREAD_ID);
+        return new DiagnosticContextSnapshot(
+                Collections.unmodifiableMap(new HashMap<>(requestContext)),
+                contextThreadId == null || contextThreadId.isEmpty() ? threadId : contextThreadId
+        );
+    }
+
+    /**
+     * Returns this snapshot as seen from the given thread.
+     */
+    DiagnosticContextSnapshot forThread(@NonNull final String threadId) {
+        if (mThreadId.equals(threadId)) {
+            return this;
+        }
+        return new DiagnosticContextSnapshot(mRequestContext, threadId);
+    }
+
+    /**
+     * @return true if the given request context still holds exactly the values captured by this
+     * snapshot, i.e. it has not been modified since.
+     */
+    boolean matches(@NonNull final Map<String, String> requestContext) {
+        return mRequestContext.equals(requestContext);
+    }
+
+    /**
+     * Creates a mutable {@link RequestContext} holding the values of this snapshot.
+     */
+    RequestContext toRequestContext() {
+        final RequestContext requestContext = new RequestContext();
+        requestContext.putAll(mRequestContext);
+        requestContext.put(DiagnosticContext.THREAD_ID, mThreadId);
+        return requestContext;
+    }
+
+    /**
+     * @return the correlation id of the request, or null if it is not set.
+     */
+    @Nullable
+    public String getCorrelationId() {
+        return mCorrelationId;
+    }
+
+    /**
+     * @return the id of the thread this snapshot belongs to.
+     */
+    public String getThreadId() {
+        return mThreadId;
+    }
+
+    /**
+     * @return the thread id and correlation id, preformatted for log lines.
+     */
+    public String getLogMetadata() {
+        return mLogMetadata;
+    }
+
+    /**
+     * @return an unmodifiable view of all the values of the request context.
+     */
+    public Map<String, String> getRequestContext() {
+        return mRequestContext;
+    }
+}
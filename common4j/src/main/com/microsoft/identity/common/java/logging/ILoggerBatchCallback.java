@@ -0,0 +1,42 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.logging;
+
+import java.util.List;
+
+import lombok.NonNull;
+
+/**
+ * A {@link ILoggerCallback} that can receive log lines in batches.
+ * When registered through {@link Logger#setLogger(String, ILoggerCallback)}, every line that the
+ * logger delivers at once is handed over in a single call to {@link #log(List)} instead of one
+ * call to {@link #log(String, Logger.LogLevel, String, boolean)} per line.
+ */
+public interface ILoggerBatchCallback extends ILoggerCallback {
+    /**
+     * Hand off a batch of log lines, in the order they were logged.
+     *
+     * @param logLines The log lines.
+     */
+    void log(@NonNull List<LogLine> logLines);
+}
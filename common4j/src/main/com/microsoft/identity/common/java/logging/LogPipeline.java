@@ -0,0 +1,252 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.logging;
+
+import com.microsoft.identity.common.java.util.ThreadUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.NonNull;
+
+/**
+ * Moves formatting and delivery of accepted log lines off the logging thread.
+ *
+ * Lines go into a bounded ring buffer. A single worker drains it in batches of at most
+ * {@code batchSize} lines and hands each batch to the {@link IBatchHandler}.
+ * When the buffer is full, the {@link Logger.OverflowPolicy} decides which line is dropped;
+ * logging never blocks the caller. The worker exits when it has been idle for a while,
+ * and is restarted on the next submit.
+ *
+ * This class must not log through {@link Logger} itself, as that would feed back into the buffer.
+ */
+class LogPipeline {
+
+    private static final long WORKER_IDLE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    /**
+     * Delivers a batch of log entries to the registered callbacks.
+     */
+    interface IBatchHandler {
+        /**
+         * @param batch                  The entries, in the order they were submitted.
+         * @param droppedSinceLastBatch  Number of entries dropped since the previous batch was handled.
+         */
+        void onBatch(@NonNull List<LogEntry> batch, long droppedSinceLastBatch);
+    }
+
+    /**
+     * An accepted, not yet formatted, log line.
+     */
+    static final class LogEntry {
+        final String mTag;
+        final Logger.LogLevel mLogLevel;
+        final String mDiagnosticMetadata;
+        final String mMessage;
+        final String mObjectToLog;
+        final Throwable mThrowable;
+        final boolean mContainsPII;
+        final long mTimeMillis;
+
+        LogEntry(final String tag,
+                 @NonNull final Logger.LogLevel logLevel,
+                 final String diagnosticMetadata,
+                 final String message,
+                 final String objectToLog,
+                 final Throwable throwable,
+                 final boolean containsPII,
+                 final long timeMillis) {
+            mTag = tag;
+            mLogLevel = logLevel;
+            mDiagnosticMetadata = diagnosticMetadata;
+            mMessage = message;
+            mObjectToLog = objectToLog;
+            mThrowable = throwable;
+            mContainsPII = containsPII;
+            mTimeMillis = timeMillis;
+        }
+    }
+
+    private final BlockingQueue<LogEntry> mBuffer;
+    private final int mCapacity;
+    private final int mBatchSize;
+    private final Logger.OverflowPolicy mOverflowPolicy;
+    private final IBatchHandler mHandler;
+    private final ExecutorService mExecutor = ThreadUtils.getNamedThreadPoolExecutor(
+            0, 1, -1, 0, TimeUnit.SECONDS, "common-logger");
+    private final AtomicBoolean mIsWorkerRunning = new AtomicBoolean(false);
+
+    private final AtomicLong mSubmittedCount = new AtomicLong();
+    private final AtomicLong mDroppedCount = new AtomicLong();
+    private final AtomicLong mDeliveredCount = new AtomicLong();
+
+    // Notified whenever a batch has been delivered.
+    private final Object mDeliveryLock = new Object();
+
+    // Only touched by the worker.
+    private long mReportedDroppedCount = 0;
+
+    LogPipeline(final int capacity,
+                final int batchSize,
+                @NonNull final Logger.OverflowPolicy overflowPolicy,
+                @NonNull final IBatchHandler handler) {
+        mCapacity = Math.max(1, capacity);
+        mBuffer = new ArrayBlockingQueue<>(mCapacity);
+        mBatchSize = Math.max(1, batchSize);
+        mOverflowPolicy = overflowPolicy;
+        mHandler = handler;
+    }
+
+    /**
+     * Queues a log entry for delivery. Never blocks.
+     *
+     * @return false if the buffer was full and an entry (this one, or the oldest one,
+     * depending on the overflow policy) was dropped.
+     */
+    boolean submit(@NonNull final LogEntry entry) {
+        mSubmittedCount.incrementAndGet();
+        boolean accepted = mBuffer.offer(entry);
+        if (!accepted) {
+            if (mOverflowPolicy == Logger.OverflowPolicy.DROP_OLDEST) {
+                // Make room by discarding the oldest line. Another producer may take the freed
+                // slot first, in which case this line is dropped instead.
+                if (mBuffer.poll() != null) {
+                    mDroppedCount.incrementAndGet();
+                }
+                if (!mBuffer.offer(entry)) {
+                    mDroppedCount.incrementAndGet();
+                }
+            } else {
+                mDroppedCount.incrementAndGet();
+            }
+        }
+
+        startWorkerIfNeeded();
+        return accepted;
+    }
+
+    int getCapacity() {
+        return mCapacity;
+    }
+
+    Logger.OverflowPolicy getOverflowPolicy() {
+        return mOverflowPolicy;
+    }
+
+    long getSubmittedCount() {
+        return mSubmittedCount.get();
+    }
+
+    long getDroppedCount() {
+        return mDroppedCount.get();
+    }
+
+    long getDeliveredCount() {
+        return mDeliveredCount.get();
+    }
+
+    int getPendingCount() {
+        return mBuffer.size();
+    }
+
+    /**
+     * Waits until every entry submitted before this call has been delivered or dropped.
+     *
+     * @return false if the timeout elapsed first.
+     */
+    boolean awaitIdle(final long timeout, @NonNull final TimeUnit unit) throws InterruptedException {
+        final long submitted = mSubmittedCount.get();
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (mDeliveryLock) {
+            while (mDeliveredCount.get() + mDroppedCount.get() < submitted) {
+                final long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMillis <= 0) {
+                    return false;
+                }
+                mDeliveryLock.wait(remainingMillis);
+            }
+        }
+        return true;
+    }
+
+    private void startWorkerIfNeeded() {
+        if (mIsWorkerRunning.compareAndSet(false, true)) {
+            mExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    runWorker();
+                }
+            });
+        }
+    }
+
+    private void runWorker() {
+        final List<LogEntry> batch = new ArrayList<>(mBatchSize);
+        while (true) {
+            try {
+                final LogEntry first = mBuffer.poll(WORKER_IDLE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    mIsWorkerRunning.set(false);
+                    // An entry may have been queued after the poll timed out, but before the flag
+                    // was cleared; in that case the submitter did not start a new worker.
+                    if (mBuffer.isEmpty() || !mIsWorkerRunning.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+
+                batch.add(first);
+                mBuffer.drainTo(batch, mBatchSize - 1);
+                deliver(batch);
+                batch.clear();
+            } catch (final InterruptedException e) {
+                mIsWorkerRunning.set(false);
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void deliver(@NonNull final List<LogEntry> batch) {
+        final long dropped = mDroppedCount.get();
+        final long droppedSinceLastBatch = dropped - mReportedDroppedCount;
+        mReportedDroppedCount = dropped;
+
+        try {
+            mHandler.onBatch(batch, droppedSinceLastBatch);
+        } catch (final RuntimeException e) {
+            // If delivery throws, there is nothing left to do but swallow the exception and move on.
+        }
+
+        mDeliveredCount.addAndGet(batch.size());
+        synchronized (mDeliveryLock) {
+            mDeliveryLock.notifyAll();
+        }
+    }
+}
@@ -24,17 +24,18 @@ package com.microsoft.identity.common.java.logging;
 
 import com.microsoft.identity.common.java.nativeauth.util.ILoggable;
 import com.microsoft.identity.common.java.util.StringUtil;
+import com.microsoft.identity.common.java.util.Supplier;
 import com.microsoft.identity.common.java.util.ThrowableUtil;
 
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.TimeZone;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import edu.umd.cs.findbugs.annotations.Nullable;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
@@ -46,9 +47,7 @@ import lombok.experimental.Accessors;
 
 public class Logger {
 
-    private static final ExecutorService sLogExecutor = Executors.newSingleThreadExecutor();
     private static final String DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
-    private static final String UNSET = "UNSET";
 
     // Turn on the VERBOSE level logging by default.
     @Setter()
@@ -65,15 +64,43 @@ public class Logger {
     @Accessors(prefix = "s")
     private static String sPlatformString = "";
 
-    private static final ReentrantReadWriteLock sLoggersLock = new ReentrantReadWriteLock();
+    /**
+     * Default number of accepted log lines that may be waiting for delivery.
+     */
+    public static final int DEFAULT_LOG_BUFFER_CAPACITY = 4096;
 
-    private static final Map<String, ILoggerCallback> sLoggers = new HashMap<>();
+    /**
+     * Maximum number of log lines handed to the callbacks at once.
+     */
+    private static final int LOG_BATCH_SIZE = 64;
 
-    private static final SimpleDateFormat sDateTimeFormatter;
-    static {
-        sDateTimeFormatter = new SimpleDateFormat(DATE_FORMAT, Locale.getDefault());
-        sDateTimeFormatter.setTimeZone(TimeZone.getTimeZone("UTC"));
-    }
+    private static final String DROPPED_LINES_TAG = Logger.class.getSimpleName();
+
+    private static final Object sLoggersLock = new Object();
+
+    // Copy-on-write: the delivery thread reads the current snapshot without locking.
+    //@GuardedBy("sLoggersLock") for writes
+    private static volatile Map<String, ILoggerCallback> sLoggers = Collections.emptyMap();
+
+    private static volatile LogPipeline sLogPipeline = createLogPipeline(DEFAULT_LOG_BUFFER_CAPACITY, OverflowPolicy.DROP_NEWEST);
+
+    // SimpleDateFormat is not thread-safe, so each formatting thread gets its own instance.
+    private static final ThreadLocal<SimpleDateFormat> sDateTimeFormatter = new ThreadLocal<SimpleDateFormat>() {
+        @Override
+        protected SimpleDateFormat initialValue() {
+            final SimpleDateFormat formatter = new SimpleDateFormat(DATE_FORMAT, Locale.getDefault());
+            formatter.setTimeZone(TimeZone.getTimeZone("UTC"));
+            return formatter;
+        }
+    };
+
+    // The timestamp only has a resolution of one second, so the last formatted value is reused
+    // for every log line emitted within the same second.
+    private static volatile FormattedTimestamp sLastTimestamp = new FormattedTimestamp(Long.MIN_VALUE, "");
+
+    // Log lines for the thread's own correlation id use the prefix preformatted on its
+    // DiagnosticContextSnapshot; for any other correlation id, the last one built on each thread is kept around.
+    private static final ThreadLocal<DiagnosticMetadata> sLastDiagnosticMetadata = new ThreadLocal<>();
 
     /**
      * Set the platform string to be used when generating logs.
@@ -115,39 +142,77 @@ public class Logger {
         UNDEFINED
     }
 
+    /**
+     * What to do with a new log line when the log buffer is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Drop the new line, keeping the lines already waiting for delivery.
+         */
+        DROP_NEWEST,
+        /**
+         * Drop the oldest line waiting for delivery to make room for the new one.
+         */
+        DROP_OLDEST
+    }
+
     // Visible for testing
     static synchronized void resetLogger() {
-        sLoggersLock.writeLock().lock();
-        try {
-            sLoggers.clear();
+        synchronized (sLoggersLock) {
+            sLoggers = Collections.emptyMap();
             sAllowPii = false;
             sPlatformString = "";
             sLogLevel = LogLevel.VERBOSE;
-        } finally {
-            sLoggersLock.writeLock().unlock();
         }
     }
 
     public static boolean setLogger(@NonNull String identifier,
                                     ILoggerCallback callback) {
-        sLoggersLock.writeLock().lock();
-        try {
+        synchronized (sLoggersLock) {
+            final Map<String, ILoggerCallback> loggers = new HashMap<>(sLoggers);
             if (callback == null) {
-                sLoggers.remove(identifier);
+                loggers.remove(identifier);
+                sLoggers = Collections.unmodifiableMap(loggers);
                 return true;
             }
 
-            if (sLoggers.containsValue(callback)){
+            if (loggers.containsValue(callback)){
                 return false;
             }
 
-            sLoggers.put(identifier, callback);
+            loggers.put(identifier, callback);
+            sLoggers = Collections.unmodifiableMap(loggers);
             return true;
-        } finally {
-            sLoggersLock.writeLock().unlock();
         }
     }
 
+    /**
+     * Configure the buffer that holds accepted log lines until they are delivered to the callbacks.
+     * If callbacks fall behind and the buffer fills up, lines are dropped according to the given
+     * policy instead of growing memory; the number of dropped lines is reported in the log stream
+     * and through {@link #getDroppedLogCount()}.
+     * Lines already waiting in the previous buffer are still delivered.
+     *
+     * @param capacity       Maximum number of log lines waiting for delivery.
+     * @param overflowPolicy What to drop when the buffer is full.
+     */
+    public static void configureLogBuffer(final int capacity,
+                                          @NonNull final OverflowPolicy overflowPolicy) {
+        sLogPipeline = createLogPipeline(capacity, overflowPolicy);
+    }
+
+    /**
+     * @return the number of log lines dropped because the log buffer was full.
+     */
+    public static long getDroppedLogCount() {
+        return sLogPipeline.getDroppedCount();
+    }
+
+    // Visible for testing
+    static LogPipeline getLogPipeline() {
+        return sLogPipeline;
+    }
+
     /**
      * Get only the required metadata from the DiagnosticContext
      * to plug it in the log lines.
@@ -157,7 +222,7 @@ public class Logger {
      *
      * @return String The concatenation of thread_name and correlation_id to serve as the required metadata in the log lines.
      */
-    public static synchronized String getDiagnosticContextMetadata() {
+    public static String getDiagnosticContextMetadata() {
         return getDiagnosticContextMetadata(null);
     }
 
@@ -465,6 +530,139 @@ public class Logger {
         log(tag, LogLevel.VERBOSE, correlationID, message, null, null, true);
     }
 
+    /**
+     * Send a {@link LogLevel#VERBOSE} log message without PII.
+     * The message is only built if verbose logging is enabled.
+     *
+     * @param tag             Used to identify the source of a log message. It usually identifies the class
+     *                        or activity where the log call occurs.
+     * @param messageSupplier Supplies the message to log.
+     */
+    public static void verbose(final String tag,
+                               @NonNull final Supplier<String> messageSupplier) {
+        if (isLoggable(LogLevel.VERBOSE, false)) {
+            log(tag, LogLevel.VERBOSE, null, messageSupplier.get(), null, null, false);
+        }
+    }
+
+    /**
+     * Send a {@link LogLevel#VERBOSE} log message without PII.
+     * The message is only formatted if verbose logging is enabled.
+     *
+     * @param tag           Used to identify the source of a log message. It usually identifies the
+     *                      class or activity where the log call occurs.
+     * @param correlationID Unique identifier for a request or flow used to trace program execution.
+     * @param format        A {@link String#format(String, Object...)} format string.
+     * @param args          Arguments referenced by the format string.
+     */
+    public static void verbose(final String tag,
+                               @Nullable final String correlationID,
+                               @NonNull final String format,
+                               final Object... args) {
+        if (isLoggable(LogLevel.VERBOSE, false)) {
+            log(tag, LogLevel.VERBOSE, correlationID, String.format(Locale.US, format, args), null, null, false);
+        }
+    }
+
+    /**
+     * Send a {@link LogLevel#VERBOSE} log message with PII.
+     * The message is only built if verbose logging is enabled and PII logging is allowed.
+     *
+     * @param tag             Used to identify the source of a log message. It usually identifies the class
+     *                        or activity where the log call occurs.
+     * @param messageSupplier Supplies the message to log.
+     */
+    public static void verbosePII(final String tag,
+                                  @NonNull final Supplier<String> messageSupplier) {
+        if (isLoggable(LogLevel.VERBOSE, true)) {
+            log(tag, LogLevel.VERBOSE, null, messageSupplier.get(), null, null, true);
+        }
+    }
+
+    /**
+     * Send a {@link LogLevel#INFO} log message without PII.
+     * The message is only built if info logging is enabled.
+     *
+     * @param tag             Used to identify the source of a log message. It usually identifies the class
+     *                        or activity where the log call occurs.
+     * @param messageSupplier Supplies the message to log.
+     */
+    public static void info(final String tag,
+                            @NonNull final Supplier<String> messageSupplier) {
+        if (isLoggable(LogLevel.INFO, false)) {
+            log(tag, LogLevel.INFO, null, messageSupplier.get(), null, null, false);
+        }
+    }
+
+    /**
+     * Send a {@link LogLevel#INFO} log message without PII.
+     * The message is only formatted if info logging is enabled.
+     *
+     * @param tag           Used to identify the source of a log message. It usually identifies the
+     *                      class or activity where the log call occurs.
+     * @param correlationID Unique identifier for a request or flow used to trace program execution.
+     * @param format        A {@link String#format(String, Object...)} format string.
+     * @param args          Arguments referenced by the format string.
+     */
+    public static void info(final String tag,
+                            @Nullable final String correlationID,
+                            @NonNull final String format,
+                            final Object... args) {
+        if (isLoggable(LogLevel.INFO, false)) {
+            log(tag, LogLevel.INFO, correlationID, String.format(Locale.US, format, args), null, null, false);
+        }
+    }
+
+    /**
+     * Send a {@link LogLevel#WARN} log message without PII.
+     * The message is only built if warn logging is enabled.
+     *
+     * @param tag             Used to identify the source of a log message. It usually identifies the class
+     *                        or activity where the log call occurs.
+     * @param messageSupplier Supplies the message to log.
+     */
+    public static void warn(final String tag,
+                            @NonNull final Supplier<String> messageSupplier) {
+        if (isLoggable(LogLevel.WARN, false)) {
+            log(tag, LogLevel.WARN, null, messageSupplier.get(), null, null, false);
+        }
+    }
+
+    /**
+     * Send a {@link LogLevel#WARN} log message without PII.
+     * The message is only formatted if warn logging is enabled.
+     *
+     * @param tag           Used to identify the source of a log message. It usually identifies the
+     *                      class or activity where the log call occurs.
+     * @param correlationID Unique identifier for a request or flow used to trace program execution.
+     * @param format        A {@link String#format(String, Object...)} format string.
+     * @param args          Arguments referenced by the format string.
+     */
+    public static void warn(final String tag,
+                            @Nullable final String correlationID,
+                            @NonNull final String format,
+                            final Object... args) {
+        if (isLoggable(LogLevel.WARN, false)) {
+            log(tag, LogLevel.WARN, correlationID, String.format(Locale.US, format, args), null, null, false);
+        }
+    }
+
+    /**
+     * Returns true if a message of the given level would currently be emitted.
+     * Use this to guard expensive message construction at call sites.
+     *
+     * @param logLevel    The level of the message.
+     * @param containsPII Whether the message contains PII.
+     * @return true if the message would be logged.
+     */
+    public static boolean isLoggable(@NonNull final LogLevel logLevel,
+                                     final boolean containsPII) {
+        final LogLevel currentLevel = sLogLevel;
+        return currentLevel != LogLevel.NO_LOG
+                && logLevel.compareTo(currentLevel) <= 0
+                && (sAllowPii || !containsPII);
+    }
+
     private static void log(final String tag,
                             @NonNull final LogLevel logLevel,
                             final String correlationId,
@@ -472,39 +670,81 @@ public class Logger {
                             @Nullable final String objectToLog,
                             final Throwable throwable,
                             final boolean containsPII) {
-        if ((sLogLevel == LogLevel.NO_LOG) || logLevel.compareTo(sLogLevel) > 0 || (!sAllowPii && containsPII)) {
+        if (!isLoggable(logLevel, containsPII)) {
             return;
         }
 
-        final Date now = new Date();
+        final long now = System.currentTimeMillis();
         final String diagnosticMetadata = getDiagnosticContextMetadata(correlationId);
 
-        sLogExecutor.execute(new Runnable() {
+        sLogPipeline.submit(new LogPipeline.LogEntry(tag, logLevel, diagnosticMetadata, message, objectToLog,
+                throwable, containsPII, now));
+    }
+
+    private static LogPipeline createLogPipeline(final int capacity,
+                                                 @NonNull final OverflowPolicy overflowPolicy) {
+        return new LogPipeline(capacity, LOG_BATCH_SIZE, overflowPolicy, new LogPipeline.IBatchHandler() {
             @Override
-            @SuppressFBWarnings(value = "DE_MIGHT_IGNORE",
-                    justification = "If logging throws, there is nothing left to do but swallow the exception and move on.")
-            public void run() {
-                final String dateTimeStamp = sDateTimeFormatter.format(now);
-                //Format the log message.
-                final String logMessage = formatMessage(diagnosticMetadata, sPlatformString, message, objectToLog, dateTimeStamp, throwable);
-
-                sLoggersLock.readLock().lock();
+            public void onBatch(@NonNull final List<LogPipeline.LogEntry> batch, final long droppedSinceLastBatch) {
+                deliver(batch, droppedSinceLastBatch);
+            }
+        });
+    }
+
+    /**
+     * Format a batch of log entries and hand it to every registered callback.
+     * Runs on the log pipeline's worker thread.
+     */
+    @SuppressFBWarnings(value = "DE_MIGHT_IGNORE",
+            justification = "If logging throws, there is nothing left to do but swallow the exception and move on.")
+    private static void deliver(@NonNull final List<LogPipeline.LogEntry> batch,
+                                final long droppedSinceLastBatch) {
+        final Map<String, ILoggerCallback> loggers = sLoggers;
+        if (loggers.isEmpty()) {
+            return;
+        }
+
+        final String platformString = sPlatformString;
+        final List<LogLine> logLines = new ArrayList<>(batch.size() + 1);
+        if (droppedSinceLastBatch > 0) {
+            logLines.add(new LogLine(
+                    DROPPED_LINES_TAG,
+                    LogLevel.WARN,
+                    formatMessage(null, platformString,
+                            droppedSinceLastBatch + " log lines were dropped because the log buffer was full.",
+                            null, formatTimestamp(System.currentTimeMillis()), null),
+                    false
+            ));
+        }
+
+        for (final LogPipeline.LogEntry entry : batch) {
+            logLines.add(new LogLine(
+                    entry.mTag,
+                    entry.mLogLevel,
+                    formatMessage(entry.mDiagnosticMetadata, platformString, entry.mMessage, entry.mObjectToLog,
+                            formatTimestamp(entry.mTimeMillis), entry.mThrowable),
+                    entry.mContainsPII
+            ));
+        }
+
+        for (final ILoggerCallback callback : loggers.values()) {
+            if (callback instanceof ILoggerBatchCallback) {
                 try {
-                    for (final String loggerCallbackKey : sLoggers.keySet()) {
-                        try {
-                            final ILoggerCallback callback = sLoggers.get(loggerCallbackKey);
-                            if (callback != null) {
-                                callback.log(tag, logLevel, logMessage, containsPII);
-                            }
-                        } catch (final Exception e) {
-                            // Do nothing.
-                        }
-                    }
-                } finally {
-                    sLoggersLock.readLock().unlock();
+                    ((ILoggerBatchCallback) callback).log(Collections.unmodifiableList(logLines));
+                } catch (final Exception e) {
+                    // Do nothing.
                 }
+                continue;
             }
-        });
+
+            for (final LogLine logLine : logLines) {
+                try {
+                    callback.log(logLine.getTag(), logLine.getLogLevel(), logLine.getMessage(), logLine.isContainsPII());
+                } catch (final Exception e) {
+                    // Do nothing.
+                }
+            }
+        }
     }
 
     /**
@@ -534,21 +774,65 @@ public class Logger {
      *
      * @return String The concatenation of thread_name and correlation_id to serve as the required metadata in the log lines.
      */
-    private static String getDiagnosticContextMetadata(@Nullable String correlationId) {
-        final IRequestContext requestContext = DiagnosticContext.INSTANCE.getRequestContext();
-        String threadId = requestContext.get(DiagnosticContext.THREAD_ID);
+    private static String getDiagnosticContextMetadata(@Nullable final String correlationId) {
+        final DiagnosticContextSnapshot snapshot = DiagnosticContext.INSTANCE.getSnapshot();
+        if (StringUtil.isNullOrEmpty(correlationId) || correlationId.equals(snapshot.getCorrelationId())) {
+            return snapshot.getLogMetadata();
+        }
 
-        if (StringUtil.isNullOrEmpty(threadId)) {
-            threadId = UNSET;
+        final String threadId = snapshot.getThreadId();
+        final DiagnosticMetadata cached = sLastDiagnosticMetadata.get();
+        if (cached != null && cached.matches(threadId, correlationId)) {
+            return cached.mValue;
         }
-        if (StringUtil.isNullOrEmpty(correlationId)) {
-            correlationId = requestContext.get(DiagnosticContext.CORRELATION_ID);
-            if (StringUtil.isNullOrEmpty(correlationId)) {
-                correlationId = UNSET;
-            }
+
+        final DiagnosticMetadata metadata = new DiagnosticMetadata(threadId, correlationId);
+        sLastDiagnosticMetadata.set(metadata);
+        return metadata.mValue;
+    }
+
+    /**
+     * Formats the given time with {@link #DATE_FORMAT}, reusing the previous result if it falls within the same second.
+     */
+    private static String formatTimestamp(final long timeMillis) {
+        final long second = timeMillis / 1000;
+        final FormattedTimestamp last = sLastTimestamp;
+        if (last.mSecond == second) {
+            return last.mValue;
         }
 
-        return String.format("%s: %s, %s: %s",
-                DiagnosticContext.THREAD_ID, threadId, DiagnosticContext.CORRELATION_ID, correlationId);
+        final FormattedTimestamp formatted = new FormattedTimestamp(
+                second,
+                sDateTimeFormatter.get().format(new Date(timeMillis))
+        );
+        sLastTimestamp = formatted;
+        return formatted.mValue;
+    }
+
+    private static final class FormattedTimestamp {
+        private final long mSecond;
+        private final String mValue;
+
+        FormattedTimestamp(final long second, @NonNull final String value) {
+            mSecond = second;
+            mValue = value;
+        }
+    }
+
+    private static final class DiagnosticMetadata {
+        private final String mThreadId;
+        private final String mCorrelationId;
+        private final String mValue;
+
+        DiagnosticMetadata(@NonNull final String threadId, @NonNull final String correlationId) {
+            mThreadId = threadId;
+            mCorrelationId = correlationId;
+            mValue = DiagnosticContext.THREAD_ID + ": " + threadId + ", "
+                    + DiagnosticContext.CORRELATION_ID + ": " + correlationId;
+        }
+
+        boolean matches(@NonNull final String threadId, @NonNull final String correlationId) {
+            return mThreadId.equals(threadId) && mCorrelationId.equals(correlationId);
+        }
     }
 }
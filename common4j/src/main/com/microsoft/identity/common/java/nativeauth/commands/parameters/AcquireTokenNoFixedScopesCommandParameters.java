@@ -53,8 +53,6 @@ public class AcquireTokenNoFixedScopesCommandParameters extends BaseNativeAuthCo
 
     private static final String TAG = AcquireTokenNoFixedScopesCommandParameters.class.getSimpleName();
 
-    private static final Object sLock = new Object();
-
     private final IAccountRecord account;
 
     @NonNull
@@ -151,8 +149,7 @@ public class AcquireTokenNoFixedScopesCommandParameters extends BaseNativeAuthCo
                 TAG + methodName,
                 "Performing cloud discovery..."
         );
-        synchronized (sLock) {
-            AzureActiveDirectory.performCloudDiscovery();
-        }
+        // AzureActiveDirectory coalesces concurrent discovery requests, no need to serialize here.
+        AzureActiveDirectory.performCloudDiscovery();
     }
 }
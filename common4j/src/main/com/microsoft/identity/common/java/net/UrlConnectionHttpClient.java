@@ -367,32 +367,35 @@ public class UrlConnectionHttpClient extends AbstractHttpClient {
 
             final Span span = SpanExtension.current();
 
-            if (response.getHeaders() != null && response.getHeaders().size() > 0) {
-                span.setAttribute(
-                        AttributeName.response_content_type.name(),
-                        response.getHeaderValue(CONTENT_TYPE, 0)
-                );
+            // Skip the header lookups when the span is not sampled.
+            if (span.isRecording()) {
+                if (response.getHeaders() != null && response.getHeaders().size() > 0) {
+                    span.setAttribute(
+                            AttributeName.response_content_type.name(),
+                            response.getHeaderValue(CONTENT_TYPE, 0)
+                    );
+
+                    span.setAttribute(
+                            com.microsoft.identity.common.java.opentelemetry.AttributeName.ccs_request_id.name(),
+                            response.getHeaderValue(XMS_CCS_REQUEST_ID, 0)
+                    );
+
+                    span.setAttribute(
+                            com.microsoft.identity.common.java.opentelemetry.AttributeName.ccs_request_sequence.name(),
+                            response.getHeaderValue(XMS_CCS_REQUEST_SEQUENCE, 0)
+                    );
+                }
 
                 span.setAttribute(
-                        com.microsoft.identity.common.java.opentelemetry.AttributeName.ccs_request_id.name(),
-                        response.getHeaderValue(XMS_CCS_REQUEST_ID, 0)
+                        AttributeName.response_body_length.name(),
+                        responseBody.length()
                 );
-
                 span.setAttribute(
-                        com.microsoft.identity.common.java.opentelemetry.AttributeName.ccs_request_sequence.name(),
-                        response.getHeaderValue(XMS_CCS_REQUEST_SEQUENCE, 0)
+                        AttributeName.http_status_code.name(),
+                        response.getStatusCode()
                 );
             }
 
-            span.setAttribute(
-                    AttributeName.response_body_length.name(),
-                    responseBody.length()
-            );
-            span.setAttribute(
-                    AttributeName.http_status_code.name(),
-                    response.getStatusCode()
-            );
-
         } finally {
             completionCallback.accept(response);
             safeCloseStream(responseStream);
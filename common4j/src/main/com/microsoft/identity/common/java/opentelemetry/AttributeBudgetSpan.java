@@ -0,0 +1,201 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.opentelemetry;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import lombok.NonNull;
+
+/**
+ * A {@link Span} which records at most a given number of attributes, essential attributes excluded.
+ * Attributes beyond the budget are dropped; everything else is passed on to the wrapped span.
+ * Used for spans which are recording but not sampled.
+ */
+class AttributeBudgetSpan implements Span {
+
+    private final Span mSpan;
+    private final int mBudget;
+    private final Set<String> mEssentialAttributes;
+
+    // The span context is propagated to executor threads, so attributes may be set concurrently.
+    private final AtomicInteger mAttributeCount = new AtomicInteger();
+
+    AttributeBudgetSpan(@NonNull final Span span,
+                        final int budget,
+                        @NonNull final Set<String> essentialAttributes) {
+        mSpan = span;
+        mBudget = budget;
+        mEssentialAttributes = essentialAttributes;
+    }
+
+    private boolean tryConsume(final String key) {
+        if (mEssentialAttributes.contains(key)) {
+            return true;
+        }
+        while (true) {
+            final int count = mAttributeCount.get();
+            if (count >= mBudget) {
+                return false;
+            }
+            if (mAttributeCount.compareAndSet(count, count + 1)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public Span setAttribute(String key, String value) {
+        if (tryConsume(key)) {
+            mSpan.setAttribute(key, value);
+        }
+        return this;
+    }
+
+    @Override
+    public Span setAttribute(String key, long value) {
+        if (tryConsume(key)) {
+            mSpan.setAttribute(key, value);
+        }
+        return this;
+    }
+
+    @Override
+    public Span setAttribute(String key, double value) {
+        if (tryConsume(key)) {
+            mSpan.setAttribute(key, value);
+        }
+        return this;
+    }
+
+    @Override
+    public Span setAttribute(String key, boolean value) {
+        if (tryConsume(key)) {
+            mSpan.setAttribute(key, value);
+        }
+        return this;
+    }
+
+    @Override
+    public <T> Span setAttribute(AttributeKey<T> key, T value) {
+        if (tryConsume(key.getKey())) {
+            mSpan.setAttribute(key, value);
+        }
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Span setAllAttributes(Attributes attributes) {
+        for (final Map.Entry<AttributeKey<?>, Object> entry : attributes.asMap().entrySet()) {
+            setAttribute((AttributeKey<Object>) entry.getKey(), entry.getValue());
+        }
+        return this;
+    }
+
+    @Override
+    public Span addEvent(String name) {
+        mSpan.addEvent(name);
+        return this;
+    }
+
+    @Override
+    public Span addEvent(String name, long timestamp, TimeUnit unit) {
+        mSpan.addEvent(name, timestamp, unit);
+        return this;
+    }
+
+    @Override
+    public Span addEvent(String name, Attributes attributes) {
+        mSpan.addEvent(name, attributes);
+        return this;
+    }
+
+    @Override
+    public Span addEvent(String name, Attributes attributes, long timestamp, TimeUnit unit) {
+        mSpan.addEvent(name, attributes, timestamp, unit);
+        return this;
+    }
+
+    @Override
+    public Span setStatus(StatusCode statusCode) {
+        mSpan.setStatus(statusCode);
+        return this;
+    }
+
+    @Override
+    public Span setStatus(StatusCode statusCode, String description) {
+        mSpan.setStatus(statusCode, description);
+        return this;
+    }
+
+    @Override
+    public Span recordException(Throwable exception) {
+        mSpan.recordException(exception);
+        return this;
+    }
+
+    @Override
+    public Span recordException(Throwable exception, Attributes additionalAttributes) {
+        mSpan.recordException(exception, additionalAttributes);
+        return this;
+    }
+
+    @Override
+    public Span updateName(String name) {
+        mSpan.updateName(name);
+        return this;
+    }
+
+    @Override
+    public void end() {
+        mSpan.end();
+    }
+
+    @Override
+    public void end(long timestamp, TimeUnit unit) {
+        mSpan.end(timestamp, unit);
+    }
+
+    @Override
+    public SpanContext getSpanContext() {
+        return mSpan.getSpanContext();
+    }
+
+    @Override
+    public boolean isRecording() {
+        return mSpan.isRecording();
+    }
+
+    @Override
+    public String toString() {
+        return "AttributeBudgetSpan{" + mSpan + '}';
+    }
+}
@@ -292,5 +292,40 @@ public enum AttributeName {
     /**
      * Indicates the number of entries retrieved from blockstore.
      */
-     no_of_entries_retrieved_from_blockstore;
+     no_of_entries_retrieved_from_blockstore,
+
+    /**
+     * Indicates the name of the command executed by the command dispatcher.
+     */
+    command_name,
+
+    /**
+     * Indicates the result status of an executed command.
+     */
+    command_result_status,
+
+    /**
+     * Indicates the token cache operation (e.g. load, save).
+     */
+    cache_operation,
+
+    /**
+     * Indicates whether a token cache lookup was a hit or a miss.
+     */
+    cache_lookup_result,
+
+    /**
+     * Indicates the storage operation performed against a name-value storage file.
+     */
+    storage_operation,
+
+    /**
+     * Indicates whether the measured operation succeeded.
+     */
+    is_successful,
+
+    /**
+     * Indicates the alias a local broadcast was sent to.
+     */
+    broadcast_alias;
 }
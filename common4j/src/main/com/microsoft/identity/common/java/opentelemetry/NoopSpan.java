@@ -22,13 +22,18 @@
 // THE SOFTWARE.
 package com.microsoft.identity.common.java.opentelemetry;
 
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.internal.ImmutableSpanContext;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanId;
 import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.TraceId;
 import lombok.AllArgsConstructor;
 
 /**
@@ -48,6 +53,51 @@ import lombok.AllArgsConstructor;
 @AllArgsConstructor
 public class NoopSpan implements Span {
 
+    /**
+     * A shared no-op span with an invalid span context. It holds no state, so it can be handed out
+     * freely, e.g. for spans which are not sampled.
+     */
+    public static final NoopSpan INVALID = new NoopSpan(
+            ImmutableSpanContext.create(
+                    TraceId.getInvalid(),
+                    SpanId.getInvalid(),
+                    new NoopTraceFlags(),
+                    new NoopTraceState(),
+                    /* remote= */ false,
+                    /* valid= */ false
+            )
+    );
+
+    /**
+     * Creates a no-op span for a root span which was not sampled. Unlike {@link #INVALID}, its span
+     * context is valid (with random ids) but not sampled, so that spans created from it follow the
+     * same sampling decision instead of making their own.
+     */
+    public static NoopSpan createNotSampled() {
+        final Random random = ThreadLocalRandom.current();
+        long traceIdHigh;
+        long traceIdLow;
+        do {
+            traceIdHigh = random.nextLong();
+            traceIdLow = random.nextLong();
+        } while (traceIdHigh == 0 && traceIdLow == 0);
+        long spanId;
+        do {
+            spanId = random.nextLong();
+        } while (spanId == 0);
+
+        return new NoopSpan(
+                ImmutableSpanContext.create(
+                        TraceId.fromLongs(traceIdHigh, traceIdLow),
+                        SpanId.fromLong(spanId),
+                        new NoopTraceFlags(),
+                        new NoopTraceState(),
+                        /* remote= */ false,
+                        /* valid= */ true
+                )
+        );
+    }
+
     private final SpanContext spanContext;
 
     @Override
@@ -39,11 +39,17 @@ public class OTelUtility {
 
     /**
      * Creates a span (with shared basic attributes).
+     * Returns a not sampled {@link NoopSpan} if the span is not picked by {@link SpanSampler},
+     * so that its children are not sampled either.
      **/
     @NonNull
     public static Span createSpan(@NonNull final String name) {
+        if (!SpanSampler.shouldSample(name)) {
+            return NoopSpan.createNotSampled();
+        }
+
         final Tracer tracer = OpenTelemetryHolder.getTracer(TAG);
-        return tracer.spanBuilder(name).startSpan();
+        return SpanSampler.applyAttributeBudget(tracer.spanBuilder(name).startSpan());
     }
 
     /**
@@ -52,14 +58,20 @@ public class OTelUtility {
      **/
     @NonNull
     public static Span createSpan(@NonNull final String name, @NonNull final String callingPackageName) {
+        if (!SpanSampler.shouldSample(name)) {
+            return NoopSpan.createNotSampled();
+        }
+
         final Tracer tracer = OpenTelemetryHolder.getTracer(TAG);
-        return tracer.spanBuilder(name)
+        return SpanSampler.applyAttributeBudget(tracer.spanBuilder(name)
                 .setAttribute(AttributeName.calling_package_name.name(), callingPackageName)
-                .startSpan();
+                .startSpan());
     }
 
     /**
      * Creates a span from a parent Span Context (with shared basic attributes).
+     * Once sampling is configured, a valid parent decides whether the span is sampled;
+     * otherwise, see {@link #createSpan(String)}.
      **/
     @NonNull
     public static Span createSpanFromParent(@NonNull final String name,
@@ -76,11 +88,16 @@ public class OTelUtility {
             return createSpan(name);
         }
 
+        if (!parentSpanContext.isSampled() && SpanSampler.isSamplingConfigured()) {
+            // Follow the decision made for the parent, while keeping the trace linked up.
+            return new NoopSpan(parentSpanContext);
+        }
+
         final Tracer tracer = OpenTelemetryHolder.getTracer(TAG);
 
-        return tracer.spanBuilder(name)
+        return SpanSampler.applyAttributeBudget(tracer.spanBuilder(name)
                 .setParent(Context.current().with(Span.wrap(parentSpanContext)))
-                .startSpan();
+                .startSpan());
     }
 
     /**
@@ -103,12 +120,17 @@ public class OTelUtility {
             return createSpan(name, callingPackageName);
         }
 
+        if (!parentSpanContext.isSampled() && SpanSampler.isSamplingConfigured()) {
+            // Follow the decision made for the parent, while keeping the trace linked up.
+            return new NoopSpan(parentSpanContext);
+        }
+
         final Tracer tracer = OpenTelemetryHolder.getTracer(TAG);
 
-        return tracer.spanBuilder(name)
+        return SpanSampler.applyAttributeBudget(tracer.spanBuilder(name)
                 .setParent(Context.current().with(Span.wrap(parentSpanContext)))
                 .setAttribute(AttributeName.calling_package_name.name(), callingPackageName)
-                .startSpan();
+                .startSpan());
     }
 
     /**
@@ -21,6 +21,8 @@
 // OUT OF OR IN CO
 package com.microsoft.identity.common.java.opentelemetry;
 
+import com.microsoft.identity.common.java.logging.DiagnosticContext;
+import com.microsoft.identity.common.java.logging.DiagnosticContextSnapshot;
 import com.microsoft.identity.common.java.logging.Logger;
 
 import io.opentelemetry.context.Context;
@@ -48,11 +50,18 @@ public class OtelContextExtension {
     /**
      * Returns a Runnable that makes this the current context and then invokes the input Runnable.
      * See {@link Context#wrap(Runnable)}
+     * <p>
+     * The {@link DiagnosticContext} of the calling thread (if any) is captured as well, and is
+     * made current on the executing thread for the duration of the Runnable.
      *
      * @param runnable the runnable to wrap
      * @return the wrapped runnable
      */
     public static Runnable wrap(final Runnable runnable) {
+        return DiagnosticContextPropagation.wrap(wrapWithOtelContext(runnable));
+    }
+
+    private static Runnable wrapWithOtelContext(final Runnable runnable) {
         try {
             return Context.current().wrap(runnable);
         } catch (final NoSuchMethodError error) {
@@ -65,4 +74,37 @@ public class OtelContextExtension {
         }
     }
 
+    /**
+     * Hands the {@link DiagnosticContextSnapshot} of the submitting thread over to the executing thread.
+     */
+    private static final class DiagnosticContextPropagation implements Runnable {
+        private final Runnable mRunnable;
+        private final DiagnosticContextSnapshot mSnapshot;
+
+        private DiagnosticContextPropagation(final Runnable runnable,
+                                             final DiagnosticContextSnapshot snapshot) {
+            mRunnable = runnable;
+            mSnapshot = snapshot;
+        }
+
+        static Runnable wrap(final Runnable runnable) {
+            final DiagnosticContextSnapshot snapshot = DiagnosticContext.INSTANCE.peekSnapshot();
+            if (snapshot == null) {
+                return runnable;
+            }
+            return new DiagnosticContextPropagation(runnable, snapshot);
+        }
+
+        @Override
+        public void run() {
+            final DiagnosticContextSnapshot previous = DiagnosticContext.INSTANCE.peekSnapshot();
+            DiagnosticContext.INSTANCE.setSnapshot(mSnapshot);
+            try {
+                mRunnable.run();
+            } finally {
+                DiagnosticContext.INSTANCE.setSnapshot(previous);
+            }
+        }
+    }
+
 }
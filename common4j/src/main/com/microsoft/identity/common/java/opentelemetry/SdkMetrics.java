@@ -0,0 +1,290 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.opentelemetry;
+
+import static io.opentelemetry.api.common.AttributeKey.booleanKey;
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+
+import java.util.concurrent.TimeUnit;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.LongHistogram;
+import io.opentelemetry.api.metrics.Meter;
+import lombok.NonNull;
+
+/**
+ * Latency and hit/miss metrics emitted by the SDK.
+ * <p>
+ * Metric and attribute names are part of the telemetry contract (dashboards and SLOs are built
+ * on top of them) and must not be renamed. All durations are recorded in fractional milliseconds,
+ * so that sub-millisecond operations (cache, crypto, storage) are not rounded down to 0.
+ * <p>
+ * Instruments are created lazily from the {@link OpenTelemetry} instance currently held by
+ * {@link OpenTelemetryHolder}, and re-created if that instance is replaced.
+ */
+public final class SdkMetrics {
+
+    private static final String TAG = SdkMetrics.class.getSimpleName();
+
+    public static final String COMMAND_QUEUE_WAIT_TIME = "command_queue_wait_time";
+    public static final String COMMAND_EXECUTION_TIME = "command_execution_time";
+    public static final String CACHE_OPERATION_TIME = "cache_operation_time";
+    public static final String CACHE_LOOKUP_COUNT = "cache_lookup_count";
+    public static final String CRYPTO_OPERATION_TIME = "crypto_operation_time";
+    public static final String STORAGE_OPERATION_TIME = "storage_operation_time";
+    public static final String IPC_CALL_TIME = "ipc_call_time";
+    public static final String BROADCAST_QUEUE_DEPTH = "broadcast_queue_depth";
+
+    private static final String UNIT_MILLISECONDS = "ms";
+    private static final String UNKNOWN = "unknown";
+
+    /**
+     * Token cache operations measured by {@link #CACHE_OPERATION_TIME}.
+     */
+    public enum CacheOperation {
+        load,
+        save;
+
+        private final Attributes mAttributes =
+                Attributes.of(stringKey(AttributeName.cache_operation.name()), name());
+    }
+
+    /**
+     * Crypto operations measured by {@link #CRYPTO_OPERATION_TIME}.
+     */
+    public enum CryptoOperation {
+        encrypt,
+        decrypt;
+
+        private final Attributes mSucceeded = Attributes.of(
+                stringKey(AttributeName.crypto_operation.name()), name(),
+                booleanKey(AttributeName.is_successful.name()), true);
+
+        private final Attributes mFailed = Attributes.of(
+                stringKey(AttributeName.crypto_operation.name()), name(),
+                booleanKey(AttributeName.is_successful.name()), false);
+    }
+
+    private static final Attributes CACHE_HIT =
+            Attributes.of(stringKey(AttributeName.cache_lookup_result.name()), "hit");
+
+    private static final Attributes CACHE_MISS =
+            Attributes.of(stringKey(AttributeName.cache_lookup_result.name()), "miss");
+
+    private static volatile Instruments sInstruments;
+
+    private SdkMetrics() {
+        // Utility class.
+    }
+
+    /**
+     * Records the time a command spent waiting in an executor queue before it started running.
+     *
+     * @param commandName  name of the command.
+     * @param elapsedNanos time spent in the queue, in nanoseconds.
+     */
+    public static void recordCommandQueueWait(@Nullable final String commandName,
+                                              final long elapsedNanos) {
+        instruments().mCommandQueueWaitTime.record(
+                toMillis(elapsedNanos),
+                Attributes.of(stringKey(AttributeName.command_name.name()), orUnknown(commandName))
+        );
+    }
+
+    /**
+     * Records the time a command took to execute.
+     *
+     * @param commandName  name of the command.
+     * @param resultStatus the status of the command result.
+     * @param elapsedNanos execution time, in nanoseconds.
+     */
+    public static void recordCommandExecution(@Nullable final String commandName,
+                                              @Nullable final String resultStatus,
+                                              final long elapsedNanos) {
+        instruments().mCommandExecutionTime.record(
+                toMillis(elapsedNanos),
+                Attributes.of(
+                        stringKey(AttributeName.command_name.name()), orUnknown(commandName),
+                        stringKey(AttributeName.command_result_status.name()), orUnknown(resultStatus)
+                )
+        );
+    }
+
+    /**
+     * Records the time a token cache operation took.
+     *
+     * @param operation    the cache operation.
+     * @param elapsedNanos operation time, in nanoseconds.
+     */
+    public static void recordCacheOperation(@NonNull final CacheOperation operation,
+                                            final long elapsedNanos) {
+        instruments().mCacheOperationTime.record(toMillis(elapsedNanos), operation.mAttributes);
+    }
+
+    /**
+     * Counts a token cache lookup.
+     *
+     * @param hit true if the lookup returned a usable access token.
+     */
+    public static void recordCacheLookup(final boolean hit) {
+        instruments().mCacheLookupCount.add(1, hit ? CACHE_HIT : CACHE_MISS);
+    }
+
+    /**
+     * Records the time a crypto operation took.
+     *
+     * @param operation    the crypto operation.
+     * @param succeeded    whether the operation succeeded.
+     * @param elapsedNanos operation time, in nanoseconds.
+     */
+    public static void recordCryptoOperation(@NonNull final CryptoOperation operation,
+                                             final boolean succeeded,
+                                             final long elapsedNanos) {
+        instruments().mCryptoOperationTime.record(
+                toMillis(elapsedNanos),
+                succeeded ? operation.mSucceeded : operation.mFailed
+        );
+    }
+
+    /**
+     * Records the time a storage operation took.
+     *
+     * @param operation    name of the storage operation (e.g. insert, remove).
+     * @param elapsedNanos operation time, in nanoseconds.
+     */
+    public static void recordStorageOperation(@Nullable final String operation,
+                                              final long elapsedNanos) {
+        instruments().mStorageOperationTime.record(
+                toMillis(elapsedNanos),
+                Attributes.of(stringKey(AttributeName.storage_operation.name()), orUnknown(operation))
+        );
+    }
+
+    /**
+     * Records the time an IPC call to the broker took.
+     *
+     * @param ipcStrategy   the IPC strategy used.
+     * @param operationName name of the broker operation.
+     * @param succeeded     whether the call succeeded.
+     * @param elapsedNanos  call time, in nanoseconds.
+     */
+    public static void recordIpcCall(@Nullable final String ipcStrategy,
+                                     @Nullable final String operationName,
+                                     final boolean succeeded,
+                                     final long elapsedNanos) {
+        instruments().mIpcCallTime.record(
+                toMillis(elapsedNanos),
+                Attributes.of(
+                        stringKey(AttributeName.ipc_strategy.name()), orUnknown(ipcStrategy),
+                        stringKey(AttributeName.broker_operation_name.name()), orUnknown(operationName),
+                        booleanKey(AttributeName.is_successful.name()), succeeded
+                )
+        );
+    }
+
+    /**
+     * Records the number of broadcasts pending for an alias, including the one just queued.
+     *
+     * @param alias the broadcast alias.
+     * @param depth number of pending broadcasts.
+     */
+    public static void recordBroadcastQueueDepth(@Nullable final String alias, final long depth) {
+        instruments().mBroadcastQueueDepth.record(
+                depth,
+                Attributes.of(stringKey(AttributeName.broadcast_alias.name()), orUnknown(alias))
+        );
+    }
+
+    private static double toMillis(final long elapsedNanos) {
+        return Math.max(0, elapsedNanos) / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static String orUnknown(@Nullable final String value) {
+        return value == null ? UNKNOWN : value;
+    }
+
+    private static Instruments instruments() {
+        final OpenTelemetry current = OpenTelemetryHolder.getOpenTelemetry();
+        Instruments instruments = sInstruments;
+        if (instruments == null || instruments.mSource != current) {
+            // Benign race: concurrent callers may each build a set; instruments are idempotent
+            // per name on the same meter.
+            instruments = new Instruments(current, OpenTelemetryHolder.getMeter(TAG));
+            sInstruments = instruments;
+        }
+        return instruments;
+    }
+
+    private static final class Instruments {
+        private final OpenTelemetry mSource;
+        private final DoubleHistogram mCommandQueueWaitTime;
+        private final DoubleHistogram mCommandExecutionTime;
+        private final DoubleHistogram mCacheOperationTime;
+        private final LongCounter mCacheLookupCount;
+        private final DoubleHistogram mCryptoOperationTime;
+        private final DoubleHistogram mStorageOperationTime;
+        private final DoubleHistogram mIpcCallTime;
+        private final LongHistogram mBroadcastQueueDepth;
+
+        Instruments(@NonNull final OpenTelemetry source, @NonNull final Meter meter) {
+            mSource = source;
+            mCommandQueueWaitTime = histogram(meter, COMMAND_QUEUE_WAIT_TIME,
+                    "Time a command waited in an executor queue before running");
+            mCommandExecutionTime = histogram(meter, COMMAND_EXECUTION_TIME,
+                    "Time taken to execute a command");
+            mCacheOperationTime = histogram(meter, CACHE_OPERATION_TIME,
+                    "Time taken by a token cache operation");
+            mCacheLookupCount = meter
+                    .counterBuilder(CACHE_LOOKUP_COUNT)
+                    .setDescription("Number of token cache lookups, by hit or miss")
+                    .setUnit("count")
+                    .build();
+            mCryptoOperationTime = histogram(meter, CRYPTO_OPERATION_TIME,
+                    "Time taken by a storage encryption operation");
+            mStorageOperationTime = histogram(meter, STORAGE_OPERATION_TIME,
+                    "Time taken by a name-value storage operation");
+            mIpcCallTime = histogram(meter, IPC_CALL_TIME,
+                    "Time taken by an IPC call to the broker");
+            mBroadcastQueueDepth = meter
+                    .histogramBuilder(BROADCAST_QUEUE_DEPTH)
+                    .setDescription("Number of local broadcasts pending for an alias when one is queued")
+                    .setUnit("count")
+                    .ofLongs()
+                    .build();
+        }
+
+        private static DoubleHistogram histogram(@NonNull final Meter meter,
+                                                 @NonNull final String name,
+                                                 @NonNull final String description) {
+            return meter
+                    .histogramBuilder(name)
+                    .setDescription(description)
+                    .setUnit(UNIT_MILLISECONDS)
+                    .build();
+        }
+    }
+}
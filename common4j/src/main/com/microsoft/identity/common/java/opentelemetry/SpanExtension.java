@@ -23,11 +23,7 @@ package com.microsoft.identity.common.java.opentelemetry;
 
 import com.microsoft.identity.common.java.logging.Logger;
 
-import io.opentelemetry.api.internal.ImmutableSpanContext;
 import io.opentelemetry.api.trace.Span;
-import io.opentelemetry.api.trace.SpanContext;
-import io.opentelemetry.api.trace.SpanId;
-import io.opentelemetry.api.trace.TraceId;
 import io.opentelemetry.context.ImplicitContextKeyed;
 import io.opentelemetry.context.Scope;
 import lombok.NonNull;
@@ -52,22 +48,12 @@ public class SpanExtension {
 
     private static final String TAG = SpanExtension.class.getSimpleName();
 
-    private static final SpanContext INVALID =
-            ImmutableSpanContext.create(
-                    TraceId.getInvalid(),
-                    SpanId.getInvalid(),
-                    new NoopTraceFlags(),
-                    new NoopTraceState(),
-                    /* remote= */ false,
-                    /* valid= */ false
-            );
-
     public static Span current() {
         try {
             return Span.current();
         } catch (final NoSuchMethodError error) {
             Logger.error(TAG + ":getCurrentSpan", error.getMessage(), error);
-            return new NoopSpan(INVALID);
+            return NoopSpan.INVALID;
         }
     }
 
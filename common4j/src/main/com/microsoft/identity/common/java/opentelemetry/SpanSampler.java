@@ -0,0 +1,275 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.opentelemetry;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.opentelemetry.api.trace.Span;
+import lombok.NonNull;
+
+/**
+ * Head sampling and attribute budget for the spans created through {@link OTelUtility}.
+ * <p>
+ * Every span name is sampled at the default rate (1.0, i.e. all spans, unless configured
+ * otherwise) or at the rate configured for it. A span which is not sampled is replaced by
+ * a shared {@link NoopSpan}, so that the cost of tracing scales with the sample rate rather
+ * than with the request volume.
+ * <p>
+ * A span which is recording but not sampled (i.e. it will not be exported) accepts at most
+ * {@link #setAttributeBudget(int)} attributes; beyond that, only the essential attributes
+ * (see {@link #setEssentialAttributes(Set)}) are recorded. Sampled spans keep all their attributes.
+ */
+public final class SpanSampler {
+
+    /**
+     * The attributes which are recorded regardless of the attribute budget, by default.
+     */
+    public static final Set<AttributeName> DEFAULT_ESSENTIAL_ATTRIBUTES = Collections.unmodifiableSet(
+            new HashSet<>(Arrays.asList(
+                    AttributeName.correlation_id,
+                    AttributeName.public_api_id,
+                    AttributeName.error_type,
+                    AttributeName.error_code,
+                    AttributeName.error_message,
+                    AttributeName.http_status_code
+            ))
+    );
+
+    public static final int UNLIMITED_ATTRIBUTE_BUDGET = Integer.MAX_VALUE;
+
+    // SplitMix64 increment; see Steele et al, "Fast splittable pseudorandom number generators".
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final double DOUBLE_UNIT = 1.0 / (1L << 53);
+
+    private static final AtomicLong sSeed = new AtomicLong(System.nanoTime());
+
+    // Replaced as a whole on every change, so that span creation reads it without locking.
+    private static volatile Configuration sConfiguration = new Configuration(
+            1.0,
+            Collections.<String, Double>emptyMap(),
+            UNLIMITED_ATTRIBUTE_BUDGET,
+            toNames(DEFAULT_ESSENTIAL_ATTRIBUTES)
+    );
+
+    private SpanSampler() {
+    }
+
+    private static final class Configuration {
+        private final double mDefaultSampleRate;
+        private final Map<String, Double> mSampleRates;
+        private final int mAttributeBudget;
+        private final Set<String> mEssentialAttributes;
+        private final boolean mSamplingConfigured;
+
+        private Configuration(final double defaultSampleRate,
+                              @NonNull final Map<String, Double> sampleRates,
+                              final int attributeBudget,
+                              @NonNull final Set<String> essentialAttributes) {
+            mDefaultSampleRate = defaultSampleRate;
+            mSampleRates = sampleRates;
+            mAttributeBudget = attributeBudget;
+            mEssentialAttributes = essentialAttributes;
+            mSamplingConfigured = defaultSampleRate < 1.0 || !sampleRates.isEmpty();
+        }
+    }
+
+    /**
+     * Sets the rate at which spans without a rate of their own are sampled.
+     *
+     * @param sampleRate between 0.0 (no span) and 1.0 (every span).
+     */
+    public static synchronized void setDefaultSampleRate(final double sampleRate) {
+        final Configuration current = sConfiguration;
+        sConfiguration = new Configuration(
+                validateSampleRate(sampleRate),
+                current.mSampleRates,
+                current.mAttributeBudget,
+                current.mEssentialAttributes
+        );
+    }
+
+    /**
+     * Sets the rate at which spans of the given name are sampled.
+     *
+     * @param spanName   the span name.
+     * @param sampleRate between 0.0 (no span) and 1.0 (every span), or null to use the default rate.
+     */
+    public static synchronized void setSampleRate(@NonNull final SpanName spanName,
+                                                  @Nullable final Double sampleRate) {
+        final Configuration current = sConfiguration;
+        final Map<String, Double> sampleRates = new HashMap<>(current.mSampleRates);
+        if (sampleRate == null) {
+            sampleRates.remove(spanName.name());
+        } else {
+            sampleRates.put(spanName.name(), validateSampleRate(sampleRate));
+        }
+        sConfiguration = new Configuration(
+                current.mDefaultSampleRate,
+                Collections.unmodifiableMap(sampleRates),
+                current.mAttributeBudget,
+                current.mEssentialAttributes
+        );
+    }
+
+    /**
+     * Sets the rates at which spans are sampled, replacing all the per span name rates.
+     *
+     * @param sampleRates the sample rate of each span name; names without one use the default rate.
+     */
+    public static synchronized void setSampleRates(@NonNull final Map<SpanName, Double> sampleRates) {
+        final Map<String, Double> rates = new HashMap<>();
+        for (final Map.Entry<SpanName, Double> entry : sampleRates.entrySet()) {
+            rates.put(entry.getKey().name(), validateSampleRate(entry.getValue()));
+        }
+        final Configuration current = sConfiguration;
+        sConfiguration = new Configuration(
+                current.mDefaultSampleRate,
+                Collections.unmodifiableMap(rates),
+                current.mAttributeBudget,
+                current.mEssentialAttributes
+        );
+    }
+
+    /**
+     * Sets the maximum number of attributes recorded on a span, essential attributes excluded.
+     *
+     * @param maxAttributes the budget, or {@link #UNLIMITED_ATTRIBUTE_BUDGET}.
+     */
+    public static synchronized void setAttributeBudget(final int maxAttributes) {
+        if (maxAttributes < 0) {
+            throw new IllegalArgumentException("Attribute budget must not be negative: " + maxAttributes);
+        }
+        final Configuration current = sConfiguration;
+        sConfiguration = new Configuration(
+                current.mDefaultSampleRate,
+                current.mSampleRates,
+                maxAttributes,
+                current.mEssentialAttributes
+        );
+    }
+
+    /**
+     * Sets the attributes which are recorded even once the attribute budget of a span is spent.
+     *
+     * @param essentialAttributes the essential attributes.
+     */
+    public static synchronized void setEssentialAttributes(@NonNull final Set<AttributeName> essentialAttributes) {
+        final Configuration current = sConfiguration;
+        sConfiguration = new Configuration(
+                current.mDefaultSampleRate,
+                current.mSampleRates,
+                current.mAttributeBudget,
+                toNames(essentialAttributes)
+        );
+    }
+
+    /**
+     * Restores the default configuration: every span sampled, no attribute budget.
+     */
+    public static synchronized void reset() {
+        sConfiguration = new Configuration(
+                1.0,
+                Collections.<String, Double>emptyMap(),
+                UNLIMITED_ATTRIBUTE_BUDGET,
+                toNames(DEFAULT_ESSENTIAL_ATTRIBUTES)
+        );
+    }
+
+    /**
+     * Makes the head sampling decision for a new span.
+     *
+     * @param spanName the name of the span.
+     * @return true if the span should be created, false if it should be a no-op.
+     */
+    public static boolean shouldSample(@NonNull final String spanName) {
+        final Configuration configuration = sConfiguration;
+        final Double configuredRate = configuration.mSampleRates.get(spanName);
+        final double sampleRate = configuredRate == null ? configuration.mDefaultSampleRate : configuredRate;
+
+        if (sampleRate >= 1.0) {
+            return true;
+        }
+        if (sampleRate <= 0.0) {
+            return false;
+        }
+        return nextDouble() < sampleRate;
+    }
+
+    /**
+     * @return true if a sample rate other than the default (every span) has been configured.
+     * Until then, the sampling decision of a parent span is left to the tracer.
+     */
+    public static boolean isSamplingConfigured() {
+        return sConfiguration.mSamplingConfigured;
+    }
+
+    /**
+     * Applies the attribute budget to a new span.
+     *
+     * @param span the span.
+     * @return the span itself if there is no budget or the span is sampled, or a span enforcing the budget.
+     */
+    @NonNull
+    static Span applyAttributeBudget(@NonNull final Span span) {
+        final Configuration configuration = sConfiguration;
+        if (configuration.mAttributeBudget == UNLIMITED_ATTRIBUTE_BUDGET
+                || !span.isRecording()
+                || span.getSpanContext().isSampled()) {
+            return span;
+        }
+        return new AttributeBudgetSpan(span, configuration.mAttributeBudget, configuration.mEssentialAttributes);
+    }
+
+    /**
+     * A uniformly distributed double in [0, 1), from a lock-free SplitMix64 sequence.
+     */
+    private static double nextDouble() {
+        long z = sSeed.addAndGet(GOLDEN_GAMMA);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (z >>> 11) * DOUBLE_UNIT;
+    }
+
+    private static double validateSampleRate(final double sampleRate) {
+        if (Double.isNaN(sampleRate) || sampleRate < 0.0 || sampleRate > 1.0) {
+            throw new IllegalArgumentException("Sample rate must be between 0.0 and 1.0: " + sampleRate);
+        }
+        return sampleRate;
+    }
+
+    private static Set<String> toNames(@NonNull final Set<AttributeName> attributes) {
+        final Set<String> names = new HashSet<>();
+        for (final AttributeName attribute : attributes) {
+            names.add(attribute.name());
+        }
+        return Collections.unmodifiableSet(names);
+    }
+}
@@ -32,7 +32,6 @@ import static com.microsoft.identity.common.java.exception.ClientException.INVAL
 import static com.microsoft.identity.common.java.exception.ClientException.INVALID_KEY;
 import static com.microsoft.identity.common.java.exception.ClientException.INVALID_KEY_MISSING;
 import static com.microsoft.identity.common.java.exception.ClientException.INVALID_PROTECTION_PARAMS;
-import static com.microsoft.identity.common.java.exception.ClientException.JSON_CONSTRUCTION_FAILED;
 import static com.microsoft.identity.common.java.exception.ClientException.JWT_SIGNING_FAILURE;
 import static com.microsoft.identity.common.java.exception.ClientException.KEYSTORE_NOT_INITIALIZED;
 import static com.microsoft.identity.common.java.exception.ClientException.NO_SUCH_ALGORITHM;
@@ -43,34 +42,37 @@ import static com.microsoft.identity.common.java.exception.ClientException.UNKNO
 import static com.microsoft.identity.common.java.marker.PerfConstants.CodeMarkerConstants.GENERATE_AT_POP_ASYMMETRIC_KEYPAIR_END;
 import static com.microsoft.identity.common.java.marker.PerfConstants.CodeMarkerConstants.GENERATE_AT_POP_ASYMMETRIC_KEYPAIR_START;
 import static com.microsoft.identity.common.java.platform.AbstractKeyStoreKeyManager.getKeyPairForEntry;
-import static com.microsoft.identity.common.java.platform.AbstractKeyStoreKeyManager.getRsaKeyForKeyPair;
-import static com.microsoft.identity.common.java.platform.AbstractKeyStoreKeyManager.getThumbprintForRsaKey;
+import static com.microsoft.identity.common.java.platform.AbstractKeyStoreKeyManager.getPublicJwkForKeyPair;
 
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import com.microsoft.identity.common.java.AuthenticationConstants;
+import com.microsoft.identity.common.java.authscheme.IPoPAuthenticationSchemeParams;
 import com.microsoft.identity.common.java.crypto.IDevicePopManager;
 import com.microsoft.identity.common.java.crypto.IKeyStoreKeyManager;
+import com.microsoft.identity.common.java.crypto.PopKeyType;
 import com.microsoft.identity.common.java.crypto.SecureHardwareState;
 import com.microsoft.identity.common.java.crypto.SigningAlgorithm;
 import com.microsoft.identity.common.java.exception.ClientException;
 import com.microsoft.identity.common.java.exception.ErrorStrings;
 import com.microsoft.identity.common.java.logging.Logger;
 import com.microsoft.identity.common.java.marker.CodeMarkerManager;
+import com.microsoft.identity.common.java.util.GsonRegistry;
+import com.microsoft.identity.common.java.util.ResultFuture;
 import com.microsoft.identity.common.java.util.StringUtil;
 import com.microsoft.identity.common.java.util.TaskCompletedCallbackWithError;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.ECDSASigner;
 import com.nimbusds.jose.crypto.RSASSASigner;
-import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.util.Base64URL;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 
-import org.json.JSONException;
-import org.json.JSONObject;
-
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.math.BigInteger;
@@ -91,13 +93,20 @@ import java.security.UnrecoverableEntryException;
 import java.security.cert.Certificate;
 import java.security.cert.CertificateException;
 import java.security.interfaces.RSAPublicKey;
+import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.crypto.BadPaddingException;
 import javax.crypto.IllegalBlockSizeException;
@@ -133,7 +142,7 @@ public abstract class AbstractDevicePopManager implements IDevicePopManager {
      */
     private static final String PRIVATE_KEY_NOT_FOUND = "Not an instance of a PrivateKeyEntry";
     public static final Type MAP_STRING_STRING_TYPE = TypeToken.getParameterized(Map.class, String.class, String.class).getType();
-    public static final Gson GSON = new Gson();
+    public static final Gson GSON = GsonRegistry.DEFAULT;
 
     /**
      * Error message from underlying KeyStore that StrongBox HAL is unavailable.
@@ -160,6 +169,67 @@ public abstract class AbstractDevicePopManager implements IDevicePopManager {
      */
     private static final CodeMarkerManager sCodeMarkerManager = CodeMarkerManager.getInstance();
 
+    /**
+     * Signing material for SHRs, keyed by KeyStore alias. Managers are created per-request by
+     * the platform components, so this is shared across instances to survive beyond a single
+     * request. Entries are dropped whenever the key behind an alias is cleared or regenerated.
+     */
+    private static final Map<String, SigningMaterial> sSigningMaterialCache = new ConcurrentHashMap<>();
+
+    /**
+     * Key generations started by {@link #generateAsymmetricKeyAsync()} which have not finished yet,
+     * keyed by KeyStore alias, so that concurrent callers wait on one generation instead of each
+     * replacing the key.
+     */
+    private static final Map<String, ResultFuture<String>> sPendingKeyGenerations = new ConcurrentHashMap<>();
+
+    /**
+     * Serializes cache population against invalidation, so that material read from a key which
+     * is being replaced is never published.
+     */
+    private static final Object sSigningMaterialLock = new Object();
+
+    /**
+     * Everything needed to mint an SHR or request a PoP token that depends only on the current
+     * key: the signer, the JWS header, the cnf claim and the req_cnf.
+     */
+    private static final class SigningMaterial {
+        private final JWSSigner mSigner;
+        private final JWSHeader mHeader;
+        private final Map<String, Object> mCnf;
+        private final String mRequestConfirmation;
+
+        private SigningMaterial(@NonNull final JWSSigner signer,
+                                @NonNull final JWSHeader header,
+                                @NonNull final Map<String, Object> cnf,
+                                @NonNull final String requestConfirmation) {
+            mSigner = signer;
+            mHeader = header;
+            mCnf = cnf;
+            mRequestConfirmation = requestConfirmation;
+        }
+    }
+
+    /**
+     * The per-request inputs of an SHR.
+     */
+    private static final class SignedHttpRequestTarget {
+        private final String mHttpMethod;
+        private final URL mRequestUrl;
+        private final String mNonce;
+        private final String mClientClaims;
+
+        private SignedHttpRequestTarget(@Nullable final String httpMethod,
+                                        @NonNull final URL requestUrl,
+                                        @Nullable final String nonce,
+                                        @Nullable final String clientClaims) {
+            mHttpMethod = httpMethod;
+            mRequestUrl = requestUrl;
+            mNonce = nonce;
+            mClientClaims = clientClaims;
+        }
+    }
+
     /**
      * Properties used by the self-signed certificate.
      */
@@ -296,17 +366,96 @@ public abstract class AbstractDevicePopManager implements IDevicePopManager {
         );
     }
 
+    @Override
+    public ResultFuture<String> generateAsymmetricKeyAsync() {
+        final String alias = mKeyManager.getKeyAlias();
+        final ResultFuture<String> future = new ResultFuture<>();
+        final ResultFuture<String> pending = sPendingKeyGenerations.putIfAbsent(alias, future);
+
+        if (pending != null) {
+            // Someone is already generating a key for this alias, share their result.
+            return pending;
+        }
+
+        sThreadExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                String thumbprint = null;
+                Exception error = null;
+
+                try {
+                    // A caller which checked for the key before this generation was registered
+                    // may have raced with one that just finished; keep that key, as its req_cnf
+                    // may already have been sent.
+                    thumbprint = asymmetricKeyExists()
+                            ? getAsymmetricKeyThumbprint()
+                            : generateAsymmetricKey();
+                } catch (final ClientException | RuntimeException e) {
+                    error = e;
+                }
+
+                // Unregister before completing so that waiters never observe a finished
+                // generation as still pending.
+                sPendingKeyGenerations.remove(alias, future);
+
+                if (error != null) {
+                    future.setException(error);
+                } else {
+                    future.setResult(thumbprint);
+                }
+            }
+        });
+
+        return future;
+    }
+
     @Override
     public String generateAsymmetricKey() throws ClientException {
+        return generateAsymmetricKey(PopKeyType.RSA_2048);
+    }
+
+    @Override
+    public String generateAsymmetricKey(@NonNull final PopKeyType preferredKeyType) throws ClientException {
         final String methodTag = TAG + ":generateAsymmetricKey";
+
+        if (preferredKeyType == PopKeyType.EC_P256) {
+            try {
+                final String thumbprint = generateAsymmetricKeyInternal(PopKeyType.EC_P256);
+                if (thumbprint != null) {
+                    return thumbprint;
+                }
+                Logger.info(methodTag, "EC P-256 PoP keys are not supported on this platform, using RSA.");
+            } catch (final ClientException e) {
+                Logger.warn(
+                        methodTag,
+                        "Unable to generate EC P-256 PoP key (" + e.getErrorCode() + "), falling back to RSA."
+                );
+            }
+        }
+
+        return generateAsymmetricKeyInternal(PopKeyType.RSA_2048);
+    }
+
+    /**
+     * @return The thumbprint of the generated key, or null if the platform cannot generate
+     * keys of the given type.
+     */
+    @Nullable
+    private String generateAsymmetricKeyInternal(@NonNull final PopKeyType keyType) throws ClientException {
+        final String methodTag = TAG + ":generateAsymmetricKeyInternal";
         final Exception exception;
         final String errCode;
 
         try {
             sCodeMarkerManager.markCode(GENERATE_AT_POP_ASYMMETRIC_KEYPAIR_START);
-            final KeyPair keyPair = generateNewRsaKeyPair(RSA_KEY_SIZE);
-            final RSAKey rsaKey = getRsaKeyForKeyPair(keyPair);
-            return getThumbprintForRsaKey(rsaKey);
+            final KeyPair keyPair = keyType == PopKeyType.EC_P256
+                    ? generateNewEcKeyPair()
+                    : generateNewRsaKeyPair(RSA_KEY_SIZE);
+            if (keyPair == null) {
+                return null;
+            }
+            final JWK jwk = getPublicJwkForKeyPair(keyPair);
+            return jwk.computeThumbprint().toString();
         } catch (final UnsupportedOperationException e) {
             exception = e;
             errCode = BAD_KEY_SIZE;
@@ -326,6 +475,7 @@ public abstract class AbstractDevicePopManager implements IDevicePopManager {
             exception = e;
             errCode = KEYSTORE_NOT_INITIALIZED;
         } finally {
+            invalidateSigningMaterial();
             sCodeMarkerManager.markCode(GENERATE_AT_POP_ASYMMETRIC_KEYPAIR_END);
         }
 
@@ -347,6 +497,64 @@ public abstract class AbstractDevicePopManager implements IDevicePopManager {
     public abstract KeyPair generateNewRsaKeyPair(int keySize) throws UnsupportedOperationException, InvalidAlgorithmParameterException,
             NoSuchAlgorithmException, NoSuchProviderException, ClientException, KeyStoreException;
 
+    /**
+     * Generates a new EC P-256 KeyPair and stores it under this manager's alias.
+     *
+     * @return The newly generated KeyPair, or null if this platform cannot generate EC keys.
+     */
+    @Nullable
+    public abstract KeyPair generateNewEcKeyPair() throws UnsupportedOperationException, InvalidAlgorithmParameterException,
+            NoSuchAlgorithmException, NoSuchProviderException, ClientException, KeyStoreException;
+
+    @Override
+    public PopKeyType getAsymmetricKeyType() throws ClientException {
+        final String methodTag = TAG + ":getAsymmetricKeyType";
+        final Exception exception;
+        final String errCode;
+
+        try {
+            final KeyStore.PrivateKeyEntry keyEntry = mKeyManager.getEntry();
+
+            if (keyEntry == null) {
+                throw new ClientException(INVALID_KEY_MISSING);
+            }
+
+            final PopKeyType keyType = PopKeyType.fromKeyAlgorithm(keyEntry.getPrivateKey().getAlgorithm());
+
+            if (keyType == null) {
+                throw new ClientException(
+                        INVALID_ALG,
+                        "Unsupported PoP key algorithm: " + keyEntry.getPrivateKey().getAlgorithm()
+                );
+            }
+
+            return keyType;
+        } catch (final KeyStoreException e) {
+            exception = e;
+            errCode = KEYSTORE_NOT_INITIALIZED;
+        } catch (final NoSuchAlgorithmException e) {
+            exception = e;
+            errCode = NO_SUCH_ALGORITHM;
+        } catch (final UnrecoverableEntryException e) {
+            exception = e;
+            errCode = INVALID_PROTECTION_PARAMS;
+        }
+
+        final ClientException clientException = new ClientException(
+                errCode,
+                exception.getMessage(),
+                exception
+        );
+
+        Logger.error(
+                methodTag,
+                clientException.getMessage(),
+                clientException
+        );
+
+        throw clientException;
+    }
+
     @Override
     @Nullable
     public Date getAsymmetricKeyCreationDate() throws ClientException {
@@ -355,110 +563,82 @@ public abstract class AbstractDevicePopManager implements IDevicePopManager {
 
     @Override
     public boolean clearAsymmetricKey() {
-        return mKeyManager.clear();
+        try {
+            return mKeyManager.clear();
+        } finally {
+            invalidateSigningMaterial();
+        }
     }
 
     @Override
     public String getRequestConfirmation() throws ClientException {
         final String methodTag = TAG + ":getRequestConfirmation";
-        // The sync API is a wrapper around the async API
-        // This likely shouldn't be called on the UI thread to avoid ANR
-        // Device perf may vary, however -- some devices this may be OK.
-        // YMMV
-        final CountDownLatch latch = new CountDownLatch(1);
-        final String[] result = new String[1];
-        final ClientException[] errorResult = new ClientException[1];
-
-        getRequestConfirmation(new TaskCompletedCallbackWithError<String, ClientException>() {
-            @Override
-            public void onTaskCompleted(@NonNull final String reqCnf) {
-                result[0] = reqCnf;
-                latch.countDown();
-            }
-
-            @Override
-            public void onError(@NonNull final ClientException error) {
-                errorResult[0] = error;
-                latch.countDown();
-            }
-        });
+        // Computed on the calling thread; the req_cnf is memoized with the rest of the key
+        // material, so this only touches the KeyStore for the first call after a key change.
+        final Exception exception;
+        final String errCode;
 
-        // Wait for the async op to complete...
         try {
-            latch.await();
+            return getSigningMaterial().mRequestConfirmation;
+        } catch (final KeyStoreException e) {
+            exception = e;
+            errCode = KEYSTORE_NOT_INITIALIZED;
+        } catch (final NoSuchAlgorithmException e) {
+            exception = e;
+            errCode = NO_SUCH_ALGORITHM;
+        } catch (final UnrecoverableEntryException e) {
+            exception = e;
+            errCode = INVALID_PROTECTION_PARAMS;
+        } catch (final JOSEException e) {
+            exception = e;
+            errCode = THUMBPRINT_COMPUTATION_FAILURE;
+        }
 
-            if (null != result[0]) {
-                return result[0];
-            } else {
-                throw errorResult[0];
-            }
-        } catch (final InterruptedException e) {
-            Logger.error(
-                    methodTag,
-                    "Interrupted while waiting on callback.",
-                    e
-            );
+        final ClientException clientException = new ClientException(
+                errCode,
+                exception.getMessage(),
+                exception
+        );
 
-            throw new ClientException(
-                    INTERRUPTED_OPERATION,
-                    e.getMessage(),
-                    e
-            );
-        }
+        Logger.error(
+                methodTag,
+                clientException.getMessage(),
+                clientException
+        );
+
+        throw clientException;
     }
 
     @Override
     public void getRequestConfirmation(@NonNull final TaskCompletedCallbackWithError<String, ClientException> callback) {
-        final String methodTag = TAG + ":getRequestConfirmation";
         sThreadExecutor.submit(new Runnable() {
             @Override
             public void run() {
-                // Vars for error handling...
-                final Exception exception;
-                final String errCode;
-
                 try {
-                    final KeyStore.PrivateKeyEntry keyEntry = mKeyManager.getEntry();
-                    final KeyPair rsaKeyPair = getKeyPairForEntry(keyEntry);
-                    final RSAKey rsaKey = getRsaKeyForKeyPair(rsaKeyPair);
-                    final String base64UrlEncodedJwkJsonStr = getReqCnfForRsaKey(rsaKey);
-
-                    callback.onTaskCompleted(base64UrlEncodedJwkJsonStr);
-
-                    // We're done.
-                    return;
-                } catch (final KeyStoreException e) {
-                    exception = e;
-                    errCode = KEYSTORE_NOT_INITIALIZED;
-                } catch (final NoSuchAlgorithmException e) {
-                    exception = e;
-                    errCode = NO_SUCH_ALGORITHM;
-                } catch (final UnrecoverableEntryException e) {
-                    exception = e;
-                    errCode = INVALID_PROTECTION_PARAMS;
-                } catch (final JOSEException e) {
-                    exception = e;
-                    errCode = THUMBPRINT_COMPUTATION_FAILURE;
-                } catch (final JSONException e) {
-                    exception = e;
-                    errCode = JSON_CONSTRUCTION_FAILED;
+                    callback.onTaskCompleted(getRequestConfirmation());
+                } catch (final ClientException e) {
+                    callback.onError(e);
                 }
+            }
+        });
+    }
 
-                final ClientException clientException = new ClientException(
-                        errCode,
-                        exception.getMessage(),
-                        exception
-                );
-
-                Logger.error(
-                        methodTag,
-                        clientException.getMessage(),
-                        clientException
-                );
+    @Override
+    public ResultFuture<String> getRequestConfirmationAsync() {
+        final ResultFuture<String> future = new ResultFuture<>();
 
-                callback.onError(clientException);
+        sThreadExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    future.setResult(getRequestConfirmation());
+                } catch (final ClientException | RuntimeException e) {
+                    future.setException(e);
+                }
             }
         });
+
+        return future;
     }
 
     @Override
@@ -905,86 +1085,79 @@ public abstract class AbstractDevicePopManager implements IDevicePopManager {
         );
     }
 
+    @Override
+    public List<String> mintSignedHttpRequests(final long timestamp,
+                                               @NonNull final List<? extends IPoPAuthenticationSchemeParams> requests,
+                                               final boolean parallel) throws ClientException {
+        final List<SignedHttpRequestTarget> targets = new ArrayList<>(requests.size());
+
+        for (final IPoPAuthenticationSchemeParams request : requests) {
+            targets.add(new SignedHttpRequestTarget(
+                    request.getHttpMethod(),
+                    request.getUrl(),
+                    request.getNonce(),
+                    request.getClientClaims()
+            ));
+        }
+
+        return mintSignedHttpRequestsInternal(
+                timestamp,
+                null, // No AT used in this flow (generateShr)
+                targets,
+                parallel
+        );
+    }
+
     private String mintSignedHttpRequestInternal(@Nullable final String httpMethod,
                                                  final long timestamp,
                                                  @NonNull final URL requestUrl,
                                                  @Nullable final String accessToken,
                                                  @Nullable final String nonce,
                                                  @Nullable final String clientClaims) throws ClientException {
-        final String methodTag = TAG + ":mintSignedHttpRequestInternal";
+        return mintSignedHttpRequestsInternal(
+                timestamp,
+                accessToken,
+                Collections.singletonList(
+                        new SignedHttpRequestTarget(httpMethod, requestUrl, nonce, clientClaims)
+                ),
+                false
+        ).get(0);
+    }
+
+    private List<String> mintSignedHttpRequestsInternal(final long timestamp,
+                                                        @Nullable final String accessToken,
+                                                        @NonNull final List<SignedHttpRequestTarget> targets,
+                                                        final boolean parallel) throws ClientException {
+        final String methodTag = TAG + ":mintSignedHttpRequestsInternal";
         final Exception exception;
         final String errCode;
 
         try {
-            final JWTClaimsSet.Builder claimsBuilder = new JWTClaimsSet.Builder();
-
-            // This is supported/allowed only to support the generateShr API. By definition, all
-            // AT/PoP requests will contain an access token, but an SPO signed-cookie will not.
-            if (!StringUtil.isNullOrEmpty(accessToken)) {
-                claimsBuilder.claim(
-                        SignedHttpRequestJwtClaims.ACCESS_TOKEN,
-                        accessToken
-                );
-            }
-
-            claimsBuilder.claim(
-                    SignedHttpRequestJwtClaims.TIMESTAMP,
-                    timestamp
-            );
-            claimsBuilder.claim(
-                    SignedHttpRequestJwtClaims.HTTP_HOST,
-                    // Use Authority to include port number, if supplied
-                    requestUrl.getAuthority()
-            );
-            claimsBuilder.claim(
-                    SignedHttpRequestJwtClaims.CNF,
-                    getDevicePopJwkMinifiedJson()
-            );
+            final SigningMaterial signingMaterial = getSigningMaterial();
+            final List<String> signedHttpRequests = new ArrayList<>(targets.size());
 
-            if (!StringUtil.isNullOrEmpty(requestUrl.getPath())) {
-                claimsBuilder.claim(
-                        SignedHttpRequestJwtClaims.HTTP_PATH,
-                        requestUrl.getPath()
-                );
-            }
+            if (parallel && targets.size() > 1) {
+                final List<Future<String>> futures = new ArrayList<>(targets.size());
 
-            if (!StringUtil.isNullOrEmpty(httpMethod)) {
-                claimsBuilder.claim(
-                        SignedHttpRequestJwtClaims.HTTP_METHOD,
-                        httpMethod
-                );
-            }
-
-            if (!StringUtil.isNullOrEmpty(nonce)) {
-                claimsBuilder.claim(
-                        SignedHttpRequestJwtClaims.NONCE,
-                        nonce
-                );
-            }
+                for (final SignedHttpRequestTarget target : targets) {
+                    futures.add(sThreadExecutor.submit(new Callable<String>() {
+                        @Override
+                        public String call() throws JOSEException {
+                            return signHttpRequest(signingMaterial, timestamp, accessToken, target);
+                        }
+                    }));
+                }
 
-            if (!StringUtil.isNullOrEmpty(clientClaims)) {
-                claimsBuilder.claim(
-                        SignedHttpRequestJwtClaims.CLIENT_CLAIMS,
-                        clientClaims
-                );
+                for (final Future<String> future : futures) {
+                    signedHttpRequests.add(awaitSignedHttpRequest(future));
+                }
+            } else {
+                for (final SignedHttpRequestTarget target : targets) {
+                    signedHttpRequests.add(signHttpRequest(signingMaterial, timestamp, accessToken, target));
+                }
             }
 
-            final JWTClaimsSet claimsSet = claimsBuilder.build();
-
-            final KeyStore.PrivateKeyEntry entry = mKeyManager.getEntry();
-            final PrivateKey privateKey = entry.getPrivateKey();
-            final RSASSASigner signer = new RSASSASigner(privateKey);
-
-            final SignedJWT signedJWT = new SignedJWT(
-                    new JWSHeader.Builder(JWSAlgorithm.RS256)
-                            .keyID(getAsymmetricKeyThumbprint())
-                            .build(),
-                    claimsSet
-            );
-
-            signedJWT.sign(signer);
-
-            return signedJWT.serialize();
+            return signedHttpRequests;
         } catch (final NoSuchAlgorithmException e) {
             exception = e;
             errCode = NO_SUCH_ALGORITHM;
@@ -994,7 +1167,7 @@ public abstract class AbstractDevicePopManager implements IDevicePopManager {
         } catch (final JOSEException e) {
             if ((isNegativeInternalError(e)) ||
                     (e.getCause() != null && isNegativeInternalError(e.getCause())) ||
-                    (e.getCause().getCause() != null && isNegativeInternalError(e.getCause().getCause()))
+                    (e.getCause() != null && e.getCause().getCause() != null && isNegativeInternalError(e.getCause().getCause()))
             ) {
                 Logger.error(methodTag, "Getting Invalid key blob, Invalid private RSA key.", e);
                 Logger.info(methodTag, "Unable to access asymmetric key, clearing the key.");
@@ -1015,6 +1188,8 @@ public abstract class AbstractDevicePopManager implements IDevicePopManager {
             errCode = INVALID_PROTECTION_PARAMS;
         }
 
+        // Whatever went wrong may have been caused by stale key material; reload it next time.
+        invalidateSigningMaterial();
         performCleanupIfMintShrFails(exception);
 
         final ClientException clientException = new ClientException(
@@ -1032,6 +1207,105 @@ public abstract class AbstractDevicePopManager implements IDevicePopManager {
         throw clientException;
     }
 
+    /**
+     * Builds and signs a single SHR with already-loaded signing material.
+     */
+    private static String signHttpRequest(@NonNull final SigningMaterial signingMaterial,
+                                          final long timestamp,
+                                          @Nullable final String accessToken,
+                                          @NonNull final SignedHttpRequestTarget target) throws JOSEException {
+        final JWTClaimsSet.Builder claimsBuilder = new JWTClaimsSet.Builder();
+
+        // This is supported/allowed only to support the generateShr API. By definition, all
+        // AT/PoP requests will contain an access token, but an SPO signed-cookie will not.
+        if (!StringUtil.isNullOrEmpty(accessToken)) {
+            claimsBuilder.claim(
+                    SignedHttpRequestJwtClaims.ACCESS_TOKEN,
+                    accessToken
+            );
+        }
+
+        claimsBuilder.claim(
+                SignedHttpRequestJwtClaims.TIMESTAMP,
+                timestamp
+        );
+        claimsBuilder.claim(
+                SignedHttpRequestJwtClaims.HTTP_HOST,
+                // Use Authority to include port number, if supplied
+                target.mRequestUrl.getAuthority()
+        );
+        claimsBuilder.claim(
+                SignedHttpRequestJwtClaims.CNF,
+                signingMaterial.mCnf
+        );
+
+        if (!StringUtil.isNullOrEmpty(target.mRequestUrl.getPath())) {
+            claimsBuilder.claim(
+                    SignedHttpRequestJwtClaims.HTTP_PATH,
+                    target.mRequestUrl.getPath()
+            );
+        }
+
+        if (!StringUtil.isNullOrEmpty(target.mHttpMethod)) {
+            claimsBuilder.claim(
+                    SignedHttpRequestJwtClaims.HTTP_METHOD,
+                    target.mHttpMethod
+            );
+        }
+
+        if (!StringUtil.isNullOrEmpty(target.mNonce)) {
+            claimsBuilder.claim(
+                    SignedHttpRequestJwtClaims.NONCE,
+                    target.mNonce
+            );
+        }
+
+        if (!StringUtil.isNullOrEmpty(target.mClientClaims)) {
+            claimsBuilder.claim(
+                    SignedHttpRequestJwtClaims.CLIENT_CLAIMS,
+                    target.mClientClaims
+            );
+        }
+
+        final SignedJWT signedJWT = new SignedJWT(
+                signingMaterial.mHeader,
+                claimsBuilder.build()
+        );
+
+        signedJWT.sign(signingMaterial.mSigner);
+
+        return signedJWT.serialize();
+    }
+
+    /**
+     * Waits for an SHR signed on the background pool, surfacing signing failures as-is.
+     */
+    private static String awaitSignedHttpRequest(@NonNull final Future<String> future)
+            throws JOSEException, ClientException {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClientException(
+                    INTERRUPTED_OPERATION,
+                    e.getMessage(),
+                    e
+            );
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+
+            if (cause instanceof JOSEException) {
+                throw (JOSEException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            throw new JOSEException(e.getMessage(), e);
+        }
+    }
+
     private static boolean isNegativeInternalError(@NonNull final Throwable t) {
         if ((t.getMessage() != null && t.getMessage().contains(NEGATIVE_THIRTY_THREE_INTERNAL_ERROR_MSG))) {
             Logger.info(TAG, "Found internal Keystore code: -33 error.");
@@ -1071,20 +1345,13 @@ public abstract class AbstractDevicePopManager implements IDevicePopManager {
     }
 
     /**
-     * Gets the base64url encoded public jwk for the supplied RSAKey.
+     * Gets the req_cnf for a key: its thumbprint as the kid of a JWK, base64url encoded.
      *
-     * @param rsaKey The input key material.
+     * @param thumbprint The JWK thumbprint of the key.
      * @return The base64url encoded jwk.
      */
-    private static String getReqCnfForRsaKey(@NonNull final RSAKey rsaKey)
-            throws JOSEException, JSONException {
-        final String thumbprintStr = getThumbprintForRsaKey(rsaKey);
-        final String thumbprintMinifiedJson =
-                new JSONObject()
-                        .put("kid", thumbprintStr)
-                        .toString();
-
-        return base64UrlEncode(thumbprintMinifiedJson);
+    private static String getReqCnfForThumbprint(@NonNull final String thumbprint) {
+        return base64UrlEncode(GSON.toJson(Collections.singletonMap("kid", thumbprint)));
     }
 
     /**
@@ -1101,6 +1368,78 @@ public abstract class AbstractDevicePopManager implements IDevicePopManager {
         );
     }
 
+    /**
+     * Returns the signing material for the current key, loading it from the KeyStore on first
+     * use after the key was generated or cleared.
+     *
+     * @return The cached {@link SigningMaterial}.
+     * @throws UnrecoverableEntryException If the queried key cannot be found.
+     * @throws NoSuchAlgorithmException    If the KeyStore is unable to use the designated alg.
+     * @throws KeyStoreException           If the KeyStore experiences an error during read.
+     * @throws ClientException             If the key thumbprint cannot be computed.
+     * @throws JOSEException               If a signer cannot be created for the key.
+     */
+    private SigningMaterial getSigningMaterial()
+            throws UnrecoverableEntryException, NoSuchAlgorithmException, KeyStoreException, ClientException,
+            JOSEException {
+        final String alias = mKeyManager.getKeyAlias();
+        final SigningMaterial cached = sSigningMaterialCache.get(alias);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        synchronized (sSigningMaterialLock) {
+            SigningMaterial material = sSigningMaterialCache.get(alias);
+
+            if (material == null) {
+                final KeyStore.PrivateKeyEntry keyEntry = mKeyManager.getEntry();
+
+                if (keyEntry == null) {
+                    throw new ClientException(INVALID_KEY_MISSING, "No PoP key exists for this alias.");
+                }
+
+                final PrivateKey privateKey = keyEntry.getPrivateKey();
+                final boolean isEcKey = PopKeyType.EC_P256 == PopKeyType.fromKeyAlgorithm(privateKey.getAlgorithm());
+                final String thumbprint = getAsymmetricKeyThumbprint();
+                final JWSHeader header = new JWSHeader.Builder(isEcKey ? JWSAlgorithm.ES256 : JWSAlgorithm.RS256)
+                        .keyID(thumbprint)
+                        .build();
+                material = new SigningMaterial(
+                        isEcKey ? new ECDSASigner(privateKey, Curve.P_256) : new RSASSASigner(privateKey),
+                        parseHeader(header),
+                        getDevicePopJwkMinifiedJson(keyEntry),
+                        getReqCnfForThumbprint(thumbprint)
+                );
+                sSigningMaterialCache.put(alias, material);
+            }
+
+            return material;
+        }
+    }
+
+    /**
+     * Round-trips the header through its encoded form, so that the encoding is computed once and
+     * reused by every SHR signed with it.
+     */
+    private static JWSHeader parseHeader(@NonNull final JWSHeader header) throws JOSEException {
+        try {
+            return JWSHeader.parse(header.toBase64URL());
+        } catch (final ParseException e) {
+            throw new JOSEException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Drops any cached signing material for this manager's alias.
+     */
+    //@VisibleForTesting
+    void invalidateSigningMaterial() {
+        synchronized (sSigningMaterialLock) {
+            sSigningMaterialCache.remove(mKeyManager.getKeyAlias());
+        }
+    }
+
     /**
      * Returns the cnf claim used in SHRs (Signed HTTP Requests); format is JSON.
      *
@@ -1111,14 +1450,22 @@ public abstract class AbstractDevicePopManager implements IDevicePopManager {
      */
     private Map<String, Object> getDevicePopJwkMinifiedJson()
             throws UnrecoverableEntryException, NoSuchAlgorithmException, KeyStoreException {
-        final KeyStore.PrivateKeyEntry keyEntry = mKeyManager.getEntry();
-        final KeyPair rsaKeyPair = getKeyPairForEntry(keyEntry);
-        final RSAKey rsaKey = getRsaKeyForKeyPair(rsaKeyPair);
-        final RSAKey publicRsaKey = rsaKey.toPublicJWK();
-        final Map<String, Object> jwkContents = publicRsaKey.toJSONObject();
+        return getDevicePopJwkMinifiedJson(mKeyManager.getEntry());
+    }
+
+    /**
+     * Returns the cnf claim for the supplied key entry.
+     *
+     * @param keyEntry The entry holding the PoP key.
+     * @return The cnf claim value, which is not modifiable.
+     */
+    private static Map<String, Object> getDevicePopJwkMinifiedJson(@NonNull final KeyStore.PrivateKeyEntry keyEntry) {
+        final KeyPair keyPair = getKeyPairForEntry(keyEntry);
+        final JWK publicJwk = getPublicJwkForKeyPair(keyPair).toPublicJWK();
+        final Map<String, Object> jwkContents = publicJwk.toJSONObject();
         final Map<String, Object> wrappedJwk = new HashMap<>();
-        wrappedJwk.put(SignedHttpRequestJwtClaims.JWK, jwkContents);
+        wrappedJwk.put(SignedHttpRequestJwtClaims.JWK, Collections.unmodifiableMap(jwkContents));
 
-        return wrappedJwk;
+        return Collections.unmodifiableMap(wrappedJwk);
     }
 }
@@ -31,6 +31,9 @@ import com.microsoft.identity.common.java.crypto.IKeyStoreKeyManager;
 import com.microsoft.identity.common.java.exception.ClientException;
 import com.microsoft.identity.common.java.logging.Logger;
 import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.util.Base64URL;
 
@@ -44,6 +47,7 @@ import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.security.UnrecoverableEntryException;
 import java.security.cert.Certificate;
+import java.security.interfaces.ECPublicKey;
 import java.security.interfaces.RSAPublicKey;
 import java.util.Arrays;
 import java.util.Date;
@@ -173,7 +177,7 @@ public abstract class AbstractKeyStoreKeyManager<K extends KeyStore.Entry> imple
             final K entry = getEntry();
 
             if (entry instanceof KeyStore.PrivateKeyEntry) {
-                return getRsaThumbprint((KeyStore.PrivateKeyEntry) entry).getBytes(UTF8);
+                return getThumbprintForEntry((KeyStore.PrivateKeyEntry) entry).getBytes(UTF8);
             } else if (entry instanceof KeyStore.SecretKeyEntry) {
                 return getSecretKeyThumbprint((KeyStore.SecretKeyEntry) entry);
             } else {
@@ -241,6 +245,19 @@ public abstract class AbstractKeyStoreKeyManager<K extends KeyStore.Entry> imple
         return getThumbprintForRsaKey(rsaKey);
     }
 
+    /**
+     * Given an RSA or EC private key entry, get the JWK thumbprint of its public key.
+     *
+     * @param entry the entry to compute the thumbprint for.
+     * @return A String that would be identicative of this specific key.
+     * @throws JOSEException If there is a computation problem.
+     */
+    public static String getThumbprintForEntry(@NonNull final KeyStore.PrivateKeyEntry entry) throws JOSEException {
+        final KeyPair keyPair = getKeyPairForEntry(entry);
+        final JWK jwk = getPublicJwkForKeyPair(keyPair);
+        return jwk.computeThumbprint().toString();
+    }
+
     /**
      * Given a {@link java.security.KeyStore.SecretKeyEntry}, get the thumbprint.
      *
@@ -288,6 +305,30 @@ public abstract class AbstractKeyStoreKeyManager<K extends KeyStore.Entry> imple
         }
     }
 
+    /**
+     * Gets the public {@link JWK} for the supplied {@link KeyPair}, which may hold either an RSA
+     * or an EC key.
+     *
+     * @param keyPair The KeyPair to use.
+     * @return The resulting JWK.
+     */
+    public static JWK getPublicJwkForKeyPair(@NonNull final KeyPair keyPair) {
+        if (keyPair.getPublic() instanceof ECPublicKey) {
+            final ECPublicKey publicKey = (ECPublicKey) keyPair.getPublic();
+            final Curve curve = Curve.forECParameterSpec(publicKey.getParams());
+
+            if (curve == null) {
+                throw new UnsupportedOperationException("Cannot get ECKey for unknown curve.");
+            }
+
+            return new ECKey.Builder(curve, publicKey)
+                    .keyUse(null)
+                    .build();
+        }
+
+        return getRsaKeyForKeyPair(keyPair);
+    }
+
     /**
      * Given a {@link RSAKey}, compute its thumbprint.
      *
@@ -100,7 +100,7 @@ public class Device {
     public static String getProductVersion() {
         final String methodName = ":getProductVersion";
 
-        final String version = DiagnosticContext.INSTANCE.getRequestContext().get(AuthenticationConstants.SdkPlatformFields.VERSION);
+        final String version = DiagnosticContext.INSTANCE.getSnapshot().getRequestContext().get(AuthenticationConstants.SdkPlatformFields.VERSION);
         if (StringUtil.isNullOrEmpty(version)) {
             Logger.warn(TAG + methodName, "Product version is not set.", null);
             return StringUtil.isNullOrEmpty(BuildConfig.VERSION_NAME) ? "1.5.9-default" : BuildConfig.VERSION_NAME + "-default";
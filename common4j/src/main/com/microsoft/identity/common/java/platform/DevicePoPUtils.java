@@ -22,22 +22,111 @@
 //  THE SOFTWARE.
 package com.microsoft.identity.common.java.platform;
 
+import static com.microsoft.identity.common.java.exception.ClientException.INTERRUPTED_OPERATION;
+import static com.microsoft.identity.common.java.exception.ClientException.UNKNOWN_ERROR;
+
 import com.microsoft.identity.common.java.authscheme.IPoPAuthenticationSchemeParams;
 import com.microsoft.identity.common.java.crypto.IDevicePopManager;
 import com.microsoft.identity.common.java.exception.ClientException;
 import com.microsoft.identity.common.java.interfaces.IPlatformComponents;
+import com.microsoft.identity.common.java.logging.Logger;
+import com.microsoft.identity.common.java.result.GenerateShrBatchResult;
 import com.microsoft.identity.common.java.result.GenerateShrResult;
+import com.microsoft.identity.common.java.util.BiConsumer;
+import com.microsoft.identity.common.java.util.ResultFuture;
 
 import java.net.URL;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 import lombok.NonNull;
 
 public class DevicePoPUtils {
 
+    private static final String TAG = DevicePoPUtils.class.getSimpleName();
+
     private DevicePoPUtils() {
         // Utility class.
     }
 
+    /**
+     * Starts generating the default PoP key in the background if it does not exist yet, and
+     * memoizes its req_cnf, so that the first PoP token request does not pay for key generation
+     * inline. Intended to be called at startup by apps which use PoP.
+     *
+     * @param platformComponents The current application's {@link IPlatformComponents}.
+     * @return A future for the req_cnf of the key.
+     * @throws ClientException If the PoP manager cannot be created.
+     */
+    public static ResultFuture<String> prewarmDevicePopKey(@NonNull final IPlatformComponents platformComponents)
+            throws ClientException {
+        final IDevicePopManager popMgr = platformComponents.getDefaultDevicePopManager();
+
+        if (popMgr.asymmetricKeyExists()) {
+            return popMgr.getRequestConfirmationAsync();
+        }
+
+        final ResultFuture<String> result = new ResultFuture<>();
+        popMgr.generateAsymmetricKeyAsync().whenComplete(new BiConsumer<String, Throwable>() {
+            @Override
+            public void accept(final String thumbprint, final Throwable error) {
+                if (error != null) {
+                    Logger.warn(TAG + ":prewarmDevicePopKey", "Background PoP key generation failed.");
+                    result.setException(error);
+                    return;
+                }
+
+                popMgr.getRequestConfirmationAsync().whenComplete(new BiConsumer<String, Throwable>() {
+                    @Override
+                    public void accept(final String reqCnf, final Throwable error) {
+                        if (error != null) {
+                            result.setException(error);
+                        } else {
+                            result.setResult(reqCnf);
+                        }
+                    }
+                });
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Makes sure the supplied PoP manager has a key, generating one if needed. If a background
+     * generation (such as {@link #prewarmDevicePopKey(IPlatformComponents)}) is in flight, this
+     * waits for it instead of generating a second key.
+     *
+     * @param popMgr The {@link IDevicePopManager} to check.
+     * @throws ClientException If the key cannot be generated.
+     */
+    public static void ensureAsymmetricKey(@NonNull final IDevicePopManager popMgr) throws ClientException {
+        final String methodTag = TAG + ":ensureAsymmetricKey";
+
+        if (popMgr.asymmetricKeyExists()) {
+            return;
+        }
+
+        try {
+            final String thumbprint = popMgr.generateAsymmetricKeyAsync().get();
+
+            Logger.verbosePII(
+                    methodTag,
+                    "Generated new PoP asymmetric key with thumbprint: "
+                            + thumbprint
+            );
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClientException(INTERRUPTED_OPERATION, e.getMessage(), e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof ClientException) {
+                throw (ClientException) e.getCause();
+            }
+
+            throw new ClientException(UNKNOWN_ERROR, e.getMessage(), e);
+        }
+    }
+
     /**
      * Generates an AT-less SHR using the PoPMgr's internal signing key.
      *
@@ -60,9 +149,7 @@ public class DevicePoPUtils {
         final IDevicePopManager popMgr = platformComponents.getDefaultDevicePopManager();
 
         // Generate keys, if none exist (should already be initialized)
-        if (!popMgr.asymmetricKeyExists()) {
-            popMgr.generateAsymmetricKey();
-        }
+        ensureAsymmetricKey(popMgr);
 
         final String shr = popMgr.mintSignedHttpRequest(
                 httpMethodStr,
@@ -78,4 +165,40 @@ public class DevicePoPUtils {
 
         return result;
     }
+
+    /**
+     * Generates several AT-less SHRs using the PoPMgr's internal signing key, loading the key once
+     * for the whole batch.
+     *
+     * @param platformComponents The current application's {@link IPlatformComponents}.
+     * @param popSchemeParams    The input params used to create each resulting SHR.
+     * @param parallel           True to sign the SHRs concurrently.
+     * @return The {@link GenerateShrBatchResult} containing the resulting SHRs, in input order.
+     * @throws ClientException If an error is encountered.
+     */
+    public static synchronized GenerateShrBatchResult generateSignedHttpRequests(
+            @NonNull final IPlatformComponents platformComponents,
+            @NonNull final List<? extends IPoPAuthenticationSchemeParams> popSchemeParams,
+            final boolean parallel) throws ClientException {
+        // Clock-skew correction values
+        final long ONE_SECOND_MILLIS = 1000L;
+        final long timestampMillis = platformComponents.getClockSkewManager().getAdjustedReferenceTime().getTime();
+
+        final IDevicePopManager popMgr = platformComponents.getDefaultDevicePopManager();
+
+        // Generate keys, if none exist (should already be initialized)
+        ensureAsymmetricKey(popMgr);
+
+        final List<String> shrs = popMgr.mintSignedHttpRequests(
+                timestampMillis / ONE_SECOND_MILLIS,
+                popSchemeParams,
+                parallel
+        );
+
+        // Create our result object
+        final GenerateShrBatchResult result = new GenerateShrBatchResult();
+        result.setShrs(shrs);
+
+        return result;
+    }
 }
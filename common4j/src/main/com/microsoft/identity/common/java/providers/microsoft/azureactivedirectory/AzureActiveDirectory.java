@@ -24,7 +24,6 @@ package com.microsoft.identity.common.java.providers.microsoft.azureactivedirect
 
 import lombok.NonNull;
 
-import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import com.microsoft.identity.common.java.authorities.Environment;
 import com.microsoft.identity.common.java.cache.HttpCache;
@@ -36,9 +35,12 @@ import com.microsoft.identity.common.java.net.HttpResponse;
 import com.microsoft.identity.common.java.net.UrlConnectionHttpClient;
 import com.microsoft.identity.common.java.providers.IdentityProvider;
 import com.microsoft.identity.common.java.providers.oauth2.OAuth2StrategyParameters;
+import com.microsoft.identity.common.java.util.GsonRegistry;
 import com.microsoft.identity.common.java.util.ObjectMapper;
+import com.microsoft.identity.common.java.util.ResultFuture;
 import com.microsoft.identity.common.java.util.StringUtil;
 import com.microsoft.identity.common.java.util.CommonURIBuilder;
+import com.microsoft.identity.common.java.util.ThreadUtils;
 
 import org.json.JSONException;
 
@@ -56,6 +58,12 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
 
 /**
  * Implements the IdentityProvider base class...
@@ -74,11 +82,26 @@ public class AzureActiveDirectory
     private static final String AUTHORIZATION_ENDPOINT = "authorization_endpoint";
     private static final String AUTHORIZATION_ENDPOINT_VALUE = "https://login.microsoftonline.com/common/oauth2/v2.0/authorize";
 
-    private static ConcurrentMap<String, AzureActiveDirectoryCloud> sAadClouds = new ConcurrentHashMap<>();
-    private static boolean sIsInitialized = false;
-    private static Environment sEnvironment = Environment.Production;
+    private static final String CLOUD_DISCOVERY_THREAD_POOL_NAME = "aad-cloud-discovery";
+
+    private static final ConcurrentMap<String, AzureActiveDirectoryCloud> sAadClouds = new ConcurrentHashMap<>();
+    private static volatile boolean sIsInitialized = false;
+    // Bumped whenever sAadClouds or the environment changes, so that values derived from the
+    // cloud metadata (e.g. resolved authorities) can tell when they have gone stale.
+    private static final AtomicInteger sCloudMetadataVersion = new AtomicInteger();
+    private static volatile Environment sEnvironment = Environment.Production;
     private static final HttpClient httpClient = UrlConnectionHttpClient.getDefaultInstance();
 
+    // Cloud discovery is single-flight: concurrent callers join the request already in progress
+    // instead of queueing up their own network call behind a class-level lock.
+    private static final Object sDiscoveryLock = new Object();
+    //@GuardedBy("sDiscoveryLock")
+    private static ResultFuture<Boolean> sInFlightDiscovery = null;
+    private static final ExecutorService sDiscoveryExecutor = ThreadUtils.getNamedThreadPoolExecutor(
+            0, 1, -1, 60, TimeUnit.SECONDS, CLOUD_DISCOVERY_THREAD_POOL_NAME);
+
+    private static volatile AzureActiveDirectoryCloudMetadataCache sCloudMetadataCache = null;
+
     @Override
     public AzureActiveDirectoryOAuth2Strategy createOAuth2Strategy(@NonNull final AzureActiveDirectoryOAuth2Configuration config,
                                                                    @NonNull final IPlatformComponents commonComponents) throws ClientException {
@@ -89,15 +112,16 @@ public class AzureActiveDirectory
         return new AzureActiveDirectoryOAuth2Strategy(config, parameters);
     }
 
-    public static synchronized boolean hasCloudHost(@NonNull final URL authorityUrl) {
+    public static boolean hasCloudHost(@NonNull final URL authorityUrl) {
         return sAadClouds.containsKey(authorityUrl.getHost().toLowerCase(Locale.US));
     }
 
-    static synchronized boolean isValidCloudHost(@NonNull final URL authorityUrl) {
-        return hasCloudHost(authorityUrl) && getAzureActiveDirectoryCloud(authorityUrl).isValidated();
+    static boolean isValidCloudHost(@NonNull final URL authorityUrl) {
+        final AzureActiveDirectoryCloud cloud = getAzureActiveDirectoryCloud(authorityUrl);
+        return cloud != null && cloud.isValidated();
     }
 
-    public static synchronized boolean isInitialized() {
+    public static boolean isInitialized() {
         return sIsInitialized;
     }
 
@@ -107,19 +131,65 @@ public class AzureActiveDirectory
             // to make a instance discovery network request for this environment.
             sIsInitialized = false;
             sEnvironment = environment;
+            sCloudMetadataVersion.incrementAndGet();
+            loadPersistedCloudMetadata();
         }
 
     }
 
-    public static synchronized Environment getEnvironment() {
+    public static Environment getEnvironment() {
         return sEnvironment;
     }
 
+    /**
+     * Bootstraps the persisted cloud metadata cache from the platform storage.
+     * If a usable snapshot exists and cloud discovery has not happened yet in this process,
+     * the in-memory cloud metadata is hydrated from it so that callers do not need to wait
+     * for the instance discovery network call.
+     *
+     * @param platformComponents the platform components providing the storage.
+     */
+    public static void setUp(@NonNull final IPlatformComponents platformComponents) {
+        if (sCloudMetadataCache != null) {
+            return;
+        }
+
+        synchronized (AzureActiveDirectory.class) {
+            if (sCloudMetadataCache == null) {
+                sCloudMetadataCache = new AzureActiveDirectoryCloudMetadataCache(
+                        platformComponents.getStorageSupplier().getUnencryptedNameValueStore(
+                                AzureActiveDirectoryCloudMetadataCache.CLOUD_METADATA_STORAGE_FILE,
+                                String.class)
+                );
+                loadPersistedCloudMetadata();
+            }
+        }
+    }
+
+    /**
+     * Sets the persisted cloud metadata cache, and hydrates the in-memory cloud metadata from it.
+     * Passing null disables persistence.
+     */
+    public static synchronized void setCloudMetadataCache(@Nullable final AzureActiveDirectoryCloudMetadataCache cache) {
+        sCloudMetadataCache = cache;
+        loadPersistedCloudMetadata();
+    }
+
+    /**
+     * Drops all in-memory cloud metadata, so that the next lookup performs cloud discovery again.
+     */
+    //@VisibleForTesting(otherwise = VisibleForTesting.NONE)
+    public static synchronized void clearCloudMetadata() {
+        sAadClouds.clear();
+        sIsInitialized = false;
+        sCloudMetadataVersion.incrementAndGet();
+    }
+
     /**
      * @param authorityUrl URL
      * @return AzureActiveDirectoryCloud
      */
-    public static synchronized AzureActiveDirectoryCloud getAzureActiveDirectoryCloud(@NonNull final URL authorityUrl) {
+    public static AzureActiveDirectoryCloud getAzureActiveDirectoryCloud(@NonNull final URL authorityUrl) {
         return sAadClouds.get(authorityUrl.getHost().toLowerCase(Locale.US));
     }
 
@@ -127,7 +197,7 @@ public class AzureActiveDirectory
      * @param preferredCacheHostName String
      * @return AzureActiveDirectoryCloud
      */
-    public static synchronized AzureActiveDirectoryCloud getAzureActiveDirectoryCloudFromHostName(@NonNull final String preferredCacheHostName) {
+    public static AzureActiveDirectoryCloud getAzureActiveDirectoryCloudFromHostName(@NonNull final String preferredCacheHostName) {
         return sAadClouds.get(preferredCacheHostName.toLowerCase(Locale.US));
     }
 
@@ -135,8 +205,16 @@ public class AzureActiveDirectory
      * @param host  String
      * @param cloud AzureActiveDirectoryCloud
      */
-    public static synchronized void putCloud(@NonNull final String host, final AzureActiveDirectoryCloud cloud) {
+    public static void putCloud(@NonNull final String host, final AzureActiveDirectoryCloud cloud) {
         sAadClouds.put(host.toLowerCase(Locale.US), cloud);
+        sCloudMetadataVersion.incrementAndGet();
+    }
+
+    /**
+     * @return a counter that changes every time the in-memory cloud metadata or the environment changes.
+     */
+    public static int getCloudMetadataVersion() {
+        return sCloudMetadataVersion.get();
     }
 
     /**
@@ -153,27 +231,21 @@ public class AzureActiveDirectory
 
         if (!tenantDiscoveryEndpointReturned) {
             sAadClouds.put(authorityHost, new AzureActiveDirectoryCloud(false));
+            sCloudMetadataVersion.incrementAndGet();
             return;
         }
 
         if (StringUtil.isNullOrEmpty(metadata)) {
             sAadClouds.put(authorityHost, new AzureActiveDirectoryCloud(authorityHost, authorityHost));
+            sCloudMetadataVersion.incrementAndGet();
             return;
         }
 
-        final List<AzureActiveDirectoryCloud> clouds = deserializeClouds(metadata);
-
-        for (final AzureActiveDirectoryCloud cloud : clouds) {
-            cloud.setIsValidated(true); // Mark the deserialized Clouds as validated
-            for (final String alias : cloud.getHostAliases()) {
-                sAadClouds.put(alias.toLowerCase(Locale.US), cloud);
-            }
-        }
-
+        putValidatedClouds(deserializeClouds(metadata));
         sIsInitialized = true;
     }
 
-    public static synchronized String getDefaultCloudUrl() {
+    public static String getDefaultCloudUrl() {
         if (sEnvironment == Environment.PreProduction) {
             return AzureActiveDirectoryEnvironment.PREPRODUCTION_CLOUD_URL;
         } else {
@@ -181,9 +253,123 @@ public class AzureActiveDirectory
         }
     }
 
-    public static synchronized void performCloudDiscovery()
+    /**
+     * Performs instance discovery against the default cloud of the current environment.
+     * If a discovery request is already in progress, this call joins it rather than
+     * making another network request.
+     */
+    public static void performCloudDiscovery()
             throws IOException, URISyntaxException {
         final String methodName = ":performCloudDiscovery";
+        final ResultFuture<Boolean> inFlightDiscovery;
+        synchronized (sDiscoveryLock) {
+            inFlightDiscovery = sInFlightDiscovery;
+        }
+
+        if (inFlightDiscovery != null) {
+            Logger.info(TAG + methodName, "Cloud discovery is already in progress. Waiting for it.");
+            awaitCloudDiscovery(inFlightDiscovery);
+            return;
+        }
+
+        final ResultFuture<Boolean> future = startCloudDiscovery();
+        if (future == null) {
+            // Another thread won the race to start the discovery. Join it.
+            performCloudDiscovery();
+            return;
+        }
+
+        runCloudDiscovery(future);
+        awaitCloudDiscovery(future);
+    }
+
+    /**
+     * Performs instance discovery on a background thread.
+     * If a discovery request is already in progress, the future of that request is returned.
+     *
+     * @return a future which resolves to {@link #isInitialized()} once discovery completes.
+     */
+    public static ResultFuture<Boolean> performCloudDiscoveryAsync() {
+        synchronized (sDiscoveryLock) {
+            if (sInFlightDiscovery != null) {
+                return sInFlightDiscovery;
+            }
+        }
+
+        final ResultFuture<Boolean> future = startCloudDiscovery();
+        if (future == null) {
+            return performCloudDiscoveryAsync();
+        }
+
+        sDiscoveryExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                runCloudDiscovery(future);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Registers a new in-flight discovery request.
+     *
+     * @return the future for the new request, or null if another request is already in flight.
+     */
+    @Nullable
+    private static ResultFuture<Boolean> startCloudDiscovery() {
+        synchronized (sDiscoveryLock) {
+            if (sInFlightDiscovery != null) {
+                return null;
+            }
+            sInFlightDiscovery = new ResultFuture<>();
+            return sInFlightDiscovery;
+        }
+    }
+
+    private static void runCloudDiscovery(@NonNull final ResultFuture<Boolean> future) {
+        try {
+            fetchCloudMetadata();
+            finishCloudDiscovery(future);
+            future.setResult(sIsInitialized);
+        } catch (final Exception e) {
+            finishCloudDiscovery(future);
+            future.setException(e);
+        }
+    }
+
+    private static void finishCloudDiscovery(@NonNull final ResultFuture<Boolean> future) {
+        synchronized (sDiscoveryLock) {
+            if (sInFlightDiscovery == future) {
+                sInFlightDiscovery = null;
+            }
+        }
+    }
+
+    private static void awaitCloudDiscovery(@NonNull final ResultFuture<Boolean> future)
+            throws IOException, URISyntaxException {
+        try {
+            future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for cloud discovery", e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof URISyntaxException) {
+                throw (URISyntaxException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Cloud discovery failed", cause);
+        }
+    }
+
+    private static void fetchCloudMetadata()
+            throws IOException, URISyntaxException {
+        final String methodName = ":fetchCloudMetadata";
+        final Environment environment = sEnvironment;
         final URI instanceDiscoveryRequestUri = new CommonURIBuilder(getDefaultCloudUrl() + AAD_INSTANCE_DISCOVERY_ENDPOINT)
                 .setParameter(API_VERSION, API_VERSION_VALUE)
                 .setParameter(AUTHORIZATION_ENDPOINT, AUTHORIZATION_ENDPOINT_VALUE)
@@ -198,43 +384,100 @@ public class AzureActiveDirectory
         } else {
             // Our request was successful. Flush the HTTP cache to disk. Should only happen once
             // per app launch. Instance Discovery Metadata will be cached in-memory
-            // until the app is killed.
+            // until the app is killed, and persisted for subsequent launches.
             HttpCache.flush();
 
             Logger.info(TAG + methodName, "Parsing response.");
-            AzureActiveDirectoryInstanceResponse instanceResponse =
-                    ObjectMapper.deserializeJsonStringToObject(
-                            response.getBody(),
-                            AzureActiveDirectoryInstanceResponse.class
-                    );
-            Logger.info(TAG + methodName, "Discovered ["
-                    + instanceResponse.getClouds().size() + "] clouds.");
-
-            for (final AzureActiveDirectoryCloud cloud : instanceResponse.getClouds()) {
-                cloud.setIsValidated(true); // Mark the deserialized Clouds as validated
-                for (final String alias : cloud.getHostAliases()) {
-                    sAadClouds.put(alias.toLowerCase(Locale.US), cloud);
+            if (applyInstanceDiscoveryResponse(environment, response.getBody())) {
+                final AzureActiveDirectoryCloudMetadataCache cache = sCloudMetadataCache;
+                if (cache != null) {
+                    cache.save(environment, response.getBody());
                 }
             }
+        }
+    }
+
+    /**
+     * Hydrates the in-memory cloud metadata from the persisted snapshot, if there is one.
+     * Schedules a background refresh if the snapshot is stale.
+     */
+    private static synchronized void loadPersistedCloudMetadata() {
+        final String methodName = ":loadPersistedCloudMetadata";
+        final AzureActiveDirectoryCloudMetadataCache cache = sCloudMetadataCache;
+        if (cache == null || sIsInitialized) {
+            return;
+        }
+
+        final Environment environment = sEnvironment;
+        final AzureActiveDirectoryCloudMetadataCache.Snapshot snapshot = cache.load(environment);
+        if (snapshot == null) {
+            return;
+        }
+
+        try {
+            if (!applyInstanceDiscoveryResponse(environment, snapshot.getResponse())) {
+                return;
+            }
+        } catch (final RuntimeException e) {
+            Logger.warn(TAG + methodName, "Persisted cloud metadata is invalid: " + e.getMessage());
+            cache.clear();
+            return;
+        }
 
-            sIsInitialized = true;
+        Logger.info(TAG + methodName, "Loaded persisted cloud metadata.");
+        if (cache.shouldRefresh(snapshot)) {
+            Logger.info(TAG + methodName, "Persisted cloud metadata is stale. Refreshing in background.");
+            performCloudDiscoveryAsync();
         }
     }
 
-    public static synchronized Set<String> getHosts() {
-        if (null != sAadClouds) {
-            return sAadClouds.keySet();
+    /**
+     * Applies an instance discovery response body to the in-memory cloud metadata.
+     *
+     * @return true if the response was applied.
+     */
+    private static synchronized boolean applyInstanceDiscoveryResponse(@NonNull final Environment environment,
+                                                                       @NonNull final String responseBody) {
+        final String methodName = ":applyInstanceDiscoveryResponse";
+        if (environment != sEnvironment) {
+            Logger.info(TAG + methodName, "Environment changed during cloud discovery. Discarding response.");
+            return false;
+        }
+
+        final AzureActiveDirectoryInstanceResponse instanceResponse =
+                ObjectMapper.deserializeJsonStringToObject(
+                        responseBody,
+                        AzureActiveDirectoryInstanceResponse.class
+                );
+        if (instanceResponse == null || instanceResponse.getClouds() == null) {
+            Logger.warn(TAG + methodName, "No clouds in instance discovery response.");
+            return false;
         }
 
-        return null;
+        Logger.info(TAG + methodName, "Discovered ["
+                + instanceResponse.getClouds().size() + "] clouds.");
+
+        putValidatedClouds(instanceResponse.getClouds());
+        sIsInitialized = true;
+        return true;
     }
 
-    public static synchronized List<AzureActiveDirectoryCloud> getClouds() {
-        if (null != sAadClouds) {
-            return new ArrayList<>(sAadClouds.values());
+    private static void putValidatedClouds(@NonNull final List<AzureActiveDirectoryCloud> clouds) {
+        for (final AzureActiveDirectoryCloud cloud : clouds) {
+            cloud.setIsValidated(true); // Mark the deserialized Clouds as validated
+            for (final String alias : cloud.getHostAliases()) {
+                sAadClouds.put(alias.toLowerCase(Locale.US), cloud);
+            }
         }
+        sCloudMetadataVersion.incrementAndGet();
+    }
+
+    public static Set<String> getHosts() {
+        return sAadClouds.keySet();
+    }
 
-        return new ArrayList<>();
+    public static List<AzureActiveDirectoryCloud> getClouds() {
+        return new ArrayList<>(sAadClouds.values());
     }
 
     /**
@@ -246,7 +489,7 @@ public class AzureActiveDirectory
      */
     private static List<AzureActiveDirectoryCloud> deserializeClouds(final String jsonCloudArray) throws JSONException {
         final Type listType = TypeToken.getParameterized(List.class, AzureActiveDirectoryCloud.class).getType();
-        return new Gson().fromJson(jsonCloudArray, listType);
+        return GsonRegistry.DEFAULT.fromJson(jsonCloudArray, listType);
     }
 
 }
@@ -0,0 +1,181 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.providers.microsoft.azureactivedirectory;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.annotations.SerializedName;
+import com.microsoft.identity.common.java.authorities.Environment;
+import com.microsoft.identity.common.java.interfaces.INameValueStorage;
+import com.microsoft.identity.common.java.logging.Logger;
+import com.microsoft.identity.common.java.util.ObjectMapper;
+import com.microsoft.identity.common.java.util.StringUtil;
+
+import java.util.concurrent.TimeUnit;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.experimental.Accessors;
+
+/**
+ * Persisted snapshot of the AAD instance discovery response.
+ *
+ * Lets a new process hydrate {@link AzureActiveDirectory}'s cloud metadata without waiting for
+ * the instance discovery network call. A snapshot is kept per {@link Environment} and is
+ * considered usable until {@link #getTimeToLiveMillis()} elapses. Once it is older than
+ * {@link #getRefreshAfterMillis()} it is still served, but should be refreshed in the background.
+ */
+public class AzureActiveDirectoryCloudMetadataCache {
+
+    private static final String TAG = AzureActiveDirectoryCloudMetadataCache.class.getSimpleName();
+
+    /**
+     * Name of the store holding the instance discovery snapshots.
+     */
+    public static final String CLOUD_METADATA_STORAGE_FILE = "com.microsoft.identity.client.cloud_discovery_metadata";
+
+    private static final String SNAPSHOT_KEY_PREFIX = "instance_discovery-";
+
+    /**
+     * Default life time of a persisted snapshot.
+     */
+    public static final long DEFAULT_TIME_TO_LIVE_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    /**
+     * Default age after which a persisted snapshot should be refreshed in the background.
+     */
+    public static final long DEFAULT_REFRESH_AFTER_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private final INameValueStorage<String> mStorage;
+
+    @Getter
+    @Accessors(prefix = "m")
+    private final long mTimeToLiveMillis;
+
+    @Getter
+    @Accessors(prefix = "m")
+    private final long mRefreshAfterMillis;
+
+    public AzureActiveDirectoryCloudMetadataCache(@NonNull final INameValueStorage<String> storage) {
+        this(storage, DEFAULT_TIME_TO_LIVE_MILLIS, DEFAULT_REFRESH_AFTER_MILLIS);
+    }
+
+    public AzureActiveDirectoryCloudMetadataCache(@NonNull final INameValueStorage<String> storage,
+                                                  final long timeToLiveMillis,
+                                                  final long refreshAfterMillis) {
+        mStorage = storage;
+        mTimeToLiveMillis = timeToLiveMillis;
+        mRefreshAfterMillis = refreshAfterMillis;
+    }
+
+    /**
+     * Gets the persisted snapshot for the given environment.
+     *
+     * @param environment the environment the discovery request was made against.
+     * @return the snapshot, or null if there is none, it cannot be read, or it has expired.
+     */
+    @Nullable
+    public Snapshot load(@NonNull final Environment environment) {
+        final String methodTag = TAG + ":load";
+        final String key = getKey(environment);
+        final String rawValue = mStorage.get(key);
+        if (StringUtil.isNullOrEmpty(rawValue)) {
+            return null;
+        }
+
+        final Snapshot snapshot;
+        try {
+            snapshot = ObjectMapper.deserializeJsonStringToObject(rawValue, Snapshot.class);
+        } catch (final JsonParseException e) {
+            Logger.warn(methodTag, "Unable to read persisted cloud metadata: " + e.getMessage());
+            mStorage.remove(key);
+            return null;
+        }
+
+        if (snapshot == null || StringUtil.isNullOrEmpty(snapshot.getResponse())) {
+            mStorage.remove(key);
+            return null;
+        }
+
+        if (getAgeMillis(snapshot) > mTimeToLiveMillis) {
+            Logger.info(methodTag, "Persisted cloud metadata is expired.");
+            mStorage.remove(key);
+            return null;
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Persists an instance discovery response body for the given environment.
+     *
+     * @param environment the environment the discovery request was made against.
+     * @param response    the raw instance discovery response body.
+     */
+    public void save(@NonNull final Environment environment, @NonNull final String response) {
+        mStorage.put(
+                getKey(environment),
+                ObjectMapper.serializeObjectToJsonString(new Snapshot(System.currentTimeMillis(), response))
+        );
+    }
+
+    /**
+     * Removes all persisted snapshots.
+     */
+    public void clear() {
+        mStorage.clear();
+    }
+
+    /**
+     * @return true if the snapshot is old enough that it should be refreshed.
+     */
+    public boolean shouldRefresh(@NonNull final Snapshot snapshot) {
+        // A timestamp in the future means the device clock moved backwards. The snapshot is kept,
+        // but its age is unknown, so refresh it.
+        final long age = getAgeMillis(snapshot);
+        return age < 0 || age > mRefreshAfterMillis;
+    }
+
+    private static long getAgeMillis(@NonNull final Snapshot snapshot) {
+        return System.currentTimeMillis() - snapshot.getTimestamp();
+    }
+
+    private static String getKey(@NonNull final Environment environment) {
+        return SNAPSHOT_KEY_PREFIX + environment.name();
+    }
+
+    /**
+     * A persisted instance discovery response.
+     */
+    @Getter
+    @AllArgsConstructor
+    @Accessors(prefix = "m")
+    public static class Snapshot {
+        @SerializedName("timestamp")
+        private final long mTimestamp;
+
+        @SerializedName("response")
+        private final String mResponse;
+    }
+}
@@ -34,6 +34,8 @@ import org.json.JSONException;
 
 import java.io.Serializable;
 import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -45,6 +47,25 @@ public class ClientInfo implements Serializable {
     private static final String UNIQUE_TENANT_IDENTIFIER = "utid";
     private static final long serialVersionUID = 3326461566190095403L;
 
+    /**
+     * Maximum number of decoded client infos kept in {@link #sDecodedCache}.
+     */
+    private static final int MAX_DECODED_CACHE_SIZE = 16;
+
+    /**
+     * Recently decoded client infos, keyed by the raw client info. The same client_info of a
+     * token response is decoded by several components; this makes it base64/JSON-decoded once.
+     */
+    private static final Map<String, Map<String, String>> sDecodedCache =
+            Collections.synchronizedMap(new LinkedHashMap<String, Map<String, String>>(
+                    MAX_DECODED_CACHE_SIZE + 1, 0.75f, true
+            ) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, Map<String, String>> eldest) {
+                    return size() > MAX_DECODED_CACHE_SIZE;
+                }
+            });
+
     /**
      * Unique identifier for a user in the current tenant.
      */
@@ -68,13 +89,16 @@ public class ClientInfo implements Serializable {
             throw new IllegalArgumentException("ClientInfo cannot be null or blank.");
         }
 
-        // decode the client info first
-        final String decodedClientInfo = StringUtil.fromByteArray(Base64.decode(rawClientInfo, Base64.URL_SAFE));
-        final Map<String, String> clientInfoItems;
-        try {
-            clientInfoItems = JsonUtil.extractJsonObjectIntoMap(decodedClientInfo);
-        } catch (final JSONException e) {
-            throw new ServiceException("", ErrorStrings.INVALID_JWT, e);
+        Map<String, String> clientInfoItems = sDecodedCache.get(rawClientInfo);
+        if (clientInfoItems == null) {
+            // decode the client info first
+            final String decodedClientInfo = StringUtil.fromByteArray(Base64.decode(rawClientInfo, Base64.URL_SAFE));
+            try {
+                clientInfoItems = Collections.unmodifiableMap(JsonUtil.extractJsonObjectIntoMap(decodedClientInfo));
+            } catch (final JSONException e) {
+                throw new ServiceException("", ErrorStrings.INVALID_JWT, e);
+            }
+            sDecodedCache.put(rawClientInfo, clientInfoItems);
         }
 
         mUid = clientInfoItems.get(ClientInfo.UNIQUE_IDENTIFIER);
@@ -109,4 +133,11 @@ public class ClientInfo implements Serializable {
         return mRawClientInfo;
     }
 
+    /**
+     * Clears the cache of decoded client infos.
+     */
+    public static void clearDecodedCache() {
+        sDecodedCache.clear();
+    }
+
 }
@@ -22,6 +22,8 @@
 // THE SOFTWARE.
 package com.microsoft.identity.common.java.providers.microsoft.microsoftsts;
 
+import com.microsoft.identity.common.java.authorities.AuthorityResolutionCache;
+import com.microsoft.identity.common.java.authorities.ResolvedAuthority;
 import com.microsoft.identity.common.java.logging.Logger;
 import com.microsoft.identity.common.java.providers.microsoft.azureactivedirectory.AzureActiveDirectoryOAuth2Configuration;
 import com.microsoft.identity.common.java.util.UrlUtil;
@@ -30,6 +32,7 @@ import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.net.URL;
 
+import edu.umd.cs.findbugs.annotations.Nullable;
 import lombok.NonNull;
 
 public class MicrosoftStsOAuth2Configuration extends AzureActiveDirectoryOAuth2Configuration {
@@ -48,6 +51,10 @@ public class MicrosoftStsOAuth2Configuration extends AzureActiveDirectoryOAuth2C
      * @return URL the authorization endpoint
      */
     public URL getAuthorizationEndpoint() {
+        final ResolvedAuthority resolvedAuthority = getResolvedAuthority();
+        if (resolvedAuthority != null && resolvedAuthority.getAuthorizationEndpoint() != null) {
+            return resolvedAuthority.getAuthorizationEndpoint();
+        }
         return getEndpointUrlFromRootAndSuffix(getAuthorityUrl(), AUTHORIZE_ENDPOINT_SUFFIX);
     }
 
@@ -67,9 +74,35 @@ public class MicrosoftStsOAuth2Configuration extends AzureActiveDirectoryOAuth2C
      * @return URL the token endpoint
      */
     public URL getTokenEndpoint() {
+        final ResolvedAuthority resolvedAuthority = getResolvedAuthority();
+        if (resolvedAuthority != null && resolvedAuthority.getTokenEndpoint() != null) {
+            return resolvedAuthority.getTokenEndpoint();
+        }
         return getEndpointUrlFromRootAndSuffix(getAuthorityUrl(), TOKEN_ENDPOINT_SUFFIX);
     }
 
+    /**
+     * Returns the cached resolution of this configuration's authority, if there is a current one
+     * and its endpoints were derived from exactly this authority URL.
+     */
+    @Nullable
+    private ResolvedAuthority getResolvedAuthority() {
+        final URL authorityUrl = getAuthorityUrl();
+        if (authorityUrl == null) {
+            return null;
+        }
+
+        final String authorityUrlString = authorityUrl.toString();
+        final ResolvedAuthority resolvedAuthority = AuthorityResolutionCache.getIfPresent(authorityUrlString);
+        if (resolvedAuthority == null
+                || resolvedAuthority.getAuthorityUri() == null
+                || !authorityUrlString.equals(resolvedAuthority.getAuthorityUri().toString())) {
+            return null;
+        }
+
+        return resolvedAuthority;
+    }
+
     private URL getEndpointUrlFromRootAndSuffix(@NonNull URL root, @NonNull String endpointSuffix) {
         final String methodName = ":getEndpointUrlFromRootAndSuffix";
         try {
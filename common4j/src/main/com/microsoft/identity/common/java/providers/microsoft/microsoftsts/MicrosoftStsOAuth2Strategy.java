@@ -59,6 +59,7 @@ import com.microsoft.identity.common.java.net.UrlConnectionHttpClient;
 import com.microsoft.identity.common.java.opentelemetry.AttributeName;
 import com.microsoft.identity.common.java.opentelemetry.SpanExtension;
 import com.microsoft.identity.common.java.platform.Device;
+import com.microsoft.identity.common.java.platform.DevicePoPUtils;
 import com.microsoft.identity.common.java.providers.microsoft.MicrosoftAuthorizationResponse;
 import com.microsoft.identity.common.java.providers.microsoft.MicrosoftTokenErrorResponse;
 import com.microsoft.identity.common.java.providers.microsoft.azureactivedirectory.AzureActiveDirectory;
@@ -340,7 +341,7 @@ public class MicrosoftStsOAuth2Strategy
             builder.setSlice(mConfig.getSlice());
         }
 
-        builder.setLibraryName(DiagnosticContext.INSTANCE.getRequestContext().get(PRODUCT));
+        builder.setLibraryName(DiagnosticContext.INSTANCE.getSnapshot().getRequestContext().get(PRODUCT));
         builder.setLibraryVersion(Device.getProductVersion());
         builder.setFlightParameters(mConfig.getFlightParameters());
         builder.setMultipleCloudAware(mConfig.getMultipleCloudsSupported());
@@ -425,15 +426,7 @@ public class MicrosoftStsOAuth2Strategy
                     mStrategyParameters.getPlatformComponents().getDefaultDevicePopManager();
 
             // Generate keys if they don't already exist...
-            if (!devicePopManager.asymmetricKeyExists()) {
-                final String thumbprint = devicePopManager.generateAsymmetricKey();
-
-                Logger.verbosePII(
-                        TAG,
-                        "Generated new PoP asymmetric key with thumbprint: "
-                                + thumbprint
-                );
-            }
+            DevicePoPUtils.ensureAsymmetricKey(devicePopManager);
 
             final String reqCnf = devicePopManager.getRequestConfirmation();
             // Set the req_cnf
@@ -451,8 +444,8 @@ public class MicrosoftStsOAuth2Strategy
             tokenRequest.setCorrelationId(
                     UUID.fromString(
                             DiagnosticContext.INSTANCE
-                                    .getRequestContext()
-                                    .get(DiagnosticContext.CORRELATION_ID)
+                                    .getSnapshot()
+                                    .getCorrelationId()
                     )
             );
         } catch (IllegalArgumentException ex) {
@@ -482,9 +475,7 @@ public class MicrosoftStsOAuth2Strategy
             final IDevicePopManager devicePopManager =
                     mStrategyParameters.getPlatformComponents().getDefaultDevicePopManager();
 
-            if (!devicePopManager.asymmetricKeyExists()) {
-                devicePopManager.generateAsymmetricKey();
-            }
+            DevicePoPUtils.ensureAsymmetricKey(devicePopManager);
 
             request.setRequestConfirmation(devicePopManager.getRequestConfirmation());
         } else if (authScheme instanceof PopAuthenticationSchemeWithClientKeyInternal) {
@@ -559,9 +550,9 @@ public class MicrosoftStsOAuth2Strategy
         final String methodName = "#performPkeyAuthRequest";
         final String requestBody = ObjectMapper.serializeObjectToFormUrlEncoded(request);
         final Map<String, String> headers = new TreeMap<>();
-        headers.put("client-request-id", DiagnosticContext.INSTANCE.getRequestContext().get(DiagnosticContext.CORRELATION_ID));
+        headers.put("client-request-id", DiagnosticContext.INSTANCE.getSnapshot().getCorrelationId());
         headers.putAll(Device.getPlatformIdParameters());
-        headers.put(PRODUCT, DiagnosticContext.INSTANCE.getRequestContext().get(PRODUCT));
+        headers.put(PRODUCT, DiagnosticContext.INSTANCE.getSnapshot().getRequestContext().get(PRODUCT));
         headers.put(VERSION, Device.getProductVersion());
 
         headers.put(APP_PACKAGE_NAME, request.getClientAppName());
@@ -609,9 +600,8 @@ public class MicrosoftStsOAuth2Strategy
         if (response.getStatusCode() >= HttpURLConnection.HTTP_BAD_REQUEST) {
             //An error occurred
             try {
-                tokenErrorResponse = ObjectMapper.deserializeJsonStringToObject(
-                        getBodyFromUnsuccessfulResponse(response.getBody()),
-                        MicrosoftTokenErrorResponse.class
+                tokenErrorResponse = MicrosoftStsTokenResponseParser.parseErrorResponse(
+                        getBodyFromUnsuccessfulResponse(response.getBody())
                 );
             } catch (final JsonParseException ex) {
                 tokenErrorResponse = new MicrosoftTokenErrorResponse();
@@ -628,9 +618,8 @@ public class MicrosoftStsOAuth2Strategy
             }
             tokenErrorResponse.setResponseBody(response.getBody());
         } else {
-            tokenResponse = ObjectMapper.deserializeJsonStringToObject(
-                    getBodyFromSuccessfulResponse(response.getBody()),
-                    MicrosoftStsTokenResponse.class
+            tokenResponse = MicrosoftStsTokenResponseParser.parseTokenResponse(
+                    getBodyFromSuccessfulResponse(response.getBody())
             );
         }
 
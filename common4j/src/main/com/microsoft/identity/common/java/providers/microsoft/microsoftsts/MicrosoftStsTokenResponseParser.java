@@ -0,0 +1,289 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.providers.microsoft.microsoftsts;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import com.microsoft.identity.common.java.providers.microsoft.MicrosoftTokenErrorResponse;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.NonNull;
+
+/**
+ * Reads token endpoint responses in a single streaming pass, without Gson reflection.
+ * <p>
+ * Only the fields the server sends are read: values of unknown keys that are strings are kept as the
+ * extra parameters of a {@link MicrosoftStsTokenResponse} and everything else is skipped. Lenient
+ * parsing, value coercion and the exceptions thrown (all {@link com.google.gson.JsonParseException}s)
+ * match {@link com.microsoft.identity.common.java.util.ObjectMapper#deserializeJsonStringToObject(String, Class)}.
+ */
+public final class MicrosoftStsTokenResponseParser {
+
+    private MicrosoftStsTokenResponseParser() {
+        // Utility class.
+    }
+
+    private interface ObjectReader<T> {
+        T read(@NonNull JsonReader reader) throws IOException;
+    }
+
+    private static final ObjectReader<MicrosoftStsTokenResponse> TOKEN_RESPONSE_READER =
+            new ObjectReader<MicrosoftStsTokenResponse>() {
+                @Override
+                public MicrosoftStsTokenResponse read(@NonNull final JsonReader reader) throws IOException {
+                    final MicrosoftStsTokenResponse response = new MicrosoftStsTokenResponse();
+                    final Map<String, String> extraParameters = new LinkedHashMap<>();
+
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        final String name = reader.nextName();
+                        switch (name) {
+                            case "access_token":
+                                response.setAccessToken(nextString(reader));
+                                break;
+                            case "token_type":
+                                response.setTokenType(nextString(reader));
+                                break;
+                            case "expires_in":
+                                response.setExpiresIn(nextLong(reader));
+                                break;
+                            case "ext_expires_in":
+                                response.setExtExpiresIn(nextLong(reader));
+                                break;
+                            case "refresh_in":
+                                response.setRefreshIn(nextLong(reader));
+                                break;
+                            case "refresh_token":
+                                response.setRefreshToken(nextString(reader));
+                                break;
+                            case "refresh_token_expires_in":
+                                response.setRefreshTokenExpiresIn(nextString(reader));
+                                break;
+                            case "scope":
+                                response.setScope(nextString(reader));
+                                break;
+                            case "state":
+                                response.setState(nextString(reader));
+                                break;
+                            case "id_token":
+                                response.setIdToken(nextString(reader));
+                                break;
+                            case "client_info":
+                                response.setClientInfo(nextString(reader));
+                                break;
+                            case "foci":
+                                response.setFamilyId(nextString(reader));
+                                break;
+                            case "session_key_jwe":
+                                response.setSessionKeyJwe(nextString(reader));
+                                break;
+                            case "cloud_instance_host_name":
+                                response.setCloudInstanceHostName(nextString(reader));
+                                break;
+                            case "not_before":
+                                response.setExpiresNotBefore(nextString(reader));
+                                break;
+                            default:
+                                if (reader.peek() == JsonToken.STRING) {
+                                    extraParameters.put(name, reader.nextString());
+                                } else {
+                                    reader.skipValue();
+                                }
+                                break;
+                        }
+                    }
+                    reader.endObject();
+
+                    response.setExtraParameters(Collections.unmodifiableMap(extraParameters).entrySet());
+                    return response;
+                }
+            };
+
+    private static final ObjectReader<MicrosoftTokenErrorResponse> ERROR_RESPONSE_READER =
+            new ObjectReader<MicrosoftTokenErrorResponse>() {
+                @Override
+                public MicrosoftTokenErrorResponse read(@NonNull final JsonReader reader) throws IOException {
+                    final MicrosoftTokenErrorResponse response = new MicrosoftTokenErrorResponse();
+
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "error":
+                                response.setError(nextString(reader));
+                                break;
+                            case "suberror":
+                                response.setSubError(nextString(reader));
+                                break;
+                            case "error_description":
+                                response.setErrorDescription(nextString(reader));
+                                break;
+                            case "error_uri":
+                                response.setErrorUri(nextString(reader));
+                                break;
+                            case "error_codes":
+                                response.setErrorCodes(nextLongList(reader));
+                                break;
+                            case "timestamp":
+                                response.setTimeStamp(nextString(reader));
+                                break;
+                            case "trace_id":
+                                response.setTraceId(nextString(reader));
+                                break;
+                            case "correlation_id":
+                                response.setCorrelationId(nextString(reader));
+                                break;
+                            case "oAuth_metadata":
+                                response.setOAuthErrorMetadata(nextString(reader));
+                                break;
+                            default:
+                                reader.skipValue();
+                                break;
+                        }
+                    }
+                    reader.endObject();
+
+                    return response;
+                }
+            };
+
+    /**
+     * Parses a successful token endpoint response.
+     *
+     * @param json The response body.
+     * @return the parsed response, or null if the body is empty or the JSON literal null.
+     * @throws com.google.gson.JsonParseException if the body is not a valid token response.
+     */
+    @Nullable
+    public static MicrosoftStsTokenResponse parseTokenResponse(@NonNull final String json) {
+        return parse(json, TOKEN_RESPONSE_READER);
+    }
+
+    /**
+     * Parses an error response from the token endpoint.
+     *
+     * @param json The response body.
+     * @return the parsed response, or null if the body is empty or the JSON literal null.
+     * @throws com.google.gson.JsonParseException if the body is not a valid error response.
+     */
+    @Nullable
+    public static MicrosoftTokenErrorResponse parseErrorResponse(@NonNull final String json) {
+        return parse(json, ERROR_RESPONSE_READER);
+    }
+
+    @Nullable
+    private static <T> T parse(@NonNull final String json, @NonNull final ObjectReader<T> objectReader) {
+        final JsonReader reader = new JsonReader(new StringReader(json));
+        reader.setLenient(true);
+
+        final T result;
+        try {
+            try {
+                reader.peek();
+            } catch (final EOFException e) {
+                // An empty document, Gson maps this to null as well.
+                return null;
+            }
+
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                result = null;
+            } else {
+                result = objectReader.read(reader);
+            }
+        } catch (final IllegalStateException | NumberFormatException | IOException e) {
+            throw new JsonSyntaxException(e);
+        }
+
+        try {
+            if (reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonIOException("JSON document was not fully consumed.");
+            }
+        } catch (final MalformedJsonException e) {
+            throw new JsonSyntaxException(e);
+        } catch (final IOException e) {
+            throw new JsonIOException(e);
+        }
+
+        return result;
+    }
+
+    /**
+     * Reads a string the way Gson does for a String field, accepting numbers and booleans as well.
+     */
+    @Nullable
+    private static String nextString(@NonNull final JsonReader reader) throws IOException {
+        final JsonToken token = reader.peek();
+
+        if (token == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        } else if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(reader.nextBoolean());
+        }
+
+        return reader.nextString();
+    }
+
+    /**
+     * Reads a long the way Gson does for a Long field, accepting numeric strings as well.
+     */
+    @Nullable
+    private static Long nextLong(@NonNull final JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+
+        return reader.nextLong();
+    }
+
+    @Nullable
+    private static List<Long> nextLongList(@NonNull final JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+
+        final List<Long> values = new ArrayList<>();
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            values.add(nextLong(reader));
+        }
+        reader.endArray();
+
+        return values;
+    }
+}
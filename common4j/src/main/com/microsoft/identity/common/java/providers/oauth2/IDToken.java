@@ -35,6 +35,7 @@ import com.nimbusds.jwt.JWTParser;
 import java.text.ParseException;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import lombok.EqualsAndHashCode;
@@ -190,6 +191,26 @@ public class IDToken {
      */
     public static final String UPDATED_AT = "updated_at";
 
+    /**
+     * Maximum number of parsed tokens kept in {@link #sParsedClaimsCache}.
+     */
+    private static final int MAX_PARSED_CLAIMS_CACHE_SIZE = 16;
+
+    /**
+     * Claims of recently parsed tokens, keyed by the raw token. A single token response is
+     * inspected by several components (schema validation, account and credential creation), so
+     * this makes each raw token go through {@link JWTParser} only once.
+     */
+    private static final Map<String, Map<String, ?>> sParsedClaimsCache =
+            Collections.synchronizedMap(new LinkedHashMap<String, Map<String, ?>>(
+                    MAX_PARSED_CLAIMS_CACHE_SIZE + 1, 0.75f, true
+            ) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, Map<String, ?>> eldest) {
+                    return size() > MAX_PARSED_CLAIMS_CACHE_SIZE;
+                }
+            });
+
     private final Map<String, ?> mTokenClaims;
     private final String mRawIdToken;
 
@@ -225,9 +246,18 @@ public class IDToken {
         return mTokenClaims == null ? Collections.<String, Object>emptyMap() : Collections.unmodifiableMap(mTokenClaims);
     }
 
+    /**
+     * Parses the claims of a JWT. Results are cached by token content; the returned map is
+     * shared and must not be modified.
+     */
     public static Map<String, ?> parseJWT(@NonNull final String rawIdToken) throws ServiceException {
         final String methodName = ":getClaims(String)";
 
+        final Map<String, ?> cached = sParsedClaimsCache.get(rawIdToken);
+        if (cached != null) {
+            return cached;
+        }
+
         final Map<String, Object> result = new HashMap<>();
 
         try {
@@ -244,7 +274,16 @@ public class IDToken {
             throw new ServiceException("Failed to parse JWT", ErrorStrings.INVALID_JWT, e);
         }
 
-        return result;
+        final Map<String, ?> claims = Collections.unmodifiableMap(result);
+        sParsedClaimsCache.put(rawIdToken, claims);
+        return claims;
+    }
+
+    /**
+     * Clears the parsed claims cache.
+     */
+    public static void clearParsedClaimsCache() {
+        sParsedClaimsCache.clear();
     }
 
     public String getStringClaim(@NonNull final String claimName) {
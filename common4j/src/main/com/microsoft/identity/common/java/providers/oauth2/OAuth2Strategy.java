@@ -22,7 +22,6 @@
 // THE SOFTWARE.
 package com.microsoft.identity.common.java.providers.oauth2;
 
-import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import com.microsoft.identity.common.java.AuthenticationConstants;
 import com.microsoft.identity.common.java.BaseAccount;
@@ -53,6 +52,7 @@ import com.microsoft.identity.common.java.telemetry.Telemetry;
 import com.microsoft.identity.common.java.telemetry.TelemetryEventStrings;
 import com.microsoft.identity.common.java.telemetry.events.UiShownEvent;
 import com.microsoft.identity.common.java.util.CommonURIBuilder;
+import com.microsoft.identity.common.java.util.GsonRegistry;
 import com.microsoft.identity.common.java.util.IClockSkewManager;
 import com.microsoft.identity.common.java.util.ObjectMapper;
 import com.microsoft.identity.common.java.util.StringUtil;
@@ -199,7 +199,7 @@ public abstract class OAuth2Strategy
 
         final String requestBody = getRequestBody(request);
         final Map<String, String> headers = new TreeMap<>();
-        headers.put(CLIENT_REQUEST_ID, DiagnosticContext.INSTANCE.getRequestContext().get(DiagnosticContext.CORRELATION_ID));
+        headers.put(CLIENT_REQUEST_ID, DiagnosticContext.INSTANCE.getSnapshot().getCorrelationId());
 
         if (request instanceof MicrosoftTokenRequest &&
                 !StringUtil.isNullOrEmpty(((MicrosoftTokenRequest) request).getBrokerVersion())) {
@@ -210,7 +210,7 @@ public abstract class OAuth2Strategy
         }
         headers.putAll(Device.getPlatformIdParameters());
         headers.put(AuthenticationConstants.SdkPlatformFields.PRODUCT,
-                DiagnosticContext.INSTANCE.getRequestContext().get(AuthenticationConstants.SdkPlatformFields.PRODUCT));
+                DiagnosticContext.INSTANCE.getSnapshot().getRequestContext().get(AuthenticationConstants.SdkPlatformFields.PRODUCT));
         headers.put(AuthenticationConstants.SdkPlatformFields.VERSION, Device.getProductVersion());
         headers.putAll(EstsTelemetry.getInstance().getTelemetryHeaders());
         headers.put(HttpConstants.HeaderField.CONTENT_TYPE, TOKEN_REQUEST_CONTENT_TYPE);
@@ -305,7 +305,7 @@ public abstract class OAuth2Strategy
         // Set up headers and request body
         final String requestBody = ObjectMapper.serializeObjectToFormUrlEncoded(authorizationRequest);
         final Map<String, String> headers = new TreeMap<>();
-        headers.put(CLIENT_REQUEST_ID, DiagnosticContext.INSTANCE.getRequestContext().get(DiagnosticContext.CORRELATION_ID));
+        headers.put(CLIENT_REQUEST_ID, DiagnosticContext.INSTANCE.getSnapshot().getCorrelationId());
         headers.putAll(EstsTelemetry.getInstance().getTelemetryHeaders());
         headers.put(HttpConstants.HeaderField.CONTENT_TYPE, DEVICE_CODE_CONTENT_TYPE);
 
@@ -321,7 +321,7 @@ public abstract class OAuth2Strategy
         // Any code below 300 (HTTP_MULT_CHOICE) is considered a success
         if (response.getStatusCode() < HttpsURLConnection.HTTP_MULT_CHOICE) {
             // Get and parse response body
-            final HashMap<String, String> parsedResponseBody = new Gson().fromJson(
+            final HashMap<String, String> parsedResponseBody = GsonRegistry.DEFAULT.fromJson(
                     response.getBody(),
                     TypeToken.getParameterized(HashMap.class, String.class, String.class)
                             .getType()
@@ -346,7 +346,7 @@ public abstract class OAuth2Strategy
         // Request failed
         else {
             // Get and parse response body
-            final HashMap<String, Object> parsedResponseBody = new Gson().fromJson(
+            final HashMap<String, Object> parsedResponseBody = GsonRegistry.DEFAULT.fromJson(
                     response.getBody(),
                     TypeToken.getParameterized(HashMap.class, String.class, Object.class)
                             .getType()
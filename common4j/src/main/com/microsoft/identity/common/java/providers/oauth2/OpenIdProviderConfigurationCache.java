@@ -0,0 +1,389 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.providers.oauth2;
+
+import static com.microsoft.identity.common.java.exception.ServiceException.OPENID_PROVIDER_CONFIGURATION_FAILED_TO_LOAD;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.annotations.SerializedName;
+import com.microsoft.identity.common.java.exception.ServiceException;
+import com.microsoft.identity.common.java.interfaces.INameValueStorage;
+import com.microsoft.identity.common.java.logging.Logger;
+import com.microsoft.identity.common.java.util.ObjectMapper;
+import com.microsoft.identity.common.java.util.ResultFuture;
+import com.microsoft.identity.common.java.util.StringUtil;
+import com.microsoft.identity.common.java.util.ThreadUtils;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.experimental.Accessors;
+
+/**
+ * A concurrent, size-bounded cache of {@link OpenIdProviderConfiguration}, keyed by the
+ * well-known configuration URI.
+ *
+ * - Lookups for different URIs never block one another.
+ * - Concurrent misses for the same URI are coalesced into a single network request.
+ * - Entries expire after {@link #getTimeToLiveMillis()}. Entries older than
+ *   {@link #getRefreshAfterMillis()} are still served, but are refreshed in the background.
+ * - Entries can optionally be persisted via {@link #setStorage(INameValueStorage)}.
+ */
+public class OpenIdProviderConfigurationCache {
+
+    private static final String TAG = OpenIdProviderConfigurationCache.class.getSimpleName();
+
+    /**
+     * Name of the store holding persisted OpenID provider configurations.
+     */
+    public static final String OPENID_CONFIGURATION_STORAGE_FILE = "com.microsoft.identity.client.openid_configuration";
+
+    public static final long DEFAULT_TIME_TO_LIVE_MILLIS = TimeUnit.DAYS.toMillis(1);
+    public static final long DEFAULT_REFRESH_AFTER_MILLIS = TimeUnit.HOURS.toMillis(12);
+    public static final int DEFAULT_MAX_ENTRIES = 64;
+
+    private static final int REFRESH_POOL_SIZE = 2;
+    private static final ExecutorService sRefreshExecutor = createRefreshExecutor();
+
+    /**
+     * Loads an {@link OpenIdProviderConfiguration} from its source of truth (i.e. the network).
+     */
+    public interface IConfigurationLoader {
+        @NonNull
+        OpenIdProviderConfiguration load(@NonNull URI configUrl) throws ServiceException;
+    }
+
+    private final ConcurrentMap<URI, CacheEntry> mEntries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<URI, ResultFuture<OpenIdProviderConfiguration>> mInFlightLoads = new ConcurrentHashMap<>();
+
+    @Getter
+    @Accessors(prefix = "m")
+    private final long mTimeToLiveMillis;
+
+    @Getter
+    @Accessors(prefix = "m")
+    private final long mRefreshAfterMillis;
+
+    @Getter
+    @Accessors(prefix = "m")
+    private final int mMaxEntries;
+
+    private volatile INameValueStorage<String> mStorage = null;
+
+    private final AtomicLong mHitCount = new AtomicLong();
+    private final AtomicLong mMissCount = new AtomicLong();
+    private final AtomicLong mCoalescedCount = new AtomicLong();
+    private final AtomicLong mRefreshCount = new AtomicLong();
+    private final AtomicLong mLoadFailureCount = new AtomicLong();
+    private final AtomicLong mEvictionCount = new AtomicLong();
+
+    public OpenIdProviderConfigurationCache() {
+        this(DEFAULT_TIME_TO_LIVE_MILLIS, DEFAULT_REFRESH_AFTER_MILLIS, DEFAULT_MAX_ENTRIES);
+    }
+
+    public OpenIdProviderConfigurationCache(final long timeToLiveMillis,
+                                            final long refreshAfterMillis,
+                                            final int maxEntries) {
+        mTimeToLiveMillis = timeToLiveMillis;
+        mRefreshAfterMillis = refreshAfterMillis;
+        mMaxEntries = maxEntries;
+    }
+
+    /**
+     * Sets a storage to persist the entries into, so that they survive process restarts.
+     * Passing null disables persistence.
+     */
+    public void setStorage(@Nullable final INameValueStorage<String> storage) {
+        mStorage = storage;
+    }
+
+    /**
+     * Gets the configuration for the given URI, loading it with the loader if it is not cached
+     * or has expired.
+     *
+     * @param configUrl the well-known OpenID configuration URI.
+     * @param loader    the loader to use on a cache miss or refresh.
+     * @return the configuration.
+     * @throws ServiceException if the configuration is not cached and fails to load.
+     */
+    @NonNull
+    public OpenIdProviderConfiguration get(@NonNull final URI configUrl,
+                                           @NonNull final IConfigurationLoader loader) throws ServiceException {
+        final String methodTag = TAG + ":get";
+
+        CacheEntry entry = mEntries.get(configUrl);
+        if (entry == null) {
+            entry = loadFromStorage(configUrl);
+        }
+
+        if (entry != null) {
+            final long age = getAgeMillis(entry);
+            if (age <= mTimeToLiveMillis) {
+                mHitCount.incrementAndGet();
+                Logger.info(methodTag, "Using cached metadata result.");
+                if (age > mRefreshAfterMillis) {
+                    refreshInBackground(configUrl, loader);
+                }
+                return entry.getConfiguration();
+            }
+
+            Logger.info(methodTag, "Cached metadata result is expired.");
+            remove(configUrl, entry);
+        }
+
+        mMissCount.incrementAndGet();
+
+        final ResultFuture<OpenIdProviderConfiguration> future = new ResultFuture<>();
+        final ResultFuture<OpenIdProviderConfiguration> inFlight = mInFlightLoads.putIfAbsent(configUrl, future);
+        if (inFlight != null) {
+            mCoalescedCount.incrementAndGet();
+            Logger.verbose(methodTag, "Metadata request is already in progress. Waiting for it.");
+            return await(inFlight);
+        }
+
+        load(configUrl, loader, future);
+        return await(future);
+    }
+
+    /**
+     * Removes all entries, including persisted ones.
+     */
+    public void clear() {
+        mEntries.clear();
+        final INameValueStorage<String> storage = mStorage;
+        if (storage != null) {
+            storage.clear();
+        }
+    }
+
+    public int size() {
+        return mEntries.size();
+    }
+
+    public long getHitCount() {
+        return mHitCount.get();
+    }
+
+    public long getMissCount() {
+        return mMissCount.get();
+    }
+
+    /**
+     * @return number of misses that joined a request already in progress for the same URI.
+     */
+    public long getCoalescedCount() {
+        return mCoalescedCount.get();
+    }
+
+    public long getRefreshCount() {
+        return mRefreshCount.get();
+    }
+
+    public long getLoadFailureCount() {
+        return mLoadFailureCount.get();
+    }
+
+    public long getEvictionCount() {
+        return mEvictionCount.get();
+    }
+
+    private void refreshInBackground(@NonNull final URI configUrl,
+                                     @NonNull final IConfigurationLoader loader) {
+        final ResultFuture<OpenIdProviderConfiguration> future = new ResultFuture<>();
+        if (mInFlightLoads.putIfAbsent(configUrl, future) != null) {
+            // Already being loaded.
+            return;
+        }
+
+        mRefreshCount.incrementAndGet();
+        sRefreshExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                load(configUrl, loader, future);
+            }
+        });
+    }
+
+    private void load(@NonNull final URI configUrl,
+                      @NonNull final IConfigurationLoader loader,
+                      @NonNull final ResultFuture<OpenIdProviderConfiguration> future) {
+        try {
+            final OpenIdProviderConfiguration configuration = loader.load(configUrl);
+            put(configUrl, new CacheEntry(System.currentTimeMillis(), configuration));
+            future.setResult(configuration);
+        } catch (final Exception e) {
+            mLoadFailureCount.incrementAndGet();
+            Logger.warn(TAG + ":load", "Failed to load metadata: " + e.getMessage());
+            future.setException(e);
+        } finally {
+            mInFlightLoads.remove(configUrl, future);
+        }
+    }
+
+    private void put(@NonNull final URI configUrl, @NonNull final CacheEntry entry) {
+        mEntries.put(configUrl, entry);
+        evictIfNeeded();
+
+        final INameValueStorage<String> storage = mStorage;
+        if (storage != null) {
+            storage.put(configUrl.toString(), ObjectMapper.serializeObjectToJsonString(entry));
+        }
+    }
+
+    private void remove(@NonNull final URI configUrl, @NonNull final CacheEntry entry) {
+        mEntries.remove(configUrl, entry);
+
+        final INameValueStorage<String> storage = mStorage;
+        if (storage != null) {
+            storage.remove(configUrl.toString());
+        }
+    }
+
+    /**
+     * Evicts the oldest entries until the cache is within its bound.
+     * The bound is small, so a linear scan is cheaper than maintaining an access-ordered structure.
+     */
+    private void evictIfNeeded() {
+        while (mEntries.size() > mMaxEntries) {
+            Map.Entry<URI, CacheEntry> oldest = null;
+            for (final Map.Entry<URI, CacheEntry> candidate : mEntries.entrySet()) {
+                if (oldest == null || candidate.getValue().getTimestamp() < oldest.getValue().getTimestamp()) {
+                    oldest = candidate;
+                }
+            }
+
+            if (oldest == null) {
+                return;
+            }
+
+            if (mEntries.remove(oldest.getKey(), oldest.getValue())) {
+                mEvictionCount.incrementAndGet();
+                final INameValueStorage<String> storage = mStorage;
+                if (storage != null) {
+                    storage.remove(oldest.getKey().toString());
+                }
+            }
+        }
+    }
+
+    @Nullable
+    private CacheEntry loadFromStorage(@NonNull final URI configUrl) {
+        final INameValueStorage<String> storage = mStorage;
+        if (storage == null) {
+            return null;
+        }
+
+        final String rawValue = storage.get(configUrl.toString());
+        if (StringUtil.isNullOrEmpty(rawValue)) {
+            return null;
+        }
+
+        final CacheEntry entry;
+        try {
+            entry = ObjectMapper.deserializeJsonStringToObject(rawValue, CacheEntry.class);
+        } catch (final JsonParseException e) {
+            Logger.warn(TAG + ":loadFromStorage", "Unable to read persisted metadata: " + e.getMessage());
+            storage.remove(configUrl.toString());
+            return null;
+        }
+
+        if (entry == null || entry.getConfiguration() == null) {
+            storage.remove(configUrl.toString());
+            return null;
+        }
+
+        final CacheEntry existing = mEntries.putIfAbsent(configUrl, entry);
+        if (existing != null) {
+            return existing;
+        }
+
+        evictIfNeeded();
+        return entry;
+    }
+
+    private static long getAgeMillis(@NonNull final CacheEntry entry) {
+        // A timestamp in the future means the device clock moved backwards; treat it as expired.
+        final long age = System.currentTimeMillis() - entry.getTimestamp();
+        return age < 0 ? Long.MAX_VALUE : age;
+    }
+
+    @NonNull
+    private static OpenIdProviderConfiguration await(@NonNull final ResultFuture<OpenIdProviderConfiguration> future)
+            throws ServiceException {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException(
+                    OPENID_PROVIDER_CONFIGURATION_FAILED_TO_LOAD,
+                    "Interrupted while requesting metadata",
+                    e
+            );
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof ServiceException) {
+                throw (ServiceException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new ServiceException(
+                    OPENID_PROVIDER_CONFIGURATION_FAILED_TO_LOAD,
+                    "Failed to request metadata",
+                    cause
+            );
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    @Accessors(prefix = "m")
+    private static class CacheEntry {
+        @SerializedName("timestamp")
+        private final long mTimestamp;
+
+        @SerializedName("configuration")
+        private final OpenIdProviderConfiguration mConfiguration;
+    }
+
+    /**
+     * With an unbounded queue the pool never grows past its core size, so core and max are equal
+     * and idle threads are allowed to time out instead.
+     */
+    private static ExecutorService createRefreshExecutor() {
+        final ExecutorService executor = ThreadUtils.getNamedThreadPoolExecutor(
+                REFRESH_POOL_SIZE, REFRESH_POOL_SIZE, -1, 60, TimeUnit.SECONDS, "openid-config-refresh");
+        ((ThreadPoolExecutor) executor).allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
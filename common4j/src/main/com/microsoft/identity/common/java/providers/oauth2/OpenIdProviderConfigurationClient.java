@@ -31,6 +31,7 @@ import com.microsoft.identity.common.java.net.HttpClient;
 import com.microsoft.identity.common.java.net.HttpResponse;
 import com.microsoft.identity.common.java.net.UrlConnectionHttpClient;
 import com.microsoft.identity.common.java.util.CommonURIBuilder;
+import com.microsoft.identity.common.java.util.GsonRegistry;
 import com.microsoft.identity.common.java.util.StringUtil;
 import com.microsoft.identity.common.java.util.TaskCompletedCallbackWithError;
 
@@ -39,7 +40,6 @@ import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.HashMap;
-import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -55,14 +55,22 @@ public class OpenIdProviderConfigurationClient {
     private static final String WELL_KNOWN_CONFIG_HOST = "login.microsoftonline.com";
     private static final String WELL_KNOWN_CONFIG_PATH = "/v2.0/.well-known/openid-configuration";
     private static final ExecutorService sBackgroundExecutor = Executors.newCachedThreadPool();
-    private static final Map<URI, OpenIdProviderConfiguration> sConfigCache = new HashMap<>();
+    private static final OpenIdProviderConfigurationCache sConfigCache = new OpenIdProviderConfigurationCache();
     private static final HttpClient httpClient = UrlConnectionHttpClient.getDefaultInstance();
 
     public interface OpenIdProviderConfigurationCallback
             extends TaskCompletedCallbackWithError<OpenIdProviderConfiguration, Exception> {
     }
 
-    private static final Gson GSON = new Gson();
+    private static final Gson GSON = GsonRegistry.DEFAULT;
+
+    /**
+     * Gets the process-wide cache of OpenID provider configurations shared by all clients.
+     * Can be used to enable persistence or to read cache metrics.
+     */
+    public static OpenIdProviderConfigurationCache getConfigurationCache() {
+        return sConfigCache;
+    }
 
     private String sanitize(@NonNull final String issuer) {
         String sanitizedIssuer = issuer.trim();
@@ -93,7 +101,7 @@ public class OpenIdProviderConfigurationClient {
      *
      * @return OpenIdProviderConfiguration
      */
-    public synchronized OpenIdProviderConfiguration loadOpenIdProviderConfigurationFromTenant(@NonNull final String tenantIdentifier)
+    public OpenIdProviderConfiguration loadOpenIdProviderConfigurationFromTenant(@NonNull final String tenantIdentifier)
             throws ServiceException {
         try {
             final String tenantedAuthorityUrl = new CommonURIBuilder()
@@ -116,7 +124,7 @@ public class OpenIdProviderConfigurationClient {
      *
      * @return OpenIdProviderConfiguration
      */
-    public synchronized OpenIdProviderConfiguration loadOpenIdProviderConfigurationFromAuthority(@NonNull final String authorityUrl)
+    public OpenIdProviderConfiguration loadOpenIdProviderConfigurationFromAuthority(@NonNull final String authorityUrl)
             throws ServiceException {
         return loadOpenIdProviderConfigurationInternal(authorityUrl, null);
     }
@@ -126,7 +134,7 @@ public class OpenIdProviderConfigurationClient {
      *
      * @return OpenIdProviderConfiguration
      */
-    public synchronized OpenIdProviderConfiguration loadOpenIdProviderConfigurationFromAuthorityWithExtraParams(@NonNull final String authorityUrl, @NonNull final String extraParams)
+    public OpenIdProviderConfiguration loadOpenIdProviderConfigurationFromAuthorityWithExtraParams(@NonNull final String authorityUrl, @NonNull final String extraParams)
             throws ServiceException {
         return loadOpenIdProviderConfigurationInternal(authorityUrl, extraParams);
     }
@@ -136,10 +144,8 @@ public class OpenIdProviderConfigurationClient {
      *
      * @return OpenIdProviderConfiguration
      */
-    private synchronized OpenIdProviderConfiguration loadOpenIdProviderConfigurationInternal(@NonNull final String tenantedAuthorityString, final String extraParams)
+    private OpenIdProviderConfiguration loadOpenIdProviderConfigurationInternal(@NonNull final String tenantedAuthorityString, final String extraParams)
             throws ServiceException {
-        final String methodName = ":loadOpenIdProviderConfiguration";
-
         try {
             final String uriString;
             if (extraParams != null) {
@@ -149,18 +155,27 @@ public class OpenIdProviderConfigurationClient {
             }
             final URI configUrl = new URI(uriString);
 
-            // Check first for a cached copy...
-            final OpenIdProviderConfiguration cacheResult = sConfigCache.get(configUrl);
+            return sConfigCache.get(configUrl, new OpenIdProviderConfigurationCache.IConfigurationLoader() {
+                @Override
+                @NonNull
+                public OpenIdProviderConfiguration load(@NonNull final URI url) throws ServiceException {
+                    return fetchOpenIdProviderConfiguration(url);
+                }
+            });
+        } catch (final URISyntaxException e) {
+            throw new ServiceException(
+                    OPENID_PROVIDER_CONFIGURATION_FAILED_TO_LOAD,
+                    "IOException while requesting metadata",
+                    e
+            );
+        }
+    }
 
-            // If we found a result, return it...
-            if (null != cacheResult) {
-                Logger.info(
-                        TAG + methodName,
-                        "Using cached metadata result."
-                );
-                return cacheResult;
-            }
+    private OpenIdProviderConfiguration fetchOpenIdProviderConfiguration(@NonNull final URI configUrl)
+            throws ServiceException {
+        final String methodName = ":fetchOpenIdProviderConfiguration";
 
+        try {
             Logger.verbose(
                     TAG + methodName,
                     "Config URL is valid."
@@ -186,15 +201,10 @@ public class OpenIdProviderConfigurationClient {
                 );
             }
 
-            final OpenIdProviderConfiguration parsedConfig = parseMetadata(
+            return parseMetadata(
                     providerConfigResponse.getBody()
             );
-
-            // Cache our config in memory for later
-            cacheConfiguration(configUrl, parsedConfig);
-
-            return parsedConfig;
-        } catch (final IOException | URISyntaxException e) {
+        } catch (final IOException e) {
             throw new ServiceException(
                     OPENID_PROVIDER_CONFIGURATION_FAILED_TO_LOAD,
                     "IOException while requesting metadata",
@@ -203,11 +213,6 @@ public class OpenIdProviderConfigurationClient {
         }
     }
 
-    private void cacheConfiguration(@NonNull final URI configUrl,
-                                    @NonNull final OpenIdProviderConfiguration parsedConfig) {
-        sConfigCache.put(configUrl, parsedConfig);
-    }
-
     private OpenIdProviderConfiguration parseMetadata(@NonNull final String body) {
         return GSON.fromJson(body, OpenIdProviderConfiguration.class);
     }
@@ -22,17 +22,16 @@
 // THE SOFTWARE.
 package com.microsoft.identity.common.java.telemetry;
 
-import static com.microsoft.identity.common.java.logging.DiagnosticContext.CORRELATION_ID;
-import static com.microsoft.identity.common.java.telemetry.TelemetryEventStrings.Key;
-
 import com.microsoft.identity.common.java.WarningType;
 import com.microsoft.identity.common.java.logging.DiagnosticContext;
 import com.microsoft.identity.common.java.logging.Logger;
 import com.microsoft.identity.common.java.telemetry.adapter.BrokerTelemetryAdapter;
+import com.microsoft.identity.common.java.telemetry.adapter.ITelemetryAdapter;
 import com.microsoft.identity.common.java.telemetry.adapter.TelemetryAggregationAdapter;
 import com.microsoft.identity.common.java.telemetry.adapter.TelemetryDefaultAdapter;
 import com.microsoft.identity.common.java.telemetry.events.BaseEvent;
 import com.microsoft.identity.common.java.telemetry.observers.IBrokerTelemetryObserver;
+import com.microsoft.identity.common.java.telemetry.observers.ITelemetryBatchObserver;
 import com.microsoft.identity.common.java.telemetry.observers.ITelemetryAggregatedObserver;
 import com.microsoft.identity.common.java.telemetry.observers.ITelemetryDefaultObserver;
 import com.microsoft.identity.common.java.telemetry.observers.ITelemetryObserver;
@@ -46,9 +45,12 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
+import edu.umd.cs.findbugs.annotations.Nullable;
 import lombok.NonNull;
 
 /**
@@ -64,7 +66,18 @@ public class Telemetry {
     @SuppressWarnings(WarningType.rawtype_warning)
     private static Queue<ITelemetryObserver> mObservers;
 
-    private Queue<Map<String, String>> mTelemetryRawDataMap;
+    // Adapters are stateless apart from their observer, so they are created once per observer.
+    @SuppressWarnings(WarningType.rawtype_warning)
+    private static final ConcurrentMap<ITelemetryObserver, ITelemetryAdapter<List<Map<String, String>>>> sAdapters =
+            new ConcurrentHashMap<>();
+
+    // Likewise for the collectors which gather a batch for an ITelemetryBatchObserver.
+    @SuppressWarnings(WarningType.rawtype_warning)
+    private static final ConcurrentMap<ITelemetryObserver, BatchCollector> sBatchCollectors =
+            new ConcurrentHashMap<>();
+
+    private TelemetryEventStore mTelemetryEventStore;
+    private TelemetryDispatcher mDispatcher;
     private TelemetryConfiguration mDefaultConfiguration;
     private AbstractTelemetryContext mTelemetryContext;
     private boolean mIsDebugging;
@@ -93,7 +106,19 @@ public class Telemetry {
             mDefaultConfiguration = builder.mDefaultConfiguration;
             mTelemetryContext = builder.mTelemetryContext;
             mIsDebugging = builder.mIsDebugging;
-            mTelemetryRawDataMap = new ConcurrentLinkedQueue<>();
+            mTelemetryEventStore = new TelemetryEventStore();
+            if (mDefaultConfiguration.isAsyncDispatchEnabled()) {
+                mDispatcher = new TelemetryDispatcher(
+                        mDefaultConfiguration.getDispatchBufferCapacity(),
+                        mDefaultConfiguration.getDispatchBatchSize(),
+                        mDefaultConfiguration.getDispatchBatchWindowMillis(),
+                        new TelemetryDispatcher.IBatchHandler() {
+                            @Override
+                            public void onBatch(@NonNull final List<List<Map<String, String>>> batch) {
+                                dispatchToObservers(batch);
+                            }
+                        });
+            }
         }
     }
 
@@ -120,8 +145,8 @@ public class Telemetry {
         return sTelemetryInstance;
     }
 
-    private synchronized Queue<Map<String, String>> getRequestMap() {
-        return mTelemetryRawDataMap;
+    private TelemetryEventStore getEventStore() {
+        return mTelemetryEventStore;
     }
 
     /**
@@ -139,8 +164,17 @@ public class Telemetry {
             mObservers = new ConcurrentLinkedQueue<>();
         }
 
-        if (!mObservers.contains(observer))
+        if (!mObservers.contains(observer)) {
             mObservers.add(observer);
+            final ITelemetryAdapter<List<Map<String, String>>> adapter = createAdapter(observer);
+            if (adapter != null) {
+                sAdapters.put(observer, adapter);
+            }
+            final BatchCollector collector = BatchCollector.create(observer);
+            if (collector != null) {
+                sBatchCollectors.put(observer, collector);
+            }
+        }
     }
 
     /**
@@ -163,9 +197,12 @@ public class Telemetry {
         @SuppressWarnings(WarningType.rawtype_warning) final Iterator<ITelemetryObserver> observerIterator = mObservers.iterator();
 
         while (observerIterator.hasNext()) {
-            if (observerIterator.next().getClass() == cls) {
+            @SuppressWarnings(WarningType.rawtype_warning) final ITelemetryObserver observer = observerIterator.next();
+            if (observer.getClass() == cls) {
                 Logger.verbose(TAG, "The [" + cls.getSimpleName() + "] observer is removed.");
                 observerIterator.remove();
+                sAdapters.remove(observer);
+                sBatchCollectors.remove(observer);
             }
         }
     }
@@ -187,6 +224,8 @@ public class Telemetry {
         }
 
         mObservers.remove(observer);
+        sAdapters.remove(observer);
+        sBatchCollectors.remove(observer);
     }
 
     // Visible for testing.
@@ -196,6 +235,8 @@ public class Telemetry {
         }
 
         mObservers.clear();
+        sAdapters.clear();
+        sBatchCollectors.clear();
     }
 
     /**
@@ -225,7 +266,7 @@ public class Telemetry {
         final Telemetry instance = getInstance();
         if (instance.mIsTelemetryEnabled) {
             //only enqueue the telemetry properties when the telemetry is enabled.
-            instance.getRequestMap().add(event.getProperties());
+            instance.getEventStore().add(event.getProperties());
         }
     }
 
@@ -234,7 +275,7 @@ public class Telemetry {
      */
     public void flush() {
         if (getInstance().mIsTelemetryEnabled) {
-            flush(DiagnosticContext.INSTANCE.getRequestContext().get(CORRELATION_ID));
+            flush(DiagnosticContext.INSTANCE.getSnapshot().getCorrelationId());
         }
     }
 
@@ -261,12 +302,8 @@ public class Telemetry {
 
         final List<Map<String, String>> finalRawMap = new CopyOnWriteArrayList<>();
 
-        for (Iterator<Map<String, String>> iterator = mTelemetryRawDataMap.iterator(); iterator.hasNext(); ) {
-            Map<String, String> event = iterator.next();
-            if (correlationId.equalsIgnoreCase(event.get(Key.CORRELATION_ID))) {
-                finalRawMap.add(applyPiiOiiRule(event));
-                iterator.remove();
-            }
+        for (final Map<String, String> event : mTelemetryEventStore.drain(correlationId)) {
+            finalRawMap.add(applyPiiOiiRule(event));
         }
 
         processRawMap(finalRawMap);
@@ -284,17 +321,68 @@ public class Telemetry {
             return;
         }
 
-        for (@SuppressWarnings(WarningType.rawtype_warning) ITelemetryObserver observer : mObservers) {
-            if (observer instanceof IBrokerTelemetryObserver) {
-                new BrokerTelemetryAdapter((IBrokerTelemetryObserver) observer).process(finalRawMap);
-            } else if (observer instanceof ITelemetryAggregatedObserver) {
-                new TelemetryAggregationAdapter((ITelemetryAggregatedObserver) observer).process(finalRawMap);
-            } else if (observer instanceof ITelemetryDefaultObserver) {
-                new TelemetryDefaultAdapter((ITelemetryDefaultObserver) observer).process(finalRawMap);
-            } else {
+        if (mDispatcher != null) {
+            mDispatcher.submit(finalRawMap);
+        } else {
+            dispatchToObservers(Collections.singletonList(finalRawMap));
+        }
+    }
+
+    /**
+     * Pass the raw maps of one or more requests to the observers. Observers which implement
+     * {@link ITelemetryBatchObserver} get the whole batch in one call when dispatching asynchronously.
+     */
+    // Suppressing rawtype/unchecked warnings due to the generic type ITelemetryObserver
+    @SuppressWarnings({WarningType.rawtype_warning, WarningType.unchecked_warning})
+    private void dispatchToObservers(final List<List<Map<String, String>>> batch) {
+        if (null == mObservers) {
+            return;
+        }
+
+        for (final ITelemetryObserver observer : mObservers) {
+            if (mDispatcher != null && observer instanceof ITelemetryBatchObserver) {
+                BatchCollector collector = sBatchCollectors.get(observer);
+                if (collector == null) {
+                    collector = BatchCollector.create(observer);
+                }
+
+                if (collector == null) {
+                    Logger.warn(TAG, "Unknown observer type: " + observer.getClass());
+                    continue;
+                }
+
+                ((ITelemetryBatchObserver) observer).onBatchReceived(collector.collect(batch));
+                continue;
+            }
+
+            ITelemetryAdapter<List<Map<String, String>>> adapter = sAdapters.get(observer);
+            if (adapter == null) {
+                adapter = createAdapter(observer);
+            }
+
+            if (adapter == null) {
                 Logger.warn(TAG, "Unknown observer type: " + observer.getClass());
+                continue;
             }
+
+            for (final List<Map<String, String>> rawMap : batch) {
+                adapter.process(rawMap);
+            }
+        }
+    }
+
+    @Nullable
+    private static ITelemetryAdapter<List<Map<String, String>>> createAdapter(
+            @SuppressWarnings(WarningType.rawtype_warning) @Nullable final ITelemetryObserver observer) {
+        if (observer instanceof IBrokerTelemetryObserver) {
+            return new BrokerTelemetryAdapter((IBrokerTelemetryObserver) observer);
+        } else if (observer instanceof ITelemetryAggregatedObserver) {
+            return new TelemetryAggregationAdapter((ITelemetryAggregatedObserver) observer);
+        } else if (observer instanceof ITelemetryDefaultObserver) {
+            return new TelemetryDefaultAdapter((ITelemetryDefaultObserver) observer);
         }
+
+        return null;
     }
 
     /**
@@ -302,7 +390,7 @@ public class Telemetry {
      */
     public List<Map<String, String>> getMap() {
         if (getInstance().mIsTelemetryEnabled) {
-            return getMap(DiagnosticContext.INSTANCE.getRequestContext().get(CORRELATION_ID));
+            return getMap(DiagnosticContext.INSTANCE.getSnapshot().getCorrelationId());
         }
         return Collections.emptyList();
     }
@@ -329,13 +417,10 @@ public class Telemetry {
             return Collections.emptyList();
         }
 
-        List<Map<String, String>> finalRawMap = new ArrayList<>();
-
-        for (final Iterator<Map<String, String>> iterator = mTelemetryRawDataMap.iterator(); iterator.hasNext(); ) {
-            final Map<String, String> event = iterator.next();
-            if (correlationId.equalsIgnoreCase(event.get(Key.CORRELATION_ID))) {
-                finalRawMap.add(applyPiiOiiRule(event));
-            }
+        final List<Map<String, String>> events = mTelemetryEventStore.get(correlationId);
+        final List<Map<String, String>> finalRawMap = new ArrayList<>(events.size());
+        for (final Map<String, String> event : events) {
+            finalRawMap.add(applyPiiOiiRule(event));
         }
         return finalRawMap;
     }
@@ -356,6 +441,72 @@ public class Telemetry {
         return nonPiiProperties;
     }
 
+    /**
+     * Runs a batch through an adapter of the same kind as a {@link ITelemetryBatchObserver}, collecting
+     * what the adapter produces so that it can be handed to the observer in one call.
+     */
+    private static final class BatchCollector {
+        private final List<Object> mSink = new ArrayList<>();
+        private final ITelemetryAdapter<List<Map<String, String>>> mAdapter;
+
+        private BatchCollector(@SuppressWarnings(WarningType.rawtype_warning) @NonNull final ITelemetryObserver observer) {
+            mAdapter = createAdapter(createCollectingObserver(observer, mSink));
+        }
+
+        @Nullable
+        static BatchCollector create(@SuppressWarnings(WarningType.rawtype_warning) @NonNull final ITelemetryObserver observer) {
+            if (!(observer instanceof ITelemetryBatchObserver) || createAdapter(observer) == null) {
+                return null;
+            }
+
+            return new BatchCollector(observer);
+        }
+
+        synchronized List<Object> collect(@NonNull final List<List<Map<String, String>>> batch) {
+            try {
+                for (final List<Map<String, String>> rawMap : batch) {
+                    mAdapter.process(rawMap);
+                }
+                return new ArrayList<>(mSink);
+            } finally {
+                mSink.clear();
+            }
+        }
+
+        /**
+         * Creates an observer of the same kind as the given one, which adds what it receives to the sink.
+         */
+        @Nullable
+        @SuppressWarnings(WarningType.rawtype_warning)
+        private static ITelemetryObserver createCollectingObserver(@NonNull final ITelemetryObserver observer,
+                                                                   @NonNull final List<Object> sink) {
+            if (observer instanceof IBrokerTelemetryObserver) {
+                return new IBrokerTelemetryObserver() {
+                    @Override
+                    public void onReceived(final Map<String, String> telemetryData) {
+                        sink.add(telemetryData);
+                    }
+                };
+            } else if (observer instanceof ITelemetryAggregatedObserver) {
+                return new ITelemetryAggregatedObserver() {
+                    @Override
+                    public void onReceived(final Map<String, String> telemetryData) {
+                        sink.add(telemetryData);
+                    }
+                };
+            } else if (observer instanceof ITelemetryDefaultObserver) {
+                return new ITelemetryDefaultObserver() {
+                    @Override
+                    public void onReceived(final List<Map<String, String>> telemetryData) {
+                        sink.add(telemetryData);
+                    }
+                };
+            }
+
+            return null;
+        }
+    }
+
     /**
      * API for creating {@link Telemetry} instances.
      */
@@ -38,6 +38,10 @@ public class TelemetryConfiguration implements Serializable {
         public static final String PII_ENABLED = "pii_enabled";
         public static final String NOTIFY_ON_FAILTURE_ONLY = "notify_on_failure_only";
         public static final String DEBUG_ENABLED = "debug_enabled";
+        public static final String ASYNC_DISPATCH_ENABLED = "async_dispatch_enabled";
+        public static final String DISPATCH_BUFFER_CAPACITY = "dispatch_buffer_capacity";
+        public static final String DISPATCH_BATCH_SIZE = "dispatch_batch_size";
+        public static final String DISPATCH_BATCH_WINDOW_MILLIS = "dispatch_batch_window_millis";
     }
 
     @SerializedName(SerializedNames.PII_ENABLED)
@@ -49,6 +53,18 @@ public class TelemetryConfiguration implements Serializable {
     @SerializedName(SerializedNames.DEBUG_ENABLED)
     private boolean mDebugEnabled = false;
 
+    @SerializedName(SerializedNames.ASYNC_DISPATCH_ENABLED)
+    private boolean mAsyncDispatchEnabled = false;
+
+    @SerializedName(SerializedNames.DISPATCH_BUFFER_CAPACITY)
+    private int mDispatchBufferCapacity = 256;
+
+    @SerializedName(SerializedNames.DISPATCH_BATCH_SIZE)
+    private int mDispatchBatchSize = 16;
+
+    @SerializedName(SerializedNames.DISPATCH_BATCH_WINDOW_MILLIS)
+    private long mDispatchBatchWindowMillis = 200;
+
     public TelemetryConfiguration() {
     }
 
@@ -110,4 +126,72 @@ public class TelemetryConfiguration implements Serializable {
     public void setDebugEnabled(final boolean debugEnabled) {
         mDebugEnabled = debugEnabled;
     }
+
+    /**
+     * @return true if telemetry is dispatched to the observers on a background thread.
+     */
+    public boolean isAsyncDispatchEnabled() {
+        return mAsyncDispatchEnabled;
+    }
+
+    /**
+     * If set true, flushed telemetry is queued and dispatched to the observers on a background
+     * thread, in batches, instead of on the thread which flushes it (usually a token request thread).
+     * <p>
+     * By default telemetry is dispatched synchronously.
+     *
+     * @param asyncDispatchEnabled true to dispatch telemetry asynchronously, false otherwise.
+     */
+    public void setAsyncDispatchEnabled(final boolean asyncDispatchEnabled) {
+        mAsyncDispatchEnabled = asyncDispatchEnabled;
+    }
+
+    /**
+     * @return the maximum number of flushed requests waiting to be dispatched asynchronously.
+     */
+    public int getDispatchBufferCapacity() {
+        return mDispatchBufferCapacity;
+    }
+
+    /**
+     * Sets the maximum number of flushed requests waiting to be dispatched asynchronously.
+     * Requests flushed while the buffer is full are dropped.
+     *
+     * @param dispatchBufferCapacity the buffer capacity.
+     */
+    public void setDispatchBufferCapacity(final int dispatchBufferCapacity) {
+        mDispatchBufferCapacity = dispatchBufferCapacity;
+    }
+
+    /**
+     * @return the maximum number of requests dispatched to the observers in one batch.
+     */
+    public int getDispatchBatchSize() {
+        return mDispatchBatchSize;
+    }
+
+    /**
+     * Sets the maximum number of requests dispatched to the observers in one batch.
+     *
+     * @param dispatchBatchSize the batch size.
+     */
+    public void setDispatchBatchSize(final int dispatchBatchSize) {
+        mDispatchBatchSize = dispatchBatchSize;
+    }
+
+    /**
+     * @return how long, in milliseconds, the dispatcher waits to fill a batch.
+     */
+    public long getDispatchBatchWindowMillis() {
+        return mDispatchBatchWindowMillis;
+    }
+
+    /**
+     * Sets how long, in milliseconds, the dispatcher waits to fill a batch before dispatching it.
+     *
+     * @param dispatchBatchWindowMillis the batch window.
+     */
+    public void setDispatchBatchWindowMillis(final long dispatchBatchWindowMillis) {
+        mDispatchBatchWindowMillis = dispatchBatchWindowMillis;
+    }
 }
@@ -0,0 +1,191 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.telemetry;
+
+import com.microsoft.identity.common.java.logging.Logger;
+import com.microsoft.identity.common.java.util.ThreadUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.NonNull;
+
+/**
+ * Moves delivery of flushed telemetry to the observers off the flushing thread.
+ *
+ * Flushed requests go into a bounded buffer. A single worker drains it in batches of at most
+ * {@code batchSize} requests, waiting up to {@code batchWindowMillis} to fill a batch.
+ * When the buffer is full, newly flushed requests are dropped rather than blocking the caller.
+ * The worker exits when it has been idle for a while, and is restarted on the next submit.
+ */
+class TelemetryDispatcher {
+
+    private static final String TAG = TelemetryDispatcher.class.getSimpleName();
+    private static final long WORKER_IDLE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    /**
+     * Delivers a batch of flushed requests to the observers.
+     */
+    interface IBatchHandler {
+        void onBatch(@NonNull List<List<Map<String, String>>> batch);
+    }
+
+    private final BlockingQueue<List<Map<String, String>>> mBuffer;
+    private final int mBatchSize;
+    private final long mBatchWindowMillis;
+    private final IBatchHandler mHandler;
+    private final ExecutorService mExecutor = ThreadUtils.getNamedThreadPoolExecutor(
+            0, 1, -1, 0, TimeUnit.SECONDS, "telemetry-dispatcher");
+    private final AtomicBoolean mIsWorkerRunning = new AtomicBoolean(false);
+
+    private final AtomicLong mSubmittedCount = new AtomicLong();
+    private final AtomicLong mDroppedCount = new AtomicLong();
+    private final AtomicLong mDispatchedCount = new AtomicLong();
+    private final AtomicLong mBatchCount = new AtomicLong();
+
+    TelemetryDispatcher(final int capacity,
+                        final int batchSize,
+                        final long batchWindowMillis,
+                        @NonNull final IBatchHandler handler) {
+        mBuffer = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        mBatchSize = Math.max(1, batchSize);
+        mBatchWindowMillis = Math.max(0, batchWindowMillis);
+        mHandler = handler;
+    }
+
+    /**
+     * Queues the telemetry of a flushed request for dispatch. Never blocks.
+     *
+     * @return false if the buffer is full and the request was dropped.
+     */
+    boolean submit(@NonNull final List<Map<String, String>> request) {
+        mSubmittedCount.incrementAndGet();
+        if (!mBuffer.offer(request)) {
+            final long dropped = mDroppedCount.incrementAndGet();
+            Logger.warn(TAG + ":submit", "Telemetry dispatch buffer is full. Dropped requests: " + dropped);
+            return false;
+        }
+
+        startWorkerIfNeeded();
+        return true;
+    }
+
+    long getSubmittedCount() {
+        return mSubmittedCount.get();
+    }
+
+    long getDroppedCount() {
+        return mDroppedCount.get();
+    }
+
+    long getDispatchedCount() {
+        return mDispatchedCount.get();
+    }
+
+    long getBatchCount() {
+        return mBatchCount.get();
+    }
+
+    int getPendingCount() {
+        return mBuffer.size();
+    }
+
+    private void startWorkerIfNeeded() {
+        if (mIsWorkerRunning.compareAndSet(false, true)) {
+            mExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    runWorker();
+                }
+            });
+        }
+    }
+
+    private void runWorker() {
+        final String methodTag = TAG + ":runWorker";
+
+        while (true) {
+            try {
+                final List<Map<String, String>> first = mBuffer.poll(WORKER_IDLE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    mIsWorkerRunning.set(false);
+                    // A request may have been queued after the poll timed out, but before the flag
+                    // was cleared; in that case the submitter did not start a new worker.
+                    if (mBuffer.isEmpty() || !mIsWorkerRunning.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+
+                final List<List<Map<String, String>>> batch = new ArrayList<>(mBatchSize);
+                batch.add(first);
+                fillBatch(batch);
+                dispatch(batch);
+            } catch (final InterruptedException e) {
+                Logger.warn(methodTag, "Telemetry dispatcher interrupted.");
+                mIsWorkerRunning.set(false);
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void fillBatch(@NonNull final List<List<Map<String, String>>> batch) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + mBatchWindowMillis;
+        mBuffer.drainTo(batch, mBatchSize - batch.size());
+
+        while (batch.size() < mBatchSize) {
+            final long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return;
+            }
+
+            final List<Map<String, String>> next = mBuffer.poll(remaining, TimeUnit.MILLISECONDS);
+            if (next == null) {
+                return;
+            }
+
+            batch.add(next);
+            mBuffer.drainTo(batch, mBatchSize - batch.size());
+        }
+    }
+
+    private void dispatch(@NonNull final List<List<Map<String, String>>> batch) {
+        try {
+            mHandler.onBatch(batch);
+        } catch (final RuntimeException e) {
+            // An observer failing must not stop the dispatcher.
+            Logger.error(TAG + ":dispatch", "Telemetry observer threw an exception.", e);
+        }
+
+        mBatchCount.incrementAndGet();
+        mDispatchedCount.addAndGet(batch.size());
+    }
+}
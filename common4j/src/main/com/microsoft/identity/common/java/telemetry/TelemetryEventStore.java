@@ -0,0 +1,236 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.telemetry;
+
+import static com.microsoft.identity.common.java.telemetry.TelemetryEventStrings.Key;
+
+import com.microsoft.identity.common.java.logging.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.NonNull;
+
+/**
+ * Stores raw telemetry events partitioned by correlation id, so that flushing a request only
+ * touches the events of that request.
+ *
+ * Memory is bounded in two ways:
+ * - each request keeps at most {@link #getMaxEventsPerRequest()} events (oldest are dropped).
+ * - requests which are never flushed are evicted once they have been idle for
+ *   {@link #getMaxIdleMillis()}.
+ */
+class TelemetryEventStore {
+
+    private static final String TAG = TelemetryEventStore.class.getSimpleName();
+
+    static final int DEFAULT_MAX_EVENTS_PER_REQUEST = 256;
+    static final long DEFAULT_MAX_IDLE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    // Events without a correlation id can never be flushed, but are still bounded and evicted.
+    private static final String NO_CORRELATION_ID = "";
+
+    private final ConcurrentMap<String, Partition> mPartitions = new ConcurrentHashMap<>();
+    private final int mMaxEventsPerRequest;
+    private final long mMaxIdleMillis;
+    private final AtomicLong mLastSweepMillis = new AtomicLong(System.currentTimeMillis());
+    private final AtomicLong mDroppedEventCount = new AtomicLong();
+    private final AtomicLong mEvictedRequestCount = new AtomicLong();
+
+    TelemetryEventStore() {
+        this(DEFAULT_MAX_EVENTS_PER_REQUEST, DEFAULT_MAX_IDLE_MILLIS);
+    }
+
+    TelemetryEventStore(final int maxEventsPerRequest, final long maxIdleMillis) {
+        mMaxEventsPerRequest = maxEventsPerRequest;
+        mMaxIdleMillis = maxIdleMillis;
+    }
+
+    int getMaxEventsPerRequest() {
+        return mMaxEventsPerRequest;
+    }
+
+    long getMaxIdleMillis() {
+        return mMaxIdleMillis;
+    }
+
+    /**
+     * @return number of events dropped because their request exceeded its capacity.
+     */
+    long getDroppedEventCount() {
+        return mDroppedEventCount.get();
+    }
+
+    /**
+     * @return number of requests evicted because they were never flushed.
+     */
+    long getEvictedRequestCount() {
+        return mEvictedRequestCount.get();
+    }
+
+    /**
+     * @return number of requests which currently hold events.
+     */
+    int getRequestCount() {
+        return mPartitions.size();
+    }
+
+    /**
+     * Adds an event to the partition of its correlation id.
+     */
+    void add(@NonNull final Map<String, String> event) {
+        final String key = toKey(event.get(Key.CORRELATION_ID));
+        final long now = System.currentTimeMillis();
+
+        while (true) {
+            Partition partition = mPartitions.get(key);
+            if (partition == null) {
+                final Partition newPartition = new Partition(now);
+                partition = mPartitions.putIfAbsent(key, newPartition);
+                if (partition == null) {
+                    partition = newPartition;
+                }
+            }
+
+            // A partition can be drained concurrently; if so, retry with a fresh one.
+            if (partition.add(event, now)) {
+                break;
+            }
+        }
+
+        evictIdleRequestsIfDue(now);
+    }
+
+    /**
+     * Removes and returns all events of the given correlation id.
+     */
+    @NonNull
+    List<Map<String, String>> drain(@Nullable final String correlationId) {
+        final Partition partition = mPartitions.remove(toKey(correlationId));
+        if (partition == null) {
+            return Collections.emptyList();
+        }
+
+        return partition.close();
+    }
+
+    /**
+     * Returns a copy of all events of the given correlation id, without removing them.
+     */
+    @NonNull
+    List<Map<String, String>> get(@Nullable final String correlationId) {
+        final Partition partition = mPartitions.get(toKey(correlationId));
+        if (partition == null) {
+            return Collections.emptyList();
+        }
+
+        return partition.snapshot();
+    }
+
+    void clear() {
+        mPartitions.clear();
+    }
+
+    private void evictIdleRequestsIfDue(final long now) {
+        final long lastSweep = mLastSweepMillis.get();
+        if (now - lastSweep < mMaxIdleMillis || !mLastSweepMillis.compareAndSet(lastSweep, now)) {
+            return;
+        }
+
+        for (final Iterator<Map.Entry<String, Partition>> iterator = mPartitions.entrySet().iterator(); iterator.hasNext(); ) {
+            final Map.Entry<String, Partition> entry = iterator.next();
+            if (now - entry.getValue().getLastUpdatedMillis() > mMaxIdleMillis
+                    && mPartitions.remove(entry.getKey(), entry.getValue())) {
+                entry.getValue().close();
+                mEvictedRequestCount.incrementAndGet();
+            }
+        }
+
+        Logger.verbose(TAG + ":evictIdleRequestsIfDue",
+                "Evicted requests: " + mEvictedRequestCount.get()
+                        + ", dropped events: " + mDroppedEventCount.get());
+    }
+
+    private static String toKey(@Nullable final String correlationId) {
+        // Correlation ids were historically matched with equalsIgnoreCase.
+        return correlationId == null ? NO_CORRELATION_ID : correlationId.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Events of a single request.
+     */
+    private final class Partition {
+        //@GuardedBy("this")
+        private final ArrayDeque<Map<String, String>> mEvents = new ArrayDeque<>();
+        //@GuardedBy("this")
+        private boolean mClosed = false;
+        private volatile long mLastUpdatedMillis;
+
+        Partition(final long now) {
+            mLastUpdatedMillis = now;
+        }
+
+        long getLastUpdatedMillis() {
+            return mLastUpdatedMillis;
+        }
+
+        /**
+         * @return false if the partition has been drained or evicted and can no longer accept events.
+         */
+        synchronized boolean add(@NonNull final Map<String, String> event, final long now) {
+            if (mClosed) {
+                return false;
+            }
+
+            if (mEvents.size() >= mMaxEventsPerRequest) {
+                mEvents.pollFirst();
+                mDroppedEventCount.incrementAndGet();
+            }
+
+            mEvents.addLast(event);
+            mLastUpdatedMillis = now;
+            return true;
+        }
+
+        synchronized List<Map<String, String>> snapshot() {
+            return new ArrayList<>(mEvents);
+        }
+
+        synchronized List<Map<String, String>> close() {
+            mClosed = true;
+            final List<Map<String, String>> events = new ArrayList<>(mEvents);
+            mEvents.clear();
+            return events;
+        }
+    }
+}
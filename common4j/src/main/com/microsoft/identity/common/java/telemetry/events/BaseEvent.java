@@ -35,7 +35,7 @@ public class BaseEvent extends Properties {
     public BaseEvent() {
         super();
         occurs(System.currentTimeMillis());
-        correlationId(DiagnosticContext.INSTANCE.getRequestContext().get(DiagnosticContext.CORRELATION_ID));
+        correlationId(DiagnosticContext.INSTANCE.getSnapshot().getCorrelationId());
     }
 
     @Override
@@ -0,0 +1,42 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.telemetry.observers;
+
+import java.util.List;
+
+/**
+ * A telemetry observer which can receive several telemetry payloads at once.
+ * When telemetry is dispatched asynchronously, the payloads of several requests are delivered
+ * in one {@link #onBatchReceived(List)} call; otherwise {@link #onReceived(Object)} is called
+ * for each payload, as for any other observer.
+ */
+@Deprecated
+public interface ITelemetryBatchObserver<T> extends ITelemetryObserver<T> {
+
+    /**
+     * Invoked when a batch of telemetry data is received.
+     *
+     * @param telemetryDataBatch telemetry data, in the order it was flushed.
+     */
+    void onBatchReceived(List<T> telemetryDataBatch);
+}
@@ -23,13 +23,20 @@
 package com.microsoft.identity.common.java.telemetry.relay;
 
 import com.microsoft.identity.common.java.logging.Logger;
+import com.microsoft.identity.common.java.telemetry.observers.ITelemetryBatchObserver;
 import com.microsoft.identity.common.java.telemetry.observers.ITelemetryObserver;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import lombok.NonNull;
 
 /**
  * A relay client gives the flexibility to send telemetry events to a database.
  * It extends a {@link ITelemetryObserver} and applies filter on every event captured before relaying the event to the database.
+ * Subclasses may opt in to batch delivery by also implementing {@link ITelemetryBatchObserver}, in which case
+ * {@link #onBatchReceived(List)} is used instead of {@link #onReceived(Object)} when telemetry is dispatched
+ * asynchronously; override {@link #relayEvents(List)} to write a batch to the database at once.
  *
  * @param <T>
  */
@@ -59,6 +66,32 @@ public abstract class AbstractTelemetryRelayClient<T> implements ITelemetryObser
         }
     }
 
+    /**
+     * Filters and relays a batch of events. Only invoked for subclasses which implement
+     * {@link ITelemetryBatchObserver}.
+     */
+    public void onBatchReceived(@NonNull final List<T> telemetryDataBatch) {
+        final String methodTag = TAG + ":onBatchReceived";
+
+        final List<T> filteredBatch = new ArrayList<>(telemetryDataBatch.size());
+        for (final T telemetryData : telemetryDataBatch) {
+            final T filteredData = mEventFilter != null ? mEventFilter.apply(telemetryData) : telemetryData;
+            if (filteredData != null) {
+                filteredBatch.add(filteredData);
+            }
+        }
+
+        if (filteredBatch.isEmpty()) {
+            return;
+        }
+
+        try {
+            relayEvents(filteredBatch);
+        } catch (TelemetryRelayException e) {
+            Logger.error(methodTag, "Error relaying telemetry data", e);
+        }
+    }
+
     /**
      * Add an event filter.
      */
@@ -71,6 +104,20 @@ public abstract class AbstractTelemetryRelayClient<T> implements ITelemetryObser
      */
     public abstract void relayEvent(@NonNull final T eventData) throws TelemetryRelayException;
 
+    /**
+     * Invoked when a batch of events is ready to be relayed.
+     * Relays the events one by one by default; a failure to relay one event does not stop the others.
+     */
+    public void relayEvents(@NonNull final List<T> eventDataBatch) throws TelemetryRelayException {
+        for (final T eventData : eventDataBatch) {
+            try {
+                relayEvent(eventData);
+            } catch (TelemetryRelayException e) {
+                Logger.error(TAG + ":relayEvents", "Error relaying telemetry data", e);
+            }
+        }
+    }
+
     /**
      * Flush telemetry events to the database
      */
@@ -0,0 +1,369 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.util;
+
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.annotations.SerializedName;
+import com.microsoft.identity.common.java.AuthenticationConstants;
+import com.microsoft.identity.common.java.commands.parameters.IHasExtraParameters;
+
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.NonNull;
+
+/**
+ * Writes the fields of a request object as an application/x-www-form-urlencoded string without
+ * going through JSON.
+ * <p>
+ * The output matches what {@link ObjectMapper#serializeObjectToFormUrlEncoded(Object)} produced by
+ * serializing the object with Gson and reading it back into a {@link TreeMap}: field names honor
+ * {@link SerializedName}, null, static and transient fields are skipped, keys are in alphabetical
+ * order and {@link IHasExtraParameters} entries override fields with the same name.
+ * <p>
+ * The field layout of each class is resolved once and cached. Classes with fields this encoder does
+ * not know how to render exactly like Gson (custom adapters, floating point, enums, nested objects,
+ * ...) are reported as unsupported so that callers can fall back to the JSON path.
+ */
+final class FormUrlEncoder {
+
+    private static final String HEX_DIGITS = "0123456789ABCDEF";
+
+    /**
+     * Marker cached for classes which cannot be encoded by this class.
+     */
+    private static final FormUrlEncoder UNSUPPORTED = new FormUrlEncoder(new FieldBinding[0]);
+
+    private static final Map<Class<?>, FormUrlEncoder> sEncoders = new ConcurrentHashMap<>();
+
+    /**
+     * Bindings sorted by serialized name.
+     */
+    private final FieldBinding[] mBindings;
+
+    private FormUrlEncoder(@NonNull final FieldBinding[] bindings) {
+        mBindings = bindings;
+    }
+
+    /**
+     * Returns the cached encoder for the supplied class, or null if it has to go through JSON.
+     */
+    @Nullable
+    static FormUrlEncoder forClass(@NonNull final Class<?> clazz) {
+        FormUrlEncoder encoder = sEncoders.get(clazz);
+
+        if (encoder == null) {
+            encoder = create(clazz);
+            sEncoders.put(clazz, encoder);
+        }
+
+        return encoder == UNSUPPORTED ? null : encoder;
+    }
+
+    /**
+     * Collects the non-null fields and extra parameters of the object in key order.
+     */
+    @NonNull
+    TreeMap<String, String> toMap(@NonNull final Object object) {
+        final TreeMap<String, String> fields = new TreeMap<>();
+
+        for (final FieldBinding binding : mBindings) {
+            final String value = binding.get(object);
+
+            if (value != null) {
+                fields.put(binding.mName, value);
+            }
+        }
+
+        putExtraParameters(object, fields);
+        return fields;
+    }
+
+    /**
+     * Writes the non-null fields and extra parameters of the object as key=value pairs joined by '&amp;'.
+     */
+    @NonNull
+    String encode(@NonNull final Object object) throws UnsupportedEncodingException {
+        final TreeMap<String, String> extraParams = new TreeMap<>();
+        putExtraParameters(object, extraParams);
+
+        final StringBuilder builder = new StringBuilder(256);
+
+        if (extraParams.isEmpty()) {
+            for (final FieldBinding binding : mBindings) {
+                final String value = binding.get(object);
+
+                if (value != null) {
+                    appendPair(builder, binding.mName, value);
+                }
+            }
+
+            return builder.toString();
+        }
+
+        // Merge the sorted field bindings with the sorted extra parameters, the latter win on
+        // equal keys.
+        final Iterator<Map.Entry<String, String>> extras = extraParams.entrySet().iterator();
+        Map.Entry<String, String> extra = extras.next();
+
+        for (final FieldBinding binding : mBindings) {
+            while (extra != null && extra.getKey().compareTo(binding.mName) < 0) {
+                appendPair(builder, extra.getKey(), extra.getValue());
+                extra = extras.hasNext() ? extras.next() : null;
+            }
+
+            if (extra != null && extra.getKey().equals(binding.mName)) {
+                appendPair(builder, extra.getKey(), extra.getValue());
+                extra = extras.hasNext() ? extras.next() : null;
+                continue;
+            }
+
+            final String value = binding.get(object);
+
+            if (value != null) {
+                appendPair(builder, binding.mName, value);
+            }
+        }
+
+        while (extra != null) {
+            appendPair(builder, extra.getKey(), extra.getValue());
+            extra = extras.hasNext() ? extras.next() : null;
+        }
+
+        return builder.toString();
+    }
+
+    private static void putExtraParameters(@NonNull final Object object,
+                                           @NonNull final Map<String, String> fields) {
+        if (object instanceof IHasExtraParameters) {
+            final Iterable<Map.Entry<String, String>> extraParams =
+                    ((IHasExtraParameters) object).getExtraParameters();
+
+            if (extraParams != null) {
+                for (final Map.Entry<String, String> e : extraParams) {
+                    if (e.getKey() != null) {
+                        fields.put(e.getKey(), e.getValue());
+                    }
+                }
+            }
+        }
+    }
+
+    private static void appendPair(@NonNull final StringBuilder builder,
+                                   @NonNull final String key,
+                                   @NonNull final String value) throws UnsupportedEncodingException {
+        if (builder.length() > 0) {
+            builder.append('&');
+        }
+
+        appendEncoded(builder, key);
+        builder.append('=');
+        appendEncoded(builder, value);
+    }
+
+    /**
+     * Appends the value encoded exactly like {@link java.net.URLEncoder#encode(String, String)}
+     * with UTF-8, without allocating when the value needs no escaping.
+     */
+    //@VisibleForTesting
+    static void appendEncoded(@NonNull final StringBuilder builder,
+                              @NonNull final String value) throws UnsupportedEncodingException {
+        final int length = value.length();
+        int i = 0;
+
+        while (i < length) {
+            final char c = value.charAt(i);
+
+            if (isUnreserved(c)) {
+                builder.append(c);
+                i++;
+            } else if (c == ' ') {
+                builder.append('+');
+                i++;
+            } else {
+                // Like URLEncoder, convert the whole run of characters needing escaping at once so
+                // that surrogate pairs are encoded together.
+                final int start = i;
+
+                do {
+                    i++;
+                } while (i < length && !isUnreserved(value.charAt(i)) && value.charAt(i) != ' ');
+
+                final byte[] bytes = value.substring(start, i)
+                        .getBytes(AuthenticationConstants.ENCODING_UTF8_STRING);
+
+                for (final byte b : bytes) {
+                    builder.append('%')
+                            .append(HEX_DIGITS.charAt((b >> 4) & 0xF))
+                            .append(HEX_DIGITS.charAt(b & 0xF));
+                }
+            }
+        }
+    }
+
+    private static boolean isUnreserved(final char c) {
+        return (c >= 'a' && c <= 'z')
+                || (c >= 'A' && c <= 'Z')
+                || (c >= '0' && c <= '9')
+                || c == '-' || c == '_' || c == '.' || c == '*';
+    }
+
+    @NonNull
+    private static FormUrlEncoder create(@NonNull final Class<?> clazz) {
+        if (clazz.isArray()
+                || clazz.isPrimitive()
+                || clazz.isEnum()
+                || clazz.isAnonymousClass()
+                || clazz.isLocalClass()
+                || Map.class.isAssignableFrom(clazz)
+                || Collection.class.isAssignableFrom(clazz)) {
+            return UNSUPPORTED;
+        }
+
+        final List<FieldBinding> bindings = new ArrayList<>();
+        final Set<String> names = new HashSet<>();
+
+        for (Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass()) {
+            if (isPlatformClass(current) || current.isAnnotationPresent(JsonAdapter.class)) {
+                return UNSUPPORTED;
+            }
+
+            for (final Field field : current.getDeclaredFields()) {
+                final int modifiers = field.getModifiers();
+
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                    continue;
+                }
+
+                final FieldBinding binding = FieldBinding.of(field);
+
+                // Gson itself rejects duplicate names, let the JSON path surface that.
+                if (binding == null || !names.add(binding.mName)) {
+                    return UNSUPPORTED;
+                }
+
+                bindings.add(binding);
+            }
+        }
+
+        final FieldBinding[] sorted = bindings.toArray(new FieldBinding[0]);
+        Arrays.sort(sorted, new Comparator<FieldBinding>() {
+            @Override
+            public int compare(final FieldBinding a, final FieldBinding b) {
+                return a.mName.compareTo(b.mName);
+            }
+        });
+
+        try {
+            AccessibleObject.setAccessible(fieldsOf(sorted), true);
+        } catch (final RuntimeException e) {
+            return UNSUPPORTED;
+        }
+
+        return new FormUrlEncoder(sorted);
+    }
+
+    private static boolean isPlatformClass(@NonNull final Class<?> clazz) {
+        final String name = clazz.getName();
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("android.");
+    }
+
+    @NonNull
+    private static Field[] fieldsOf(@NonNull final FieldBinding[] bindings) {
+        final Field[] fields = new Field[bindings.length];
+
+        for (int i = 0; i < bindings.length; i++) {
+            fields[i] = bindings[i].mField;
+        }
+
+        return fields;
+    }
+
+    /**
+     * A serialized field and the way its value is rendered.
+     */
+    private static final class FieldBinding {
+
+        private final String mName;
+        private final Field mField;
+
+        private FieldBinding(@NonNull final String name, @NonNull final Field field) {
+            mName = name;
+            mField = field;
+        }
+
+        /**
+         * Returns a binding for the field, or null if its type is not rendered as a plain string
+         * by Gson.
+         */
+        @Nullable
+        static FieldBinding of(@NonNull final Field field) {
+            if (field.isAnnotationPresent(JsonAdapter.class) || !isSupportedType(field.getType())) {
+                return null;
+            }
+
+            final SerializedName serializedName = field.getAnnotation(SerializedName.class);
+            final String name = serializedName != null ? serializedName.value() : field.getName();
+            return new FieldBinding(name, field);
+        }
+
+        private static boolean isSupportedType(@NonNull final Class<?> type) {
+            return type == String.class
+                    || type == UUID.class
+                    || type == boolean.class || type == Boolean.class
+                    || type == int.class || type == Integer.class
+                    || type == long.class || type == Long.class
+                    || type == short.class || type == Short.class
+                    || type == byte.class || type == Byte.class;
+        }
+
+        @Nullable
+        String get(@NonNull final Object object) {
+            final Object value;
+
+            try {
+                value = mField.get(object);
+            } catch (final IllegalAccessException e) {
+                // Accessibility was granted when the binding was cached.
+                throw new IllegalStateException(e);
+            }
+
+            return value == null ? null : value.toString();
+        }
+    }
+}
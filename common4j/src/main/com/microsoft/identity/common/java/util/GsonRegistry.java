@@ -0,0 +1,62 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.util;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.annotations.Expose;
+import com.microsoft.identity.common.java.commands.parameters.IHasExtraParameters;
+
+/**
+ * Shared, preconfigured {@link Gson} instances.
+ * <p>
+ * Gson is thread-safe and caches the type adapter it builds for every type it sees, including the
+ * reflective ones, for as long as the instance lives. Creating a new Gson per call throws that cache
+ * away, so code needing one of these configurations should use the instances here instead.
+ */
+public final class GsonRegistry {
+
+    /**
+     * Equivalent to {@code new Gson()}.
+     */
+    public static final Gson DEFAULT = new Gson();
+
+    /**
+     * Only serializes fields annotated with {@link Expose}.
+     */
+    public static final Gson EXPOSED_FIELDS_ONLY = new GsonBuilder()
+            .excludeFieldsWithoutExposeAnnotation()
+            .create();
+
+    /**
+     * Collects unknown string values into the extra parameters of {@link IHasExtraParameters}
+     * types on deserialization. This is the instance behind {@link ObjectMapper#GSON}.
+     */
+    public static final Gson WITH_EXTRA_PARAMETERS = new GsonBuilder()
+            .registerTypeAdapterFactory(new ObjectMapper.UnknownParamTypeAdapterFactory())
+            .create();
+
+    private GsonRegistry() {
+        // Utility class.
+    }
+}
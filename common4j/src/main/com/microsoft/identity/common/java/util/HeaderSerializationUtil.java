@@ -24,7 +24,6 @@ package com.microsoft.identity.common.java.util;
 
 import lombok.NonNull;
 
-import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 
 import java.util.HashMap;
@@ -34,11 +33,11 @@ import java.util.Map;
 public class HeaderSerializationUtil {
 
     public static String toJson(@NonNull final Map<String, List<String>> headersIn) {
-        return new Gson().toJson(headersIn);
+        return GsonRegistry.DEFAULT.toJson(headersIn);
     }
 
     public static HashMap<String, List<String>> fromJson(@NonNull final String jsonIn) {
-        return new Gson()
+        return GsonRegistry.DEFAULT
                 .fromJson(
                         jsonIn,
                         TypeToken.getParameterized(
@@ -132,7 +132,7 @@ public class JWSBuilder {
             throw new IllegalArgumentException("audience is an empty string.");
         }
 
-        final Gson gson = new Gson();
+        final Gson gson = GsonRegistry.DEFAULT;
         final Claims claims = new Claims();
         claims.mNonce = nonce;
         claims.mAudience = audience;
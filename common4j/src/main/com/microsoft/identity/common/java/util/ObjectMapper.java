@@ -25,7 +25,6 @@ package com.microsoft.identity.common.java.util;
 import lombok.NonNull;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.TypeAdapter;
 import com.google.gson.TypeAdapterFactory;
 import com.google.gson.reflect.TypeToken;
@@ -35,20 +34,16 @@ import com.google.gson.stream.JsonWriter;
 import com.microsoft.identity.common.java.WarningType;
 import com.microsoft.identity.common.java.AuthenticationConstants;
 import com.microsoft.identity.common.java.commands.parameters.IHasExtraParameters;
-import com.microsoft.identity.common.java.logging.Logger;
 
 import java.io.IOException;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Type;
-import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.StringTokenizer;
 import java.util.TreeMap;
 
 import lombok.val;
@@ -60,9 +55,7 @@ public final class ObjectMapper {
      */
     public static final String ENCODING_SCHEME = "UTF-8";
     public static final String TAG = ObjectMapper.class.getSimpleName();
-    public static final Gson GSON = new GsonBuilder()
-            .registerTypeAdapterFactory(new UnknownParamTypeAdapterFactory())
-            .create();
+    public static final Gson GSON = GsonRegistry.WITH_EXTRA_PARAMETERS;
 
     /*
      * This likely deserves a comment.  What we're doing here is hooking the underlying GSON implementation's
@@ -212,10 +205,7 @@ public final class ObjectMapper {
      * @return JSON string
      */
     public static String serializeExposedFieldsOfObjectToJsonString(Object object) {
-        GsonBuilder builder = new GsonBuilder();
-        builder.excludeFieldsWithoutExposeAnnotation();
-        Gson gson = builder.create();
-        return gson.toJson(object);
+        return GsonRegistry.EXPOSED_FIELDS_ONLY.toJson(object);
     }
 
     /**
@@ -234,14 +224,25 @@ public final class ObjectMapper {
      * Method for serializing the contents of an object as a Url Encoded string.  Important to the implementation of
      * this method is the behavior of GSON which excludes null fields from the resulting JSON.  A TreeMap was used to
      * simplify testing.... the resulting url encoded string is in alphabetical order (keys).
+     * <p>
+     * Plain request objects (such as {@link com.microsoft.identity.common.java.providers.oauth2.TokenRequest})
+     * are written directly from their fields by {@link FormUrlEncoder}, without the JSON round-trip.
      *
      * @param object Object
      * @return String
      * @throws UnsupportedEncodingException thrown if encoding not supported
      */
     public static String serializeObjectToFormUrlEncoded(Object object) throws UnsupportedEncodingException {
-        Map<String, String> fields = constructMapFromObject(object);
+        final FormUrlEncoder encoder = FormUrlEncoder.forClass(object.getClass());
+        if (encoder != null) {
+            return encoder.encode(object);
+        }
+
+        return encodeMapToFormUrlEncoded(constructMapFromJson(object));
+    }
 
+    //@VisibleForTesting
+    static String encodeMapToFormUrlEncoded(final Map<String, String> fields) throws UnsupportedEncodingException {
         final StringBuilder builder = new StringBuilder();
 
         Iterator<Map.Entry<String, String>> iterator = fields.entrySet().iterator();
@@ -269,9 +270,24 @@ public final class ObjectMapper {
      * @return a map representation of the object.
      */
     public static Map<String, String> constructMapFromObject(Object object) {
+        final FormUrlEncoder encoder = FormUrlEncoder.forClass(object.getClass());
+        if (encoder != null) {
+            return encoder.toMap(object);
+        }
+
+        return constructMapFromJson(object);
+    }
+
+    /**
+     * Converts the object into a map by serializing it to JSON and reading it back.  This is the
+     * reference behavior {@link FormUrlEncoder} reproduces, and the path taken for objects it does
+     * not support.
+     */
+    //@VisibleForTesting
+    static TreeMap<String, String> constructMapFromJson(Object object) {
         String json = ObjectMapper.serializeObjectToJsonString(object);
         final Type stringMap = TypeToken.getParameterized(TreeMap.class, String.class, String.class).getType();
-        TreeMap<String, String> fields = new Gson().fromJson(json, stringMap);
+        TreeMap<String, String> fields = GSON.fromJson(json, stringMap);
         if (object instanceof IHasExtraParameters) {
             final IHasExtraParameters params = (IHasExtraParameters) object;
             val extraParams = params.getExtraParameters();
@@ -310,34 +326,6 @@ public final class ObjectMapper {
      * @return a {@link LinkedHashMap} containing the query params.
      */
     public static Map<String, String> deserializeQueryStringToMap(final String queryString) {
-        final Map<String, String> decodedUrlMap = new LinkedHashMap<>();
-
-        if (StringUtil.isNullOrEmpty(queryString)) {
-            return decodedUrlMap;
-        }
-
-        final StringTokenizer tokenizer = new StringTokenizer(queryString, "&");
-        while (tokenizer.hasMoreTokens()) {
-            final String pair = tokenizer.nextToken();
-            final String[] elements = pair.split("=");
-
-            if (elements.length != 2) {
-                continue;
-            }
-
-            try {
-                final String key = URLDecoder.decode(elements[0], ENCODING_SCHEME);
-                final String value = URLDecoder.decode(elements[1], ENCODING_SCHEME);
-
-                if (!StringUtil.isNullOrEmpty(key) && !StringUtil.isNullOrEmpty(value)) {
-                    decodedUrlMap.put(key, value);
-                }
-            } catch (final UnsupportedEncodingException e) {
-                Logger.error(TAG, null, "Decode failed.", e);
-            }
-        }
-
-        return decodedUrlMap;
+        return QueryStringCodec.decodeQueryString(queryString);
     }
 }
-
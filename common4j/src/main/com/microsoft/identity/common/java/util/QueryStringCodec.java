@@ -0,0 +1,260 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.util;
+
+import static com.microsoft.identity.common.java.AuthenticationConstants.ENCODING_UTF8;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.NonNull;
+
+/**
+ * Single-pass decoder for query strings and form data.
+ * <p>
+ * Keys and values are percent-decoded exactly like {@link java.net.URLDecoder#decode(String, String)}
+ * with UTF-8, including the {@link IllegalArgumentException} thrown for malformed escapes, but without
+ * tokenizers, regular expressions or new buffers per component: components without escapes are
+ * returned as substrings, and the buffers used for the others are reused across one decode call.
+ */
+public final class QueryStringCodec {
+
+    /**
+     * Scratch space reused while decoding all the components of one input.
+     */
+    private final StringBuilder mChars = new StringBuilder();
+    private byte[] mBytes = new byte[16];
+
+    private QueryStringCodec() {
+    }
+
+    /**
+     * Decodes a query string into its key/value pairs, in order of appearance. A pair is only kept if
+     * it contains exactly one '=' (ignoring trailing ones) and both its key and value are non-blank
+     * once decoded. This is the behavior of {@link ObjectMapper#deserializeQueryStringToMap(String)}.
+     *
+     * @param queryString the query string, such as a=1&amp;b=2.
+     * @return a {@link LinkedHashMap} of the decoded pairs.
+     * @throws IllegalArgumentException if a key or value contains a malformed escape.
+     */
+    @NonNull
+    public static Map<String, String> decodeQueryString(@Nullable final String queryString) {
+        final Map<String, String> result = new LinkedHashMap<>();
+
+        if (StringUtil.isNullOrEmpty(queryString)) {
+            return result;
+        }
+
+        final QueryStringCodec codec = new QueryStringCodec();
+        final int length = queryString.length();
+        int start = 0;
+
+        while (start < length) {
+            int end = queryString.indexOf('&', start);
+            if (end < 0) {
+                end = length;
+            }
+
+            // Trailing '=' would only produce empty parts, which are dropped.
+            int pairEnd = end;
+            while (pairEnd > start && queryString.charAt(pairEnd - 1) == '=') {
+                pairEnd--;
+            }
+
+            final int separator = indexOf(queryString, '=', start, pairEnd);
+            if (separator >= 0 && indexOf(queryString, '=', separator + 1, pairEnd) < 0) {
+                final String key = codec.decode(queryString, start, separator);
+                final String value = codec.decode(queryString, separator + 1, pairEnd);
+
+                if (!StringUtil.isNullOrEmpty(key) && !StringUtil.isNullOrEmpty(value)) {
+                    result.put(key, value);
+                }
+            }
+
+            start = end + 1;
+        }
+
+        return result;
+    }
+
+    /**
+     * Decodes form data whose pairs are separated by any of the given delimiter characters. Keys and
+     * values are trimmed before decoding, a missing value decodes to an empty string and pairs with
+     * a blank key are dropped. This is the behavior of {@link UrlUtil#urlFormDecode(String)}.
+     *
+     * @param data       the form data, such as a=1&amp;b=2.
+     * @param delimiters the characters separating pairs.
+     * @return a {@link HashMap} of the decoded pairs.
+     * @throws IllegalArgumentException if a key or value contains a malformed escape.
+     */
+    @NonNull
+    public static Map<String, String> decodeFormData(@Nullable final String data,
+                                                     @NonNull final String delimiters) {
+        final Map<String, String> result = new HashMap<>();
+
+        if (StringUtil.isNullOrEmpty(data)) {
+            return result;
+        }
+
+        final QueryStringCodec codec = new QueryStringCodec();
+        final int length = data.length();
+        int start = 0;
+
+        while (start < length) {
+            int end = start;
+            while (end < length && delimiters.indexOf(data.charAt(end)) < 0) {
+                end++;
+            }
+
+            if (end > start) {
+                final int separator = indexOf(data, '=', start, end);
+                final String key = codec.decodeTrimmed(data, start, separator < 0 ? end : separator);
+                final String value = separator < 0 ? "" : codec.decodeTrimmed(data, separator + 1, end);
+
+                if (!StringUtil.isNullOrEmpty(key)) {
+                    result.put(key, value);
+                }
+            }
+
+            start = end + 1;
+        }
+
+        return result;
+    }
+
+    /**
+     * Percent-decodes a single component, like {@link java.net.URLDecoder#decode(String, String)}
+     * with UTF-8.
+     *
+     * @param value the encoded value.
+     * @return the decoded value.
+     * @throws IllegalArgumentException if the value contains a malformed escape.
+     */
+    @NonNull
+    public static String decode(@NonNull final String value) {
+        return new QueryStringCodec().decode(value, 0, value.length());
+    }
+
+    private static int indexOf(@NonNull final String source, final char c, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            if (source.charAt(i) == c) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @NonNull
+    private String decodeTrimmed(@NonNull final String source, int start, int end) {
+        while (start < end && source.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && source.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        return decode(source, start, end);
+    }
+
+    @NonNull
+    private String decode(@NonNull final String source, final int start, final int end) {
+        int i = start;
+        while (i < end && source.charAt(i) != '%' && source.charAt(i) != '+') {
+            i++;
+        }
+
+        if (i == end) {
+            return source.substring(start, end);
+        }
+
+        mChars.setLength(0);
+        mChars.append(source, start, i);
+
+        while (i < end) {
+            final char c = source.charAt(i);
+
+            if (c == '+') {
+                mChars.append(' ');
+                i++;
+            } else if (c == '%') {
+                // Consecutive escapes are decoded together as one UTF-8 sequence.
+                int count = 0;
+
+                while (i + 2 < end && source.charAt(i) == '%') {
+                    if (count == mBytes.length) {
+                        final byte[] bytes = new byte[count * 2];
+                        System.arraycopy(mBytes, 0, bytes, 0, count);
+                        mBytes = bytes;
+                    }
+                    mBytes[count++] = (byte) parseHexPair(source, i + 1);
+                    i += 3;
+                }
+
+                if (i < end && source.charAt(i) == '%') {
+                    throw new IllegalArgumentException("URLDecoder: Incomplete trailing escape (%) pattern");
+                }
+
+                mChars.append(new String(mBytes, 0, count, ENCODING_UTF8));
+            } else {
+                mChars.append(c);
+                i++;
+            }
+        }
+
+        return mChars.toString();
+    }
+
+    /**
+     * Parses the two characters at the index as a hex byte, accepting exactly what URLDecoder
+     * accepts through {@code Integer.parseInt(s, 16)}.
+     */
+    private static int parseHexPair(@NonNull final String source, final int index) {
+        final char first = source.charAt(index);
+        final int low = Character.digit(source.charAt(index + 1), 16);
+
+        if (low >= 0) {
+            if (first == '+') {
+                return low;
+            } else if (first == '-') {
+                if (low == 0) {
+                    return 0;
+                }
+
+                throw new IllegalArgumentException(
+                        "URLDecoder: Illegal hex characters in escape (%) pattern - negative value");
+            }
+
+            final int high = Character.digit(first, 16);
+            if (high >= 0) {
+                return high * 16 + low;
+            }
+        }
+
+        throw new IllegalArgumentException(
+                "URLDecoder: Illegal hex characters in escape (%) pattern - For input string: \""
+                        + source.substring(index, index + 2) + "\"");
+    }
+}
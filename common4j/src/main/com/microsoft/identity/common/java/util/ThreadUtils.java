@@ -29,6 +29,8 @@ import com.microsoft.identity.common.java.logging.Logger;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -90,6 +92,26 @@ public class ThreadUtils {
         }
     }
 
+    /**
+     * Construct a single threaded scheduled executor with the specified name, whose thread is
+     * allowed to exit after the keep alive time elapses without any scheduled work.
+     *
+     * @param keepAliveTime The amount of time to keep the idle thread alive before terminating it.
+     * @param keepAliveUnit The time unit on that time.
+     * @param poolName      The name of the thread pool in use.
+     * @return A scheduled executor service with the specified properties.
+     */
+    public static ScheduledExecutorService getNamedScheduledExecutor(final long keepAliveTime,
+                                                                     @NonNull final TimeUnit keepAliveUnit,
+                                                                     @NonNull final String poolName) {
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1,
+                getNamedThreadFactory(poolName, System.getSecurityManager()));
+        executor.setKeepAliveTime(keepAliveTime, keepAliveUnit);
+        executor.allowCoreThreadTimeOut(true);
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
     //Nice thought, but if you're using executors, you're using ThreadGroup whether you want to or not.
     @SuppressWarnings("PMD.AvoidThreadGroup")
     private static ThreadFactory getNamedThreadFactory(@NonNull final String poolName, final SecurityManager securityManager) {
@@ -25,17 +25,14 @@ package com.microsoft.identity.common.java.util;
 import com.microsoft.identity.common.java.exception.ClientException;
 import com.microsoft.identity.common.java.logging.Logger;
 
-import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.StringTokenizer;
 
 import edu.umd.cs.findbugs.annotations.Nullable;
 import lombok.NonNull;
@@ -53,9 +50,102 @@ public class UrlUtil {
     public static URL appendPathToURL(@NonNull final URL urlToAppend,
                                       @Nullable final String pathString)
             throws URISyntaxException, MalformedURLException {
+        if (StringUtil.isNullOrEmpty(pathString)) {
+            return urlToAppend;
+        }
+
+        if (isPlainUrl(urlToAppend) && isPlainPath(pathString)) {
+            return appendPlainPathToURL(urlToAppend, pathString);
+        }
+
         return appendPathAndQueryToURL(urlToAppend, pathString, null);
     }
 
+    /**
+     * Fast path of {@link #appendPathToURL(URL, String)} for URLs such as authorities and endpoint
+     * suffixes like oAuth2/v2.0/token, where nothing needs escaping. The URL is concatenated
+     * directly instead of being parsed and rebuilt through {@link CommonURIBuilder}; the result is
+     * the same.
+     */
+    private static URL appendPlainPathToURL(@NonNull final URL urlToAppend,
+                                            @NonNull final String pathString)
+            throws MalformedURLException {
+        final String basePath = urlToAppend.getPath();
+        final StringBuilder builder = new StringBuilder(
+                urlToAppend.getProtocol().length() + urlToAppend.getAuthority().length()
+                        + basePath.length() + pathString.length() + 8
+        );
+
+        builder.append(urlToAppend.getProtocol())
+                .append("://")
+                .append(urlToAppend.getAuthority());
+        // Like the slow path, empty segments (including a trailing slash on the base) are dropped.
+        appendPathSegments(builder, basePath);
+        appendPathSegments(builder, pathString);
+
+        return new URL(builder.toString());
+    }
+
+    private static void appendPathSegments(@NonNull final StringBuilder builder,
+                                           @NonNull final String path) {
+        final int length = path.length();
+        int start = 0;
+
+        while (start < length) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+
+            if (end > start) {
+                builder.append('/').append(path, start, end);
+            }
+
+            start = end + 1;
+        }
+    }
+
+    private static boolean isPlainUrl(@NonNull final URL url) {
+        return url.getQuery() == null
+                && url.getRef() == null
+                && url.getUserInfo() == null
+                && url.getAuthority() != null
+                && !url.getAuthority().isEmpty()
+                && isPlainPath(url.getPath());
+    }
+
+    /**
+     * Whether the path only has characters that are never escaped, and no empty or dot segments.
+     */
+    private static boolean isPlainPath(@NonNull final String path) {
+        final int length = path.length();
+        int segmentStart = 0;
+
+        for (int i = 0; i <= length; i++) {
+            final char c = i < length ? path.charAt(i) : '/';
+
+            if (c == '/') {
+                final int segmentLength = i - segmentStart;
+                // Leading and trailing slashes are fine, empty or dot segments in between are not.
+                if (segmentLength == 0 && i != 0 && i != length) {
+                    return false;
+                }
+                if ((segmentLength == 1 && path.charAt(segmentStart) == '.')
+                        || (segmentLength == 2 && path.startsWith("..", segmentStart))) {
+                    return false;
+                }
+                segmentStart = i + 1;
+            } else if (!((c >= 'a' && c <= 'z')
+                    || (c >= 'A' && c <= 'Z')
+                    || (c >= '0' && c <= '9')
+                    || c == '-' || c == '.' || c == '_' || c == '~')) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     /**
      * Append a given path string and query parameters to a URL.
      *
@@ -198,51 +288,7 @@ public class UrlUtil {
     @NonNull
     static Map<String, String> urlFormDecodeData(@NonNull final String urlParameter,
                                                  @NonNull final String delimiter) {
-        final String methodName = ":urlFormDecodeData";
-        final Map<String, String> result = new HashMap<>();
-
-        if (!StringUtil.isNullOrEmpty(urlParameter)) {
-            StringTokenizer parameterTokenizer = new StringTokenizer(urlParameter, delimiter);
-
-            while (parameterTokenizer.hasMoreTokens()) {
-                String pair = parameterTokenizer.nextToken();
-                String[] elements = pair.split("=", 2);
-                String value = null;
-                String key = null;
-
-                if (elements.length == 2) {
-                    try {
-                        key = StringUtil.urlFormDecode(elements[0].trim());
-                        value = StringUtil.urlFormDecode(elements[1].trim());
-                    } catch (UnsupportedEncodingException e) {
-                        Logger.errorPII(
-                                TAG + methodName,
-                                "Encoding format is not supported",
-                                e
-                        );
-                        continue;
-                    }
-                } else if (elements.length == 1) {
-                    try {
-                        key = StringUtil.urlFormDecode(elements[0].trim());
-                        value = "";
-                    } catch (UnsupportedEncodingException e) {
-                        Logger.errorPII(
-                                TAG + methodName,
-                                "Encoding format is not supported",
-                                e
-                        );
-                        continue;
-                    }
-                }
-
-                if (!StringUtil.isNullOrEmpty(key)) {
-                    result.put(key, value);
-                }
-            }
-        }
-
-        return result;
+        return QueryStringCodec.decodeFormData(urlParameter, delimiter);
     }
 
     /**
@@ -23,11 +23,18 @@
 package com.microsoft.identity.common.java.util.ported;
 
 import com.microsoft.identity.common.java.logging.Logger;
+import com.microsoft.identity.common.java.opentelemetry.SdkMetrics;
+import com.microsoft.identity.common.java.util.ThreadUtils;
 
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import lombok.NonNull;
 
@@ -37,12 +44,84 @@ public enum LocalBroadcaster {
     private static final String TAG = LocalBroadcaster.class.getSimpleName();
     private static ExecutorService sBroadcastExecutor = Executors.newSingleThreadExecutor();
 
+    /**
+     * Number of threads shared by all aliases in {@link DispatchMode#PER_ALIAS} mode.
+     */
+    private static final int PER_ALIAS_POOL_SIZE = 4;
+    private static final long PER_ALIAS_POOL_KEEP_ALIVE_SECONDS = 30;
+    private static final long RESET_TIMEOUT_SECONDS = 20;
+
+    private static final ExecutorService sPerAliasExecutor = createPerAliasExecutor();
+
+    private static volatile DispatchMode sDispatchMode = DispatchMode.SERIAL;
+
+    /**
+     * How broadcasts are delivered to receivers.
+     */
+    public enum DispatchMode {
+        /**
+         * Every broadcast is delivered, in order, on a single background thread.
+         */
+        SERIAL,
+
+        /**
+         * Broadcasts to the same alias are delivered in order, while broadcasts to different
+         * aliases are delivered in parallel on a shared pool.
+         */
+        PER_ALIAS
+    }
+
     public interface IReceiverCallback {
         void onReceive(@NonNull final PropertyBag propertyBag);
     }
 
     final ConcurrentHashMap<String, IReceiverCallback> mReceivers = new ConcurrentHashMap<>();
 
+    private final ConcurrentHashMap<String, AliasQueue> mAliasQueues = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicInteger> mPendingBroadcasts = new ConcurrentHashMap<>();
+    private final Set<String> mLatencyCriticalAliases =
+            Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    /**
+     * Sets how broadcasts are delivered. Broadcasts that were already queued are still delivered
+     * by the mode they were queued with.
+     */
+    public static void setDispatchMode(@NonNull final DispatchMode dispatchMode) {
+        if (sDispatchMode != dispatchMode) {
+            Logger.info(TAG + ":setDispatchMode", "Dispatch mode: " + dispatchMode);
+            sDispatchMode = dispatchMode;
+        }
+    }
+
+    public static DispatchMode getDispatchMode() {
+        return sDispatchMode;
+    }
+
+    /**
+     * Marks an alias as latency critical. In {@link DispatchMode#PER_ALIAS} mode, a broadcast to
+     * such an alias is delivered synchronously on the calling thread when no earlier broadcast to
+     * the same alias is still pending or being delivered, so per-alias ordering is preserved.
+     * <p>
+     * The receiver must therefore not block, and must not acquire locks the broadcasting thread
+     * may be holding.
+     */
+    public void markLatencyCritical(@NonNull final String alias) {
+        mLatencyCriticalAliases.add(alias);
+    }
+
+    public void unmarkLatencyCritical(@NonNull final String alias) {
+        mLatencyCriticalAliases.remove(alias);
+    }
+
+    /**
+     * Returns the number of queued broadcasts to the given alias that have not been delivered yet,
+     * including one whose delivery is in progress.
+     */
+    public int getQueueDepth(@NonNull final String alias) {
+        final AtomicInteger pending = mPendingBroadcasts.get(alias);
+        return pending == null ? 0 : pending.get();
+    }
+
     public void registerCallback(@NonNull final String alias, @NonNull final IReceiverCallback callback){
         final String methodName = ":registerCallback";
 
@@ -67,19 +146,94 @@ public enum LocalBroadcaster {
     }
 
     public void broadcast(@NonNull final String alias, @NonNull final PropertyBag propertyBag) {
-        final String methodName = ":broadcast";
-        sBroadcastExecutor.execute(new Runnable() {
+        // The pending counter of an alias doubles as its delivery lock: every delivery of the alias
+        // holds it, and a broadcast only bypasses the queue while holding it with nothing pending.
+        final AtomicInteger pending = getPendingCounter(alias);
+
+        if (sDispatchMode == DispatchMode.PER_ALIAS
+                && mLatencyCriticalAliases.contains(alias)
+                && pending.get() == 0) {
+            synchronized (pending) {
+                // Re-check under the lock: a queued delivery may have started in the meantime.
+                if (pending.get() == 0) {
+                    deliver(alias, propertyBag);
+                    return;
+                }
+            }
+        }
+
+        enqueue(alias, propertyBag, pending);
+    }
+
+    private void enqueue(@NonNull final String alias,
+                         @NonNull final PropertyBag propertyBag,
+                         @NonNull final AtomicInteger pending) {
+        final int depth = pending.incrementAndGet();
+        SdkMetrics.recordBroadcastQueueDepth(alias, depth);
+
+        final Runnable delivery = new Runnable() {
             public void run() {
-                final IReceiverCallback receiver = mReceivers.get(alias);
-                if (receiver != null) {
-                    Logger.info(TAG + methodName, "broadcasting to alias: " + alias);
-                    receiver.onReceive(propertyBag);
-                } else {
-                    Logger.info(TAG + methodName, "No callback is registered with alias: " + alias +
-                            ". Do nothing.");
+                synchronized (pending) {
+                    try {
+                        deliver(alias, propertyBag);
+                    } finally {
+                        // Only count the broadcast as done once the receiver has returned, so a
+                        // latency critical broadcast cannot overtake it.
+                        pending.decrementAndGet();
+                    }
                 }
             }
-        });
+        };
+
+        if (sDispatchMode == DispatchMode.PER_ALIAS) {
+            getAliasQueue(alias).enqueue(delivery);
+        } else {
+            sBroadcastExecutor.execute(delivery);
+        }
+    }
+
+    private void deliver(@NonNull final String alias, @NonNull final PropertyBag propertyBag) {
+        final String methodName = ":broadcast";
+        final IReceiverCallback receiver = mReceivers.get(alias);
+        if (receiver != null) {
+            Logger.info(TAG + methodName, "broadcasting to alias: " + alias);
+            receiver.onReceive(propertyBag);
+        } else {
+            Logger.info(TAG + methodName, "No callback is registered with alias: " + alias +
+                    ". Do nothing.");
+        }
+    }
+
+    private AtomicInteger getPendingCounter(@NonNull final String alias) {
+        AtomicInteger pending = mPendingBroadcasts.get(alias);
+        if (pending == null) {
+            final AtomicInteger newPending = new AtomicInteger();
+            pending = mPendingBroadcasts.putIfAbsent(alias, newPending);
+            if (pending == null) {
+                pending = newPending;
+            }
+        }
+        return pending;
+    }
+
+    private AliasQueue getAliasQueue(@NonNull final String alias) {
+        AliasQueue queue = mAliasQueues.get(alias);
+        if (queue == null) {
+            final AliasQueue newQueue = new AliasQueue(alias);
+            queue = mAliasQueues.putIfAbsent(alias, newQueue);
+            if (queue == null) {
+                queue = newQueue;
+            }
+        }
+        return queue;
+    }
+
+    private int getTotalQueueDepth() {
+        int total = 0;
+        for (final AtomicInteger pending : mPendingBroadcasts.values()) {
+            total += pending.get();
+        }
+        return total;
     }
 
     /**
@@ -91,10 +245,27 @@ public enum LocalBroadcaster {
 
     /**
      * Resets the broadcast executor service.
+     * <p>
+     * The pool used by {@link DispatchMode#PER_ALIAS} is shared and is not torn down; instead,
+     * this waits for broadcasts already queued on it to be delivered.
      */
     public static void resetBroadcast() {
         shutdownAndAwaitTerminationForBroadcasterService();
         sBroadcastExecutor = Executors.newSingleThreadExecutor();
+        INSTANCE.awaitPerAliasQueuesDrained();
+    }
+
+    private void awaitPerAliasQueuesDrained() {
+        final String methodName = ":awaitPerAliasQueuesDrained";
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(RESET_TIMEOUT_SECONDS);
+        for (final AliasQueue queue : mAliasQueues.values()) {
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !queue.awaitDrained(remaining)) {
+                Logger.info(TAG + methodName, "Per alias queues did not drain, total queue depth: "
+                        + getTotalQueueDepth());
+                return;
+            }
+        }
     }
 
     private static void shutdownAndAwaitTerminationForBroadcasterService() {
@@ -112,4 +283,80 @@ public enum LocalBroadcaster {
             Thread.currentThread().interrupt();
         }
     }
+
+    private static ExecutorService createPerAliasExecutor() {
+        final ExecutorService executor = ThreadUtils.getNamedThreadPoolExecutor(
+                PER_ALIAS_POOL_SIZE, PER_ALIAS_POOL_SIZE, -1,
+                PER_ALIAS_POOL_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                "local-broadcaster"
+        );
+        ((ThreadPoolExecutor) executor).allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Serializes the broadcasts of one alias on top of the shared per-alias pool. At most one
+     * delivery of the alias is in flight at any time, and each delivery is handed back to the
+     * pool so a busy alias cannot starve the others.
+     */
+    private static final class AliasQueue implements Runnable {
+        private final String mAlias;
+
+        //@GuardedBy("this")
+        private final ArrayDeque<Runnable> mTasks = new ArrayDeque<>();
+
+        //@GuardedBy("this")
+        private boolean mScheduled;
+
+        AliasQueue(@NonNull final String alias) {
+            mAlias = alias;
+        }
+
+        synchronized void enqueue(@NonNull final Runnable task) {
+            mTasks.add(task);
+            if (!mScheduled) {
+                mScheduled = true;
+                sPerAliasExecutor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            final Runnable task;
+            synchronized (this) {
+                task = mTasks.poll();
+            }
+
+            try {
+                if (task != null) {
+                    task.run();
+                }
+            } catch (final RuntimeException e) {
+                Logger.error(TAG + ":AliasQueue", "Receiver of alias: " + mAlias + " threw.", e);
+            } finally {
+                synchronized (this) {
+                    if (mTasks.isEmpty()) {
+                        mScheduled = false;
+                        notifyAll();
+                    } else {
+                        sPerAliasExecutor.execute(this);
+                    }
+                }
+            }
+        }
+
+        synchronized boolean awaitDrained(final long timeoutNanos) {
+            long remaining = timeoutNanos;
+            final long deadline = System.nanoTime() + timeoutNanos;
+            try {
+                while (mScheduled && remaining > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    remaining = deadline - System.nanoTime();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return !mScheduled;
+        }
+    }
 }
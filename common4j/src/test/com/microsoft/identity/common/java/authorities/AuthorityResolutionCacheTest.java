@@ -0,0 +1,134 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.authorities;
+
+import com.microsoft.identity.common.java.providers.microsoft.azureactivedirectory.AzureActiveDirectory;
+import com.microsoft.identity.common.java.providers.microsoft.azureactivedirectory.AzureActiveDirectoryCloud;
+import com.microsoft.identity.common.java.providers.microsoft.microsoftsts.MicrosoftStsOAuth2Configuration;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URL;
+import java.util.Arrays;
+
+public class AuthorityResolutionCacheTest {
+
+    // Hosts that are not in any cloud metadata, so other tests can't change how these resolve.
+    private static final String AAD_AUTHORITY = "https://login.resolution-test.com/common";
+    private static final String B2C_AUTHORITY = "https://resolution-test.b2clogin.com/tfp/resolution-test.onmicrosoft.com/B2C_1_SISOPolicy/";
+    private static final String CIAM_AUTHORITY_NO_PATH = "https://resolutiontest.ciamlogin.com";
+
+    @Before
+    public void setUp() {
+        AuthorityResolutionCache.clear();
+    }
+
+    @Test
+    public void testResolveIsCachedAndReturnsNewAuthorities() {
+        final ResolvedAuthority resolved = AuthorityResolutionCache.resolve(AAD_AUTHORITY);
+        Assert.assertSame(resolved, AuthorityResolutionCache.resolve(AAD_AUTHORITY));
+        Assert.assertSame(resolved, AuthorityResolutionCache.getIfPresent(AAD_AUTHORITY));
+
+        final Authority first = Authority.getAuthorityFromAuthorityUrl(AAD_AUTHORITY);
+        final Authority second = Authority.getAuthorityFromAuthorityUrl(AAD_AUTHORITY);
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(first, second);
+        Assert.assertTrue(first instanceof AzureActiveDirectoryAuthority);
+        Assert.assertTrue(((AzureActiveDirectoryAuthority) first).getAudience() instanceof AllAccounts);
+    }
+
+    @Test
+    public void testResolveAadAuthority() throws Exception {
+        final ResolvedAuthority resolved = AuthorityResolutionCache.resolve(AAD_AUTHORITY);
+
+        Assert.assertEquals("AAD", resolved.getAuthorityTypeString());
+        Assert.assertEquals(AAD_AUTHORITY, resolved.getAuthorityUri().toString());
+        Assert.assertEquals(new URL(AAD_AUTHORITY + "/oAuth2/v2.0/token"), resolved.getTokenEndpoint());
+        Assert.assertEquals(new URL(AAD_AUTHORITY + "/oAuth2/v2.0/authorize"), resolved.getAuthorizationEndpoint());
+        Assert.assertEquals("login.resolution-test.com", resolved.getPreferredCacheEnvironment());
+    }
+
+    @Test
+    public void testResolveOtherAuthorityTypes() {
+        final ResolvedAuthority b2c = AuthorityResolutionCache.resolve(B2C_AUTHORITY);
+        Assert.assertEquals("B2C", b2c.getAuthorityTypeString());
+        Assert.assertTrue(b2c.newAuthority() instanceof AzureActiveDirectoryB2CAuthority);
+        Assert.assertNotNull(b2c.getTokenEndpoint());
+
+        final ResolvedAuthority ciam = AuthorityResolutionCache.resolve(CIAM_AUTHORITY_NO_PATH);
+        Assert.assertEquals(Authority.CIAM, ciam.getAuthorityTypeString());
+        Assert.assertEquals(
+                "https://resolutiontest.ciamlogin.com/resolutiontest.onmicrosoft.com",
+                ciam.getAuthorityUri().toString());
+
+        final ResolvedAuthority unknown = AuthorityResolutionCache.resolve("https://login.resolution-test.com/");
+        Assert.assertTrue(unknown.newAuthority() instanceof UnknownAuthority);
+        Assert.assertNull(unknown.getAuthorityUri());
+        Assert.assertNull(unknown.getTokenEndpoint());
+        Assert.assertNull(unknown.getPreferredCacheEnvironment());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testResolveInvalidAuthority() {
+        AuthorityResolutionCache.resolve("https://login.resolution-test.com/com mon");
+    }
+
+    @Test
+    public void testCloudMetadataChangeInvalidatesEntry() {
+        final String host = "login.resolution-cloud-test.com";
+        final String authority = "https://" + host + "/organizations";
+        final ResolvedAuthority before = AuthorityResolutionCache.resolve(authority);
+        Assert.assertEquals(host, before.getPreferredCacheEnvironment());
+
+        final AzureActiveDirectoryCloud cloud = new AzureActiveDirectoryCloud(
+                "login.resolution-network.com",
+                "login.resolution-cache.com",
+                Arrays.asList(host, "login.resolution-network.com"));
+        for (final String alias : cloud.getHostAliases()) {
+            AzureActiveDirectory.putCloud(alias, cloud);
+        }
+
+        Assert.assertNull(AuthorityResolutionCache.getIfPresent(authority));
+        final ResolvedAuthority after = AuthorityResolutionCache.resolve(authority);
+        Assert.assertNotSame(before, after);
+        Assert.assertEquals("https://login.resolution-network.com/organizations", after.getAuthorityUri().toString());
+        Assert.assertEquals("login.resolution-cache.com", after.getPreferredCacheEnvironment());
+    }
+
+    @Test
+    public void testConfigurationEndpointsMatchResolvedAuthority() throws Exception {
+        final URL authorityUrl = new URL(AAD_AUTHORITY);
+        final MicrosoftStsOAuth2Configuration config = new MicrosoftStsOAuth2Configuration();
+        config.setAuthorityUrl(authorityUrl);
+        final URL uncachedTokenEndpoint = config.getTokenEndpoint();
+        final URL uncachedAuthorizationEndpoint = config.getAuthorizationEndpoint();
+
+        final ResolvedAuthority resolved = AuthorityResolutionCache.resolve(AAD_AUTHORITY);
+        Assert.assertEquals(uncachedTokenEndpoint, config.getTokenEndpoint());
+        Assert.assertSame(resolved.getTokenEndpoint(), config.getTokenEndpoint());
+        Assert.assertEquals(uncachedAuthorizationEndpoint, config.getAuthorizationEndpoint());
+        Assert.assertSame(resolved.getAuthorizationEndpoint(), config.getAuthorizationEndpoint());
+    }
+}
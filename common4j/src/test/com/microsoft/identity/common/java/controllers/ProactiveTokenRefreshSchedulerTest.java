@@ -0,0 +1,237 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.controllers;
+
+import com.microsoft.identity.common.java.dto.AccessTokenRecord;
+import com.microsoft.identity.common.java.exception.ServiceException;
+import com.microsoft.identity.common.java.util.IClock;
+import com.microsoft.identity.common.java.util.ResultFuture;
+import com.microsoft.identity.common.java.util.ThreadUtils;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@SuppressWarnings("rawtypes")
+public class ProactiveTokenRefreshSchedulerTest {
+
+    private static final long NOW_MILLIS = TimeUnit.SECONDS.toMillis(1_600_000_000L);
+
+    private final AtomicLong mNow = new AtomicLong(NOW_MILLIS);
+    private final IClock mClock = new IClock() {
+        @Override
+        public long currentTimeMillis() {
+            return mNow.get();
+        }
+    };
+
+    private ScheduledExecutorService mExecutor;
+    private ProactiveTokenRefreshScheduler mScheduler;
+
+    @Before
+    public void setUp() {
+        mExecutor = ThreadUtils.getNamedScheduledExecutor(1, TimeUnit.SECONDS, "test-proactive-refresh");
+        mScheduler = new ProactiveTokenRefreshScheduler(mExecutor, mClock, new Random(), 0);
+    }
+
+    @After
+    public void tearDown() {
+        mScheduler.clear();
+        mExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testTokenDueForRefreshIsRefreshedAndUntracked() throws InterruptedException {
+        final RecordingTask task = new RecordingTask();
+        task.completeWith(CommandResult.ofNull(CommandResult.ResultStatus.VOID, null));
+
+        mScheduler.track(newAccessToken("scope", 60), task);
+
+        Assert.assertTrue(task.awaitStarts(1));
+        assertEventually(0, mScheduler);
+    }
+
+    @Test
+    public void testTokenNotYetDueIsNotRefreshed() throws InterruptedException {
+        final RecordingTask task = new RecordingTask();
+
+        mScheduler.track(newAccessToken("scope", TimeUnit.HOURS.toSeconds(1)), task);
+
+        Assert.assertFalse(task.awaitStarts(1, 200));
+        Assert.assertEquals(1, mScheduler.getTrackedCount());
+    }
+
+    @Test
+    public void testTrackingSameTokenTwiceSchedulesOnce() throws InterruptedException {
+        final RecordingTask task = new RecordingTask();
+        final AccessTokenRecord accessToken = newAccessToken("scope", 60);
+
+        mScheduler.track(accessToken, task);
+        mScheduler.track(accessToken, task);
+
+        Assert.assertTrue(task.awaitStarts(1));
+        Assert.assertFalse(task.awaitStarts(2, 200));
+    }
+
+    @Test
+    public void testConcurrentRefreshesAreCapped() throws InterruptedException {
+        final RecordingTask task = new RecordingTask();
+
+        for (int i = 0; i < ProactiveTokenRefreshScheduler.MAX_CONCURRENT_REFRESHES + 2; i++) {
+            mScheduler.track(newAccessToken("scope" + i, 60), task);
+        }
+
+        Assert.assertTrue(task.awaitStarts(ProactiveTokenRefreshScheduler.MAX_CONCURRENT_REFRESHES));
+        Assert.assertFalse(task.awaitStarts(ProactiveTokenRefreshScheduler.MAX_CONCURRENT_REFRESHES + 1, 200));
+    }
+
+    @Test
+    public void testThrottledRefreshHonoursRetryAfter() throws InterruptedException {
+        final ServiceException throttled = new ServiceException("too_many_requests", "Throttled", 429, null);
+        final HashMap<String, List<String>> headers = new HashMap<>();
+        headers.put("retry-after", Collections.singletonList("120"));
+        throttled.setHttpResponseHeaders(headers);
+
+        final RecordingTask task = new RecordingTask();
+        task.completeWith(CommandResult.of(CommandResult.ResultStatus.ERROR, throttled, null));
+
+        mScheduler.track(newAccessToken("scope", TimeUnit.MINUTES.toSeconds(4)), task);
+
+        Assert.assertTrue(task.awaitStarts(1));
+        assertThrottledUntil(NOW_MILLIS + TimeUnit.SECONDS.toMillis(120));
+        // Still tracked, to be retried once the throttling has elapsed.
+        Assert.assertEquals(1, mScheduler.getTrackedCount());
+    }
+
+    @Test
+    public void testThrottledRefreshWithoutRetryAfterBacksOff() throws InterruptedException {
+        final RecordingTask task = new RecordingTask();
+        task.completeWith(CommandResult.of(
+                CommandResult.ResultStatus.ERROR,
+                new ServiceException("service_unavailable", "Unavailable", 503, null),
+                null
+        ));
+
+        mScheduler.track(newAccessToken("scope", TimeUnit.MINUTES.toSeconds(4)), task);
+
+        Assert.assertTrue(task.awaitStarts(1));
+        assertThrottledUntil(NOW_MILLIS + ProactiveTokenRefreshScheduler.MIN_THROTTLE_BACKOFF_MILLIS);
+    }
+
+    @Test
+    public void testTrackedTokensAreCapped() {
+        final RecordingTask task = new RecordingTask();
+
+        for (int i = 0; i < ProactiveTokenRefreshScheduler.MAX_TRACKED_ENTRIES + 5; i++) {
+            mScheduler.track(newAccessToken("scope" + i, TimeUnit.HOURS.toSeconds(1)), task);
+        }
+
+        Assert.assertEquals(ProactiveTokenRefreshScheduler.MAX_TRACKED_ENTRIES, mScheduler.getTrackedCount());
+    }
+
+    @Test
+    public void testTokenWithoutExpiryIsNotTracked() {
+        mScheduler.track(new AccessTokenRecord(), new RecordingTask());
+        Assert.assertEquals(0, mScheduler.getTrackedCount());
+    }
+
+    private AccessTokenRecord newAccessToken(final String target, final long expiresInSeconds) {
+        final AccessTokenRecord accessToken = new AccessTokenRecord();
+        accessToken.setHomeAccountId("uid.utid");
+        accessToken.setEnvironment("login.microsoftonline.com");
+        accessToken.setClientId("client-id");
+        accessToken.setRealm("utid");
+        accessToken.setTarget(target);
+        accessToken.setExpiresOn(String.valueOf(TimeUnit.MILLISECONDS.toSeconds(mNow.get()) + expiresInSeconds));
+        return accessToken;
+    }
+
+    private void assertThrottledUntil(final long expectedMillis) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (mScheduler.getThrottledUntilMillis() != expectedMillis && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(expectedMillis, mScheduler.getThrottledUntilMillis());
+    }
+
+    private static void assertEventually(final int expectedCount,
+                                         final ProactiveTokenRefreshScheduler scheduler) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (scheduler.getTrackedCount() != expectedCount && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(expectedCount, scheduler.getTrackedCount());
+    }
+
+    /**
+     * Records the refreshes it is asked to start, and completes them with a preset result (if any).
+     */
+    private static class RecordingTask implements ProactiveTokenRefreshScheduler.IRefreshTask {
+        private final List<ResultFuture<CommandResult>> mStarted = new CopyOnWriteArrayList<>();
+        private final List<CountDownLatch> mLatches = new ArrayList<>();
+        private volatile CommandResult mResult;
+
+        RecordingTask() {
+            for (int i = 0; i < 8; i++) {
+                mLatches.add(new CountDownLatch(i + 1));
+            }
+        }
+
+        void completeWith(final CommandResult result) {
+            mResult = result;
+        }
+
+        boolean awaitStarts(final int count) throws InterruptedException {
+            return awaitStarts(count, 5000);
+        }
+
+        boolean awaitStarts(final int count, final long timeoutMillis) throws InterruptedException {
+            return mLatches.get(count - 1).await(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public ResultFuture<CommandResult> start() {
+            final ResultFuture<CommandResult> future = new ResultFuture<>();
+            mStarted.add(future);
+            for (final CountDownLatch latch : mLatches) {
+                latch.countDown();
+            }
+            if (mResult != null) {
+                future.setResult(mResult);
+            }
+            return future;
+        }
+    }
+}
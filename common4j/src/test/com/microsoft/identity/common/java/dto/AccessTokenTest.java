@@ -63,6 +63,29 @@ public class AccessTokenTest {
         }
     }
 
+    @Test
+    public void testTimestampsAreParsedToMillis() {
+        final AccessTokenRecord accessToken = new AccessTokenRecord();
+        accessToken.setExpiresOn("2000");
+        accessToken.setRefreshOn("1000");
+        accessToken.setExtendedExpiresOn("3000");
+        assertEquals(2_000_000L, accessToken.getExpiresOnMillis());
+        assertEquals(1_000_000L, accessToken.getRefreshOnMillis());
+        assertEquals(3_000_000L, accessToken.getExtendedExpiresOnMillis());
+        assertTrue(accessToken.isExpired());
+        assertTrue(accessToken.shouldRefresh());
+    }
+
+    @Test
+    public void testSetterInvalidatesParsedMillis() {
+        final AccessTokenRecord accessToken = new AccessTokenRecord();
+        accessToken.setExpiresOn("1000");
+        assertEquals(1_000_000L, accessToken.getExpiresOnMillis());
+
+        accessToken.setExpiresOn("2000");
+        assertEquals(2_000_000L, accessToken.getExpiresOnMillis());
+    }
+
     private String getCurrentTimeStr() {
         return String.valueOf(
                 Calendar
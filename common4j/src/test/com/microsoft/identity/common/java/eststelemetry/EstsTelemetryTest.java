@@ -41,14 +41,15 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import edu.umd.cs.findbugs.annotations.Nullable;
 import lombok.NonNull;
 
 import static com.microsoft.identity.common.java.eststelemetry.LastRequestTelemetry.FAILED_REQUEST_CAP;
-import static com.microsoft.identity.common.java.eststelemetry.LastRequestTelemetryCache.LAST_TELEMETRY_HEADER_STRING_CACHE_KEY;
 import static com.microsoft.identity.common.java.eststelemetry.LastRequestTelemetryCache.LAST_TELEMETRY_OBJECT_CACHE_KEY;
-import static com.microsoft.identity.common.java.eststelemetry.LastRequestTelemetryCache.LAST_TELEMETRY_SCHEMA_VERSION_CACHE_KEY;
+import static com.microsoft.identity.common.java.eststelemetry.LastRequestTelemetryCache.LAST_TELEMETRY_RECORD_CACHE_KEY;
 import static com.microsoft.identity.common.java.eststelemetry.SchemaConstants.CURRENT_REQUEST_HEADER_NAME;
 import static com.microsoft.identity.common.java.eststelemetry.SchemaConstants.Key.API_ID;
 import static com.microsoft.identity.common.java.eststelemetry.SchemaConstants.LAST_REQUEST_HEADER_NAME;
@@ -146,11 +147,10 @@ public class EstsTelemetryTest {
         final InMemoryStorage<String> lastRequestTelemetryMap = new InMemoryStorage<>();
         flush(mockCommand, mockCommandResult, inMemoryTelemetryMap, null, lastRequestTelemetryMap);
 
-        Assert.assertEquals(lastRequestTelemetryMap.size(), 3);
-        Assert.assertEquals(lastRequestTelemetryMap.get(LAST_TELEMETRY_SCHEMA_VERSION_CACHE_KEY), "2");
-        Assert.assertEquals(lastRequestTelemetryMap.get(LAST_TELEMETRY_HEADER_STRING_CACHE_KEY), "2|1|||2,");
-        Assert.assertEquals(lastRequestTelemetryMap.get(LAST_TELEMETRY_OBJECT_CACHE_KEY),
-                "{\"silent_successful_count\":1,\"failed_requests\":[],\"schema_version\":\"2\",\"platform_telemetry\":{}}");
+        Assert.assertEquals(lastRequestTelemetryMap.size(), 1);
+        Assert.assertEquals(getSavedHeaderString(lastRequestTelemetryMap), "2|1|||2,");
+        Assert.assertEquals(lastRequestTelemetryMap.get(LAST_TELEMETRY_RECORD_CACHE_KEY),
+                "{\"v\":\"2\",\"s\":1,\"f\":[],\"p\":{}}");
     }
 
     @Test
@@ -224,15 +224,12 @@ public class EstsTelemetryTest {
         final InMemoryStorage<String> lastRequestTelemetryMap = new InMemoryStorage<>();
         flush(mockCommand, mockCommandResult, inMemoryTelemetryMap, null, lastRequestTelemetryMap);
 
-        Assert.assertEquals(lastRequestTelemetryMap.size(), 3);
-        Assert.assertEquals(lastRequestTelemetryMap.get(LAST_TELEMETRY_SCHEMA_VERSION_CACHE_KEY), "2");
-        Assert.assertEquals(lastRequestTelemetryMap.get(LAST_TELEMETRY_HEADER_STRING_CACHE_KEY),
+        Assert.assertEquals(lastRequestTelemetryMap.size(), 1);
+        Assert.assertEquals(getSavedHeaderString(lastRequestTelemetryMap),
                 "2|0|" + apiId + "," + correlationId + "|" + errorCode + "|2,");
-        Assert.assertEquals(lastRequestTelemetryMap.get(LAST_TELEMETRY_OBJECT_CACHE_KEY),
-                "{\"silent_successful_count\":0,\"failed_requests\":[{\"mApiId\":\"" + apiId +
-                        "\",\"mCorrelationId\":\"" + correlationId +
-                        "\",\"mError\":\"" + exception.getErrorCode() + "\"}]," +
-                        "\"schema_version\":\"2\",\"platform_telemetry\":{}}");
+        Assert.assertEquals(lastRequestTelemetryMap.get(LAST_TELEMETRY_RECORD_CACHE_KEY),
+                "{\"v\":\"2\",\"s\":0,\"f\":[[\"" + apiId + "\",\"" + correlationId +
+                        "\",\"" + exception.getErrorCode() + "\"]],\"p\":{}}");
     }
 
     @Test
@@ -281,15 +278,12 @@ public class EstsTelemetryTest {
 
         flush(mockCommand, mockCommandResult, inMemoryTelemetryMap, sentFailedRequestsMap, lastRequestTelemetryMap);
 
-        Assert.assertEquals(lastRequestTelemetryMap.size(), 3);
-        Assert.assertEquals(lastRequestTelemetryMap.get(LAST_TELEMETRY_SCHEMA_VERSION_CACHE_KEY), "2");
-        Assert.assertEquals(lastRequestTelemetryMap.get(LAST_TELEMETRY_HEADER_STRING_CACHE_KEY),
+        Assert.assertEquals(lastRequestTelemetryMap.size(), 1);
+        Assert.assertEquals(getSavedHeaderString(lastRequestTelemetryMap),
                 "2|0|" + apiId + "," + correlationId + "|" + errorCode + "|2,");
-        Assert.assertEquals(lastRequestTelemetryMap.get(LAST_TELEMETRY_OBJECT_CACHE_KEY),
-                "{\"silent_successful_count\":0,\"failed_requests\":[{\"mApiId\":\"" + apiId +
-                        "\",\"mCorrelationId\":\"" + correlationId +
-                        "\",\"mError\":\"" + exception.getErrorCode() + "\"}]," +
-                        "\"schema_version\":\"2\",\"platform_telemetry\":{}}");
+        Assert.assertEquals(lastRequestTelemetryMap.get(LAST_TELEMETRY_RECORD_CACHE_KEY),
+                "{\"v\":\"2\",\"s\":0,\"f\":[[\"" + apiId + "\",\"" + correlationId +
+                        "\",\"" + exception.getErrorCode() + "\"]],\"p\":{}}");
     }
 
     @Test
@@ -428,6 +422,152 @@ public class EstsTelemetryTest {
         Assert.assertEquals("2|2|||2,1", headers.get(LAST_REQUEST_HEADER_NAME));
     }
 
+    @Test
+    public void testConcurrentFlushesAreAllAggregated() throws InterruptedException {
+        final int threadCount = 8;
+        final int flushesPerThread = 50;
+        final InMemoryStorage<String> lastRequestTelemetryMap = new InMemoryStorage<>();
+        final EstsTelemetry telemetry = getTelemetry(null, null, lastRequestTelemetryMap);
+
+        final ILocalAuthenticationResult cachedSuccessResult = MockAuthenticationResult.builder()
+                .isServicedFromCache(true)
+                .build();
+
+        final CountDownLatch done = new CountDownLatch(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < flushesPerThread; i++) {
+                        final String id = UUID.randomUUID().toString();
+                        final ICommand<Boolean> command = MockCommand.builder()
+                                .correlationId(id)
+                                .isEligibleForEstsTelemetry(true)
+                                .build();
+                        telemetry.initTelemetryForCommand(command);
+                        telemetry.flush(command, MockCommandResult.<ILocalAuthenticationResult>builder()
+                                .correlationId(id)
+                                .result(cachedSuccessResult)
+                                .resultStatus(ICommandResult.ResultStatus.COMPLETED)
+                                .build());
+                    }
+                    done.countDown();
+                }
+            }).start();
+        }
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+
+        telemetry.persistLastRequestTelemetry();
+        Assert.assertEquals(
+                "2|" + (threadCount * flushesPerThread) + "|||2,",
+                getSavedHeaderString(lastRequestTelemetryMap));
+    }
+
+    @Test
+    public void testFlushIsPersistedAfterDelay() throws InterruptedException {
+        final InMemoryStorage<String> lastRequestTelemetryMap = new InMemoryStorage<>();
+        final EstsTelemetry telemetry = getTelemetry(null, null, lastRequestTelemetryMap);
+
+        final ICommand<Boolean> mockCommand = MockCommand.builder()
+                .correlationId(correlationId)
+                .isEligibleForEstsTelemetry(true)
+                .build();
+        final ICommandResult mockCommandResult =
+                MockCommandResult.<ILocalAuthenticationResult>builder()
+                        .correlationId(correlationId)
+                        .result(MockAuthenticationResult.builder().isServicedFromCache(true).build())
+                        .resultStatus(ICommandResult.ResultStatus.COMPLETED)
+                        .build();
+
+        for (int i = 0; i < 3; i++) {
+            telemetry.initTelemetryForCommand(mockCommand);
+            telemetry.flush(mockCommand, mockCommandResult);
+        }
+
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (lastRequestTelemetryMap.get(LAST_TELEMETRY_RECORD_CACHE_KEY) == null
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        Assert.assertEquals("2|3|||2,", getSavedHeaderString(lastRequestTelemetryMap));
+    }
+
+    @Test
+    public void testGetTelemetryHeaders_LastTelemetryExceedsHeaderLimit() {
+        DiagnosticContext.INSTANCE.getRequestContext().put(CORRELATION_ID, correlationId);
+
+        final InMemoryStorage<CurrentRequestTelemetry> inMemoryTelemetryMap = new InMemoryStorage<>();
+        final CurrentRequestTelemetry currentRequestTelemetry = new CurrentRequestTelemetry();
+        currentRequestTelemetry.put(API_ID, apiId);
+        inMemoryTelemetryMap.put(correlationId, currentRequestTelemetry);
+
+        final LastRequestTelemetry lastRequestTelemetry = new LastRequestTelemetry(SchemaConstants.CURRENT_SCHEMA_VERSION);
+        for (int i = 0; i < FAILED_REQUEST_CAP; i++) {
+            lastRequestTelemetry.appendFailedRequest(apiId, UUID.randomUUID().toString(), errorCode);
+        }
+        final InMemoryStorage<String> lastRequestTelemetryMap = new InMemoryStorage<>();
+        new LastRequestTelemetryCache(lastRequestTelemetryMap).saveRequestTelemetryToCache(lastRequestTelemetry);
+
+        final InMemoryStorage<Set<FailedRequest>> sentFailedRequestsMap = new InMemoryStorage<>();
+        final Set<FailedRequest> sentFailedRequests = new HashSet<>();
+        sentFailedRequestsMap.put(correlationId, sentFailedRequests);
+
+        final EstsTelemetry telemetry = getTelemetry(inMemoryTelemetryMap, sentFailedRequestsMap, lastRequestTelemetryMap);
+        final String lastHeader = telemetry.getTelemetryHeaders().get(LAST_REQUEST_HEADER_NAME);
+
+        // The header stops growing once it reaches the limit, and reports that not all data was sent.
+        Assert.assertTrue(lastHeader.length() < SchemaConstants.HEADER_DATA_LIMIT + 100);
+        Assert.assertTrue(lastHeader.endsWith("|2,0"));
+        Assert.assertTrue(sentFailedRequests.size() > 0);
+        Assert.assertTrue(sentFailedRequests.size() < FAILED_REQUEST_CAP);
+        Assert.assertEquals(sentFailedRequests.size(), lastHeader.split("\\|")[2].split(",").length / 2);
+    }
+
+    @Test
+    public void testCurrentRequestHeaderIsUpdatedOnEmit() {
+        final CurrentRequestTelemetry currentRequestTelemetry = new CurrentRequestTelemetry();
+        currentRequestTelemetry.put(API_ID, apiId);
+        final String header = currentRequestTelemetry.getCompleteHeaderString();
+        Assert.assertSame(header, currentRequestTelemetry.getCompleteHeaderString());
+
+        currentRequestTelemetry.put(SchemaConstants.Key.FORCE_REFRESH, SchemaConstants.Value.TRUE);
+        Assert.assertEquals("2|" + apiId + ",1|2,,,,,,,,,,,,", currentRequestTelemetry.getCompleteHeaderString());
+    }
+
+    @Test
+    public void testCurrentRequestHeaderIsKeptOnNoOpEmit() {
+        final CurrentRequestTelemetry currentRequestTelemetry = new CurrentRequestTelemetry();
+        currentRequestTelemetry.put(API_ID, apiId);
+        currentRequestTelemetry.put(SchemaConstants.Key.ACCOUNT_STATUS, "1");
+        final String header = currentRequestTelemetry.getCompleteHeaderString();
+
+        // Same api id, and platform fields are only recorded once.
+        currentRequestTelemetry.put(API_ID, apiId);
+        currentRequestTelemetry.put(SchemaConstants.Key.ACCOUNT_STATUS, "2");
+        Assert.assertSame(header, currentRequestTelemetry.getCompleteHeaderString());
+    }
+
+    @Test
+    public void testLastRequestTelemetryRecordRoundTrip() {
+        final LastRequestTelemetry lastRequestTelemetry = new LastRequestTelemetry(SchemaConstants.CURRENT_SCHEMA_VERSION);
+        lastRequestTelemetry.incrementSilentSuccessCount();
+        lastRequestTelemetry.incrementSilentSuccessCount();
+        lastRequestTelemetry.appendFailedRequest("API_1", "COL_ID_1", "ERR_1");
+        lastRequestTelemetry.appendFailedRequest("API_2", "COL_ID_2", null);
+
+        final LastRequestTelemetry decoded = LastRequestTelemetryCache.decode(
+                LastRequestTelemetryCache.encode(lastRequestTelemetry));
+
+        Assert.assertNotNull(decoded);
+        Assert.assertEquals(lastRequestTelemetry.getCompleteHeaderString(), decoded.getCompleteHeaderString());
+    }
+
+    private static String getSavedHeaderString(@NonNull final InMemoryStorage<String> lastRequestTelemetryMap) {
+        final LastRequestTelemetry saved = new LastRequestTelemetryCache(lastRequestTelemetryMap).getRequestTelemetryFromCache();
+        return saved == null ? null : saved.getCompleteHeaderString();
+    }
+
     private void flush(@NonNull ICommand<Boolean> mockCommand,
                        @NonNull ICommandResult mockCommandResult,
                        @Nullable InMemoryStorage<CurrentRequestTelemetry> inMemoryTelemetryMap,
@@ -438,6 +578,8 @@ public class EstsTelemetryTest {
 
         final EstsTelemetry telemetry = getTelemetry(inMemoryTelemetryMap, sentFailedRequestsMap, lastRequestTelemetryMap);
         telemetry.flush(mockCommand, mockCommandResult);
+        // Persistence is debounced; write now so that the cache can be inspected.
+        telemetry.persistLastRequestTelemetry();
         Assert.assertEquals(inMemoryTelemetryMap.size(), 0);
     }
 
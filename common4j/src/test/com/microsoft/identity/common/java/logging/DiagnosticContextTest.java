@@ -0,0 +1,151 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.logging;
+
+import com.microsoft.identity.common.java.opentelemetry.OtelContextExtension;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class DiagnosticContextTest {
+
+    private static final String CORRELATION_ID = "a0b1c2d3-e4f5-4a6b-8c7d-8e9f0a1b2c3d";
+
+    @After
+    public void tearDown() {
+        DiagnosticContext.INSTANCE.clear();
+    }
+
+    @Test
+    public void testSnapshotOfThreadWithoutRequestContext() {
+        final DiagnosticContextSnapshot snapshot = DiagnosticContext.INSTANCE.getSnapshot();
+
+        Assert.assertEquals("UNSET", snapshot.getCorrelationId());
+        Assert.assertEquals(String.valueOf(Thread.currentThread().getId()), snapshot.getThreadId());
+        Assert.assertEquals(
+                "thread_id: " + Thread.currentThread().getId() + ", correlation_id: UNSET",
+                snapshot.getLogMetadata()
+        );
+        Assert.assertNull(DiagnosticContext.INSTANCE.peekSnapshot());
+    }
+
+    @Test
+    public void testSnapshotIsReusedUntilRequestContextChanges() {
+        final RequestContext requestContext = new RequestContext();
+        requestContext.put(DiagnosticContext.CORRELATION_ID, CORRELATION_ID);
+        DiagnosticContext.INSTANCE.setRequestContext(requestContext);
+
+        final DiagnosticContextSnapshot snapshot = DiagnosticContext.INSTANCE.getSnapshot();
+        Assert.assertEquals(CORRELATION_ID, snapshot.getCorrelationId());
+        Assert.assertSame(snapshot, DiagnosticContext.INSTANCE.getSnapshot());
+
+        DiagnosticContext.INSTANCE.getRequestContext().put(DiagnosticContext.CORRELATION_ID, "other");
+        Assert.assertEquals("other", DiagnosticContext.INSTANCE.getSnapshot().getCorrelationId());
+        Assert.assertEquals("other", DiagnosticContext.INSTANCE.getThreadCorrelationId());
+        Assert.assertEquals(CORRELATION_ID, snapshot.getCorrelationId());
+    }
+
+    @Test
+    public void testReadingRequestContextKeepsSnapshot() {
+        final RequestContext requestContext = new RequestContext();
+        requestContext.put(DiagnosticContext.CORRELATION_ID, CORRELATION_ID);
+        DiagnosticContext.INSTANCE.setRequestContext(requestContext);
+
+        final DiagnosticContextSnapshot snapshot = DiagnosticContext.INSTANCE.getSnapshot();
+        final IRequestContext heldContext = DiagnosticContext.INSTANCE.getRequestContext();
+        Assert.assertSame(snapshot, DiagnosticContext.INSTANCE.getSnapshot());
+
+        heldContext.put(DiagnosticContext.CORRELATION_ID, "other");
+        Assert.assertEquals("other", DiagnosticContext.INSTANCE.getSnapshot().getCorrelationId());
+    }
+
+    @Test
+    public void testSetSnapshotOnAnotherThread() throws Exception {
+        final RequestContext requestContext = new RequestContext();
+        requestContext.put(DiagnosticContext.CORRELATION_ID, CORRELATION_ID);
+        requestContext.put("product", "MSAL");
+        DiagnosticContext.INSTANCE.setRequestContext(requestContext);
+        final DiagnosticContextSnapshot snapshot = DiagnosticContext.INSTANCE.getSnapshot();
+
+        final AtomicReference<DiagnosticContextSnapshot> threadSnapshot = new AtomicReference<>();
+        final AtomicReference<IRequestContext> threadRequestContext = new AtomicReference<>();
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                DiagnosticContext.INSTANCE.setSnapshot(snapshot);
+                threadSnapshot.set(DiagnosticContext.INSTANCE.getSnapshot());
+                threadRequestContext.set(DiagnosticContext.INSTANCE.getRequestContext());
+            }
+        });
+        thread.start();
+        thread.join();
+
+        final String threadId = String.valueOf(thread.getId());
+        Assert.assertEquals(threadId, threadSnapshot.get().getThreadId());
+        Assert.assertEquals(CORRELATION_ID, threadSnapshot.get().getCorrelationId());
+        Assert.assertEquals(
+                "thread_id: " + threadId + ", correlation_id: " + CORRELATION_ID,
+                threadSnapshot.get().getLogMetadata()
+        );
+        Assert.assertEquals(threadId, threadRequestContext.get().get(DiagnosticContext.THREAD_ID));
+        Assert.assertEquals("MSAL", threadRequestContext.get().get("product"));
+    }
+
+    @Test
+    public void testWrapPropagatesAndRestoresDiagnosticContext() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final AtomicReference<String> correlationIdInTask = new AtomicReference<>();
+            final AtomicReference<DiagnosticContextSnapshot> snapshotAfterTask = new AtomicReference<>();
+
+            final RequestContext requestContext = new RequestContext();
+            requestContext.put(DiagnosticContext.CORRELATION_ID, CORRELATION_ID);
+            DiagnosticContext.INSTANCE.setRequestContext(requestContext);
+
+            executor.submit(OtelContextExtension.wrap(new Runnable() {
+                @Override
+                public void run() {
+                    correlationIdInTask.set(DiagnosticContext.INSTANCE.getThreadCorrelationId());
+                }
+            })).get(5, TimeUnit.SECONDS);
+
+            executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    snapshotAfterTask.set(DiagnosticContext.INSTANCE.peekSnapshot());
+                }
+            }).get(5, TimeUnit.SECONDS);
+
+            Assert.assertEquals(CORRELATION_ID, correlationIdInTask.get());
+            Assert.assertNull(snapshotAfterTask.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
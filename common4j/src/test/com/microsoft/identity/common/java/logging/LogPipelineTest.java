@@ -0,0 +1,128 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.logging;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import lombok.NonNull;
+
+public class LogPipelineTest {
+
+    private static LogPipeline.LogEntry entry(final String message) {
+        return new LogPipeline.LogEntry("TAG", Logger.LogLevel.INFO, null, message, null, null, false,
+                System.currentTimeMillis());
+    }
+
+    /**
+     * Blocks the worker on the first batch until released, so that the buffer can be filled deterministically.
+     */
+    private static class BlockingHandler implements LogPipeline.IBatchHandler {
+        final CountDownLatch mFirstBatchReceived = new CountDownLatch(1);
+        final CountDownLatch mRelease = new CountDownLatch(1);
+        final List<String> mMessages = Collections.synchronizedList(new ArrayList<String>());
+        final List<Long> mDroppedReports = Collections.synchronizedList(new ArrayList<Long>());
+
+        @Override
+        public void onBatch(@NonNull final List<LogPipeline.LogEntry> batch, final long droppedSinceLastBatch) {
+            mDroppedReports.add(droppedSinceLastBatch);
+            for (final LogPipeline.LogEntry entry : batch) {
+                mMessages.add(entry.mMessage);
+            }
+            mFirstBatchReceived.countDown();
+            try {
+                mRelease.await(1, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Test
+    public void testDropNewest_KeepsQueuedLines() throws InterruptedException {
+        final BlockingHandler handler = new BlockingHandler();
+        final LogPipeline pipeline = new LogPipeline(2, 10, Logger.OverflowPolicy.DROP_NEWEST, handler);
+
+        Assert.assertTrue(pipeline.submit(entry("0")));
+        Assert.assertTrue(handler.mFirstBatchReceived.await(1, TimeUnit.SECONDS));
+
+        Assert.assertTrue(pipeline.submit(entry("1")));
+        Assert.assertTrue(pipeline.submit(entry("2")));
+        Assert.assertFalse(pipeline.submit(entry("3")));
+        Assert.assertEquals(1, pipeline.getDroppedCount());
+
+        handler.mRelease.countDown();
+        Assert.assertTrue(pipeline.awaitIdle(5, TimeUnit.SECONDS));
+
+        Assert.assertEquals(3, pipeline.getDeliveredCount());
+        Assert.assertEquals(4, pipeline.getSubmittedCount());
+        Assert.assertEquals(Arrays.asList("0", "1", "2"), handler.mMessages);
+        Assert.assertEquals(Long.valueOf(1), handler.mDroppedReports.get(1));
+    }
+
+    @Test
+    public void testDropOldest_KeepsNewestLines() throws InterruptedException {
+        final BlockingHandler handler = new BlockingHandler();
+        final LogPipeline pipeline = new LogPipeline(2, 10, Logger.OverflowPolicy.DROP_OLDEST, handler);
+
+        pipeline.submit(entry("0"));
+        Assert.assertTrue(handler.mFirstBatchReceived.await(1, TimeUnit.SECONDS));
+
+        pipeline.submit(entry("1"));
+        pipeline.submit(entry("2"));
+        Assert.assertFalse(pipeline.submit(entry("3")));
+        Assert.assertEquals(1, pipeline.getDroppedCount());
+
+        handler.mRelease.countDown();
+        Assert.assertTrue(pipeline.awaitIdle(5, TimeUnit.SECONDS));
+
+        Assert.assertEquals(Arrays.asList("0", "2", "3"), handler.mMessages);
+    }
+
+    @Test
+    public void testLinesAreDeliveredInBatches() throws InterruptedException {
+        final BlockingHandler handler = new BlockingHandler();
+        final LogPipeline pipeline = new LogPipeline(100, 4, Logger.OverflowPolicy.DROP_NEWEST, handler);
+
+        pipeline.submit(entry("0"));
+        Assert.assertTrue(handler.mFirstBatchReceived.await(1, TimeUnit.SECONDS));
+        for (int i = 1; i <= 8; i++) {
+            pipeline.submit(entry(String.valueOf(i)));
+        }
+
+        handler.mRelease.countDown();
+        Assert.assertTrue(pipeline.awaitIdle(5, TimeUnit.SECONDS));
+
+        Assert.assertEquals(9, pipeline.getDeliveredCount());
+        // One batch for the first line, then two full batches of four.
+        Assert.assertEquals(3, handler.mDroppedReports.size());
+        Assert.assertEquals(0, pipeline.getDroppedCount());
+    }
+}
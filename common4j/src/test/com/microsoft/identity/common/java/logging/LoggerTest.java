@@ -25,18 +25,21 @@ package com.microsoft.identity.common.java.logging;
 
 import com.microsoft.identity.common.java.nativeauth.controllers.results.ResetPasswordCommandResult;
 import com.microsoft.identity.common.java.nativeauth.controllers.results.ResetPasswordStartCommandResult;
+import com.microsoft.identity.common.java.util.Supplier;
 
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
+import lombok.NonNull;
 import lombok.SneakyThrows;
 
 public class LoggerTest {
-    final int DISCARDED_TIME_IN_MILLISECONDS = 100;
     final int TEST_TIME_OUT_IN_MILLISECONDS = 1000;
 
     final String tag = "TAG";
@@ -92,7 +95,7 @@ public class LoggerTest {
         // Logs like this should never be discarded, as Logger will produce a non-PII-containing string
         final boolean shouldLogBeDiscarded = false;
 
-        final Boolean timedOut = !countDownLatch.await(DISCARDED_TIME_IN_MILLISECONDS, TimeUnit.MILLISECONDS);
+        final Boolean timedOut = !isDelivered(countDownLatch);
         Assert.assertEquals(shouldLogBeDiscarded, timedOut);
 
         Assert.assertEquals(result_tag[0], tag);
@@ -149,7 +152,7 @@ public class LoggerTest {
         // Logs like this should never be discarded, as Logger will produce a non-PII-containing string
         final boolean shouldLogBeDiscarded = false;
 
-        final Boolean timedOut = !countDownLatch.await(DISCARDED_TIME_IN_MILLISECONDS, TimeUnit.MILLISECONDS);
+        final Boolean timedOut = !isDelivered(countDownLatch);
         Assert.assertEquals(shouldLogBeDiscarded, timedOut);
 
         Assert.assertEquals(result_tag[0], tag);
@@ -211,7 +214,7 @@ public class LoggerTest {
         // Logs like this should never be discarded
         final boolean shouldLogBeDiscarded = false;
 
-        final Boolean timedOut = !countDownLatch.await(DISCARDED_TIME_IN_MILLISECONDS, TimeUnit.MILLISECONDS);
+        final Boolean timedOut = !isDelivered(countDownLatch);
         Assert.assertEquals(shouldLogBeDiscarded, timedOut);
 
         Assert.assertEquals(result_tag[0], tag);
@@ -262,7 +265,7 @@ public class LoggerTest {
         // Logs like this should never be discarded, as Logger will produce a non-PII-containing string
         final boolean shouldLogBeDiscarded = false;
 
-        final Boolean timedOut = !countDownLatch.await(DISCARDED_TIME_IN_MILLISECONDS, TimeUnit.MILLISECONDS);
+        final Boolean timedOut = !isDelivered(countDownLatch);
         Assert.assertEquals(shouldLogBeDiscarded, timedOut);
 
         Assert.assertEquals(result_tag[0], tag);
@@ -399,6 +402,99 @@ public class LoggerTest {
         }, false);
     }
 
+    @Test(timeout = TEST_TIME_OUT_IN_MILLISECONDS)
+    public void logWithSupplier_FilteredLevel_SupplierNotInvoked() throws InterruptedException {
+        final boolean[] invoked = {false};
+
+        Logger.setLogLevel(Logger.LogLevel.INFO);
+        testLogger(tag, Logger.LogLevel.VERBOSE, correlationId, message, false, new IOperationToTest() {
+            @Override
+            public void execute() {
+                Logger.verbose(tag, new Supplier<String>() {
+                    @Override
+                    public String get() {
+                        invoked[0] = true;
+                        return message;
+                    }
+                });
+            }
+        }, true);
+
+        Assert.assertFalse(invoked[0]);
+    }
+
+    @Test(timeout = TEST_TIME_OUT_IN_MILLISECONDS)
+    public void logWithSupplier() throws InterruptedException {
+        final RequestContext requestContext = new RequestContext();
+        requestContext.put(DiagnosticContext.CORRELATION_ID, correlationId);
+        DiagnosticContext.INSTANCE.setRequestContext(requestContext);
+
+        testLogger(tag, Logger.LogLevel.INFO, correlationId, message, false, new IOperationToTest() {
+            @Override
+            public void execute() {
+                Logger.info(tag, new Supplier<String>() {
+                    @Override
+                    public String get() {
+                        return message;
+                    }
+                });
+            }
+        }, false);
+    }
+
+    @Test(timeout = TEST_TIME_OUT_IN_MILLISECONDS)
+    public void logWithFormat() throws InterruptedException {
+        testLogger(tag, Logger.LogLevel.WARN, correlationId, "Found [3] Message", false, new IOperationToTest() {
+            @Override
+            public void execute() {
+                Logger.warn(tag, correlationId, "Found [%d] %s", 3, message);
+            }
+        }, false);
+    }
+
+    @Test
+    public void isLoggable() {
+        Logger.setLogLevel(Logger.LogLevel.INFO);
+        Assert.assertTrue(Logger.isLoggable(Logger.LogLevel.ERROR, false));
+        Assert.assertTrue(Logger.isLoggable(Logger.LogLevel.INFO, false));
+        Assert.assertFalse(Logger.isLoggable(Logger.LogLevel.VERBOSE, false));
+        Assert.assertFalse(Logger.isLoggable(Logger.LogLevel.INFO, true));
+
+        Logger.setAllowPii(true);
+        Assert.assertTrue(Logger.isLoggable(Logger.LogLevel.INFO, true));
+
+        Logger.setLogLevel(Logger.LogLevel.NO_LOG);
+        Assert.assertFalse(Logger.isLoggable(Logger.LogLevel.ERROR, false));
+    }
+
+    @Test(timeout = TEST_TIME_OUT_IN_MILLISECONDS)
+    public void logWithBatchCallback() throws InterruptedException {
+        final CountDownLatch countDownLatch = new CountDownLatch(1);
+        final List<LogLine> received = new ArrayList<>();
+
+        Logger.setLogger("TEST", new ILoggerBatchCallback() {
+            @Override
+            public void log(@NonNull final List<LogLine> logLines) {
+                received.addAll(logLines);
+                countDownLatch.countDown();
+            }
+
+            @Override
+            public void log(String tag, Logger.LogLevel logLevel, String message, boolean containsPII) {
+                Assert.fail("Batch callbacks should not receive single lines.");
+            }
+        });
+
+        Logger.warn(tag, correlationId, message);
+        Assert.assertTrue(isDelivered(countDownLatch));
+
+        Assert.assertEquals(1, received.size());
+        Assert.assertEquals(tag, received.get(0).getTag());
+        Assert.assertEquals(Logger.LogLevel.WARN, received.get(0).getLogLevel());
+        Assert.assertTrue(received.get(0).getMessage().contains(message));
+        Assert.assertTrue(received.get(0).getMessage().contains(correlationId));
+    }
+
     // Each thread should print a different thread name (and correlation ID, if set differently) to the log.
     @Test(timeout = TEST_TIME_OUT_IN_MILLISECONDS)
     public void logWithDiagnosticContext_Multithread() throws InterruptedException {
@@ -452,6 +548,15 @@ public class LoggerTest {
         void execute();
     }
 
+    /**
+     * Waits for the log pipeline to hand out everything logged so far, rather than for a fixed time,
+     * and then checks whether the callback was reached.
+     */
+    private static boolean isDelivered(final CountDownLatch countDownLatch) throws InterruptedException {
+        Assert.assertTrue(Logger.getLogPipeline().awaitIdle(1, TimeUnit.SECONDS));
+        return countDownLatch.getCount() == 0;
+    }
+
     private void testLogger(String expectedTag,
                             Logger.LogLevel expectedLogLevel,
                             String expectedCorrelationId,
@@ -477,7 +582,7 @@ public class LoggerTest {
         });
 
         operation.execute();
-        final Boolean timedOut = !countDownLatch.await(DISCARDED_TIME_IN_MILLISECONDS, TimeUnit.MILLISECONDS);
+        final Boolean timedOut = !isDelivered(countDownLatch);
         Assert.assertEquals(shouldLogBeDiscarded, timedOut);
 
         if (shouldLogBeDiscarded) {
@@ -0,0 +1,173 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.opentelemetry;
+
+import static io.opentelemetry.api.common.AttributeKey.booleanKey;
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.DoubleHistogramBuilder;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.LongCounterBuilder;
+import io.opentelemetry.api.metrics.LongHistogram;
+import io.opentelemetry.api.metrics.LongHistogramBuilder;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.MeterProvider;
+
+public class SdkMetricsTest {
+
+    private final Map<String, DoubleHistogram> mHistograms = new HashMap<>();
+    private final Map<String, LongHistogram> mLongHistograms = new HashMap<>();
+    private LongCounter mCounter;
+    private OpenTelemetry mOriginal;
+
+    @Before
+    public void setUp() {
+        mOriginal = OpenTelemetryHolder.getOpenTelemetry();
+        OpenTelemetryHolder.setOpenTelemetry(mockOpenTelemetry());
+    }
+
+    @After
+    public void tearDown() {
+        OpenTelemetryHolder.setOpenTelemetry(mOriginal);
+    }
+
+    @Test
+    public void testCommandMetricsAreRecordedInMilliseconds() {
+        SdkMetrics.recordCommandQueueWait("SilentTokenCommand", TimeUnit.MILLISECONDS.toNanos(12));
+        SdkMetrics.recordCommandExecution("SilentTokenCommand", "COMPLETED", TimeUnit.MILLISECONDS.toNanos(250));
+
+        Mockito.verify(mHistograms.get(SdkMetrics.COMMAND_QUEUE_WAIT_TIME)).record(12.0,
+                Attributes.of(stringKey(AttributeName.command_name.name()), "SilentTokenCommand"));
+        Mockito.verify(mHistograms.get(SdkMetrics.COMMAND_EXECUTION_TIME)).record(250.0,
+                Attributes.of(
+                        stringKey(AttributeName.command_name.name()), "SilentTokenCommand",
+                        stringKey(AttributeName.command_result_status.name()), "COMPLETED"));
+    }
+
+    @Test
+    public void testSubMillisecondDurationsAreNotTruncated() {
+        SdkMetrics.recordCacheOperation(SdkMetrics.CacheOperation.load, TimeUnit.MICROSECONDS.toNanos(250));
+
+        Mockito.verify(mHistograms.get(SdkMetrics.CACHE_OPERATION_TIME)).record(0.25,
+                Attributes.of(stringKey(AttributeName.cache_operation.name()), "load"));
+    }
+
+    @Test
+    public void testBroadcastQueueDepthIsRecordedAsCount() {
+        SdkMetrics.recordBroadcastQueueDepth("alias", 3);
+
+        Mockito.verify(mLongHistograms.get(SdkMetrics.BROADCAST_QUEUE_DEPTH)).record(3L,
+                Attributes.of(stringKey(AttributeName.broadcast_alias.name()), "alias"));
+    }
+
+    @Test
+    public void testCacheLookupHitAndMissAreCounted() {
+        SdkMetrics.recordCacheLookup(true);
+        SdkMetrics.recordCacheLookup(false);
+        SdkMetrics.recordCacheLookup(false);
+
+        Mockito.verify(mCounter).add(1L,
+                Attributes.of(stringKey(AttributeName.cache_lookup_result.name()), "hit"));
+        Mockito.verify(mCounter, Mockito.times(2)).add(1L,
+                Attributes.of(stringKey(AttributeName.cache_lookup_result.name()), "miss"));
+    }
+
+    @Test
+    public void testOperationTypesAreRecordedAsAttributes() {
+        SdkMetrics.recordCacheOperation(SdkMetrics.CacheOperation.load, TimeUnit.MILLISECONDS.toNanos(3));
+        SdkMetrics.recordCryptoOperation(SdkMetrics.CryptoOperation.decrypt, false, TimeUnit.MILLISECONDS.toNanos(7));
+        SdkMetrics.recordStorageOperation(null, -5);
+
+        Mockito.verify(mHistograms.get(SdkMetrics.CACHE_OPERATION_TIME)).record(3.0,
+                Attributes.of(stringKey(AttributeName.cache_operation.name()), "load"));
+        Mockito.verify(mHistograms.get(SdkMetrics.CRYPTO_OPERATION_TIME)).record(7.0,
+                Attributes.of(
+                        stringKey(AttributeName.crypto_operation.name()), "decrypt",
+                        booleanKey(AttributeName.is_successful.name()), false));
+        Mockito.verify(mHistograms.get(SdkMetrics.STORAGE_OPERATION_TIME)).record(0.0,
+                Attributes.of(stringKey(AttributeName.storage_operation.name()), "unknown"));
+    }
+
+    @Test
+    public void testInstrumentsFollowTheCurrentOpenTelemetryInstance() {
+        SdkMetrics.recordIpcCall("BOUND_SERVICE", "getAccounts", true, TimeUnit.MILLISECONDS.toNanos(40));
+        final DoubleHistogram first = mHistograms.get(SdkMetrics.IPC_CALL_TIME);
+        Mockito.verify(first).record(Mockito.eq(40.0), ArgumentMatchers.any(Attributes.class));
+
+        OpenTelemetryHolder.setOpenTelemetry(mockOpenTelemetry());
+        SdkMetrics.recordIpcCall("BOUND_SERVICE", "getAccounts", true, TimeUnit.MILLISECONDS.toNanos(41));
+
+        final DoubleHistogram second = mHistograms.get(SdkMetrics.IPC_CALL_TIME);
+        Mockito.verify(second).record(Mockito.eq(41.0), ArgumentMatchers.any(Attributes.class));
+        Mockito.verify(first, Mockito.never()).record(Mockito.eq(41.0), ArgumentMatchers.any(Attributes.class));
+    }
+
+    private OpenTelemetry mockOpenTelemetry() {
+        final Meter meter = Mockito.mock(Meter.class);
+        Mockito.when(meter.histogramBuilder(ArgumentMatchers.anyString())).thenAnswer(invocation -> {
+            final String name = invocation.getArgument(0);
+            final DoubleHistogram histogram = Mockito.mock(DoubleHistogram.class);
+            mHistograms.put(name, histogram);
+            final LongHistogram longHistogram = Mockito.mock(LongHistogram.class);
+            mLongHistograms.put(name, longHistogram);
+
+            final LongHistogramBuilder longBuilder = Mockito.mock(LongHistogramBuilder.class);
+            Mockito.when(longBuilder.build()).thenReturn(longHistogram);
+
+            final DoubleHistogramBuilder builder = Mockito.mock(DoubleHistogramBuilder.class);
+            Mockito.when(builder.build()).thenReturn(histogram);
+            Mockito.when(builder.setDescription(ArgumentMatchers.anyString())).thenReturn(builder);
+            Mockito.when(builder.setUnit(ArgumentMatchers.anyString())).thenReturn(builder);
+            Mockito.when(builder.ofLongs()).thenReturn(longBuilder);
+            return builder;
+        });
+        Mockito.when(meter.counterBuilder(ArgumentMatchers.anyString())).thenAnswer(invocation -> {
+            mCounter = Mockito.mock(LongCounter.class);
+            final LongCounterBuilder builder = Mockito.mock(LongCounterBuilder.class);
+            Mockito.when(builder.setDescription(ArgumentMatchers.anyString())).thenReturn(builder);
+            Mockito.when(builder.setUnit(ArgumentMatchers.anyString())).thenReturn(builder);
+            Mockito.when(builder.build()).thenReturn(mCounter);
+            return builder;
+        });
+
+        final MeterProvider meterProvider = Mockito.mock(MeterProvider.class);
+        Mockito.when(meterProvider.get(ArgumentMatchers.anyString())).thenReturn(meter);
+
+        final OpenTelemetry openTelemetry = Mockito.mock(OpenTelemetry.class);
+        Mockito.when(openTelemetry.getMeterProvider()).thenReturn(meterProvider);
+        return openTelemetry;
+    }
+}
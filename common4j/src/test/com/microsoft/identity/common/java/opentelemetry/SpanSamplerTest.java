@@ -0,0 +1,176 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.opentelemetry;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+
+public class SpanSamplerTest {
+
+    private static final SpanContext UNSAMPLED_PARENT = SpanContext.create(
+            "0af7651916cd43dd8448eb211c80319c",
+            "b7ad6b7169203331",
+            TraceFlags.getDefault(),
+            TraceState.getDefault()
+    );
+    private static final SpanContext SAMPLED_CONTEXT = SpanContext.create(
+            "0af7651916cd43dd8448eb211c80319c",
+            "b7ad6b7169203332",
+            TraceFlags.getSampled(),
+            TraceState.getDefault()
+    );
+
+    @After
+    public void tearDown() {
+        SpanSampler.reset();
+    }
+
+    @Test
+    public void testAllSpansAreSampledByDefault() {
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(SpanSampler.shouldSample(SpanName.AcquireTokenSilent.name()));
+        }
+        Assert.assertFalse(OTelUtility.createSpan(SpanName.AcquireTokenSilent.name()) instanceof NoopSpan);
+    }
+
+    @Test
+    public void testRejectedSpanIsValidButNotSampled() {
+        SpanSampler.setSampleRate(SpanName.MSAL_PerformIpcStrategy, 0.0);
+
+        final Span rejected = OTelUtility.createSpan(SpanName.MSAL_PerformIpcStrategy.name());
+        Assert.assertTrue(rejected instanceof NoopSpan);
+        Assert.assertFalse(rejected.isRecording());
+        Assert.assertTrue(rejected.getSpanContext().isValid());
+        Assert.assertFalse(rejected.getSpanContext().isSampled());
+        Assert.assertTrue(OTelUtility.createSpan(SpanName.MSAL_PerformIpcStrategy.name(), "com.contoso") instanceof NoopSpan);
+
+        // Other span names still use the default rate.
+        Assert.assertFalse(OTelUtility.createSpan(SpanName.AcquireTokenSilent.name()) instanceof NoopSpan);
+
+        SpanSampler.setSampleRate(SpanName.MSAL_PerformIpcStrategy, null);
+        Assert.assertFalse(OTelUtility.createSpan(SpanName.MSAL_PerformIpcStrategy.name()) instanceof NoopSpan);
+    }
+
+    @Test
+    public void testChildOfRejectedSpanFollowsItsDecision() {
+        SpanSampler.setSampleRate(SpanName.AcquireTokenSilent, 0.0);
+
+        final Span root = OTelUtility.createSpan(SpanName.AcquireTokenSilent.name());
+        for (int i = 0; i < 100; i++) {
+            final Span child = OTelUtility.createSpanFromParent(
+                    SpanName.MSAL_PerformIpcStrategy.name(), root.getSpanContext());
+            Assert.assertTrue(child instanceof NoopSpan);
+            Assert.assertEquals(root.getSpanContext().getTraceId(), child.getSpanContext().getTraceId());
+        }
+    }
+
+    @Test
+    public void testSampleRateIsApproximated() {
+        SpanSampler.setDefaultSampleRate(0.25);
+
+        int sampled = 0;
+        final int total = 20000;
+        for (int i = 0; i < total; i++) {
+            if (SpanSampler.shouldSample(SpanName.AcquireTokenSilent.name())) {
+                sampled++;
+            }
+        }
+
+        Assert.assertTrue("Sampled " + sampled, sampled > total * 0.22 && sampled < total * 0.28);
+    }
+
+    @Test
+    public void testChildOfUnsampledParentIsNotSampled() {
+        SpanSampler.setDefaultSampleRate(0.5);
+
+        final Span span = OTelUtility.createSpanFromParent(SpanName.AcquireTokenSilent.name(), UNSAMPLED_PARENT);
+
+        Assert.assertTrue(span instanceof NoopSpan);
+        Assert.assertEquals(UNSAMPLED_PARENT, span.getSpanContext());
+    }
+
+    @Test
+    public void testChildOfUnsampledParentIsLeftToTracerByDefault() {
+        Assert.assertFalse(SpanSampler.isSamplingConfigured());
+
+        final Span span = OTelUtility.createSpanFromParent(SpanName.AcquireTokenSilent.name(), UNSAMPLED_PARENT);
+
+        Assert.assertFalse(span instanceof NoopSpan);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSampleRate() {
+        SpanSampler.setDefaultSampleRate(1.5);
+    }
+
+    @Test
+    public void testAttributeBudgetDropsNonEssentialAttributesOfUnsampledSpan() {
+        final Span recordingSpan = Mockito.mock(Span.class);
+        Mockito.when(recordingSpan.isRecording()).thenReturn(true);
+        Mockito.when(recordingSpan.getSpanContext()).thenReturn(UNSAMPLED_PARENT);
+
+        SpanSampler.setAttributeBudget(2);
+        SpanSampler.setEssentialAttributes(Collections.singleton(AttributeName.correlation_id));
+        final Span span = SpanSampler.applyAttributeBudget(recordingSpan);
+
+        span.setAttribute(AttributeName.ipc_strategy.name(), "CONTENT_PROVIDER");
+        span.setAttribute(AttributeName.response_body_length.name(), 42L);
+        span.setAttribute(AttributeName.response_content_type.name(), "application/json");
+        span.setAttribute(AttributeName.correlation_id.name(), "cid");
+        span.end();
+
+        Mockito.verify(recordingSpan).setAttribute(AttributeName.ipc_strategy.name(), "CONTENT_PROVIDER");
+        Mockito.verify(recordingSpan).setAttribute(AttributeName.response_body_length.name(), 42L);
+        Mockito.verify(recordingSpan, Mockito.never()).setAttribute(AttributeName.response_content_type.name(), "application/json");
+        Mockito.verify(recordingSpan).setAttribute(AttributeName.correlation_id.name(), "cid");
+        Mockito.verify(recordingSpan).end();
+    }
+
+    @Test
+    public void testNoAttributeBudgetByDefault() {
+        final Span recordingSpan = Mockito.mock(Span.class);
+        Mockito.when(recordingSpan.isRecording()).thenReturn(true);
+
+        Assert.assertSame(recordingSpan, SpanSampler.applyAttributeBudget(recordingSpan));
+    }
+
+    @Test
+    public void testAttributeBudgetDoesNotApplyToSampledSpan() {
+        final Span sampledSpan = Mockito.mock(Span.class);
+        Mockito.when(sampledSpan.isRecording()).thenReturn(true);
+        Mockito.when(sampledSpan.getSpanContext()).thenReturn(SAMPLED_CONTEXT);
+
+        SpanSampler.setAttributeBudget(0);
+
+        Assert.assertSame(sampledSpan, SpanSampler.applyAttributeBudget(sampledSpan));
+    }
+}
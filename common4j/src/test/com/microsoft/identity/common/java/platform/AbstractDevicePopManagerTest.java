@@ -0,0 +1,318 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.platform;
+
+import com.microsoft.identity.common.java.authscheme.IPoPAuthenticationSchemeParams;
+import com.microsoft.identity.common.java.authscheme.PopAuthenticationSchemeInternal;
+import com.microsoft.identity.common.java.crypto.IDevicePopManager;
+import com.microsoft.identity.common.java.crypto.PopKeyType;
+import com.microsoft.identity.common.java.crypto.SigningAlgorithm;
+import com.microsoft.identity.common.java.exception.ClientException;
+import com.microsoft.identity.common.java.util.ClockSkewManager;
+import com.microsoft.identity.common.java.util.ResultFuture;
+import com.microsoft.identity.common.java.util.ported.InMemoryStorage;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.SignedJWT;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URL;
+import java.security.KeyPair;
+import java.security.KeyStore;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+public class AbstractDevicePopManagerTest {
+
+    private static final String ALIAS = "test-device-pop";
+    private static final String ACCESS_TOKEN = "access-token";
+
+    private InMemoryDevicePopManager mDevicePopManager;
+
+    @Before
+    public void setUp() throws Exception {
+        mDevicePopManager = new InMemoryDevicePopManager(ALIAS);
+        mDevicePopManager.generateAsymmetricKey();
+    }
+
+    @After
+    public void tearDown() {
+        mDevicePopManager.clearAsymmetricKey();
+    }
+
+    @Test
+    public void testMintedShrIsSignedByCurrentKey() throws Exception {
+        final SignedJWT shr = mint(mDevicePopManager);
+
+        Assert.assertEquals(mDevicePopManager.getAsymmetricKeyThumbprint(), shr.getHeader().getKeyID());
+        Assert.assertTrue(shr.verify(verifierFor(mDevicePopManager)));
+        Assert.assertEquals(ACCESS_TOKEN, shr.getJWTClaimsSet().getStringClaim("at"));
+    }
+
+    @Test
+    public void testRepeatedMintsReuseKeyMaterial() throws Exception {
+        final SignedJWT first = mint(mDevicePopManager);
+        final SignedJWT second = mint(mDevicePopManager);
+
+        Assert.assertEquals(first.getHeader().getKeyID(), second.getHeader().getKeyID());
+        Assert.assertEquals(cnf(first), cnf(second));
+        Assert.assertTrue(second.verify(verifierFor(mDevicePopManager)));
+    }
+
+    @Test
+    public void testRegeneratingKeyInvalidatesKeyMaterial() throws Exception {
+        final String oldKid = mint(mDevicePopManager).getHeader().getKeyID();
+
+        final String newThumbprint = mDevicePopManager.generateAsymmetricKey();
+        final SignedJWT shr = mint(mDevicePopManager);
+
+        Assert.assertNotEquals(oldKid, newThumbprint);
+        Assert.assertEquals(newThumbprint, shr.getHeader().getKeyID());
+        Assert.assertTrue(shr.verify(verifierFor(mDevicePopManager)));
+    }
+
+    @Test
+    public void testClearingKeyInvalidatesKeyMaterial() throws Exception {
+        final String oldKid = mint(mDevicePopManager).getHeader().getKeyID();
+
+        final InMemoryDevicePopManager otherManager = new InMemoryDevicePopManager("test-device-pop-other");
+        otherManager.generateAsymmetricKey();
+        final KeyStore.PrivateKeyEntry otherEntry = otherManager.getKeyManager().getEntry();
+
+        mDevicePopManager.clearAsymmetricKey();
+        mDevicePopManager.getKeyManager().storeAsymmetricKey(
+                otherEntry.getPrivateKey(),
+                otherEntry.getCertificateChain()
+        );
+        final SignedJWT shr = mint(mDevicePopManager);
+
+        Assert.assertNotEquals(oldKid, shr.getHeader().getKeyID());
+        Assert.assertEquals(otherManager.getAsymmetricKeyThumbprint(), shr.getHeader().getKeyID());
+        Assert.assertTrue(shr.verify(verifierFor(otherManager)));
+    }
+
+    @Test
+    public void testEcKeyGeneration() throws Exception {
+        final String thumbprint = mDevicePopManager.generateAsymmetricKey(PopKeyType.EC_P256);
+
+        Assert.assertEquals(PopKeyType.EC_P256, mDevicePopManager.getAsymmetricKeyType());
+        Assert.assertEquals(thumbprint, mDevicePopManager.getAsymmetricKeyThumbprint());
+        Assert.assertTrue(mDevicePopManager.asymmetricKeyExists(thumbprint));
+    }
+
+    @Test
+    public void testEcKeyFallsBackToRsaWhenUnsupported() throws Exception {
+        final InMemoryDevicePopManager rsaOnlyManager = new InMemoryDevicePopManager("test-device-pop-rsa-only", false);
+
+        try {
+            final String thumbprint = rsaOnlyManager.generateAsymmetricKey(PopKeyType.EC_P256);
+
+            Assert.assertEquals(PopKeyType.RSA_2048, rsaOnlyManager.getAsymmetricKeyType());
+            Assert.assertEquals(thumbprint, rsaOnlyManager.getAsymmetricKeyThumbprint());
+        } finally {
+            rsaOnlyManager.clearAsymmetricKey();
+        }
+    }
+
+    @Test
+    public void testMintedShrWithEcKeyUsesEs256() throws Exception {
+        mint(mDevicePopManager);
+        mDevicePopManager.generateAsymmetricKey(PopKeyType.EC_P256);
+
+        final SignedJWT shr = mint(mDevicePopManager);
+
+        Assert.assertEquals(JWSAlgorithm.ES256, shr.getHeader().getAlgorithm());
+        Assert.assertEquals(mDevicePopManager.getAsymmetricKeyThumbprint(), shr.getHeader().getKeyID());
+        Assert.assertEquals("EC", ((Map<?, ?>) cnf(shr)).get("kty"));
+        Assert.assertTrue(shr.verify(verifierFor(mDevicePopManager)));
+    }
+
+    @Test
+    public void testRequestConfirmationWithEcKey() throws Exception {
+        final String thumbprint = mDevicePopManager.generateAsymmetricKey(PopKeyType.EC_P256);
+
+        final String reqCnf = new String(Base64URL.from(mDevicePopManager.getRequestConfirmation()).decode(), "UTF-8");
+
+        Assert.assertEquals("{\"kid\":\"" + thumbprint + "\"}", reqCnf);
+    }
+
+    @Test
+    public void testSignAndVerifyWithEcKey() throws Exception {
+        mDevicePopManager.generateAsymmetricKey(PopKeyType.EC_P256);
+
+        final String signature = mDevicePopManager.sign(SigningAlgorithm.SHA_256_WITH_ECDSA, "payload");
+
+        Assert.assertTrue(mDevicePopManager.verify(SigningAlgorithm.SHA_256_WITH_ECDSA, "payload", signature));
+        Assert.assertFalse(mDevicePopManager.verify(SigningAlgorithm.SHA_256_WITH_ECDSA, "tampered", signature));
+    }
+
+    @Test
+    public void testBatchMintPreservesOrder() throws Exception {
+        assertBatchMint(false);
+    }
+
+    @Test
+    public void testParallelBatchMintPreservesOrder() throws Exception {
+        assertBatchMint(true);
+    }
+
+    @Test
+    public void testBatchMintOfEmptyListReturnsEmptyList() throws Exception {
+        Assert.assertTrue(
+                mDevicePopManager.mintSignedHttpRequests(
+                        1234L,
+                        Collections.<IPoPAuthenticationSchemeParams>emptyList(),
+                        true
+                ).isEmpty()
+        );
+    }
+
+    @Test
+    public void testRequestConfirmationAsyncMatchesSync() throws Exception {
+        final String reqCnf = mDevicePopManager.getRequestConfirmation();
+
+        Assert.assertEquals(reqCnf, mDevicePopManager.getRequestConfirmationAsync().get());
+        Assert.assertEquals(reqCnf, mDevicePopManager.getRequestConfirmation());
+    }
+
+    @Test
+    public void testRequestConfirmationFollowsKeyChanges() throws Exception {
+        final String reqCnf = mDevicePopManager.getRequestConfirmation();
+
+        final String thumbprint = mDevicePopManager.generateAsymmetricKey();
+
+        final String newReqCnf = mDevicePopManager.getRequestConfirmation();
+        Assert.assertNotEquals(reqCnf, newReqCnf);
+        Assert.assertEquals(
+                "{\"kid\":\"" + thumbprint + "\"}",
+                new String(Base64URL.from(newReqCnf).decode(), "UTF-8")
+        );
+    }
+
+    @Test(expected = ClientException.class)
+    public void testRequestConfirmationWithoutKeyThrows() throws Exception {
+        mDevicePopManager.clearAsymmetricKey();
+        mDevicePopManager.getRequestConfirmation();
+    }
+
+    @Test
+    public void testConcurrentAsyncKeyGenerationsShareOneKey() throws Exception {
+        mDevicePopManager.clearAsymmetricKey();
+
+        // Hold the first generation open so the second request is guaranteed to overlap it.
+        final CountDownLatch release = new CountDownLatch(1);
+        final InMemoryDevicePopManager blockingManager = new InMemoryDevicePopManager(ALIAS) {
+            @Override
+            public KeyPair generateNewRsaKeyPair(final int keySize) throws NoSuchAlgorithmException {
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.generateNewRsaKeyPair(keySize);
+            }
+        };
+
+        final ResultFuture<String> first = blockingManager.generateAsymmetricKeyAsync();
+        final ResultFuture<String> second = blockingManager.generateAsymmetricKeyAsync();
+        release.countDown();
+
+        Assert.assertSame(first, second);
+        Assert.assertEquals(first.get(), blockingManager.getAsymmetricKeyThumbprint());
+    }
+
+    @Test
+    public void testAsyncKeyGenerationKeepsExistingKey() throws Exception {
+        final String existing = mDevicePopManager.generateAsymmetricKey();
+        final String reqCnf = mDevicePopManager.getRequestConfirmation();
+
+        Assert.assertEquals(existing, mDevicePopManager.generateAsymmetricKeyAsync().get());
+        Assert.assertEquals(existing, mDevicePopManager.getAsymmetricKeyThumbprint());
+        Assert.assertEquals(reqCnf, mDevicePopManager.getRequestConfirmation());
+    }
+
+    private void assertBatchMint(final boolean parallel) throws Exception {
+        final List<IPoPAuthenticationSchemeParams> requests = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            requests.add(PopAuthenticationSchemeInternal.builder()
+                    .httpMethod(i % 2 == 0 ? "GET" : "POST")
+                    .url(new URL("https://graph.microsoft.com/v1.0/users/" + i))
+                    .nonce("nonce-" + i)
+                    .clientClaims("claims-" + i)
+                    .clockSkewManager(new ClockSkewManager(new InMemoryStorage<Long>()))
+                    .build());
+        }
+
+        final List<String> shrs = mDevicePopManager.mintSignedHttpRequests(1234L, requests, parallel);
+
+        Assert.assertEquals(requests.size(), shrs.size());
+        for (int i = 0; i < shrs.size(); i++) {
+            final SignedJWT shr = SignedJWT.parse(shrs.get(i));
+            Assert.assertTrue(shr.verify(verifierFor(mDevicePopManager)));
+            Assert.assertEquals(mDevicePopManager.getAsymmetricKeyThumbprint(), shr.getHeader().getKeyID());
+            Assert.assertNull(shr.getJWTClaimsSet().getClaim("at"));
+            Assert.assertEquals("/v1.0/users/" + i, shr.getJWTClaimsSet().getStringClaim("p"));
+            Assert.assertEquals(requests.get(i).getHttpMethod(), shr.getJWTClaimsSet().getStringClaim("m"));
+            Assert.assertEquals("nonce-" + i, shr.getJWTClaimsSet().getStringClaim("nonce"));
+            Assert.assertEquals("claims-" + i, shr.getJWTClaimsSet().getStringClaim("client_claims"));
+        }
+    }
+
+    private static SignedJWT mint(final IDevicePopManager devicePopManager) throws Exception {
+        return SignedJWT.parse(
+                devicePopManager.mintSignedAccessToken(
+                        "GET",
+                        1234L,
+                        new URL("https://graph.microsoft.com/v1.0/me"),
+                        ACCESS_TOKEN,
+                        "nonce"
+                )
+        );
+    }
+
+    private static Object cnf(final SignedJWT shr) throws Exception {
+        return ((Map<?, ?>) shr.getJWTClaimsSet().getClaim("cnf")).get("jwk");
+    }
+
+    private static JWSVerifier verifierFor(final InMemoryDevicePopManager devicePopManager) throws Exception {
+        final PublicKey publicKey = devicePopManager.getKeyManager().getEntry().getCertificate().getPublicKey();
+        if (publicKey instanceof ECPublicKey) {
+            return new ECDSAVerifier((ECPublicKey) publicKey);
+        }
+        return new RSASSAVerifier((RSAPublicKey) publicKey);
+    }
+}
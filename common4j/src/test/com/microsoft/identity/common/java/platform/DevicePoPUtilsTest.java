@@ -0,0 +1,100 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.platform;
+
+import com.microsoft.identity.common.components.MockPlatformComponentsFactory;
+import com.microsoft.identity.common.java.crypto.IDevicePopManager;
+import com.microsoft.identity.common.java.exception.ClientException;
+import com.microsoft.identity.common.java.interfaces.IPlatformComponents;
+import com.microsoft.identity.common.java.interfaces.IPopManagerSupplier;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.NonNull;
+
+public class DevicePoPUtilsTest {
+
+    private InMemoryDevicePopManager mDevicePopManager;
+    private IPlatformComponents mPlatformComponents;
+
+    @Before
+    public void setUp() throws Exception {
+        mDevicePopManager = new InMemoryDevicePopManager("test-device-pop-utils");
+        mPlatformComponents = MockPlatformComponentsFactory.getNonFunctionalBuilder()
+                .popManagerLoader(new IPopManagerSupplier() {
+                    @Override
+                    @NonNull
+                    public IDevicePopManager getDevicePopManager(@Nullable final String alias) {
+                        return mDevicePopManager;
+                    }
+                })
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        mDevicePopManager.clearAsymmetricKey();
+    }
+
+    @Test
+    public void testPrewarmGeneratesKeyInBackground() throws Exception {
+        Assert.assertFalse(mDevicePopManager.asymmetricKeyExists());
+
+        final String reqCnf = DevicePoPUtils.prewarmDevicePopKey(mPlatformComponents).get();
+
+        Assert.assertTrue(mDevicePopManager.asymmetricKeyExists());
+        Assert.assertEquals(mDevicePopManager.getRequestConfirmation(), reqCnf);
+    }
+
+    @Test
+    public void testPrewarmKeepsExistingKey() throws Exception {
+        final String thumbprint = mDevicePopManager.generateAsymmetricKey();
+
+        DevicePoPUtils.prewarmDevicePopKey(mPlatformComponents).get();
+
+        Assert.assertEquals(thumbprint, mDevicePopManager.getAsymmetricKeyThumbprint());
+    }
+
+    @Test
+    public void testEnsureAsymmetricKeyJoinsPrewarm() throws Exception {
+        DevicePoPUtils.prewarmDevicePopKey(mPlatformComponents);
+        DevicePoPUtils.ensureAsymmetricKey(mDevicePopManager);
+
+        final String thumbprint = mDevicePopManager.getAsymmetricKeyThumbprint();
+        final String reqCnf = DevicePoPUtils.prewarmDevicePopKey(mPlatformComponents).get();
+
+        Assert.assertEquals(thumbprint, mDevicePopManager.getAsymmetricKeyThumbprint());
+        Assert.assertEquals(mDevicePopManager.getRequestConfirmation(), reqCnf);
+    }
+
+    @Test
+    public void testEnsureAsymmetricKeyGeneratesMissingKey() throws ClientException {
+        DevicePoPUtils.ensureAsymmetricKey(mDevicePopManager);
+
+        Assert.assertTrue(mDevicePopManager.asymmetricKeyExists());
+    }
+}
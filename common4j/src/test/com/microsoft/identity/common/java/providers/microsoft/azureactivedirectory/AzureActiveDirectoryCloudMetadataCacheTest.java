@@ -0,0 +1,121 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.providers.microsoft.azureactivedirectory;
+
+import com.microsoft.identity.common.java.authorities.Environment;
+import com.microsoft.identity.common.java.util.ObjectMapper;
+import com.microsoft.identity.common.java.util.ported.InMemoryStorage;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(JUnit4.class)
+public class AzureActiveDirectoryCloudMetadataCacheTest {
+
+    private static final String INSTANCE_DISCOVERY_RESPONSE = "{"
+            + "\"tenant_discovery_endpoint\":\"https://login.microsoftonline.com/common/v2.0/.well-known/openid-configuration\","
+            + "\"api-version\":\"1.1\","
+            + "\"metadata\":[{"
+            + "\"preferred_network\":\"login.microsoftonline.com\","
+            + "\"preferred_cache\":\"login.windows.net\","
+            + "\"aliases\":[\"login.microsoftonline.com\",\"login.windows.net\",\"login.microsoft.com\"]"
+            + "}]}";
+
+    @After
+    public void tearDown() {
+        AzureActiveDirectory.setCloudMetadataCache(null);
+        AzureActiveDirectory.clearCloudMetadata();
+    }
+
+    @Test
+    public void testSaveAndLoad() {
+        final AzureActiveDirectoryCloudMetadataCache cache =
+                new AzureActiveDirectoryCloudMetadataCache(new InMemoryStorage<String>());
+        cache.save(Environment.Production, INSTANCE_DISCOVERY_RESPONSE);
+
+        final AzureActiveDirectoryCloudMetadataCache.Snapshot snapshot = cache.load(Environment.Production);
+        Assert.assertNotNull(snapshot);
+        Assert.assertEquals(INSTANCE_DISCOVERY_RESPONSE, snapshot.getResponse());
+        Assert.assertFalse(cache.shouldRefresh(snapshot));
+        Assert.assertNull(cache.load(Environment.PreProduction));
+    }
+
+    @Test
+    public void testExpiredSnapshotIsRemoved() {
+        final InMemoryStorage<String> storage = new InMemoryStorage<>();
+        final AzureActiveDirectoryCloudMetadataCache cache =
+                new AzureActiveDirectoryCloudMetadataCache(storage, -1, -1);
+        cache.save(Environment.Production, INSTANCE_DISCOVERY_RESPONSE);
+
+        Assert.assertNull(cache.load(Environment.Production));
+        Assert.assertTrue(storage.keySet().isEmpty());
+    }
+
+    @Test
+    public void testSnapshotFromTheFutureIsKeptAndRefreshed() {
+        final InMemoryStorage<String> storage = new InMemoryStorage<>();
+        final AzureActiveDirectoryCloudMetadataCache cache = new AzureActiveDirectoryCloudMetadataCache(storage);
+        storage.put("instance_discovery-Production", ObjectMapper.serializeObjectToJsonString(
+                new AzureActiveDirectoryCloudMetadataCache.Snapshot(
+                        System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1),
+                        INSTANCE_DISCOVERY_RESPONSE)));
+
+        final AzureActiveDirectoryCloudMetadataCache.Snapshot snapshot = cache.load(Environment.Production);
+        Assert.assertNotNull(snapshot);
+        Assert.assertTrue(cache.shouldRefresh(snapshot));
+    }
+
+    @Test
+    public void testCorruptedSnapshotIsRemoved() {
+        final InMemoryStorage<String> storage = new InMemoryStorage<>();
+        storage.put("instance_discovery-Production", "{not json");
+        final AzureActiveDirectoryCloudMetadataCache cache = new AzureActiveDirectoryCloudMetadataCache(storage);
+
+        Assert.assertNull(cache.load(Environment.Production));
+        Assert.assertTrue(storage.keySet().isEmpty());
+    }
+
+    @Test
+    public void testCloudMetadataIsHydratedFromSnapshot() throws Exception {
+        final AzureActiveDirectoryCloudMetadataCache cache =
+                new AzureActiveDirectoryCloudMetadataCache(new InMemoryStorage<String>());
+        cache.save(Environment.Production, INSTANCE_DISCOVERY_RESPONSE);
+
+        AzureActiveDirectory.setEnvironment(Environment.Production);
+        AzureActiveDirectory.setCloudMetadataCache(cache);
+
+        Assert.assertTrue(AzureActiveDirectory.isInitialized());
+        Assert.assertTrue(AzureActiveDirectory.hasCloudHost(new URL("https://login.windows.net/common")));
+        final AzureActiveDirectoryCloud cloud =
+                AzureActiveDirectory.getAzureActiveDirectoryCloudFromHostName("login.microsoft.com");
+        Assert.assertNotNull(cloud);
+        Assert.assertTrue(cloud.isValidated());
+        Assert.assertEquals("login.microsoftonline.com", cloud.getPreferredNetworkHostName());
+    }
+}
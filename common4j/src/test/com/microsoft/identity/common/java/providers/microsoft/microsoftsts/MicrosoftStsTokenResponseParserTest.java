@@ -0,0 +1,175 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.providers.microsoft.microsoftsts;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonSyntaxException;
+import com.microsoft.identity.common.java.providers.microsoft.MicrosoftTokenErrorResponse;
+import com.microsoft.identity.common.java.util.ObjectMapper;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+@RunWith(JUnit4.class)
+public class MicrosoftStsTokenResponseParserTest {
+
+    private static final String TOKEN_RESPONSE = "{"
+            + "\"token_type\":\"Bearer\","
+            + "\"scope\":\"user.read openid profile offline_access\","
+            + "\"expires_in\":4607,"
+            + "\"ext_expires_in\":\"4607\","
+            + "\"refresh_in\":null,"
+            + "\"access_token\":\"access.token.value\","
+            + "\"refresh_token\":\"refresh-token\","
+            + "\"refresh_token_expires_in\":86400,"
+            + "\"id_token\":\"eyJ0eXAiOiJKV1QiLCJhbGciOiJub25lIn0.eyJzdWIiOiJzdWJqZWN0In0.\","
+            + "\"client_info\":\"eyJ1aWQiOiJ1aWQiLCJ1dGlkIjoidXRpZCJ9\","
+            + "\"foci\":1,"
+            + "\"session_key_jwe\":true,"
+            + "\"cloud_instance_host_name\":\"login.microsoftonline.com\","
+            + "\"not_before\":\"1700000000\","
+            + "\"unknown_string\":\"kept\","
+            + "\"unknown_number\":42,"
+            + "\"unknown_object\":{\"nested\":[1,2,{\"deep\":\"value\"}]},"
+            + "\"unknown_string\":\"kept twice\","
+            + "\"spe_ring\":\"ring\""
+            + "}";
+
+    private static final String ERROR_RESPONSE = "{"
+            + "\"error\":\"invalid_grant\","
+            + "\"error_description\":\"AADSTS70000: The grant is expired.\","
+            + "\"error_codes\":[70000,null,\"50089\"],"
+            + "\"timestamp\":\"2023-11-14 22:13:20Z\","
+            + "\"trace_id\":\"trace\","
+            + "\"correlation_id\":\"correlation\","
+            + "\"suberror\":\"bad_token\","
+            + "\"error_uri\":\"https://login.microsoftonline.com/error?code=70000\","
+            + "\"claims\":{\"access_token\":{}}"
+            + "}";
+
+    @Test
+    public void testTokenResponseMatchesReflectivePath() {
+        assertTokenResponseMatches(TOKEN_RESPONSE);
+    }
+
+    @Test
+    public void testLenientTokenResponseMatchesReflectivePath() {
+        assertTokenResponseMatches("{token_type: 'Bearer', expires_in: '3599', other: 'value'}");
+    }
+
+    @Test
+    public void testEmptyObjectTokenResponse() {
+        final MicrosoftStsTokenResponse response = assertTokenResponseMatches("{}");
+
+        Assert.assertNull(response.getAccessToken());
+        Assert.assertFalse(response.getExtraParameters().iterator().hasNext());
+    }
+
+    @Test
+    public void testEmptyOrNullBodyReturnsNull() {
+        Assert.assertNull(MicrosoftStsTokenResponseParser.parseTokenResponse(""));
+        Assert.assertNull(MicrosoftStsTokenResponseParser.parseTokenResponse("null"));
+        Assert.assertNull(MicrosoftStsTokenResponseParser.parseErrorResponse(""));
+    }
+
+    @Test
+    public void testExtraParametersKeepOnlyStrings() {
+        final MicrosoftStsTokenResponse response =
+                MicrosoftStsTokenResponseParser.parseTokenResponse(TOKEN_RESPONSE);
+
+        final List<String> keys = new ArrayList<>();
+        for (final Map.Entry<String, String> e : response.getExtraParameters()) {
+            keys.add(e.getKey() + "=" + e.getValue());
+        }
+
+        Assert.assertEquals(Arrays.asList("unknown_string=kept twice", "spe_ring=ring"), keys);
+    }
+
+    @Test(expected = JsonSyntaxException.class)
+    public void testMalformedTokenResponseThrows() {
+        MicrosoftStsTokenResponseParser.parseTokenResponse("{\"access_token\":\"abc\"");
+    }
+
+    @Test(expected = JsonSyntaxException.class)
+    public void testArrayTokenResponseThrows() {
+        MicrosoftStsTokenResponseParser.parseTokenResponse("[\"access_token\",\"abc\"]");
+    }
+
+    @Test(expected = JsonSyntaxException.class)
+    public void testObjectInStringFieldThrows() {
+        MicrosoftStsTokenResponseParser.parseTokenResponse("{\"access_token\":{\"a\":\"b\"}}");
+    }
+
+    @Test(expected = JsonSyntaxException.class)
+    public void testNonNumericExpiresInThrows() {
+        MicrosoftStsTokenResponseParser.parseTokenResponse("{\"expires_in\":\"soon\"}");
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void testTrailingContentThrows() {
+        MicrosoftStsTokenResponseParser.parseTokenResponse("{\"access_token\":\"abc\"} {}");
+    }
+
+    @Test
+    public void testErrorResponseMatchesReflectivePath() {
+        final MicrosoftTokenErrorResponse expected =
+                ObjectMapper.deserializeJsonStringToObject(ERROR_RESPONSE, MicrosoftTokenErrorResponse.class);
+        final MicrosoftTokenErrorResponse actual =
+                MicrosoftStsTokenResponseParser.parseErrorResponse(ERROR_RESPONSE);
+
+        Assert.assertEquals(
+                ObjectMapper.serializeObjectToJsonString(expected),
+                ObjectMapper.serializeObjectToJsonString(actual)
+        );
+        Assert.assertEquals(Arrays.asList(70000L, null, 50089L), actual.getErrorCodes());
+    }
+
+    private static MicrosoftStsTokenResponse assertTokenResponseMatches(final String json) {
+        final MicrosoftStsTokenResponse expected =
+                ObjectMapper.deserializeJsonStringToObject(json, MicrosoftStsTokenResponse.class);
+        final MicrosoftStsTokenResponse actual = MicrosoftStsTokenResponseParser.parseTokenResponse(json);
+
+        // Extra parameters are transient, compare them separately.
+        Assert.assertEquals(
+                ObjectMapper.serializeObjectToJsonString(expected),
+                ObjectMapper.serializeObjectToJsonString(actual)
+        );
+        Assert.assertEquals(toList(expected.getExtraParameters()), toList(actual.getExtraParameters()));
+        return actual;
+    }
+
+    private static List<Map.Entry<String, String>> toList(final Iterable<Map.Entry<String, String>> entries) {
+        final List<Map.Entry<String, String>> list = new ArrayList<>();
+        for (final Map.Entry<String, String> e : entries) {
+            list.add(e);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,98 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.providers.oauth2;
+
+import com.microsoft.identity.common.java.exception.ServiceException;
+import com.microsoft.identity.common.java.providers.microsoft.azureactivedirectory.ClientInfo;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+
+public class IDTokenTest {
+
+    // {"typ":"JWT","alg":"none"}.{"oid":"00000000-0000-0000-0000-000000000001","preferred_username":"benchmark@contoso.com","tid":"f645ad92-e38d-4d1a-b510-d1b09a74a8ca"}
+    private static final String RAW_ID_TOKEN = "eyJ0eXAiOiJKV1QiLCJhbGciOiJub25lIn0."
+            + "eyJvaWQiOiIwMDAwMDAwMC0wMDAwLTAwMDAtMDAwMC0wMDAwMDAwMDAwMDEiLCJwcmVmZXJyZWRfdXNlcm5hbWUi"
+            + "OiJiZW5jaG1hcmtAY29udG9zby5jb20iLCJ0aWQiOiJmNjQ1YWQ5Mi1lMzhkLTRkMWEtYjUxMC1kMWIwOWE3NGE4Y2EifQ.";
+
+    // {"uid":"00000000-0000-0000-0000-000000000001","utid":"f645ad92-e38d-4d1a-b510-d1b09a74a8ca"}
+    private static final String RAW_CLIENT_INFO = "eyJ1aWQiOiIwMDAwMDAwMC0wMDAwLTAwMDAtMDAwMC0wMDAwMDAwMDAwMDEiLCJ1dGlk"
+            + "IjoiZjY0NWFkOTItZTM4ZC00ZDFhLWI1MTAtZDFiMDlhNzRhOGNhIn0";
+
+    @After
+    public void tearDown() {
+        IDToken.clearParsedClaimsCache();
+        ClientInfo.clearDecodedCache();
+    }
+
+    @Test
+    public void testParseJWTReturnsCachedClaimsForSameToken() throws ServiceException {
+        final Map<String, ?> first = IDToken.parseJWT(RAW_ID_TOKEN);
+        final Map<String, ?> second = IDToken.parseJWT(new String(RAW_ID_TOKEN.toCharArray()));
+
+        Assert.assertSame(first, second);
+        Assert.assertEquals("benchmark@contoso.com", first.get("preferred_username"));
+    }
+
+    @Test
+    public void testIdTokenInstancesShareParsedClaims() throws ServiceException {
+        final IDToken first = new IDToken(RAW_ID_TOKEN);
+        final IDToken second = new IDToken(RAW_ID_TOKEN);
+
+        Assert.assertEquals(first, second);
+        Assert.assertEquals("f645ad92-e38d-4d1a-b510-d1b09a74a8ca", second.getStringClaim("tid"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testCachedClaimsAreUnmodifiable() throws ServiceException {
+        @SuppressWarnings("unchecked")
+        final Map<String, Object> claims = (Map<String, Object>) IDToken.parseJWT(RAW_ID_TOKEN);
+        claims.put("tid", "tampered");
+    }
+
+    @Test
+    public void testMalformedTokenIsNotCached() {
+        for (int i = 0; i < 2; i++) {
+            try {
+                IDToken.parseJWT("not-a-jwt");
+                Assert.fail();
+            } catch (final ServiceException e) {
+                Assert.assertNotNull(e.getErrorCode());
+            }
+        }
+    }
+
+    @Test
+    public void testClientInfoDecodedFromCache() throws ServiceException {
+        final ClientInfo first = new ClientInfo(RAW_CLIENT_INFO);
+        final ClientInfo second = new ClientInfo(RAW_CLIENT_INFO);
+
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals("00000000-0000-0000-0000-000000000001", second.getUid());
+        Assert.assertEquals("f645ad92-e38d-4d1a-b510-d1b09a74a8ca", second.getUtid());
+        Assert.assertEquals(RAW_CLIENT_INFO, second.getRawClientInfo());
+    }
+}
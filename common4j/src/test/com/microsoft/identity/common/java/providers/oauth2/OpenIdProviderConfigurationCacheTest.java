@@ -0,0 +1,185 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.providers.oauth2;
+
+import com.microsoft.identity.common.java.exception.ServiceException;
+import com.microsoft.identity.common.java.util.ObjectMapper;
+import com.microsoft.identity.common.java.util.ported.InMemoryStorage;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.NonNull;
+
+@RunWith(JUnit4.class)
+public class OpenIdProviderConfigurationCacheTest {
+
+    private static final URI CONFIG_URL = URI.create("https://login.microsoftonline.com/common/v2.0/.well-known/openid-configuration");
+    private static final URI OTHER_CONFIG_URL = URI.create("https://login.microsoftonline.com/consumers/v2.0/.well-known/openid-configuration");
+
+    private static final long ONE_HOUR = TimeUnit.HOURS.toMillis(1);
+
+    private static class CountingLoader implements OpenIdProviderConfigurationCache.IConfigurationLoader {
+        final AtomicInteger mLoadCount = new AtomicInteger();
+
+        @Override
+        @NonNull
+        public OpenIdProviderConfiguration load(@NonNull final URI configUrl) throws ServiceException {
+            mLoadCount.incrementAndGet();
+            return ObjectMapper.deserializeJsonStringToObject(
+                    "{\"issuer\":\"" + configUrl + "\"}",
+                    OpenIdProviderConfiguration.class);
+        }
+    }
+
+    @Test
+    public void testCachedEntryIsReused() throws Exception {
+        final OpenIdProviderConfigurationCache cache = new OpenIdProviderConfigurationCache();
+        final CountingLoader loader = new CountingLoader();
+
+        final OpenIdProviderConfiguration first = cache.get(CONFIG_URL, loader);
+        final OpenIdProviderConfiguration second = cache.get(CONFIG_URL, loader);
+
+        Assert.assertSame(first, second);
+        Assert.assertEquals(1, loader.mLoadCount.get());
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testExpiredEntryIsReloaded() throws Exception {
+        final OpenIdProviderConfigurationCache cache = new OpenIdProviderConfigurationCache(-1, -1, 10);
+        final CountingLoader loader = new CountingLoader();
+
+        cache.get(CONFIG_URL, loader);
+        cache.get(CONFIG_URL, loader);
+
+        Assert.assertEquals(2, loader.mLoadCount.get());
+        Assert.assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testConcurrentMissesAreCoalesced() throws Exception {
+        final OpenIdProviderConfigurationCache cache = new OpenIdProviderConfigurationCache();
+        final CountDownLatch loadStarted = new CountDownLatch(1);
+        final CountDownLatch releaseLoad = new CountDownLatch(1);
+        final CountingLoader loader = new CountingLoader() {
+            @Override
+            @NonNull
+            public OpenIdProviderConfiguration load(@NonNull final URI configUrl) throws ServiceException {
+                loadStarted.countDown();
+                try {
+                    releaseLoad.await();
+                } catch (final InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+                return super.load(configUrl);
+            }
+        };
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<OpenIdProviderConfiguration> first = executor.submit(() -> cache.get(CONFIG_URL, loader));
+            Assert.assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+            final Future<OpenIdProviderConfiguration> second = executor.submit(() -> cache.get(CONFIG_URL, loader));
+
+            // A lookup for another URI must not be blocked by the in-flight request.
+            Assert.assertNotNull(cache.get(OTHER_CONFIG_URL, new CountingLoader()));
+
+            while (cache.getCoalescedCount() == 0) {
+                Thread.sleep(5);
+            }
+            releaseLoad.countDown();
+
+            Assert.assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+            Assert.assertEquals(1, loader.mLoadCount.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailedLoadIsNotCached() {
+        final OpenIdProviderConfigurationCache cache = new OpenIdProviderConfigurationCache();
+        final OpenIdProviderConfigurationCache.IConfigurationLoader failingLoader =
+                new OpenIdProviderConfigurationCache.IConfigurationLoader() {
+                    @Override
+                    @NonNull
+                    public OpenIdProviderConfiguration load(@NonNull final URI configUrl) throws ServiceException {
+                        throw new ServiceException(ServiceException.OPENID_PROVIDER_CONFIGURATION_FAILED_TO_LOAD, "failed", null);
+                    }
+                };
+
+        try {
+            cache.get(CONFIG_URL, failingLoader);
+            Assert.fail("Expected ServiceException");
+        } catch (final ServiceException e) {
+            Assert.assertEquals(ServiceException.OPENID_PROVIDER_CONFIGURATION_FAILED_TO_LOAD, e.getErrorCode());
+        }
+
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(1, cache.getLoadFailureCount());
+    }
+
+    @Test
+    public void testOldestEntryIsEvicted() throws Exception {
+        final OpenIdProviderConfigurationCache cache = new OpenIdProviderConfigurationCache(ONE_HOUR, ONE_HOUR, 1);
+        final CountingLoader loader = new CountingLoader();
+
+        cache.get(CONFIG_URL, loader);
+        Thread.sleep(2);
+        cache.get(OTHER_CONFIG_URL, loader);
+
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals(1, cache.getEvictionCount());
+
+        cache.get(OTHER_CONFIG_URL, loader);
+        Assert.assertEquals(2, loader.mLoadCount.get());
+    }
+
+    @Test
+    public void testEntryIsLoadedFromStorage() throws Exception {
+        final InMemoryStorage<String> storage = new InMemoryStorage<>();
+        final OpenIdProviderConfigurationCache cache = new OpenIdProviderConfigurationCache();
+        cache.setStorage(storage);
+        cache.get(CONFIG_URL, new CountingLoader());
+
+        final OpenIdProviderConfigurationCache newProcessCache = new OpenIdProviderConfigurationCache();
+        newProcessCache.setStorage(storage);
+        final CountingLoader loader = new CountingLoader();
+        final OpenIdProviderConfiguration configuration = newProcessCache.get(CONFIG_URL, loader);
+
+        Assert.assertEquals(0, loader.mLoadCount.get());
+        Assert.assertEquals(CONFIG_URL.toString(), configuration.getIssuer());
+    }
+}
@@ -0,0 +1,96 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.telemetry;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import lombok.NonNull;
+
+public class TelemetryDispatcherTest {
+
+    private static List<Map<String, String>> request() {
+        return new ArrayList<>(Collections.singletonList(Collections.singletonMap("key", "value")));
+    }
+
+    @Test
+    public void testRequestsAreDispatchedInBatches() throws InterruptedException {
+        final CountDownLatch dispatched = new CountDownLatch(3);
+        final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<Integer>());
+        final TelemetryDispatcher dispatcher = new TelemetryDispatcher(16, 8, 200,
+                new TelemetryDispatcher.IBatchHandler() {
+                    @Override
+                    public void onBatch(@NonNull final List<List<Map<String, String>>> batch) {
+                        batchSizes.add(batch.size());
+                        for (int i = 0; i < batch.size(); i++) {
+                            dispatched.countDown();
+                        }
+                    }
+                });
+
+        Assert.assertTrue(dispatcher.submit(request()));
+        Assert.assertTrue(dispatcher.submit(request()));
+        Assert.assertTrue(dispatcher.submit(request()));
+
+        Assert.assertTrue(dispatched.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(batchSizes.size() < 3);
+        Assert.assertEquals(3, dispatcher.getSubmittedCount());
+        Assert.assertEquals(0, dispatcher.getDroppedCount());
+    }
+
+    @Test
+    public void testRequestsAreDroppedWhenBufferIsFull() throws InterruptedException {
+        final CountDownLatch handlerEntered = new CountDownLatch(1);
+        final CountDownLatch releaseHandler = new CountDownLatch(1);
+        final TelemetryDispatcher dispatcher = new TelemetryDispatcher(1, 1, 0,
+                new TelemetryDispatcher.IBatchHandler() {
+                    @Override
+                    public void onBatch(@NonNull final List<List<Map<String, String>>> batch) {
+                        handlerEntered.countDown();
+                        try {
+                            releaseHandler.await();
+                        } catch (final InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                });
+
+        // The first request is taken by the worker, which then blocks in the handler.
+        Assert.assertTrue(dispatcher.submit(request()));
+        Assert.assertTrue(handlerEntered.await(5, TimeUnit.SECONDS));
+
+        // The second fills the buffer, the third is dropped.
+        Assert.assertTrue(dispatcher.submit(request()));
+        Assert.assertFalse(dispatcher.submit(request()));
+        Assert.assertEquals(1, dispatcher.getDroppedCount());
+
+        releaseHandler.countDown();
+    }
+}
@@ -0,0 +1,93 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.telemetry;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TelemetryEventStoreTest {
+
+    private static Map<String, String> event(final String correlationId, final String value) {
+        final Map<String, String> event = new HashMap<>();
+        event.put(TelemetryEventStrings.Key.CORRELATION_ID, correlationId);
+        event.put("value", value);
+        return event;
+    }
+
+    @Test
+    public void testDrainOnlyReturnsEventsOfThatRequest() {
+        final TelemetryEventStore store = new TelemetryEventStore();
+        store.add(event("A", "1"));
+        store.add(event("B", "2"));
+        store.add(event("a", "3"));
+
+        final List<Map<String, String>> events = store.drain("A");
+        Assert.assertEquals(2, events.size());
+        Assert.assertEquals("1", events.get(0).get("value"));
+        Assert.assertEquals("3", events.get(1).get("value"));
+
+        Assert.assertTrue(store.drain("A").isEmpty());
+        Assert.assertEquals(1, store.getRequestCount());
+    }
+
+    @Test
+    public void testGetDoesNotRemoveEvents() {
+        final TelemetryEventStore store = new TelemetryEventStore();
+        store.add(event("A", "1"));
+
+        Assert.assertEquals(1, store.get("A").size());
+        Assert.assertEquals(1, store.get("A").size());
+        Assert.assertEquals(1, store.drain("A").size());
+    }
+
+    @Test
+    public void testOldestEventIsDroppedWhenRequestIsFull() {
+        final TelemetryEventStore store = new TelemetryEventStore(2, TelemetryEventStore.DEFAULT_MAX_IDLE_MILLIS);
+        store.add(event("A", "1"));
+        store.add(event("A", "2"));
+        store.add(event("A", "3"));
+
+        final List<Map<String, String>> events = store.drain("A");
+        Assert.assertEquals(2, events.size());
+        Assert.assertEquals("2", events.get(0).get("value"));
+        Assert.assertEquals(1, store.getDroppedEventCount());
+    }
+
+    @Test
+    public void testIdleRequestsAreEvicted() throws InterruptedException {
+        final TelemetryEventStore store = new TelemetryEventStore(TelemetryEventStore.DEFAULT_MAX_EVENTS_PER_REQUEST, 1);
+        store.add(event("A", "1"));
+        store.add(event(null, "2"));
+        Thread.sleep(5);
+        store.add(event("B", "3"));
+
+        Assert.assertTrue(store.get("A").isEmpty());
+        Assert.assertTrue(store.get(null).isEmpty());
+        Assert.assertEquals(1, store.get("B").size());
+        Assert.assertEquals(2, store.getEvictedRequestCount());
+    }
+}
@@ -27,16 +27,21 @@ import com.microsoft.identity.common.java.logging.RequestContext;
 import com.microsoft.identity.common.java.telemetry.events.HttpStartEvent;
 import com.microsoft.identity.common.java.telemetry.observers.ITelemetryAggregatedObserver;
 import com.microsoft.identity.common.java.telemetry.observers.ITelemetryDefaultObserver;
+import com.microsoft.identity.common.java.telemetry.observers.ITelemetryBatchObserver;
 import com.microsoft.identity.common.java.telemetry.observers.ITelemetryObserver;
+import com.microsoft.identity.common.java.telemetry.relay.AbstractTelemetryRelayClient;
 
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+import lombok.NonNull;
+
 import static org.junit.Assert.fail;
 
 public class TelemetryTest {
@@ -215,4 +220,52 @@ public class TelemetryTest {
         Telemetry.getInstance().flush();
     }
 
+    @Test
+    public void testRelayClientsReceiveEventsOneByOneWhenDispatchingSynchronously() {
+        final List<Map<String, String>> received = new ArrayList<>();
+        final List<Map<String, String>> batchReceived = new ArrayList<>();
+        Telemetry.getInstance().addObserver(new TestRelayClient(received));
+        Telemetry.getInstance().addObserver(new TestBatchRelayClient(batchReceived));
+
+        Telemetry.emit(new HttpStartEvent().putErrorDomain("TESTDOMAIN"));
+        Telemetry.getInstance().flush();
+
+        Assert.assertEquals(1, received.size());
+        Assert.assertEquals(1, batchReceived.size());
+        Assert.assertEquals("TESTDOMAIN", batchReceived.get(0).get(TelemetryEventStrings.Key.HTTP_ERROR_DOMAIN));
+    }
+
+    private static class TestRelayClient extends AbstractTelemetryRelayClient<Map<String, String>>
+            implements ITelemetryAggregatedObserver {
+        private final List<Map<String, String>> mReceived;
+
+        TestRelayClient(final List<Map<String, String>> received) {
+            mReceived = received;
+        }
+
+        @Override
+        public void onReceived(final Map<String, String> telemetryData) {
+            mReceived.add(telemetryData);
+        }
+
+        @Override
+        public void relayEvent(@NonNull final Map<String, String> eventData) {
+        }
+
+        @Override
+        public void flush() {
+        }
+    }
+
+    private static class TestBatchRelayClient extends TestRelayClient
+            implements ITelemetryBatchObserver<Map<String, String>> {
+        TestBatchRelayClient(final List<Map<String, String>> received) {
+            super(received);
+        }
+
+        @Override
+        public void onBatchReceived(@NonNull final List<Map<String, String>> telemetryDataBatch) {
+            Assert.fail("Batches are only delivered when dispatching asynchronously.");
+        }
+    }
 }
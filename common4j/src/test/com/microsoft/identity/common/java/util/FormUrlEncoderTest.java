@@ -0,0 +1,164 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.util;
+
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.annotations.SerializedName;
+import com.microsoft.identity.common.java.providers.microsoft.microsoftsts.MicrosoftStsTokenRequest;
+import com.microsoft.identity.common.java.providers.oauth2.TokenRequest;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+@RunWith(JUnit4.class)
+public class FormUrlEncoderTest {
+
+    private static final String SPECIAL_CHARACTERS = "a b+c&d=e/f?g%h~i'j*k.l-m_né中😀";
+
+    @SuppressWarnings("unused")
+    private static class CharArrayRequest {
+        @SerializedName("client_id")
+        private String mClientId = "client";
+
+        @JsonAdapter(CharArrayJsonAdapter.class)
+        @SerializedName("password")
+        private char[] mPassword = "secret".toCharArray();
+    }
+
+    @Test
+    public void testTokenRequestMatchesJsonPath() throws UnsupportedEncodingException {
+        final TokenRequest request = new TokenRequest();
+        request.setGrantType("refresh_token");
+        request.setCode("code");
+        request.setRedirectUri("msauth://com.contoso/abc%2Bdef");
+        request.setClientId("client-id");
+        request.setBrkClientId("brk-client-id");
+        request.setClientSecret(SPECIAL_CHARACTERS);
+        request.setScope("openid profile offline_access");
+        request.setRefreshToken("0.AAAA-bbb_ccc.ddd");
+        request.setRequestConfirmation("eyJraWQiOiJhYmMifQ");
+
+        assertMatchesJsonPath(request);
+    }
+
+    @Test
+    public void testMicrosoftStsTokenRequestMatchesJsonPath() throws UnsupportedEncodingException {
+        final MicrosoftStsTokenRequest request = new MicrosoftStsTokenRequest();
+        request.setGrantType("authorization_code");
+        request.setClientId("client-id");
+        request.setCorrelationId(UUID.randomUUID());
+        request.setClaims("{\"access_token\":{\"deviceid\":{\"essential\":true}}}");
+        request.setTokenScope("user.read");
+        request.setClientAppName("com.contoso");
+        request.setBrokerVersion("transient");
+
+        assertMatchesJsonPath(request);
+    }
+
+    @Test
+    public void testExtraParametersMergedInKeyOrder() throws UnsupportedEncodingException {
+        final MicrosoftStsTokenRequest request = new MicrosoftStsTokenRequest();
+        request.setClientId("client-id");
+        request.setScope("openid");
+        request.setExtraParameters(Arrays.<Map.Entry<String, String>>asList(
+                new AbstractMap.SimpleEntry<>("aaa", "first"),
+                new AbstractMap.SimpleEntry<>("scope", "overridden scope"),
+                new AbstractMap.SimpleEntry<>("code_verifier", "only in extras"),
+                new AbstractMap.SimpleEntry<String, String>(null, "ignored"),
+                new AbstractMap.SimpleEntry<>("zzz", SPECIAL_CHARACTERS)
+        ));
+
+        final String encoded = assertMatchesJsonPath(request);
+
+        Assert.assertTrue(encoded.startsWith("aaa=first&client_id=client-id&client_info=1&code_verifier=only+in+extras&"));
+        Assert.assertTrue(encoded.contains("&scope=overridden+scope&"));
+        Assert.assertFalse(encoded.contains("ignored"));
+    }
+
+    @Test
+    public void testEmptyRequest() throws UnsupportedEncodingException {
+        final TokenRequest request = new TokenRequest();
+
+        Assert.assertEquals("", ObjectMapper.serializeObjectToFormUrlEncoded(request));
+        Assert.assertTrue(ObjectMapper.constructMapFromObject(request).isEmpty());
+    }
+
+    @Test
+    public void testAppendEncodedMatchesUrlEncoder() throws UnsupportedEncodingException {
+        final String[] values = {
+                "",
+                "plain",
+                SPECIAL_CHARACTERS,
+                "\ud83d",
+                "trailing high surrogate \ud83d",
+                "\r\n\t!\"#$()[]{}<>|\\^`",
+        };
+
+        for (final String value : values) {
+            final StringBuilder builder = new StringBuilder();
+            FormUrlEncoder.appendEncoded(builder, value);
+
+            Assert.assertEquals(URLEncoder.encode(value, "UTF-8"), builder.toString());
+        }
+    }
+
+    @Test
+    public void testUnsupportedTypesUseJsonPath() throws UnsupportedEncodingException {
+        Assert.assertNull(FormUrlEncoder.forClass(CharArrayRequest.class));
+        Assert.assertNull(FormUrlEncoder.forClass(HashMap.class));
+        Assert.assertEquals(
+                "client_id=client&password=secret",
+                ObjectMapper.serializeObjectToFormUrlEncoded(new CharArrayRequest())
+        );
+    }
+
+    @Test
+    public void testEncoderIsCached() {
+        Assert.assertSame(
+                FormUrlEncoder.forClass(MicrosoftStsTokenRequest.class),
+                FormUrlEncoder.forClass(MicrosoftStsTokenRequest.class)
+        );
+    }
+
+    private static String assertMatchesJsonPath(final Object request) throws UnsupportedEncodingException {
+        final String encoded = ObjectMapper.serializeObjectToFormUrlEncoded(request);
+
+        Assert.assertNotNull(FormUrlEncoder.forClass(request.getClass()));
+        Assert.assertEquals(
+                ObjectMapper.encodeMapToFormUrlEncoded(ObjectMapper.constructMapFromJson(request)),
+                encoded
+        );
+        Assert.assertEquals(ObjectMapper.constructMapFromJson(request), ObjectMapper.constructMapFromObject(request));
+        return encoded;
+    }
+}
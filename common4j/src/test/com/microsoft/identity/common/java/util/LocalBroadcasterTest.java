@@ -22,15 +22,37 @@
 // THE SOFTWARE.
 package com.microsoft.identity.common.java.util;
 
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Test;
 
 import com.microsoft.identity.common.java.util.ported.LocalBroadcaster;
+import com.microsoft.identity.common.java.util.ported.PropertyBag;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.microsoft.identity.common.java.AuthenticationConstants.LocalBroadcasterAliases.CANCEL_AUTHORIZATION_REQUEST;
 
 import static com.microsoft.identity.common.java.AuthenticationConstants.LocalBroadcasterAliases.RETURN_AUTHORIZATION_REQUEST_RESULT;
 
 public class LocalBroadcasterTest {
 
+    private static final String ORDER_KEY = "order";
+    private static final String LATENCY_CRITICAL_ALIAS = "latency_critical_test_alias";
+
+    @After
+    public void tearDown() {
+        LocalBroadcaster.INSTANCE.clearReceivers();
+        LocalBroadcaster.INSTANCE.unmarkLatencyCritical(CANCEL_AUTHORIZATION_REQUEST);
+        LocalBroadcaster.INSTANCE.unmarkLatencyCritical(LATENCY_CRITICAL_ALIAS);
+        LocalBroadcaster.setDispatchMode(LocalBroadcaster.DispatchMode.SERIAL);
+    }
+
     @Test
     public void testClearReceivers() {
         LocalBroadcaster.INSTANCE.registerCallback(RETURN_AUTHORIZATION_REQUEST_RESULT, propertyBag -> {
@@ -52,4 +74,132 @@ public class LocalBroadcasterTest {
         Assert.assertEquals(LocalBroadcaster.INSTANCE.hasReceivers(RETURN_AUTHORIZATION_REQUEST_RESULT), false);
     }
 
-}
\ No newline at end of file
+
+    @Test
+    public void testPerAliasModeKeepsOrderWithinAlias() throws InterruptedException {
+        LocalBroadcaster.setDispatchMode(LocalBroadcaster.DispatchMode.PER_ALIAS);
+        final int count = 200;
+        final List<Integer> received = Collections.synchronizedList(new ArrayList<Integer>());
+        final CountDownLatch done = new CountDownLatch(count);
+        LocalBroadcaster.INSTANCE.registerCallback(RETURN_AUTHORIZATION_REQUEST_RESULT, propertyBag -> {
+            received.add(propertyBag.<Integer>get(ORDER_KEY));
+            done.countDown();
+        });
+
+        for (int i = 0; i < count; i++) {
+            final PropertyBag bag = new PropertyBag();
+            bag.put(ORDER_KEY, i);
+            LocalBroadcaster.INSTANCE.broadcast(RETURN_AUTHORIZATION_REQUEST_RESULT, bag);
+        }
+
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < count; i++) {
+            Assert.assertEquals(Integer.valueOf(i), received.get(i));
+        }
+        // A broadcast is only counted as done once its receiver has returned.
+        LocalBroadcaster.resetBroadcast();
+        Assert.assertEquals(0, LocalBroadcaster.INSTANCE.getQueueDepth(RETURN_AUTHORIZATION_REQUEST_RESULT));
+    }
+
+    @Test
+    public void testPerAliasModeDoesNotBlockOtherAliases() throws InterruptedException {
+        LocalBroadcaster.setDispatchMode(LocalBroadcaster.DispatchMode.PER_ALIAS);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch otherDelivered = new CountDownLatch(1);
+        LocalBroadcaster.INSTANCE.registerCallback(RETURN_AUTHORIZATION_REQUEST_RESULT, propertyBag -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        LocalBroadcaster.INSTANCE.registerCallback(CANCEL_AUTHORIZATION_REQUEST, propertyBag -> otherDelivered.countDown());
+
+        LocalBroadcaster.INSTANCE.broadcast(RETURN_AUTHORIZATION_REQUEST_RESULT, new PropertyBag());
+        LocalBroadcaster.INSTANCE.broadcast(RETURN_AUTHORIZATION_REQUEST_RESULT, new PropertyBag());
+        LocalBroadcaster.INSTANCE.broadcast(CANCEL_AUTHORIZATION_REQUEST, new PropertyBag());
+
+        try {
+            Assert.assertTrue(otherDelivered.await(5, TimeUnit.SECONDS));
+            // One delivery is blocked in the receiver, the other is queued behind it.
+            Assert.assertEquals(2, LocalBroadcaster.INSTANCE.getQueueDepth(RETURN_AUTHORIZATION_REQUEST_RESULT));
+        } finally {
+            release.countDown();
+        }
+        LocalBroadcaster.resetBroadcast();
+        Assert.assertEquals(0, LocalBroadcaster.INSTANCE.getQueueDepth(RETURN_AUTHORIZATION_REQUEST_RESULT));
+    }
+
+    @Test
+    public void testLatencyCriticalAliasIsDeliveredSynchronously() {
+        LocalBroadcaster.setDispatchMode(LocalBroadcaster.DispatchMode.PER_ALIAS);
+        LocalBroadcaster.INSTANCE.markLatencyCritical(CANCEL_AUTHORIZATION_REQUEST);
+        final Thread caller = Thread.currentThread();
+        final Thread[] receivedOn = new Thread[1];
+        LocalBroadcaster.INSTANCE.registerCallback(CANCEL_AUTHORIZATION_REQUEST, propertyBag -> receivedOn[0] = Thread.currentThread());
+
+        LocalBroadcaster.INSTANCE.broadcast(CANCEL_AUTHORIZATION_REQUEST, new PropertyBag());
+
+        Assert.assertSame(caller, receivedOn[0]);
+    }
+
+    @Test
+    public void testLatencyCriticalAliasIsQueuedInSerialMode() throws InterruptedException {
+        LocalBroadcaster.INSTANCE.markLatencyCritical(CANCEL_AUTHORIZATION_REQUEST);
+        final Thread caller = Thread.currentThread();
+        final Thread[] receivedOn = new Thread[1];
+        final CountDownLatch done = new CountDownLatch(1);
+        LocalBroadcaster.INSTANCE.registerCallback(CANCEL_AUTHORIZATION_REQUEST, propertyBag -> {
+            receivedOn[0] = Thread.currentThread();
+            done.countDown();
+        });
+
+        LocalBroadcaster.INSTANCE.broadcast(CANCEL_AUTHORIZATION_REQUEST, new PropertyBag());
+
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        Assert.assertNotSame(caller, receivedOn[0]);
+    }
+
+    @Test
+    public void testLatencyCriticalAliasWaitsForDeliveryInProgress() throws InterruptedException {
+        LocalBroadcaster.setDispatchMode(LocalBroadcaster.DispatchMode.PER_ALIAS);
+        final CountDownLatch firstStarted = new CountDownLatch(1);
+        final CountDownLatch releaseFirst = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(2);
+        final List<Integer> received = Collections.synchronizedList(new ArrayList<Integer>());
+        final Thread caller = Thread.currentThread();
+        final Thread[] secondReceivedOn = new Thread[1];
+        LocalBroadcaster.INSTANCE.registerCallback(LATENCY_CRITICAL_ALIAS, propertyBag -> {
+            final int order = propertyBag.<Integer>get(ORDER_KEY);
+            if (order == 0) {
+                firstStarted.countDown();
+                try {
+                    releaseFirst.await(10, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            } else {
+                secondReceivedOn[0] = Thread.currentThread();
+            }
+            received.add(order);
+            done.countDown();
+        });
+
+        final PropertyBag first = new PropertyBag();
+        first.put(ORDER_KEY, 0);
+        LocalBroadcaster.INSTANCE.broadcast(LATENCY_CRITICAL_ALIAS, first);
+        Assert.assertTrue(firstStarted.await(10, TimeUnit.SECONDS));
+
+        // The first broadcast is being delivered, so this one must be queued behind it.
+        LocalBroadcaster.INSTANCE.markLatencyCritical(LATENCY_CRITICAL_ALIAS);
+        final PropertyBag second = new PropertyBag();
+        second.put(ORDER_KEY, 1);
+        LocalBroadcaster.INSTANCE.broadcast(LATENCY_CRITICAL_ALIAS, second);
+        Assert.assertTrue(received.isEmpty());
+
+        releaseFirst.countDown();
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(Arrays.asList(0, 1), received);
+        Assert.assertNotSame(caller, secondReceivedOn[0]);
+    }
+}
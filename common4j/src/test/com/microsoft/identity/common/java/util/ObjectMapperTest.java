@@ -75,6 +75,18 @@ public class ObjectMapperTest {
     }
 
 
+    @Test
+    public void test_SerializeExposedFieldsOnly() {
+        final TokenRequest tr = new TokenRequest();
+        tr.setClientId(CLIENT_ID);
+        tr.setClientSecret(CLIENT_SECRET);
+
+        final String json = ObjectMapper.serializeExposedFieldsOfObjectToJsonString(tr);
+
+        Assert.assertEquals("{\"client_id\":\"" + CLIENT_ID + "\"}", json);
+        Assert.assertEquals(json, ObjectMapper.serializeExposedFieldsOfObjectToJsonString(tr));
+    }
+
     @Test
     public void test_JsonToObject() {
         TokenRequest tr = ObjectMapper.deserializeJsonStringToObject(JSON_TOKEN_REQUEST, TokenRequest.class);
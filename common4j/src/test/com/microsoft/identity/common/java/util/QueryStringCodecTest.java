@@ -0,0 +1,208 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringTokenizer;
+
+public class QueryStringCodecTest {
+
+    private static final String[] COMPONENTS = {
+            "",
+            "plain",
+            "a+b",
+            "%20%2B%26%3D",
+            "caf%C3%A9",
+            "%E4%B8%AD%F0%9F%98%80",
+            "%e4%b8%ad",
+            "%+1",
+            "%-0",
+            "mixed%20value+with%2Fslash",
+            "trailing%C3",
+    };
+
+    private static final String[] MALFORMED = {
+            "%",
+            "%2",
+            "abc%2",
+            "%zz",
+            "%-1",
+            "%2G",
+    };
+
+    private static final String[] QUERIES = {
+            "code=abc&state=xyz&session_state=123",
+            "a=1&&b=2&",
+            "a=&b=2",
+            "a&b=2",
+            "a=b=c&d=e",
+            "a=b=&c=d",
+            "a==&b==c",
+            "=b&c=",
+            "=&==",
+            "redirect_uri=msauth%3A%2F%2Fcom.contoso%2Fabc&scope=openid+profile",
+            " a = b ;c=d",
+            "key=+&+=value",
+            "dup=1&dup=2",
+            "   ",
+    };
+
+    @Test
+    public void testDecodeMatchesUrlDecoder() throws UnsupportedEncodingException {
+        for (final String component : COMPONENTS) {
+            Assert.assertEquals(component, URLDecoder.decode(component, "UTF-8"), QueryStringCodec.decode(component));
+        }
+    }
+
+    @Test
+    public void testDecodeRejectsMalformedEscapes() {
+        for (final String component : MALFORMED) {
+            Assert.assertTrue(component, throwsIllegalArgument(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        URLDecoder.decode(component, "UTF-8");
+                    } catch (final UnsupportedEncodingException e) {
+                        throw new AssertionError(e);
+                    }
+                }
+            }));
+            Assert.assertTrue(component, throwsIllegalArgument(new Runnable() {
+                @Override
+                public void run() {
+                    QueryStringCodec.decode(component);
+                }
+            }));
+        }
+    }
+
+    @Test
+    public void testDecodeQueryStringMatchesLegacyParsing() throws UnsupportedEncodingException {
+        for (final String query : QUERIES) {
+            final Map<String, String> expected = legacyDeserializeQueryStringToMap(query);
+            final Map<String, String> actual = QueryStringCodec.decodeQueryString(query);
+
+            Assert.assertEquals(query, expected, actual);
+            Assert.assertEquals(query, new ArrayList<>(expected.keySet()), new ArrayList<>(actual.keySet()));
+        }
+
+        Assert.assertTrue(QueryStringCodec.decodeQueryString(null).isEmpty());
+    }
+
+    @Test
+    public void testDecodeFormDataMatchesLegacyParsing() throws UnsupportedEncodingException {
+        for (final String query : QUERIES) {
+            Assert.assertEquals(query, legacyUrlFormDecodeData(query, "&"), QueryStringCodec.decodeFormData(query, "&"));
+            Assert.assertEquals(query, legacyUrlFormDecodeData(query, "&;"), QueryStringCodec.decodeFormData(query, "&;"));
+        }
+    }
+
+    @Test
+    public void testDecodeQueryString() {
+        final Map<String, String> params =
+                ObjectMapper.deserializeQueryStringToMap("code=a%2Bb&state=x+y&empty=&bad=1=2");
+
+        Assert.assertEquals(2, params.size());
+        Assert.assertEquals("a+b", params.get("code"));
+        Assert.assertEquals("x y", params.get("state"));
+    }
+
+    private static boolean throwsIllegalArgument(final Runnable runnable) {
+        try {
+            runnable.run();
+            return false;
+        } catch (final IllegalArgumentException e) {
+            return true;
+        }
+    }
+
+    /**
+     * The implementation of {@link ObjectMapper#deserializeQueryStringToMap(String)} before the codec.
+     */
+    private static Map<String, String> legacyDeserializeQueryStringToMap(final String queryString)
+            throws UnsupportedEncodingException {
+        final Map<String, String> decodedUrlMap = new LinkedHashMap<>();
+
+        if (StringUtil.isNullOrEmpty(queryString)) {
+            return decodedUrlMap;
+        }
+
+        final StringTokenizer tokenizer = new StringTokenizer(queryString, "&");
+        while (tokenizer.hasMoreTokens()) {
+            final String[] elements = tokenizer.nextToken().split("=");
+
+            if (elements.length != 2) {
+                continue;
+            }
+
+            final String key = URLDecoder.decode(elements[0], "UTF-8");
+            final String value = URLDecoder.decode(elements[1], "UTF-8");
+
+            if (!StringUtil.isNullOrEmpty(key) && !StringUtil.isNullOrEmpty(value)) {
+                decodedUrlMap.put(key, value);
+            }
+        }
+
+        return decodedUrlMap;
+    }
+
+    /**
+     * The implementation of {@link UrlUtil#urlFormDecodeData(String, String)} before the codec.
+     */
+    private static Map<String, String> legacyUrlFormDecodeData(final String urlParameter, final String delimiter)
+            throws UnsupportedEncodingException {
+        final Map<String, String> result = new HashMap<>();
+
+        if (!StringUtil.isNullOrEmpty(urlParameter)) {
+            final StringTokenizer parameterTokenizer = new StringTokenizer(urlParameter, delimiter);
+
+            while (parameterTokenizer.hasMoreTokens()) {
+                final String[] elements = parameterTokenizer.nextToken().split("=", 2);
+                String key = null;
+                String value = null;
+
+                if (elements.length == 2) {
+                    key = StringUtil.urlFormDecode(elements[0].trim());
+                    value = StringUtil.urlFormDecode(elements[1].trim());
+                } else if (elements.length == 1) {
+                    key = StringUtil.urlFormDecode(elements[0].trim());
+                    value = "";
+                }
+
+                if (!StringUtil.isNullOrEmpty(key)) {
+                    result.put(key, value);
+                }
+            }
+        }
+
+        return result;
+    }
+}
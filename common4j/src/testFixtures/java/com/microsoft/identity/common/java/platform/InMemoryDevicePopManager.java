@@ -0,0 +1,239 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.java.platform;
+
+import com.microsoft.identity.common.java.crypto.IKeyStoreKeyManager;
+import com.microsoft.identity.common.java.crypto.PopKeyType;
+import com.microsoft.identity.common.java.crypto.SecureHardwareState;
+import com.microsoft.identity.common.java.exception.ClientException;
+import com.nimbusds.jose.JOSEException;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.security.InvalidAlgorithmParameterException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateException;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Arrays;
+import java.util.Date;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.NonNull;
+
+/**
+ * An {@link AbstractDevicePopManager} backed by an in-memory key, for exercising PoP code paths
+ * on the JVM where no platform KeyStore is available.
+ */
+public class InMemoryDevicePopManager extends AbstractDevicePopManager {
+
+    private final boolean mEcSupported;
+
+    public InMemoryDevicePopManager(@NonNull final String alias) throws KeyStoreException, CertificateException,
+            NoSuchAlgorithmException, IOException {
+        this(alias, true);
+    }
+
+    /**
+     * @param alias       The alias to hold the key under.
+     * @param ecSupported False to behave like a platform which cannot generate EC keys.
+     */
+    public InMemoryDevicePopManager(@NonNull final String alias, final boolean ecSupported) throws KeyStoreException,
+            CertificateException, NoSuchAlgorithmException, IOException {
+        super(new InMemoryKeyManager(alias));
+        mEcSupported = ecSupported;
+    }
+
+    @Override
+    public KeyPair generateNewRsaKeyPair(final int keySize) throws NoSuchAlgorithmException {
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance(KeyPairGeneratorAlgorithms.RSA);
+        generator.initialize(keySize);
+        final KeyPair keyPair = generator.generateKeyPair();
+        ((InMemoryKeyManager) mKeyManager).store(keyPair);
+        return keyPair;
+    }
+
+    @Override
+    public KeyPair generateNewEcKeyPair() throws InvalidAlgorithmParameterException, NoSuchAlgorithmException {
+        if (!mEcSupported) {
+            return null;
+        }
+
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance(PopKeyType.EC_P256.getKeyAlgorithm());
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        final KeyPair keyPair = generator.generateKeyPair();
+        ((InMemoryKeyManager) mKeyManager).store(keyPair);
+        return keyPair;
+    }
+
+    @Override
+    protected SecureHardwareState getSecureHardwareState(@NonNull final KeyPair kp) {
+        return SecureHardwareState.FALSE;
+    }
+
+    @Override
+    protected void performCleanupIfMintShrFails(@NonNull final Exception e) {
+        // Nothing to clean up, the key never becomes invalid.
+    }
+
+    private static final class InMemoryKeyManager implements IKeyStoreKeyManager<KeyStore.PrivateKeyEntry> {
+
+        private static final Charset UTF8 = Charset.forName("UTF-8");
+
+        private final String mKeyAlias;
+
+        private volatile KeyStore.PrivateKeyEntry mEntry;
+
+        private volatile Date mCreationDate;
+
+        InMemoryKeyManager(@NonNull final String keyAlias) {
+            mKeyAlias = keyAlias;
+        }
+
+        void store(@NonNull final KeyPair keyPair) {
+            mEntry = new KeyStore.PrivateKeyEntry(
+                    keyPair.getPrivate(),
+                    new Certificate[]{new PublicKeyCertificate(keyPair.getPublic())}
+            );
+            mCreationDate = new Date();
+        }
+
+        @Override
+        public boolean exists() {
+            return mEntry != null;
+        }
+
+        @Override
+        public boolean hasThumbprint(final byte[] thumbprint) {
+            try {
+                return Arrays.equals(thumbprint, getThumbprint());
+            } catch (final ClientException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public String getKeyAlias() {
+            return mKeyAlias;
+        }
+
+        @Override
+        public Date getCreationDate() {
+            return mCreationDate;
+        }
+
+        @Override
+        public boolean clear() {
+            mEntry = null;
+            mCreationDate = null;
+            return true;
+        }
+
+        @Override
+        public KeyStore.PrivateKeyEntry getEntry() {
+            return mEntry;
+        }
+
+        @Override
+        public void importKey(@NonNull final byte[] jwk, @NonNull final String algorithm) {
+            throw new UnsupportedOperationException("This is not currently supported");
+        }
+
+        @Override
+        public void storeAsymmetricKey(@NonNull final PrivateKey privateKey, @NonNull final Certificate[] certChain) {
+            mEntry = new KeyStore.PrivateKeyEntry(privateKey, certChain);
+            mCreationDate = new Date();
+        }
+
+        @Override
+        public byte[] getThumbprint() throws ClientException {
+            final KeyStore.PrivateKeyEntry entry = mEntry;
+            if (entry == null) {
+                throw new ClientException(ClientException.INVALID_KEY_MISSING);
+            }
+
+            try {
+                return AbstractKeyStoreKeyManager.getThumbprintForEntry(entry).getBytes(UTF8);
+            } catch (final JOSEException e) {
+                throw new ClientException(ClientException.THUMBPRINT_COMPUTATION_FAILURE, e.getMessage(), e);
+            }
+        }
+
+        @Override
+        @Nullable
+        public Certificate[] getCertificateChain() {
+            final KeyStore.PrivateKeyEntry entry = mEntry;
+            return entry == null ? null : entry.getCertificateChain();
+        }
+
+        @Override
+        public SecureHardwareState getSecureHardwareState() {
+            return SecureHardwareState.FALSE;
+        }
+    }
+
+    /**
+     * The minimal {@link Certificate} a {@link KeyStore.PrivateKeyEntry} needs to carry the
+     * public half of the key.
+     */
+    private static final class PublicKeyCertificate extends Certificate {
+
+        private final PublicKey mPublicKey;
+
+        PublicKeyCertificate(@NonNull final PublicKey publicKey) {
+            super("X.509");
+            mPublicKey = publicKey;
+        }
+
+        @Override
+        public byte[] getEncoded() {
+            return mPublicKey.getEncoded();
+        }
+
+        @Override
+        public void verify(final PublicKey key) {
+            throw new UnsupportedOperationException("This is not currently supported");
+        }
+
+        @Override
+        public void verify(final PublicKey key, final String sigProvider) {
+            throw new UnsupportedOperationException("This is not currently supported");
+        }
+
+        @Override
+        public String toString() {
+            return PublicKeyCertificate.class.getSimpleName();
+        }
+
+        @Override
+        public PublicKey getPublicKey() {
+            return mPublicKey;
+        }
+    }
+}